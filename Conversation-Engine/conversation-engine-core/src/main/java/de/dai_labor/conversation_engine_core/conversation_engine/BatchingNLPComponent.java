@@ -0,0 +1,305 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONObject;
+
+import de.dai_labor.conversation_engine_core.interfaces.IBatchNLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.INLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.INLPRequest;
+
+/**
+ * An {@link INLPComponent} that collects the requests of many
+ * {@link ConversationEngine} sessions and passes them on to an
+ * {@link IBatchNLPComponent} together.<br>
+ * <br>
+ * A batch is dispatched once it reached the maximum batch size or once the
+ * batch window elapsed since its first request arrived, whatever happens
+ * first. Each session only waits for the batch that contains its own request
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class BatchingNLPComponent implements INLPComponent {
+
+	private final IBatchNLPComponent batchNLPComponent;
+	private final int maximumBatchSize;
+	private final Executor delayedExecutor;
+	private final Executor executor;
+	private final AtomicLong numberOfBatches;
+	private final AtomicLong numberOfRequests;
+	private List<PendingRequest> pendingRequests;
+
+	/**
+	 * Creates a new BatchingNLPComponent object that dispatches the batches on
+	 * the {@link ForkJoinPool#commonPool() common pool}
+	 *
+	 * @param batchNLPComponent the {@link IBatchNLPComponent} to pass the batches
+	 *                          on to
+	 * @param maximumBatchSize  the maximum number of requests in a batch
+	 * @param batchWindow       the maximum duration a request waits for other
+	 *                          requests
+	 * @throws IllegalArgumentException if one of the arguments is null, the
+	 *                                  maximum batch size is not positive or the
+	 *                                  batch window is negative
+	 */
+	public BatchingNLPComponent(IBatchNLPComponent batchNLPComponent, int maximumBatchSize, Duration batchWindow)
+			throws IllegalArgumentException {
+		this(batchNLPComponent, maximumBatchSize, batchWindow, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a new BatchingNLPComponent object
+	 *
+	 * @param batchNLPComponent the {@link IBatchNLPComponent} to pass the batches
+	 *                          on to
+	 * @param maximumBatchSize  the maximum number of requests in a batch
+	 * @param batchWindow       the maximum duration a request waits for other
+	 *                          requests
+	 * @param executor          the executor to dispatch the batches on
+	 * @throws IllegalArgumentException if one of the arguments is null, the
+	 *                                  maximum batch size is not positive or the
+	 *                                  batch window is negative
+	 */
+	public BatchingNLPComponent(IBatchNLPComponent batchNLPComponent, int maximumBatchSize, Duration batchWindow,
+			Executor executor) throws IllegalArgumentException {
+		if (batchNLPComponent == null || batchWindow == null || executor == null) {
+			Logging.error("The NLPComponent, the batch window or the executor of the BatchingNLPComponent is null");
+			throw new IllegalArgumentException(
+					"The NLPComponent, the batch window or the executor of the BatchingNLPComponent is null");
+		}
+		if (maximumBatchSize <= 0 || batchWindow.isNegative()) {
+			Logging.error("The maximum batch size of the BatchingNLPComponent must be positive and its batch window "
+					+ "must not be negative");
+			throw new IllegalArgumentException("The maximum batch size of the BatchingNLPComponent must be positive "
+					+ "and its batch window must not be negative");
+		}
+		this.batchNLPComponent = batchNLPComponent;
+		this.maximumBatchSize = maximumBatchSize;
+		this.delayedExecutor = CompletableFuture.delayedExecutor(batchWindow.toNanos(), TimeUnit.NANOSECONDS,
+				executor);
+		this.executor = executor;
+		this.numberOfBatches = new AtomicLong();
+		this.numberOfRequests = new AtomicLong();
+		this.pendingRequests = new ArrayList<>();
+	}
+
+	@Override
+	public void addUsedEntities(List<String> entities) {
+		this.batchNLPComponent.addUsedEntities(entities);
+	}
+
+	@Override
+	public void addUsedIntents(List<String> intents) {
+		this.batchNLPComponent.addUsedIntents(intents);
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, String entityName, JSONObject contextObject) {
+		return join(this.understandInputAsync(input, entityName, contextObject));
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, JSONObject contextObject) {
+		return join(this.understandInputAsync(input, contextObject));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, String entityName,
+			JSONObject contextObject) {
+		return this.enqueue(new PendingRequest(input, entityName, ContextMutations.wrap(contextObject)));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+		return this.enqueue(new PendingRequest(input, null, ContextMutations.wrap(contextObject)));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, String entityName,
+			IContext context) {
+		return this.enqueue(new PendingRequest(input, entityName, context));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, IContext context) {
+		return this.enqueue(new PendingRequest(input, null, context));
+	}
+
+	/**
+	 * Returns the number of dispatched batches
+	 *
+	 * @return the number of dispatched batches
+	 */
+	public long getNumberOfBatches() {
+		return this.numberOfBatches.get();
+	}
+
+	/**
+	 * Returns the number of dispatched requests
+	 *
+	 * @return the number of dispatched requests
+	 */
+	public long getNumberOfRequests() {
+		return this.numberOfRequests.get();
+	}
+
+	/**
+	 * Adds the request to the current batch. Dispatches the batch if it is full
+	 * or schedules its dispatch if the request is its first one
+	 *
+	 * @param request the request to add
+	 * @return a stage that completes with the answer of the request
+	 */
+	private CompletionStage<INLPAnswer> enqueue(PendingRequest request) {
+		List<PendingRequest> batch;
+		synchronized (this) {
+			this.pendingRequests.add(request);
+			if (this.pendingRequests.size() == 1 && this.maximumBatchSize > 1) {
+				List<PendingRequest> scheduledBatch = this.pendingRequests;
+				this.delayedExecutor.execute(() -> this.dispatchIfPending(scheduledBatch));
+				return request.answer;
+			}
+			if (this.pendingRequests.size() < this.maximumBatchSize) {
+				return request.answer;
+			}
+			batch = this.takePendingRequests();
+		}
+		this.executor.execute(() -> this.dispatch(batch));
+		return request.answer;
+	}
+
+	/**
+	 * Dispatches the given batch, unless it was already dispatched because it was
+	 * full
+	 *
+	 * @param scheduledBatch the batch whose batch window elapsed
+	 */
+	private void dispatchIfPending(List<PendingRequest> scheduledBatch) {
+		synchronized (this) {
+			if (this.pendingRequests != scheduledBatch) {
+				return;
+			}
+			this.takePendingRequests();
+		}
+		this.dispatch(scheduledBatch);
+	}
+
+	/**
+	 * Returns the current batch and starts a new one
+	 *
+	 * @return the current batch
+	 */
+	private List<PendingRequest> takePendingRequests() {
+		List<PendingRequest> batch = this.pendingRequests;
+		this.pendingRequests = new ArrayList<>(Math.min(this.maximumBatchSize, 64));
+		return batch;
+	}
+
+	/**
+	 * Passes the batch on to the {@link IBatchNLPComponent} and completes its
+	 * requests with the returned answers
+	 *
+	 * @param batch the batch to dispatch
+	 */
+	private void dispatch(List<PendingRequest> batch) {
+		this.numberOfBatches.incrementAndGet();
+		this.numberOfRequests.addAndGet(batch.size());
+		List<INLPRequest> requests = new ArrayList<>(batch);
+		CompletionStage<List<INLPAnswer>> answers;
+		try {
+			answers = this.batchNLPComponent.understandInputsAsync(requests);
+		} catch (RuntimeException ex) {
+			answers = CompletableFuture.failedFuture(ex);
+		}
+		answers.whenComplete((answerList, ex) -> {
+			Throwable failure = ex;
+			if (failure == null && (answerList == null || answerList.size() != batch.size())) {
+				Logging.error("The IBatchNLPComponent returned {} answers for {} requests",
+						answerList == null ? null : answerList.size(), batch.size());
+				failure = new IllegalStateException("The IBatchNLPComponent returned the wrong number of answers");
+			}
+			for (int i = 0; i < batch.size(); i++) {
+				if (failure == null) {
+					batch.get(i).answer.complete(answerList.get(i));
+				} else {
+					batch.get(i).answer.completeExceptionally(failure);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Waits for the stage and rethrows the exception it failed with
+	 *
+	 * @param stage the stage to wait for
+	 * @return the result of the stage
+	 */
+	private static INLPAnswer join(CompletionStage<INLPAnswer> stage) {
+		try {
+			return stage.toCompletableFuture().join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * A request that waits for its batch to be dispatched. The context is only
+	 * requested as JSONObject, if the {@link IBatchNLPComponent} asks for the
+	 * context object
+	 */
+	private static final class PendingRequest implements INLPRequest {
+		private final String input;
+		private final String entityName;
+		private final IContext context;
+		private final CompletableFuture<INLPAnswer> answer;
+
+		/**
+		 * Creates a new PendingRequest object
+		 *
+		 * @param input      the input to be processed
+		 * @param entityName the entity name to be filled or null
+		 * @param context    the context of the request
+		 */
+		private PendingRequest(String input, String entityName, IContext context) {
+			this.input = input;
+			this.entityName = entityName;
+			this.context = context;
+			this.answer = new CompletableFuture<>();
+		}
+
+		@Override
+		public String getInput() {
+			return this.input;
+		}
+
+		@Override
+		public String getEntityName() {
+			return this.entityName;
+		}
+
+		@Override
+		public JSONObject getContextObject() {
+			return this.context == null ? null : this.context.asJSONObject();
+		}
+
+		@Override
+		public IContext getContext() {
+			return this.context;
+		}
+	}
+}
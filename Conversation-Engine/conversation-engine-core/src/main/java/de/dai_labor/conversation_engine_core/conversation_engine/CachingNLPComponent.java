@@ -0,0 +1,410 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.json.JSONObject;
+
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.INLPComponent;
+
+/**
+ * An {@link INLPComponent} that caches the answers of another
+ * {@link INLPComponent}.<br>
+ * <br>
+ * An answer is cached by the normalized input, the entity name and the values
+ * of the context entries the wrapped component reads. The wrapped component
+ * only receives a copy of these entries, the changes it makes to them are
+ * recorded and applied to the context object of every request that is served
+ * by the same cached answer. Therefore, the given context keys must contain
+ * every top-level entry the wrapped component reads or modifies and its
+ * answers must only depend on the input and these entries.<br>
+ * <br>
+ * Identical requests that arrive while the wrapped component is still
+ * processing the first one wait for its answer instead of calling the
+ * component again. The cache holds a limited number of answers, evicts the
+ * least recently used answer first and forgets answers after their time to
+ * live. Failed requests are not cached
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class CachingNLPComponent implements INLPComponent {
+
+	private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+	private final INLPComponent nlpComponent;
+	private final List<String> contextKeys;
+	private final long timeToLiveNanos;
+	private final Map<RequestKey, CachedAnswer> cache;
+	private final Map<RequestKey, CompletableFuture<CachedAnswer>> pendingRequests;
+	private final Set<String> usedEntities;
+	private final Set<String> usedIntents;
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+
+	/**
+	 * Creates a new CachingNLPComponent object
+	 *
+	 * @param nlpComponent the {@link INLPComponent} to cache the answers of
+	 * @param contextKeys  the keys of all top-level context entries the
+	 *                     {@link INLPComponent} reads or modifies
+	 * @param maximumSize  the maximum number of cached answers
+	 * @param timeToLive   the duration an answer is cached
+	 * @throws IllegalArgumentException if one of the arguments is null or the
+	 *                                  maximum size or time to live is not
+	 *                                  positive
+	 */
+	public CachingNLPComponent(INLPComponent nlpComponent, Collection<String> contextKeys, int maximumSize,
+			Duration timeToLive) throws IllegalArgumentException {
+		if (nlpComponent == null || contextKeys == null || timeToLive == null) {
+			Logging.error("The NLPComponent, the context keys or the time to live of the CachingNLPComponent is null");
+			throw new IllegalArgumentException(
+					"The NLPComponent, the context keys or the time to live of the CachingNLPComponent is null");
+		}
+		if (maximumSize <= 0 || timeToLive.isNegative() || timeToLive.isZero()) {
+			Logging.error("The maximum size and the time to live of the CachingNLPComponent must be positive");
+			throw new IllegalArgumentException(
+					"The maximum size and the time to live of the CachingNLPComponent must be positive");
+		}
+		this.nlpComponent = nlpComponent;
+		this.contextKeys = new ArrayList<>(contextKeys);
+		this.contextKeys.sort(null);
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<RequestKey, CachedAnswer> eldest) {
+				return this.size() > maximumSize;
+			}
+		};
+		this.pendingRequests = new ConcurrentHashMap<>();
+		this.usedEntities = ConcurrentHashMap.newKeySet();
+		this.usedIntents = ConcurrentHashMap.newKeySet();
+		this.hits = new AtomicLong();
+		this.misses = new AtomicLong();
+	}
+
+	/**
+	 * Passes the entities on to the wrapped {@link INLPComponent} and clears the
+	 * cache, if one of the entities was not used before
+	 */
+	@Override
+	public void addUsedEntities(List<String> entities) {
+		this.nlpComponent.addUsedEntities(entities);
+		if (entities != null && this.usedEntities.addAll(entities)) {
+			this.clear();
+		}
+	}
+
+	/**
+	 * Passes the intents on to the wrapped {@link INLPComponent} and clears the
+	 * cache, if one of the intents was not used before
+	 */
+	@Override
+	public void addUsedIntents(List<String> intents) {
+		this.nlpComponent.addUsedIntents(intents);
+		if (intents != null && this.usedIntents.addAll(intents)) {
+			this.clear();
+		}
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, String entityName, JSONObject contextObject) {
+		return join(this.understandInputAsync(input, entityName, contextObject));
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, JSONObject contextObject) {
+		return join(this.understandInputAsync(input, contextObject));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, String entityName,
+			JSONObject contextObject) {
+		return this.getAnswer(input, entityName, ContextMutations.wrap(contextObject));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+		return this.getAnswer(input, null, ContextMutations.wrap(contextObject));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, String entityName,
+			IContext context) {
+		return this.getAnswer(input, entityName, context);
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, IContext context) {
+		return this.getAnswer(input, null, context);
+	}
+
+	/**
+	 * Removes all cached answers
+	 */
+	public void clear() {
+		synchronized (this.cache) {
+			this.cache.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of requests that were answered without calling the
+	 * wrapped {@link INLPComponent}
+	 *
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Returns the number of requests that called the wrapped
+	 * {@link INLPComponent}
+	 *
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	/**
+	 * Returns the number of currently cached answers, including expired answers
+	 * that were not evicted yet
+	 *
+	 * @return the number of cached answers
+	 */
+	public int size() {
+		synchronized (this.cache) {
+			return this.cache.size();
+		}
+	}
+
+	/**
+	 * Returns the cached answer for the request or calls the wrapped
+	 * {@link INLPComponent}, unless an identical request is already pending
+	 *
+	 * @param input      the input to be processed
+	 * @param entityName the entity name to be filled or null for a normal request
+	 * @param context    the context of the request
+	 * @return a stage that completes with a new {@link INLPAnswer}, after the
+	 *         changes to the context were applied
+	 */
+	private CompletionStage<INLPAnswer> getAnswer(String input, String entityName, IContext context) {
+		if (input == null || context == null) {
+			return this.callNLPComponent(input, entityName, context);
+		}
+		JSONObject before = ContextMutations.project(context, this.contextKeys);
+		RequestKey key = new RequestKey(normalize(input), entityName, this.projectionKey(before));
+		CachedAnswer cachedAnswer = this.getCachedAnswer(key);
+		if (cachedAnswer != null) {
+			this.hits.incrementAndGet();
+			return CompletableFuture.completedFuture(cachedAnswer.applyTo(context));
+		}
+		CompletableFuture<CachedAnswer> pendingRequest = new CompletableFuture<>();
+		CompletableFuture<CachedAnswer> existingRequest = this.pendingRequests.putIfAbsent(key, pendingRequest);
+		if (existingRequest != null) {
+			this.hits.incrementAndGet();
+			return existingRequest.thenApply(answer -> answer.applyTo(context));
+		}
+		this.misses.incrementAndGet();
+		IContext projection = new ConversationContext((JSONObject) ContextMutations.deepCopy(before));
+		this.callNLPComponent(input, entityName, projection).whenComplete((answer, ex) -> {
+			this.pendingRequests.remove(key);
+			if (ex != null) {
+				pendingRequest.completeExceptionally(ex);
+				return;
+			}
+			try {
+				CachedAnswer newAnswer = new CachedAnswer(SimpleNLPAnswer.copyOf(answer),
+						ContextMutations.between(before, projection.asJSONObject()),
+						System.nanoTime() + this.timeToLiveNanos);
+				if (answer != null) {
+					synchronized (this.cache) {
+						this.cache.put(key, newAnswer);
+					}
+				}
+				pendingRequest.complete(newAnswer);
+			} catch (RuntimeException exception) {
+				pendingRequest.completeExceptionally(exception);
+			}
+		});
+		return pendingRequest.thenApply(answer -> answer.applyTo(context));
+	}
+
+	/**
+	 * Calls the wrapped {@link INLPComponent}
+	 *
+	 * @param input      the input to be processed
+	 * @param entityName the entity name to be filled or null for a normal request
+	 * @param context    the context to pass on
+	 * @return the stage of the wrapped {@link INLPComponent}
+	 */
+	private CompletionStage<INLPAnswer> callNLPComponent(String input, String entityName, IContext context) {
+		try {
+			if (entityName == null) {
+				return this.nlpComponent.understandInputWithContextAsync(input, context);
+			}
+			return this.nlpComponent.understandInputWithContextAsync(input, entityName, context);
+		} catch (RuntimeException ex) {
+			return CompletableFuture.failedFuture(ex);
+		}
+	}
+
+	/**
+	 * Returns the cached answer of the request and evicts it, if it expired
+	 *
+	 * @param key the key of the request
+	 * @return the cached answer or null if the answer is not cached
+	 */
+	private CachedAnswer getCachedAnswer(RequestKey key) {
+		synchronized (this.cache) {
+			CachedAnswer cachedAnswer = this.cache.get(key);
+			if (cachedAnswer != null && System.nanoTime() - cachedAnswer.expirationTime >= 0) {
+				this.cache.remove(key);
+				return null;
+			}
+			return cachedAnswer;
+		}
+	}
+
+	/**
+	 * Returns a String that is equal for all contexts whose relevant entries are
+	 * equal
+	 *
+	 * @param projection the relevant entries of the context of the request
+	 * @return the key of the relevant context entries
+	 */
+	private String projectionKey(JSONObject projection) {
+		StringBuilder projectionKey = new StringBuilder();
+		for (String contextKey : this.contextKeys) {
+			Object value = projection.opt(contextKey);
+			if (value != null) {
+				projectionKey.append(JSONObject.quote(contextKey)).append(':')
+						.append(SkillStateMachineValidator.canonicalString(value)).append(',');
+			}
+		}
+		return projectionKey.toString();
+	}
+
+	/**
+	 * Returns the normalized input, which ignores the case and surrounding or
+	 * repeated whitespaces
+	 *
+	 * @param input the input to normalize
+	 * @return the normalized input
+	 */
+	private static String normalize(String input) {
+		return WHITESPACES.matcher(input.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Waits for the stage and rethrows the exception it failed with
+	 *
+	 * @param stage the stage to wait for
+	 * @return the result of the stage
+	 */
+	private static INLPAnswer join(CompletionStage<INLPAnswer> stage) {
+		try {
+			return stage.toCompletableFuture().join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * The key of a cached answer
+	 */
+	private static final class RequestKey {
+		private final String input;
+		private final String entityName;
+		private final String projectionKey;
+		private final int hashCode;
+
+		/**
+		 * Creates a new RequestKey object
+		 *
+		 * @param input         the normalized input
+		 * @param entityName    the entity name or null for a normal request
+		 * @param projectionKey the key of the relevant context entries
+		 */
+		private RequestKey(String input, String entityName, String projectionKey) {
+			this.input = input;
+			this.entityName = entityName;
+			this.projectionKey = projectionKey;
+			this.hashCode = Objects.hash(input, entityName, projectionKey);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof RequestKey)) {
+				return false;
+			}
+			RequestKey other = (RequestKey) obj;
+			return this.input.equals(other.input) && Objects.equals(this.entityName, other.entityName)
+					&& this.projectionKey.equals(other.projectionKey);
+		}
+	}
+
+	/**
+	 * A cached answer and the changes the wrapped {@link INLPComponent} made to
+	 * the context object
+	 */
+	private static final class CachedAnswer {
+		private final SimpleNLPAnswer answer;
+		private final ContextMutations mutations;
+		private final long expirationTime;
+
+		/**
+		 * Creates a new CachedAnswer object
+		 *
+		 * @param answer         the answer of the wrapped {@link INLPComponent}
+		 * @param mutations      the changes made to the context object
+		 * @param expirationTime the {@link System#nanoTime()} the answer expires at
+		 */
+		private CachedAnswer(SimpleNLPAnswer answer, ContextMutations mutations, long expirationTime) {
+			this.answer = answer;
+			this.mutations = mutations;
+			this.expirationTime = expirationTime;
+		}
+
+		/**
+		 * Applies the changes to the given context
+		 *
+		 * @param context the context of the request
+		 * @return the answer of the request
+		 */
+		private INLPAnswer applyTo(IContext context) {
+			this.mutations.applyToContext(context);
+			return this.answer;
+		}
+	}
+}
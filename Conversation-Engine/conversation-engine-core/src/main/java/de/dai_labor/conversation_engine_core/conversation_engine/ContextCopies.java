@@ -0,0 +1,49 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
+
+/**
+ * The copies of a context, that the concurrent calls of a request process.
+ * Each call processes its own copy, so that the calls do not see the changes
+ * of each other, and only the changes of the call that answered the request
+ * are applied to the context. The context itself must not be changed while the
+ * request is pending, it is the state all copies are compared with
+ *
+ * @author Marcel Engelmann
+ *
+ */
+final class ContextCopies {
+	private final IContext context;
+
+	/**
+	 * Creates a new ContextCopies object
+	 *
+	 * @param context the context of the request or null
+	 */
+	ContextCopies(IContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Returns a new deep copy of the context for a call
+	 *
+	 * @return the copy or null if the request has no context
+	 */
+	IContext newCopy() {
+		if (this.context == null) {
+			return null;
+		}
+		return new ConversationContext(ContextMutations.copy(this.context));
+	}
+
+	/**
+	 * Applies the changes a call made to its copy to the context
+	 *
+	 * @param copy the copy the call processed
+	 */
+	void applyChangesOf(IContext copy) {
+		if (this.context != null) {
+			ContextMutations.between(this.context, copy.asJSONObject()).applyToContext(this.context);
+		}
+	}
+}
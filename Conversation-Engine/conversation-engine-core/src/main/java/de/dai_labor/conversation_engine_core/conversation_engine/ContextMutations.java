@@ -0,0 +1,284 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
+
+/**
+ * The changes of the top-level entries of a context object, e.g. made by an
+ * {@link de.dai_labor.conversation_engine_core.interfaces.INLPComponent
+ * INLPComponent} while it processed an input. The changes can be applied to
+ * any number of other context objects and never share a mutable value with
+ * them
+ *
+ * @author Marcel Engelmann
+ *
+ */
+final class ContextMutations {
+	private final Map<String, Object> changedEntries;
+	private final Set<String> removedKeys;
+
+	/**
+	 * Creates a new ContextMutations object
+	 *
+	 * @param changedEntries the new values of the added or changed entries
+	 * @param removedKeys    the keys of the removed entries
+	 */
+	private ContextMutations(Map<String, Object> changedEntries, Set<String> removedKeys) {
+		this.changedEntries = changedEntries;
+		this.removedKeys = removedKeys;
+	}
+
+	/**
+	 * Returns the changes that turn the context object before into the context
+	 * object after
+	 *
+	 * @param before the context object before the changes
+	 * @param after  the context object after the changes
+	 * @return the changes between both context objects
+	 */
+	static ContextMutations between(JSONObject before, JSONObject after) {
+		return between(before.keySet(), before::opt, after);
+	}
+
+	/**
+	 * Returns the changes that turn the context before into the context object
+	 * after. The entries of a {@link ConversationContext} are compared without
+	 * copying its shared entries or marking its entries as changed
+	 *
+	 * @param before the context before the changes
+	 * @param after  the context object after the changes
+	 * @return the changes between the context and the context object
+	 */
+	static ContextMutations between(IContext before, JSONObject after) {
+		if (before instanceof ConversationContext) {
+			ConversationContext context = (ConversationContext) before;
+			return between(context.keys(), context::getEntry, after);
+		}
+		return between(before.asJSONObject(), after);
+	}
+
+	/**
+	 * Returns the changes that turn the entries before into the context object
+	 * after
+	 *
+	 * @param beforeKeys the keys of the entries before the changes
+	 * @param entries    returns the value of an entry before the changes or null
+	 * @param after      the context object after the changes
+	 * @return the changes between the entries and the context object
+	 */
+	private static ContextMutations between(Set<String> beforeKeys, Function<String, Object> entries,
+			JSONObject after) {
+		Map<String, Object> changedEntries = new HashMap<>();
+		for (String key : after.keySet()) {
+			Object value = after.get(key);
+			Object beforeValue = entries.apply(key);
+			if (beforeValue == null || !similar(beforeValue, value)) {
+				changedEntries.put(key, deepCopy(value));
+			}
+		}
+		Set<String> removedKeys = new HashSet<>();
+		for (String key : beforeKeys) {
+			if (!after.has(key)) {
+				removedKeys.add(key);
+			}
+		}
+		if (changedEntries.isEmpty() && removedKeys.isEmpty()) {
+			return new ContextMutations(Collections.emptyMap(), Collections.emptySet());
+		}
+		return new ContextMutations(changedEntries, removedKeys);
+	}
+
+	/**
+	 * Returns a new context object with a deep copy of the given entries of the
+	 * context object. Missing entries are skipped
+	 *
+	 * @param contextObject the context object to project
+	 * @param keys          the keys of the entries to copy
+	 * @return the projected context object
+	 */
+	static JSONObject project(JSONObject contextObject, Collection<String> keys) {
+		JSONObject projection = new JSONObject();
+		for (String key : keys) {
+			Object value = contextObject.opt(key);
+			if (value != null) {
+				projection.put(key, deepCopy(value));
+			}
+		}
+		return projection;
+	}
+
+	/**
+	 * Returns a new context object with a deep copy of the given top-level
+	 * entries of the context. Missing entries are skipped
+	 *
+	 * @param context the context to project
+	 * @param keys    the keys of the entries to copy
+	 * @return the projected context object
+	 */
+	static JSONObject project(IContext context, Collection<String> keys) {
+		if (context instanceof ConversationContext) {
+			// reads the entries directly, so that shared entries are not copied into the
+			// context and the entries are not marked as changed
+			return ((ConversationContext) context).project(keys);
+		}
+		return project(context.asJSONObject(), keys);
+	}
+
+	/**
+	 * Returns a new context object with a deep copy of all top-level entries of the
+	 * context
+	 *
+	 * @param context the context to copy
+	 * @return the copied context object
+	 */
+	static JSONObject copy(IContext context) {
+		if (context instanceof ConversationContext) {
+			ConversationContext conversationContext = (ConversationContext) context;
+			return conversationContext.project(conversationContext.keys());
+		}
+		return (JSONObject) deepCopy(context.asJSONObject());
+	}
+
+	/**
+	 * Returns a context that wraps the given context object
+	 *
+	 * @param contextObject the context object to wrap or null
+	 * @return the context or null if the context object is null
+	 */
+	static IContext wrap(JSONObject contextObject) {
+		return contextObject == null ? null : new ConversationContext(contextObject);
+	}
+
+	/**
+	 * Calls a component with a projection of the context and applies the changes
+	 * the component made to the projection to the context, once the returned
+	 * stage completed. Changes made after the stage completed are lost
+	 *
+	 * @param <T>     the type of the component's answer
+	 * @param context the context to project
+	 * @param keys    the keys of the entries the component receives or null to
+	 *                pass the whole context
+	 * @param call    the call of the component
+	 * @return the stage returned by the component, that completes after the
+	 *         changes were applied
+	 */
+	static <T> CompletionStage<T> withProjection(IContext context, Collection<String> keys,
+			Function<IContext, CompletionStage<T>> call) {
+		if (keys == null || context == null) {
+			return call.apply(context);
+		}
+		JSONObject before = project(context, keys);
+		IContext projection = new ConversationContext((JSONObject) deepCopy(before));
+		return call.apply(projection).thenApply(answer -> {
+			between(before, projection.asJSONObject()).applyToContext(context);
+			return answer;
+		});
+	}
+
+	/**
+	 * Applies the changes to the given context object
+	 *
+	 * @param contextObject the context object to change
+	 */
+	void applyTo(JSONObject contextObject) {
+		for (Map.Entry<String, Object> entry : this.changedEntries.entrySet()) {
+			contextObject.put(entry.getKey(), deepCopy(entry.getValue()));
+		}
+		for (String key : this.removedKeys) {
+			contextObject.remove(key);
+		}
+	}
+
+	/**
+	 * Applies the changes to the given context
+	 *
+	 * @param context the context to change
+	 */
+	void applyTo(ConversationContext context) {
+		for (Map.Entry<String, Object> entry : this.changedEntries.entrySet()) {
+			context.putEntry(entry.getKey(), deepCopy(entry.getValue()));
+		}
+		for (String key : this.removedKeys) {
+			context.removeEntry(key);
+		}
+	}
+
+	/**
+	 * Applies the changes to the given context. A {@link ConversationContext} is
+	 * changed without requesting it as JSONObject
+	 *
+	 * @param context the context to change
+	 */
+	void applyToContext(IContext context) {
+		if (context instanceof ConversationContext) {
+			this.applyTo((ConversationContext) context);
+		} else {
+			this.applyTo(context.asJSONObject());
+		}
+	}
+
+	/**
+	 * Returns whether no entry was changed
+	 *
+	 * @return true if no entry was changed
+	 */
+	boolean isEmpty() {
+		return this.changedEntries.isEmpty() && this.removedKeys.isEmpty();
+	}
+
+	/**
+	 * Returns a deep copy of a JSON value. Immutable values are returned as they
+	 * are
+	 *
+	 * @param value the JSON value to copy
+	 * @return the copy of the JSON value
+	 */
+	static Object deepCopy(Object value) {
+		if (value instanceof JSONObject) {
+			JSONObject object = (JSONObject) value;
+			JSONObject copy = new JSONObject();
+			for (String key : object.keySet()) {
+				copy.put(key, deepCopy(object.get(key)));
+			}
+			return copy;
+		}
+		if (value instanceof JSONArray) {
+			JSONArray array = (JSONArray) value;
+			JSONArray copy = new JSONArray();
+			for (Object item : array) {
+				copy.put(deepCopy(item));
+			}
+			return copy;
+		}
+		return value;
+	}
+
+	/**
+	 * Checks whether two JSON values are equal
+	 *
+	 * @param first  the first JSON value
+	 * @param second the second JSON value
+	 * @return true if both values are equal
+	 */
+	static boolean similar(Object first, Object second) {
+		if (first instanceof JSONObject) {
+			return ((JSONObject) first).similar(second);
+		}
+		if (first instanceof JSONArray) {
+			return ((JSONArray) first).similar(second);
+		}
+		return Objects.equals(first, second);
+	}
+}
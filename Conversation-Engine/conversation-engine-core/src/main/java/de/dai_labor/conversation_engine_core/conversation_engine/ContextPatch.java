@@ -0,0 +1,264 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Creates and applies the changes of a context object as an ordered list of
+ * JSON Patch (RFC 6902) operations, e.g.
+ * <code>[{"op": "add", "path": "/weatherLocations/-", "value": {...}}]</code>.
+ * <br>
+ * <br>
+ * Nested objects are compared entry by entry, so that a changed entry of a
+ * large object does not repeat the whole object. Arrays that did not shrink
+ * are compared item by item and their new items are added with the
+ * <code>-</code> index, a shrunk array is replaced as a whole. The created
+ * patches only use the operations <code>add</code>, <code>replace</code> and
+ * <code>remove</code>
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public final class ContextPatch {
+	private static final String OPERATION = "op";
+	private static final String PATH = "path";
+	private static final String VALUE = "value";
+	private static final String ADD = "add";
+	private static final String REPLACE = "replace";
+	private static final String REMOVE = "remove";
+	private static final String APPEND = "-";
+
+	private ContextPatch() {
+		throw new IllegalStateException("Static class");
+	}
+
+	/**
+	 * Returns the operations that turn the context object before into the
+	 * context object after. The values of the operations are copies, that do not
+	 * share a mutable value with the context objects
+	 *
+	 * @param before the context object before the changes
+	 * @param after  the context object after the changes
+	 * @return the JSON Patch operations
+	 */
+	public static JSONArray diff(JSONObject before, JSONObject after) {
+		JSONArray operations = new JSONArray();
+		diff(before, after, "", operations);
+		return operations;
+	}
+
+	/**
+	 * Applies JSON Patch operations to a context object. Supported are the
+	 * operations <code>add</code>, <code>replace</code> and <code>remove</code>
+	 *
+	 * @param contextObject the context object to change
+	 * @param operations    the JSON Patch operations to apply in their order
+	 * @throws IllegalArgumentException if an operation is not supported or its
+	 *                                  path does not exist
+	 */
+	public static void apply(JSONObject contextObject, JSONArray operations) throws IllegalArgumentException {
+		for (int i = 0; i < operations.length(); i++) {
+			JSONObject operation = operations.optJSONObject(i);
+			if (operation == null || !operation.has(PATH)) {
+				throw invalid("The operation " + i + " of the patch has no path");
+			}
+			apply(contextObject, operation.optString(OPERATION), operation.getString(PATH), operation.opt(VALUE));
+		}
+	}
+
+	/**
+	 * Adds the operations that turn an object into another object
+	 *
+	 * @param before     the object before the changes
+	 * @param after      the object after the changes
+	 * @param path       the JSON Pointer of the objects
+	 * @param operations the list to add the operations to
+	 */
+	private static void diff(JSONObject before, JSONObject after, String path, JSONArray operations) {
+		for (String key : after.keySet()) {
+			String entryPath = path + '/' + escape(key);
+			Object newValue = after.get(key);
+			if (!before.has(key)) {
+				operations.put(operation(ADD, entryPath, newValue));
+				continue;
+			}
+			Object oldValue = before.get(key);
+			diffValue(oldValue, newValue, entryPath, operations);
+		}
+		for (String key : before.keySet()) {
+			if (!after.has(key)) {
+				operations.put(new JSONObject().put(OPERATION, REMOVE).put(PATH, path + '/' + escape(key)));
+			}
+		}
+	}
+
+	/**
+	 * Adds the operations that turn a value into another value
+	 *
+	 * @param oldValue   the value before the changes
+	 * @param newValue   the value after the changes
+	 * @param path       the JSON Pointer of the values
+	 * @param operations the list to add the operations to
+	 */
+	private static void diffValue(Object oldValue, Object newValue, String path, JSONArray operations) {
+		if (ContextMutations.similar(oldValue, newValue)) {
+			return;
+		}
+		if (oldValue instanceof JSONObject && newValue instanceof JSONObject) {
+			diff((JSONObject) oldValue, (JSONObject) newValue, path, operations);
+		} else if (oldValue instanceof JSONArray && newValue instanceof JSONArray
+				&& ((JSONArray) newValue).length() >= ((JSONArray) oldValue).length()) {
+			JSONArray oldArray = (JSONArray) oldValue;
+			JSONArray newArray = (JSONArray) newValue;
+			for (int i = 0; i < oldArray.length(); i++) {
+				diffValue(oldArray.get(i), newArray.get(i), path + '/' + i, operations);
+			}
+			for (int i = oldArray.length(); i < newArray.length(); i++) {
+				operations.put(operation(ADD, path + '/' + APPEND, newArray.get(i)));
+			}
+		} else {
+			operations.put(operation(REPLACE, path, newValue));
+		}
+	}
+
+	/**
+	 * Creates a new operation with a copy of the value
+	 *
+	 * @param type  the type of the operation
+	 * @param path  the JSON Pointer of the changed entry
+	 * @param value the new value
+	 * @return the new operation
+	 */
+	private static JSONObject operation(String type, String path, Object value) {
+		return new JSONObject().put(OPERATION, type).put(PATH, path).put(VALUE, ContextMutations.deepCopy(value));
+	}
+
+	/**
+	 * Applies a single operation
+	 *
+	 * @param contextObject the context object to change
+	 * @param type          the type of the operation
+	 * @param path          the JSON Pointer of the changed entry
+	 * @param value         the value of the operation
+	 */
+	private static void apply(JSONObject contextObject, String type, String path, Object value) {
+		if (!path.startsWith("/")) {
+			throw invalid("The path " + path + " is no JSON Pointer");
+		}
+		String[] segments = path.substring(1).split("/", -1);
+		Object parent = contextObject;
+		for (int i = 0; i < segments.length - 1; i++) {
+			parent = child(parent, unescape(segments[i]), path);
+		}
+		String key = unescape(segments[segments.length - 1]);
+		Object copy = ContextMutations.deepCopy(value);
+		if (parent instanceof JSONObject) {
+			JSONObject object = (JSONObject) parent;
+			if (REMOVE.equals(type) || REPLACE.equals(type)) {
+				if (!object.has(key)) {
+					throw invalid("The path " + path + " does not exist");
+				}
+			}
+			if (REMOVE.equals(type)) {
+				object.remove(key);
+			} else if (ADD.equals(type) || REPLACE.equals(type)) {
+				object.put(key, copy);
+			} else {
+				throw invalid("The operation " + type + " is not supported");
+			}
+			return;
+		}
+		JSONArray array = (JSONArray) parent;
+		if (ADD.equals(type) && APPEND.equals(key)) {
+			array.put(copy);
+			return;
+		}
+		int index = index(array, key, path);
+		if (REMOVE.equals(type)) {
+			array.remove(index);
+		} else if (REPLACE.equals(type)) {
+			array.put(index, copy);
+		} else {
+			throw invalid("The operation " + type + " at the path " + path + " is not supported");
+		}
+	}
+
+	/**
+	 * Returns the child of an object or array
+	 *
+	 * @param parent the object or array
+	 * @param key    the key or index of the child
+	 * @param path   the whole path for the error message
+	 * @return the child object or array
+	 */
+	private static Object child(Object parent, String key, String path) {
+		Object child;
+		if (parent instanceof JSONObject) {
+			child = ((JSONObject) parent).opt(key);
+		} else {
+			JSONArray array = (JSONArray) parent;
+			child = array.opt(index(array, key, path));
+		}
+		if (!(child instanceof JSONObject) && !(child instanceof JSONArray)) {
+			throw invalid("The path " + path + " does not exist");
+		}
+		return child;
+	}
+
+	/**
+	 * Parses the index of an array item
+	 *
+	 * @param array the array
+	 * @param key   the index as String
+	 * @param path  the whole path for the error message
+	 * @return the index
+	 */
+	private static int index(JSONArray array, String key, String path) {
+		try {
+			int index = Integer.parseInt(key);
+			if (index >= 0 && index < array.length()) {
+				return index;
+			}
+		} catch (NumberFormatException ex) {
+			// handled below
+		}
+		throw invalid("The path " + path + " does not exist");
+	}
+
+	/**
+	 * Escapes a key for a JSON Pointer
+	 *
+	 * @param key the key to escape
+	 * @return the escaped key
+	 */
+	private static String escape(String key) {
+		if (key.indexOf('~') < 0 && key.indexOf('/') < 0) {
+			return key;
+		}
+		return key.replace("~", "~0").replace("/", "~1");
+	}
+
+	/**
+	 * Unescapes a segment of a JSON Pointer
+	 *
+	 * @param segment the segment to unescape
+	 * @return the key
+	 */
+	private static String unescape(String segment) {
+		if (segment.indexOf('~') < 0) {
+			return segment;
+		}
+		return segment.replace("~1", "/").replace("~0", "~");
+	}
+
+	/**
+	 * Logs and returns an exception for an invalid patch
+	 *
+	 * @param message the message of the exception
+	 * @return the new exception
+	 */
+	private static IllegalArgumentException invalid(String message) {
+		Logging.error(message);
+		return new IllegalArgumentException(message);
+	}
+}
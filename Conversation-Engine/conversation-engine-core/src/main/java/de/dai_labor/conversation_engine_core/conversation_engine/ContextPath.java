@@ -0,0 +1,162 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
+
+/**
+ * A precompiled path to an entry of an {@link IContext}, e.g.
+ * <code>recipeSearch.ingredients</code>. The path is split into its segments
+ * only once, so that accessing an entry does not parse the path again.<br>
+ * <br>
+ * Each distinct top-level key gets a global slot, that {@link ConversationContext}
+ * uses to store primitive values without boxing them. Paths should therefore be
+ * compiled once, e.g. as constants of a skill, and not for each access
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public final class ContextPath {
+	private static final Map<String, Integer> SLOTS = new ConcurrentHashMap<>();
+	private static final List<String> KEYS = new ArrayList<>();
+
+	private final String path;
+	private final String[] segments;
+	private final int slot;
+
+	/**
+	 * Creates a new ContextPath object
+	 *
+	 * @param path     the path as String
+	 * @param segments the segments of the path
+	 */
+	private ContextPath(String path, String[] segments) {
+		this.path = path;
+		this.segments = segments;
+		this.slot = SLOTS.computeIfAbsent(segments[0], ContextPath::newSlot);
+	}
+
+	/**
+	 * Compiles a path, whose segments are separated by dots
+	 *
+	 * @param path the path to compile, e.g. <code>recipeSearch.ingredients</code>
+	 * @return the compiled path
+	 * @throws IllegalArgumentException if the path is null or contains an empty
+	 *                                  segment
+	 */
+	public static ContextPath compile(String path) throws IllegalArgumentException {
+		if (path == null || path.isBlank()) {
+			Logging.error("The context path is null or blank");
+			throw new IllegalArgumentException("The context path is null or blank");
+		}
+		String[] segments = path.split("\\.", -1);
+		for (String segment : segments) {
+			if (segment.isEmpty()) {
+				Logging.error("The context path {} contains an empty segment", path);
+				throw new IllegalArgumentException("The context path " + path + " contains an empty segment");
+			}
+		}
+		return new ContextPath(path, segments);
+	}
+
+	/**
+	 * Returns the number of segments of the path
+	 *
+	 * @return the number of segments of the path
+	 */
+	public int length() {
+		return this.segments.length;
+	}
+
+	/**
+	 * Returns a segment of the path
+	 *
+	 * @param index the index of the segment
+	 * @return the segment of the path
+	 */
+	public String getSegment(int index) {
+		return this.segments[index];
+	}
+
+	/**
+	 * Returns the last segment of the path, i.e. the key of the entry within its
+	 * parent object
+	 *
+	 * @return the last segment of the path
+	 */
+	public String getKey() {
+		return this.segments[this.segments.length - 1];
+	}
+
+	/**
+	 * Returns true if the path points to a top-level entry
+	 *
+	 * @return true if the path consists of a single segment
+	 */
+	public boolean isTopLevel() {
+		return this.segments.length == 1;
+	}
+
+	/**
+	 * Returns the global slot of the path's top-level key
+	 *
+	 * @return the slot of the top-level key
+	 */
+	int getSlot() {
+		return this.slot;
+	}
+
+	/**
+	 * Returns the top-level key of a slot
+	 *
+	 * @param slot the slot
+	 * @return the top-level key of the slot
+	 */
+	static String getSlotKey(int slot) {
+		synchronized (KEYS) {
+			return KEYS.get(slot);
+		}
+	}
+
+	/**
+	 * Returns the slot of a top-level key or -1 if no path with the key was
+	 * compiled yet
+	 *
+	 * @param key the top-level key
+	 * @return the slot of the key or -1
+	 */
+	static int getSlot(String key) {
+		return SLOTS.getOrDefault(key, -1);
+	}
+
+	/**
+	 * Assigns a new slot to a top-level key
+	 *
+	 * @param key the top-level key
+	 * @return the new slot
+	 */
+	private static Integer newSlot(String key) {
+		synchronized (KEYS) {
+			KEYS.add(key);
+			return KEYS.size() - 1;
+		}
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof ContextPath && ((ContextPath) other).path.equals(this.path);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.path.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.path;
+	}
+}
@@ -0,0 +1,920 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
+
+/**
+ * The default {@link IContext}, that stores the entries of a conversation in a
+ * {@link JSONObject}.<br>
+ * <br>
+ * A context created from a JSON-String parses the String only once it is
+ * accessed for the first time. Top-level primitive values written with the
+ * typed put methods are stored without boxing in an array, that is indexed by
+ * the slot of their {@link ContextPath} and grows up to the highest slot the
+ * context uses.<br>
+ * <br>
+ * The context {@link #asJSONObject() as JSONObject} is a view, that reads and
+ * writes the top-level entries of the context itself. A primitive value is
+ * boxed when it is read through the view. A top-level object or array that is
+ * read through the view counts as changed, because the caller may change
+ * it.<br>
+ * <br>
+ * A ConversationContext can also wrap an existing {@link JSONObject}, e.g. to
+ * pass the context object of a component that still works with
+ * {@link JSONObject JSONObjects} to a component that works with
+ * {@link IContext}.<br>
+ * <br>
+ * A context can be layered over a {@link SharedContext}, that is shared by
+ * many sessions. Entries that are not stored in the context itself are looked
+ * up in the {@link SharedContext}. A shared top-level entry is copied into the
+ * context before one of its nested entries is changed or before an object or
+ * array of the entry is returned, also through the view, because the caller
+ * may change it. A removed shared entry is hidden by a <code>null</code> entry.
+ * Only the entries of the context itself are written by
+ * {@link #writeTo(Writer)} and {@link #toString()}.<br>
+ * <br>
+ * The changes made to the context can be tracked and taken as
+ * {@link ContextPatch JSON Patch}. Each changed top-level entry is copied before
+ * its first change. The context is not thread-safe
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public final class ConversationContext implements IContext {
+	private static final byte NOVALUE = 0;
+	private static final byte INTVALUE = 1;
+	private static final byte LONGVALUE = 2;
+	private static final byte DOUBLEVALUE = 3;
+	private static final byte BOOLEANVALUE = 4;
+	private static final long[] NOPRIMITIVES = new long[0];
+	private static final byte[] NOTYPES = new byte[0];
+	// marks a tracked top-level entry that did not exist before its change
+	private static final Object ABSENT = new Object();
+
+	// the unparsed context, null once the context was parsed
+	private String json;
+	private JSONObject values;
+	private long[] primitives;
+	private byte[] types;
+	private int numberOfPrimitives;
+	private SharedContext sharedContext;
+	// the values of the changed top-level entries before their first change,
+	// null if the changes are not tracked
+	private Map<String, Object> originalEntries;
+	// the keys of the top-level entries that were changed, null if they are not
+	// collected
+	private Set<String> changedKeys;
+	// the context as JSONObject, created on the first request
+	private JSONObject view;
+
+	/**
+	 * Creates a new empty ConversationContext object
+	 */
+	public ConversationContext() {
+		this(new JSONObject());
+	}
+
+	/**
+	 * Creates a new ConversationContext object, that parses the given JSON-String
+	 * once it is accessed for the first time
+	 *
+	 * @param json the context as JSON-String
+	 * @throws IllegalArgumentException if the JSON-String is null
+	 */
+	public ConversationContext(String json) throws IllegalArgumentException {
+		if (json == null) {
+			Logging.error("The JSON-String of the context is null");
+			throw new IllegalArgumentException("The JSON-String of the context is null");
+		}
+		this.json = json;
+		this.primitives = NOPRIMITIVES;
+		this.types = NOTYPES;
+	}
+
+	/**
+	 * Creates a new ConversationContext object, that wraps the given
+	 * {@link JSONObject}. Changes to the context change the {@link JSONObject}
+	 *
+	 * @param values the {@link JSONObject} to wrap
+	 * @throws IllegalArgumentException if the {@link JSONObject} is null
+	 */
+	public ConversationContext(JSONObject values) throws IllegalArgumentException {
+		if (values == null) {
+			Logging.error("The JSONObject of the context is null");
+			throw new IllegalArgumentException("The JSONObject of the context is null");
+		}
+		this.values = values;
+		this.primitives = NOPRIMITIVES;
+		this.types = NOTYPES;
+	}
+
+	@Override
+	public boolean has(ContextPath path) {
+		if (this.typeOf(path) != NOVALUE) {
+			return true;
+		}
+		JSONObject parent = this.getParent(path, false);
+		return parent != null && parent.has(path.getKey()) && !this.isHidden(path, parent.opt(path.getKey()));
+	}
+
+	@Override
+	public Object get(ContextPath path) {
+		if (this.typeOf(path) != NOVALUE) {
+			return this.box(path.getSlot());
+		}
+		JSONObject parent = this.getParent(path, false);
+		Object value = parent == null ? null : parent.opt(path.getKey());
+		if (this.isHidden(path, value)) {
+			return null;
+		}
+		if (value instanceof JSONObject || value instanceof JSONArray) {
+			// the caller may change the returned object or array, so a shared entry is
+			// copied into the context first
+			String key = path.getSegment(0);
+			this.beforeChange(key);
+			if (this.getLayer(key) != this.getValues()) {
+				this.copyOnWrite(key);
+				value = this.getParent(path, false).opt(path.getKey());
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public JSONObject getObject(ContextPath path) {
+		Object value = this.get(path);
+		return value instanceof JSONObject ? (JSONObject) value : null;
+	}
+
+	@Override
+	public String getString(ContextPath path) {
+		Object value = this.get(path);
+		return value instanceof String ? (String) value : null;
+	}
+
+	@Override
+	public int getInt(ContextPath path, int defaultValue) {
+		switch (this.typeOf(path)) {
+		case INTVALUE:
+		case LONGVALUE:
+			return (int) this.primitives[path.getSlot()];
+		case DOUBLEVALUE:
+			return (int) Double.longBitsToDouble(this.primitives[path.getSlot()]);
+		case BOOLEANVALUE:
+			return defaultValue;
+		default:
+			JSONObject parent = this.getParent(path, false);
+			return parent == null ? defaultValue : parent.optInt(path.getKey(), defaultValue);
+		}
+	}
+
+	@Override
+	public long getLong(ContextPath path, long defaultValue) {
+		switch (this.typeOf(path)) {
+		case INTVALUE:
+		case LONGVALUE:
+			return this.primitives[path.getSlot()];
+		case DOUBLEVALUE:
+			return (long) Double.longBitsToDouble(this.primitives[path.getSlot()]);
+		case BOOLEANVALUE:
+			return defaultValue;
+		default:
+			JSONObject parent = this.getParent(path, false);
+			return parent == null ? defaultValue : parent.optLong(path.getKey(), defaultValue);
+		}
+	}
+
+	@Override
+	public double getDouble(ContextPath path, double defaultValue) {
+		switch (this.typeOf(path)) {
+		case INTVALUE:
+		case LONGVALUE:
+			return this.primitives[path.getSlot()];
+		case DOUBLEVALUE:
+			return Double.longBitsToDouble(this.primitives[path.getSlot()]);
+		case BOOLEANVALUE:
+			return defaultValue;
+		default:
+			JSONObject parent = this.getParent(path, false);
+			return parent == null ? defaultValue : parent.optDouble(path.getKey(), defaultValue);
+		}
+	}
+
+	@Override
+	public boolean getBoolean(ContextPath path, boolean defaultValue) {
+		switch (this.typeOf(path)) {
+		case BOOLEANVALUE:
+			return this.primitives[path.getSlot()] != 0;
+		case NOVALUE:
+			JSONObject parent = this.getParent(path, false);
+			return parent == null ? defaultValue : parent.optBoolean(path.getKey(), defaultValue);
+		default:
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public void put(ContextPath path, Object value) {
+		if (value == null) {
+			this.remove(path);
+			return;
+		}
+		this.beforeChange(path.getSegment(0));
+		this.clearSlot(path.getSlot());
+		if (!path.isTopLevel()) {
+			this.copyOnWrite(path.getSegment(0));
+		}
+		this.getParent(path, true).put(path.getKey(), value);
+	}
+
+	@Override
+	public void putInt(ContextPath path, int value) {
+		if (path.isTopLevel()) {
+			this.putPrimitive(path, INTVALUE, value);
+		} else {
+			this.put(path, value);
+		}
+	}
+
+	@Override
+	public void putLong(ContextPath path, long value) {
+		if (path.isTopLevel()) {
+			this.putPrimitive(path, LONGVALUE, value);
+		} else {
+			this.put(path, value);
+		}
+	}
+
+	@Override
+	public void putDouble(ContextPath path, double value) {
+		if (path.isTopLevel()) {
+			this.putPrimitive(path, DOUBLEVALUE, Double.doubleToRawLongBits(value));
+		} else {
+			this.put(path, value);
+		}
+	}
+
+	@Override
+	public void putBoolean(ContextPath path, boolean value) {
+		if (path.isTopLevel()) {
+			this.putPrimitive(path, BOOLEANVALUE, value ? 1 : 0);
+		} else {
+			this.put(path, value);
+		}
+	}
+
+	@Override
+	public void remove(ContextPath path) {
+		if (path.isTopLevel()) {
+			this.removeEntry(path.getKey());
+			return;
+		}
+		this.beforeChange(path.getSegment(0));
+		if (this.has(path)) {
+			this.copyOnWrite(path.getSegment(0));
+		}
+		JSONObject parent = this.getParent(path, false);
+		if (parent != null) {
+			parent.remove(path.getKey());
+		}
+	}
+
+	/**
+	 * Returns the context as {@link JSONObject}. The returned object is a view of
+	 * the context, that always shows its current entries, so it may also be used
+	 * after the context was accessed through {@link IContext} again
+	 */
+	@Override
+	public JSONObject asJSONObject() {
+		if (this.view == null) {
+			this.view = new ContextView();
+		}
+		return this.view;
+	}
+
+	/**
+	 * Layers the context over a {@link SharedContext}. Entries that are not stored
+	 * in the context itself are looked up in the {@link SharedContext}
+	 *
+	 * @param sharedContext the shared context or null to remove the layer
+	 */
+	public void setSharedContext(SharedContext sharedContext) {
+		this.sharedContext = sharedContext;
+	}
+
+	/**
+	 * Returns the {@link SharedContext} the context is layered over
+	 *
+	 * @return the shared context or null if there is no such layer
+	 */
+	SharedContext getSharedContext() {
+		return this.sharedContext;
+	}
+
+	/**
+	 * Starts to track the changes made to the context, unless they are already
+	 * tracked. Changes that were tracked before and not taken yet are kept
+	 */
+	void trackChanges() {
+		if (this.originalEntries == null) {
+			this.originalEntries = new HashMap<>();
+		}
+	}
+
+	/**
+	 * Returns the changes made to the context since the tracking was started as
+	 * {@link ContextPatch JSON Patch} and stops the tracking
+	 *
+	 * @return the tracked changes or an empty array if the changes were not
+	 *         tracked
+	 */
+	JSONArray takeChanges() {
+		if (this.originalEntries == null) {
+			return new JSONArray();
+		}
+		JSONObject before = new JSONObject();
+		JSONObject after = new JSONObject();
+		for (Map.Entry<String, Object> entry : this.originalEntries.entrySet()) {
+			if (entry.getValue() != ABSENT) {
+				before.put(entry.getKey(), entry.getValue());
+			}
+			Object value = this.getSessionEntry(entry.getKey());
+			if (value != null) {
+				after.put(entry.getKey(), value);
+			}
+		}
+		this.originalEntries = null;
+		return ContextPatch.diff(before, after);
+	}
+
+	/**
+	 * Returns a new context object with a deep copy of the given top-level
+	 * entries. Missing entries are skipped
+	 *
+	 * @param keys the keys of the entries to copy
+	 * @return the projected context object
+	 */
+	JSONObject project(Collection<String> keys) {
+		JSONObject projection = new JSONObject();
+		for (String key : keys) {
+			Object value = this.getEntry(key);
+			if (value != null) {
+				projection.put(key, ContextMutations.deepCopy(value));
+			}
+		}
+		return projection;
+	}
+
+	/**
+	 * Stores a top-level entry
+	 *
+	 * @param key   the key of the entry
+	 * @param value the value of the entry
+	 */
+	void putEntry(String key, Object value) {
+		this.beforeChange(key);
+		this.clearSlot(ContextPath.getSlot(key));
+		this.getValues().put(key, value);
+	}
+
+	/**
+	 * Removes a top-level entry
+	 *
+	 * @param key the key of the entry
+	 */
+	void removeEntry(String key) {
+		this.beforeChange(key);
+		this.clearSlot(ContextPath.getSlot(key));
+		if (this.sharedContext != null && this.sharedContext.has(key)) {
+			this.getValues().put(key, JSONObject.NULL);
+		} else {
+			this.getValues().remove(key);
+		}
+	}
+
+	/**
+	 * Moves the primitive values into the {@link JSONObject} of the context
+	 *
+	 * @return the {@link JSONObject} of the context
+	 */
+	private JSONObject flushPrimitives() {
+		JSONObject jsonObject = this.getValues();
+		if (this.numberOfPrimitives > 0) {
+			for (int slot = 0; slot < this.types.length; slot++) {
+				if (this.types[slot] != NOVALUE) {
+					jsonObject.put(ContextPath.getSlotKey(slot), this.box(slot));
+					this.types[slot] = NOVALUE;
+				}
+			}
+			this.numberOfPrimitives = 0;
+		}
+		return jsonObject;
+	}
+
+	/**
+	 * Reads a context from a {@link Reader}. The JSON is parsed incrementally
+	 * without reading the whole input into a String first. The {@link Reader} is
+	 * not closed
+	 *
+	 * @param reader the {@link Reader} to read the context from
+	 * @return the read context
+	 * @throws IllegalArgumentException if the {@link Reader} is null
+	 * @throws JSONException            if the input is not a valid JSON object or
+	 *                                  could not be read
+	 */
+	public static ConversationContext read(Reader reader) throws IllegalArgumentException, JSONException {
+		if (reader == null) {
+			Logging.error("The Reader of the context is null");
+			throw new IllegalArgumentException("The Reader of the context is null");
+		}
+		return new ConversationContext(new JSONObject(new JSONTokener(reader)));
+	}
+
+	/**
+	 * Writes the context as JSON to a {@link Writer}. The JSON is written
+	 * incrementally without building the whole String first. A context that was
+	 * not accessed yet writes the JSON-String it was created with. The
+	 * {@link Writer} is neither flushed nor closed
+	 *
+	 * @param writer the {@link Writer} to write the context to
+	 * @throws IOException if the context could not be written
+	 */
+	public void writeTo(Writer writer) throws IOException {
+		if (this.json != null) {
+			writer.write(this.json);
+			return;
+		}
+		writeValue(writer, this.flushPrimitives());
+	}
+
+	/**
+	 * Writes a JSON value to a {@link Writer}. Unlike {@link JSONObject#write},
+	 * keys and Strings are quoted directly into the {@link Writer} instead of
+	 * into a temporary String
+	 *
+	 * @param writer the {@link Writer} to write the value to
+	 * @param value  the value to write
+	 * @throws IOException if the value could not be written
+	 */
+	private static void writeValue(Writer writer, Object value) throws IOException {
+		if (value instanceof JSONObject) {
+			JSONObject object = (JSONObject) value;
+			writer.write('{');
+			boolean first = true;
+			for (String key : object.keySet()) {
+				if (!first) {
+					writer.write(',');
+				}
+				first = false;
+				JSONObject.quote(key, writer);
+				writer.write(':');
+				writeValue(writer, object.opt(key));
+			}
+			writer.write('}');
+		} else if (value instanceof JSONArray) {
+			JSONArray array = (JSONArray) value;
+			writer.write('[');
+			for (int i = 0; i < array.length(); i++) {
+				if (i > 0) {
+					writer.write(',');
+				}
+				writeValue(writer, array.opt(i));
+			}
+			writer.write(']');
+		} else if (value instanceof String) {
+			JSONObject.quote((String) value, writer);
+		} else if (value instanceof Boolean || value instanceof Integer || value instanceof Long) {
+			writer.write(value.toString());
+		} else {
+			// numbers, null and other values are written like JSONObject writes them
+			writer.write(JSONObject.valueToString(value));
+		}
+	}
+
+	/**
+	 * Returns the context as JSON-String. A context that was not accessed yet
+	 * returns the JSON-String it was created with
+	 */
+	@Override
+	public String toString() {
+		if (this.json != null) {
+			return this.json;
+		}
+		return this.flushPrimitives().toString();
+	}
+
+	/**
+	 * Stores a top-level primitive value in its slot
+	 *
+	 * @param path the top-level path of the entry
+	 * @param type the type of the value
+	 * @param bits the value as bits
+	 */
+	private void putPrimitive(ContextPath path, byte type, long bits) {
+		this.beforeChange(path.getKey());
+		this.getValues().remove(path.getKey());
+		int slot = path.getSlot();
+		if (slot >= this.types.length) {
+			// the arrays grow with the slots this context uses, not with all slots
+			int size = Math.max(slot + 1, 2 * this.types.length);
+			this.primitives = Arrays.copyOf(this.primitives, size);
+			this.types = Arrays.copyOf(this.types, size);
+		}
+		if (this.types[slot] == NOVALUE) {
+			this.numberOfPrimitives++;
+		}
+		this.types[slot] = type;
+		this.primitives[slot] = bits;
+	}
+
+	/**
+	 * Starts to collect the keys of the changed top-level entries. Keys that were
+	 * collected before are discarded
+	 */
+	void collectChangedKeys() {
+		if (this.changedKeys == null) {
+			this.changedKeys = new HashSet<>();
+		} else {
+			this.changedKeys.clear();
+		}
+	}
+
+	/**
+	 * Returns true if a top-level entry may have been changed since the keys of
+	 * the changed entries are collected
+	 *
+	 * @param key the key of the top-level entry
+	 * @return true if the entry may have been changed or the changed keys are not
+	 *         collected
+	 */
+	boolean wasChanged(String key) {
+		return this.changedKeys == null || this.changedKeys.contains(key);
+	}
+
+	/**
+	 * Returns true if the context itself stores a top-level entry. Entries of the
+	 * {@link SharedContext} are not considered
+	 *
+	 * @param key the key of the entry
+	 * @return true if the context stores the entry
+	 */
+	boolean hasSessionEntry(String key) {
+		return this.getSessionEntry(key) != null;
+	}
+
+	/**
+	 * Removes a top-level entry, that is stored in the context itself. An entry of
+	 * the {@link SharedContext}, that was changed or hidden, becomes visible again
+	 *
+	 * @param key the key of the entry
+	 */
+	void evictEntry(String key) {
+		if (!this.hasSessionEntry(key)) {
+			return;
+		}
+		this.beforeChange(key);
+		this.clearSlot(ContextPath.getSlot(key));
+		this.getValues().remove(key);
+	}
+
+	/**
+	 * Remembers that a top-level entry is changed and copies its value before its
+	 * first change, if the changes are tracked
+	 *
+	 * @param key the key of the top-level entry
+	 */
+	private void beforeChange(String key) {
+		if (this.changedKeys != null) {
+			this.changedKeys.add(key);
+		}
+		if (this.originalEntries == null || this.originalEntries.containsKey(key)) {
+			return;
+		}
+		Object value = this.getSessionEntry(key);
+		this.originalEntries.put(key, value == null ? ABSENT : ContextMutations.deepCopy(value));
+	}
+
+	/**
+	 * Returns the keys of all top-level entries, including the entries of the
+	 * {@link SharedContext} that are not hidden
+	 *
+	 * @return a new set with the keys of the entries
+	 */
+	Set<String> keys() {
+		JSONObject jsonObject = this.getValues();
+		Set<String> keys = new HashSet<>();
+		if (this.sharedContext != null) {
+			keys.addAll(this.sharedContext.getValues().keySet());
+		}
+		for (String key : jsonObject.keySet()) {
+			if (this.sharedContext != null && jsonObject.opt(key) == JSONObject.NULL) {
+				keys.remove(key);
+			} else {
+				keys.add(key);
+			}
+		}
+		if (this.numberOfPrimitives > 0) {
+			for (int slot = 0; slot < this.types.length; slot++) {
+				if (this.types[slot] != NOVALUE) {
+					keys.add(ContextPath.getSlotKey(slot));
+				}
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Returns the value of a top-level entry, that is looked up in the
+	 * {@link SharedContext} if the context itself does not store it. The value
+	 * must not be changed, because it may be shared
+	 *
+	 * @param key the key of the entry
+	 * @return the value or null if the entry does not exist
+	 */
+	Object getEntry(String key) {
+		Object value = this.getSessionEntry(key);
+		if (this.sharedContext == null) {
+			return value;
+		}
+		if (value == null) {
+			return this.sharedContext.getValues().opt(key);
+		}
+		return value == JSONObject.NULL ? null : value;
+	}
+
+	/**
+	 * Returns the value of a top-level entry, that the caller may change. A
+	 * shared object or array is copied into the context first
+	 *
+	 * @param key the key of the entry
+	 * @return the value or null if the entry does not exist
+	 */
+	private Object getEntryForChange(String key) {
+		Object value = this.getEntry(key);
+		if (value instanceof JSONObject || value instanceof JSONArray) {
+			this.beforeChange(key);
+			if (this.getLayer(key) != this.getValues()) {
+				this.copyOnWrite(key);
+				value = this.getValues().opt(key);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the value of a top-level entry, that is stored in the context
+	 * itself
+	 *
+	 * @param key the key of the entry
+	 * @return the value or null if the context does not store the entry
+	 */
+	private Object getSessionEntry(String key) {
+		int slot = ContextPath.getSlot(key);
+		if (this.hasPrimitive(slot)) {
+			return this.box(slot);
+		}
+		return this.getValues().opt(key);
+	}
+
+	/**
+	 * Returns true if a primitive value is stored in the slot
+	 *
+	 * @param slot the slot or -1
+	 * @return true if a primitive value is stored in the slot
+	 */
+	private boolean hasPrimitive(int slot) {
+		return slot >= 0 && slot < this.types.length && this.types[slot] != NOVALUE;
+	}
+
+	/**
+	 * Copies a shared top-level entry into the context, before one of its nested
+	 * entries is changed
+	 *
+	 * @param key the key of the top-level entry
+	 */
+	private void copyOnWrite(String key) {
+		if (this.sharedContext == null) {
+			return;
+		}
+		JSONObject jsonObject = this.getValues();
+		Object sharedValue = this.sharedContext.getValues().opt(key);
+		if (sharedValue != null && !jsonObject.has(key) && !this.hasPrimitive(ContextPath.getSlot(key))) {
+			jsonObject.put(key, ContextMutations.deepCopy(sharedValue));
+		}
+	}
+
+	/**
+	 * Returns true if the value hides a shared top-level entry
+	 *
+	 * @param path  the path of the value
+	 * @param value the value
+	 * @return true if the value hides a shared entry
+	 */
+	private boolean isHidden(ContextPath path, Object value) {
+		return this.sharedContext != null && path.isTopLevel() && value == JSONObject.NULL;
+	}
+
+	/**
+	 * Returns the layer that stores a top-level entry, i.e. the
+	 * {@link JSONObject} of the context or of the {@link SharedContext}
+	 *
+	 * @param key the key of the top-level entry
+	 * @return the layer that stores the entry
+	 */
+	private JSONObject getLayer(String key) {
+		JSONObject jsonObject = this.getValues();
+		if (this.sharedContext == null || jsonObject.has(key) || this.hasPrimitive(ContextPath.getSlot(key))) {
+			return jsonObject;
+		}
+		JSONObject sharedValues = this.sharedContext.getValues();
+		return sharedValues.has(key) ? sharedValues : jsonObject;
+	}
+
+	/**
+	 * Returns the type of the primitive value that is stored for the path
+	 *
+	 * @param path the path of the entry
+	 * @return the type of the value or {@link #NOVALUE} if the path is no
+	 *         top-level path or no primitive value is stored for it
+	 */
+	private byte typeOf(ContextPath path) {
+		if (this.numberOfPrimitives == 0 || !path.isTopLevel()) {
+			return NOVALUE;
+		}
+		int slot = path.getSlot();
+		return slot < this.types.length ? this.types[slot] : NOVALUE;
+	}
+
+	/**
+	 * Removes the primitive value of a slot
+	 *
+	 * @param slot the slot of the value
+	 */
+	private void clearSlot(int slot) {
+		if (this.hasPrimitive(slot)) {
+			this.types[slot] = NOVALUE;
+			this.numberOfPrimitives--;
+		}
+	}
+
+	/**
+	 * Returns the boxed primitive value of a slot
+	 *
+	 * @param slot the slot of the value
+	 * @return the boxed value
+	 */
+	private Object box(int slot) {
+		long bits = this.primitives[slot];
+		switch (this.types[slot]) {
+		case INTVALUE:
+			return (int) bits;
+		case LONGVALUE:
+			return bits;
+		case DOUBLEVALUE:
+			return Double.longBitsToDouble(bits);
+		default:
+			return bits != 0;
+		}
+	}
+
+	/**
+	 * Returns the object that contains the entry of the path
+	 *
+	 * @param path   the path of the entry
+	 * @param create if true, missing objects are created. The returned object is
+	 *               always stored in the context itself and never in the
+	 *               {@link SharedContext}
+	 * @return the parent object or null if it does not exist and create is false
+	 */
+	private JSONObject getParent(ContextPath path, boolean create) {
+		JSONObject parent = create ? this.getValues() : this.getLayer(path.getSegment(0));
+		for (int i = 0; i < path.length() - 1; i++) {
+			String segment = path.getSegment(i);
+			JSONObject child = parent.optJSONObject(segment);
+			if (child == null) {
+				if (!create) {
+					return null;
+				}
+				child = new JSONObject();
+				parent.put(segment, child);
+			}
+			parent = child;
+		}
+		return parent;
+	}
+
+	/**
+	 * Returns the {@link JSONObject} of the context and parses the JSON-String
+	 * the context was created with if necessary
+	 *
+	 * @return the {@link JSONObject} of the context
+	 */
+	private JSONObject getValues() {
+		if (this.values == null) {
+			this.values = new JSONObject(this.json);
+			this.json = null;
+		}
+		return this.values;
+	}
+
+	/**
+	 * The context as {@link JSONObject}. All methods of {@link JSONObject} that
+	 * access its entries directly are overridden to access the top-level entries
+	 * of the context instead, the other methods of {@link JSONObject} use these
+	 */
+	private final class ContextView extends JSONObject {
+
+		@Override
+		public Object opt(String key) {
+			return key == null ? null : ConversationContext.this.getEntryForChange(key);
+		}
+
+		@Override
+		public boolean has(String key) {
+			return ConversationContext.this.getEntry(key) != null;
+		}
+
+		/**
+		 * Returns a new set with the keys of the entries. Changes to the set do not
+		 * change the context
+		 */
+		@Override
+		public Set<String> keySet() {
+			return ConversationContext.this.keys();
+		}
+
+		/**
+		 * Returns the entries for writing and comparing the view. The values must not
+		 * be changed, because they may be shared
+		 */
+		@Override
+		protected Set<Map.Entry<String, Object>> entrySet() {
+			Map<String, Object> entries = new LinkedHashMap<>();
+			for (String key : ConversationContext.this.keys()) {
+				entries.put(key, ConversationContext.this.getEntry(key));
+			}
+			return entries.entrySet();
+		}
+
+		@Override
+		public int length() {
+			return ConversationContext.this.keys().size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return this.length() == 0;
+		}
+
+		@Override
+		public JSONArray names() {
+			Set<String> keys = ConversationContext.this.keys();
+			return keys.isEmpty() ? null : new JSONArray(keys);
+		}
+
+		@Override
+		public JSONObject put(String key, Object value) throws JSONException {
+			if (key == null) {
+				throw new NullPointerException("Null key.");
+			}
+			if (value == null) {
+				this.remove(key);
+				return this;
+			}
+			testValidity(value);
+			ConversationContext.this.putEntry(key, value);
+			return this;
+		}
+
+		@Override
+		public Object remove(String key) {
+			Object value = ConversationContext.this.getEntry(key);
+			if (value != null) {
+				ConversationContext.this.removeEntry(key);
+			}
+			return value;
+		}
+
+		@Override
+		public void clear() {
+			for (String key : ConversationContext.this.keys()) {
+				ConversationContext.this.removeEntry(key);
+			}
+		}
+	}
+}
@@ -1,20 +1,39 @@
 package de.dai_labor.conversation_engine_core.conversation_engine;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import org.json.JSONObject;
+import org.json.JSONArray;
+import org.json.JSONException;
 
 import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
 import de.dai_labor.conversation_engine_core.interfaces.INLPComponent;
@@ -28,7 +47,12 @@ import de.dai_labor.conversation_engine_core.interfaces.ISkillAnswer;
  * NLP-Component} into an all in one system.<br>
  * <br>
  * The system is based on a finite state machine to create an accessible testing
- * environment.
+ * environment.<br>
+ * <br>
+ * Each {@link ConversationEngine} object represents a single conversation
+ * session and owns its user output and language. Independent sessions can
+ * therefore process inputs on different threads at the same time, whereas the
+ * inputs of one session have to be processed one after another.
  *
  * @author Marcel Engelmann
  *
@@ -37,23 +61,48 @@ public class ConversationEngine {
 
 	private static final int DEFAULTTIMEOUTVALUE = 300;
 	private static final String EMPTYCONTEXTOBJECT = "{}";
+	private static final int STREAMBUFFERSIZE = 8192;
+	// the states of the engine itself, shared by all sessions
+	private static final State DEFAULTSTATE = new State("defaultState", 0);
+	private static final State SLEEPSTATE = new State("sleepState", 1);
+
+	static {
+		DEFAULTSTATE.addTransition(new Transition(SLEEPSTATE, "SLEEP"));
+		SLEEPSTATE.addTransition(new Transition(DEFAULTSTATE, "WAKEUP"));
+	}
 
-	private State currentState;
+	private volatile State currentState;
 	private SkillStateMachine currentSkillStateMachine;
 	private SkillStateMachine lastUsedSkillStateMachine;
 	private PendingQuestions pendingSkillQuestions;
-	private JSONObject contextObject;
-	private Timer timer;
+	private I18n i18n;
+	private UserOutput userOutput;
+	private ConversationContext context;
+	private TimeoutScheduler.Timeout sleepTimeout;
+	// called once the engine entered the sleepState after its timeout, null if
+	// there is no listener
+	private volatile Runnable sleepListener;
 	private String lastIntent;
 	private INLPComponent nlpComponent;
 	private List<String> possibleSkillsForChooseSkillQuestion;
 	private List<SkillStateMachine> allSkillStateMachines;
+	// the keys of the context entries the NLPComponent receives, null if it
+	// receives the whole context object
+	private Set<String> projectedContextKeys;
+	// the combined lifecycles of all entities, that are not kept for the whole
+	// session
+	private Map<String, EntityScope> entityScopes;
+	// the time of the last change of each entity that expires
+	private Map<String, Long> entityChangeTimes;
+	private SkillRouter skillRouter;
 	private Deque<String> pendingIntents;
 	private boolean wasLastQuestionChooseSkill;
 	private boolean wasLastQuestionSkillQuestion;
 	private boolean wasLastQuestionAbortQuestion;
 	private boolean wasLastQuestionReturnToPreviousSkill;
 	private boolean closed;
+	private boolean contextChangeTracking;
+	private JSONArray lastContextChanges = new JSONArray();
 	private int timeoutInSeconds;
 
 	/**
@@ -66,13 +115,84 @@ public class ConversationEngine {
 	 *                          interaction. Setting this on 0 means there is no
 	 *                          timeout.
 	 * @param jsonContextObject the contextObject as JSON-String to start the
-	 *                          {@link ConversationEngine} with
+	 *                          {@link ConversationEngine} with. The String is
+	 *                          parsed once the context is accessed for the first
+	 *                          time
 	 * @param defaultLanguage   the default language to use as backup
 	 * @throws IllegalArgumentException if the {@link INLPComponent} is null or the
 	 *                                  timeout value is less than 1
 	 */
 	public ConversationEngine(INLPComponent nlpComponent, int timeoutInSeconds, String jsonContextObject,
 			Locale defaultLanguage) throws IllegalArgumentException {
+		this(nlpComponent, timeoutInSeconds, new ConversationContext(jsonContextObject), defaultLanguage);
+	}
+
+	/**
+	 * Creates a new {@link ConversationEngine} object with a context object that
+	 * is read incrementally from a {@link Reader}, e.g. one that was written by
+	 * {@link #shutdownTo(Writer)}. The {@link Reader} is not closed
+	 *
+	 * @param nlpComponent     the NLPComponent that handles the user input
+	 * @param timeoutInSeconds the number of seconds after which the
+	 *                         {@link ConversationEngine} will transition into the
+	 *                         sleepState. The timer refreshes after each
+	 *                         interaction. Setting this on 0 means there is no
+	 *                         timeout.
+	 * @param contextReader    the {@link Reader} to read the contextObject from
+	 * @param defaultLanguage  the default language to use as backup
+	 * @throws IllegalArgumentException if the {@link INLPComponent} or the
+	 *                                  {@link Reader} is null or the timeout value
+	 *                                  is less than 1
+	 * @throws JSONException            if the contextObject is not valid JSON or
+	 *                                  could not be read
+	 */
+	public ConversationEngine(INLPComponent nlpComponent, int timeoutInSeconds, Reader contextReader,
+			Locale defaultLanguage) throws IllegalArgumentException, JSONException {
+		this(nlpComponent, timeoutInSeconds, ConversationContext.read(contextReader), defaultLanguage);
+	}
+
+	/**
+	 * Creates a new {@link ConversationEngine} object with a context object that
+	 * is read incrementally from an UTF-8 encoded {@link InputStream}, e.g. one
+	 * that was written by {@link #shutdownTo(OutputStream)}. The
+	 * {@link InputStream} is not closed
+	 *
+	 * @param nlpComponent       the NLPComponent that handles the user input
+	 * @param timeoutInSeconds   the number of seconds after which the
+	 *                           {@link ConversationEngine} will transition into
+	 *                           the sleepState. The timer refreshes after each
+	 *                           interaction. Setting this on 0 means there is no
+	 *                           timeout.
+	 * @param contextInputStream the {@link InputStream} to read the contextObject
+	 *                           from
+	 * @param defaultLanguage    the default language to use as backup
+	 * @throws IllegalArgumentException if the {@link INLPComponent} or the
+	 *                                  {@link InputStream} is null or the timeout
+	 *                                  value is less than 1
+	 * @throws JSONException            if the contextObject is not valid JSON or
+	 *                                  could not be read
+	 */
+	public ConversationEngine(INLPComponent nlpComponent, int timeoutInSeconds, InputStream contextInputStream,
+			Locale defaultLanguage) throws IllegalArgumentException, JSONException {
+		this(nlpComponent, timeoutInSeconds, ConversationContext.read(contextInputStream == null ? null
+				: new InputStreamReader(contextInputStream, StandardCharsets.UTF_8)), defaultLanguage);
+	}
+
+	/**
+	 * Creates a new {@link ConversationEngine} object
+	 *
+	 * @param nlpComponent     the NLPComponent that handles the user input
+	 * @param timeoutInSeconds the number of seconds after which the
+	 *                         {@link ConversationEngine} will transition into the
+	 *                         sleepState
+	 * @param context          the context to start the {@link ConversationEngine}
+	 *                         with
+	 * @param defaultLanguage  the default language to use as backup
+	 * @throws IllegalArgumentException if the {@link INLPComponent} is null or the
+	 *                                  timeout value is less than 1
+	 */
+	private ConversationEngine(INLPComponent nlpComponent, int timeoutInSeconds, ConversationContext context,
+			Locale defaultLanguage) throws IllegalArgumentException {
 		if (nlpComponent == null) {
 			Logging.error("INLPComponent is null");
 			throw new IllegalArgumentException("INLPComponent is null");
@@ -87,14 +207,13 @@ public class ConversationEngine {
 			Logging.error("The default language locale is null");
 			throw new IllegalArgumentException("The default language locale is null");
 		}
-		State defaultState = new State("defaultState");
-		State sleepState = new State("sleepState");
-		defaultState.addTransition(new Transition(sleepState, "SLEEP"));
-		sleepState.addTransition(new Transition(defaultState, "WAKEUP"));
-		this.currentState = defaultState;
+		this.currentState = DEFAULTSTATE;
 		this.nlpComponent = nlpComponent;
-		this.contextObject = new JSONObject(jsonContextObject);
+		this.context = context;
 		this.allSkillStateMachines = new ArrayList<>();
+		this.skillRouter = new SkillRouter();
+		this.entityScopes = Collections.emptyMap();
+		this.entityChangeTimes = new HashMap<>();
 		this.possibleSkillsForChooseSkillQuestion = new ArrayList<>();
 		this.pendingSkillQuestions = new PendingQuestions();
 		this.pendingIntents = new ArrayDeque<>();
@@ -105,7 +224,8 @@ public class ConversationEngine {
 		this.wasLastQuestionReturnToPreviousSkill = false;
 		this.closed = false;
 		this.timeoutInSeconds = timeoutInSeconds;
-		I18n.setDefaultLanguage(defaultLanguage);
+		this.i18n = new I18n(defaultLanguage);
+		this.userOutput = new UserOutput(this.i18n);
 		// the list of intents the ConversationEngine uses itself (as trigger words)
 		List<String> triggerIntents = new ArrayList<>();
 		triggerIntents.add("abort");
@@ -115,7 +235,7 @@ public class ConversationEngine {
 		triggerIntents.add("no");
 		this.nlpComponent.addUsedIntents(triggerIntents);
 		if (this.timeoutInSeconds > 0) {
-			this.timer = new Timer();
+			this.sleepTimeout = TimeoutScheduler.shared().newTimeout(this::enterSleepState);
 			this.scheduleNewTimeoutTask();
 		}
 	}
@@ -175,6 +295,237 @@ public class ConversationEngine {
 		return this.currentState.getName();
 	}
 
+	/**
+	 * Enables or disables the tracking of the changes made to the context object
+	 * during each call of {@link #userInput} and {@link #userInputAsync}. The
+	 * changes of the last turn are returned by {@link #getLastContextChanges()}.
+	 * <br>
+	 * <br>
+	 * Each top-level entry is copied once per turn before its first change. An
+	 * entry that a component reads as object or array from the context object as
+	 * {@link org.json.JSONObject} is also copied, because the component may change
+	 * it
+	 *
+	 * @param enabled true to track the changes of each turn
+	 */
+	public void setContextChangeTracking(boolean enabled) {
+		if (!enabled) {
+			// discards the changes of idle evictions that were not taken yet
+			this.context.takeChanges();
+		}
+		this.contextChangeTracking = enabled;
+	}
+
+	/**
+	 * Returns the changes made to the context object during the last call of
+	 * {@link #userInput} or {@link #userInputAsync} as ordered
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc6902">JSON Patch</a>
+	 * operations. Applying the changes of all turns with
+	 * {@link ContextPatch#apply} to the context object the
+	 * {@link ConversationEngine} started with rebuilds the current context object.
+	 * Entities that {@link #evictExpiredContextEntries()} removed while the
+	 * session was idle are part of the changes of the next turn. Empty if the
+	 * {@link #setContextChangeTracking(boolean) tracking} is disabled
+	 *
+	 * @return the JSON Patch operations of the last turn
+	 */
+	public JSONArray getLastContextChanges() {
+		return this.lastContextChanges;
+	}
+
+	/**
+	 * Layers the context object of this {@link ConversationEngine} over a
+	 * {@link SharedContext}, e.g. with catalogs that are the same for all
+	 * sessions. The {@link INLPComponent} and the skills read the shared entries
+	 * like their own entries, while the context object only stores the entries
+	 * they changed. An {@link INLPComponent} or skill that receives the whole
+	 * context object as {@link org.json.JSONObject} makes the context object copy
+	 * all shared entries, skills with a context projection only receive copies
+	 * of their used entities
+	 *
+	 * @param sharedContext the shared context or null to remove the layer
+	 */
+	public void setSharedContext(SharedContext sharedContext) {
+		if (this.closed) {
+			this.logIllegalAccess();
+			return;
+		}
+		this.context.setSharedContext(sharedContext);
+	}
+
+	/**
+	 * Removes the entities of the context object, whose time to live declared in
+	 * the entityScopes section of a skill expired. Expired entities are also
+	 * removed after each input, this method removes them while the session is
+	 * idle. If the {@link #setContextChangeTracking(boolean) changes are
+	 * tracked}, the removals are part of the changes of the next turn. It must not
+	 * be called while an input is processed
+	 *
+	 * @return the number of removed entities
+	 */
+	public int evictExpiredContextEntries() {
+		if (this.closed) {
+			this.logIllegalAccess();
+			return 0;
+		}
+		if (this.contextChangeTracking) {
+			this.context.trackChanges();
+		}
+		return this.evictExpiredContextEntries(System.nanoTime());
+	}
+
+	/**
+	 * Sets the listener that is called once this {@link ConversationEngine}
+	 * entered the sleepState after its timeout, e.g. to passivate the session.
+	 * The listener runs on the thread of the {@link TimeoutScheduler} and must
+	 * return quickly
+	 *
+	 * @param sleepListener the listener or null to remove the listener
+	 */
+	void setSleepListener(Runnable sleepListener) {
+		this.sleepListener = sleepListener;
+	}
+
+	/**
+	 * Returns the complete state of this {@link ConversationEngine} in a compact
+	 * binary format: the current and last used skill, the state of each skill,
+	 * the pending intents and questions, the language, the sleep state, the times
+	 * of the last changes of the expiring entities and the context object.
+	 * Skills, states and intents are stored by their names, so
+	 * that the snapshot can be {@link #restore(byte[]) restored} by any
+	 * {@link ConversationEngine} with the same skills, e.g. to passivate an idle
+	 * session and to resume it on another node. Of a context object that is
+	 * layered over a {@link SharedContext}, only the entries of the session are
+	 * stored. It must not be called while an input is processed
+	 *
+	 * @return the snapshot or an empty array if the {@link ConversationEngine}
+	 *         has been shut down
+	 */
+	public byte[] snapshot() {
+		if (this.closed) {
+			this.logIllegalAccess();
+			return new byte[0];
+		}
+		EngineSnapshot snapshot = new EngineSnapshot();
+		snapshot.sleeping = this.currentState == SLEEPSTATE;
+		snapshot.wasLastQuestionChooseSkill = this.wasLastQuestionChooseSkill;
+		snapshot.wasLastQuestionSkillQuestion = this.wasLastQuestionSkillQuestion;
+		snapshot.wasLastQuestionAbortQuestion = this.wasLastQuestionAbortQuestion;
+		snapshot.wasLastQuestionReturnToPreviousSkill = this.wasLastQuestionReturnToPreviousSkill;
+		snapshot.language = this.i18n.getLanguage().toLanguageTag();
+		snapshot.lastIntent = this.lastIntent;
+		if (this.currentSkillStateMachine != null) {
+			snapshot.currentSkill = this.currentSkillStateMachine.getName();
+		}
+		if (this.lastUsedSkillStateMachine != null) {
+			snapshot.lastUsedSkill = this.lastUsedSkillStateMachine.getName();
+		}
+		for (SkillStateMachine skillStateMachine : this.allSkillStateMachines) {
+			State state = skillStateMachine.getCurrentState();
+			if (state.getId() != skillStateMachine.getDefinition().getStartState()) {
+				snapshot.skillStates.put(skillStateMachine.getName(), state.getName());
+			}
+		}
+		snapshot.pendingIntents.addAll(this.pendingIntents);
+		snapshot.pendingQuestions = EngineSnapshot.copyQuestions(this.pendingSkillQuestions);
+		snapshot.possibleSkillsForChooseSkillQuestion.addAll(this.possibleSkillsForChooseSkillQuestion);
+		// the change times are stored as wall-clock times, because the nano time of
+		// another JVM has another origin
+		long nanoTime = System.nanoTime();
+		long currentTime = System.currentTimeMillis();
+		this.entityChangeTimes.forEach((entity, lastChange) -> snapshot.entityChangeTimes.put(entity,
+				currentTime - TimeUnit.NANOSECONDS.toMillis(nanoTime - lastChange)));
+		snapshot.context = this.context;
+		return snapshot.encode();
+	}
+
+	/**
+	 * Replaces the state of this {@link ConversationEngine} with the state of a
+	 * {@link #snapshot()}. The {@link ConversationEngine} must have the skills the
+	 * snapshot refers to and keeps its {@link SharedContext}. The time to live of
+	 * the entities in the restored context object continues from their last
+	 * change before the snapshot, the time between the snapshot and its restore
+	 * counts as well. The pending output and the {@link #getLastContextChanges()
+	 * changes of the last turn} are discarded. It must not be called while an
+	 * input is processed
+	 *
+	 * @param snapshot the snapshot to restore
+	 * @throws IllegalArgumentException if the snapshot is invalid or refers to a
+	 *                                  skill or state that does not exist
+	 */
+	public void restore(byte[] snapshot) throws IllegalArgumentException {
+		if (this.closed) {
+			this.logIllegalAccess();
+			return;
+		}
+		EngineSnapshot state = EngineSnapshot.decode(snapshot);
+		Map<String, SkillStateMachine> skills = new HashMap<>();
+		for (SkillStateMachine skillStateMachine : this.allSkillStateMachines) {
+			skills.put(skillStateMachine.getName(), skillStateMachine);
+		}
+		// validate the whole snapshot first, so that a failed restore changes nothing
+		List<String> referencedSkills = new ArrayList<>(state.skillStates.keySet());
+		referencedSkills.addAll(state.pendingQuestions.keySet());
+		referencedSkills.add(state.currentSkill);
+		referencedSkills.add(state.lastUsedSkill);
+		for (String skill : referencedSkills) {
+			if (skill != null && !skills.containsKey(skill)) {
+				Logging.error("The skill {} of the snapshot does not exist", skill);
+				throw new IllegalArgumentException("The skill " + skill + " of the snapshot does not exist");
+			}
+		}
+		for (Entry<String, String> skillState : state.skillStates.entrySet()) {
+			if (skills.get(skillState.getKey()).getDefinition().getStateId(skillState.getValue()) < 0) {
+				Logging.error("The state {} of the skill {} does not exist", skillState.getValue(),
+						skillState.getKey());
+				throw new IllegalArgumentException("The state " + skillState.getValue() + " of the skill "
+						+ skillState.getKey() + " does not exist");
+			}
+		}
+		Locale language = Locale.forLanguageTag(state.language);
+
+		for (SkillStateMachine skillStateMachine : this.allSkillStateMachines) {
+			SkillDefinition definition = skillStateMachine.getDefinition();
+			String startState = definition.getState(definition.getStartState()).getName();
+			skillStateMachine.restoreState(state.skillStates.getOrDefault(skillStateMachine.getName(), startState));
+		}
+		this.currentSkillStateMachine = skills.get(state.currentSkill);
+		this.lastUsedSkillStateMachine = skills.get(state.lastUsedSkill);
+		this.currentState = state.sleeping ? SLEEPSTATE : DEFAULTSTATE;
+		this.wasLastQuestionChooseSkill = state.wasLastQuestionChooseSkill;
+		this.wasLastQuestionSkillQuestion = state.wasLastQuestionSkillQuestion;
+		this.wasLastQuestionAbortQuestion = state.wasLastQuestionAbortQuestion;
+		this.wasLastQuestionReturnToPreviousSkill = state.wasLastQuestionReturnToPreviousSkill;
+		if (!language.equals(this.i18n.getLanguage())) {
+			this.i18n.setLanguage(language);
+		}
+		this.lastIntent = state.lastIntent;
+		this.pendingIntents.clear();
+		this.pendingIntents.addAll(state.pendingIntents);
+		this.pendingSkillQuestions.clear();
+		state.pendingQuestions.forEach((skill, questions) -> questions.forEach(
+				question -> this.pendingSkillQuestions.addQuestion(skill, question.getEntityName(),
+						question.getQuestion())));
+		this.possibleSkillsForChooseSkillQuestion.clear();
+		this.possibleSkillsForChooseSkillQuestion.addAll(state.possibleSkillsForChooseSkillQuestion);
+		this.userOutput.clear();
+		this.lastContextChanges = new JSONArray();
+		state.context.setSharedContext(this.context.getSharedContext());
+		this.context = state.context;
+		this.entityChangeTimes.clear();
+		long nanoTime = System.nanoTime();
+		long currentTime = System.currentTimeMillis();
+		state.entityChangeTimes.forEach((entity, lastChange) -> {
+			if (this.entityScopes.containsKey(entity)) {
+				this.entityChangeTimes.put(entity,
+						nanoTime - TimeUnit.MILLISECONDS.toNanos(Math.max(0, currentTime - lastChange)));
+			}
+		});
+		if (this.timeoutInSeconds > 0 && !state.sleeping) {
+			this.scheduleNewTimeoutTask();
+		}
+	}
+
 	/**
 	 * Add a new Skill to the {@link ConversationEngine}
 	 *
@@ -205,13 +556,99 @@ public class ConversationEngine {
 			return;
 		}
 
-		if (this.allSkillStateMachines.stream().anyMatch(
-				skillStateMachine -> skillStateMachine.getName().equalsIgnoreCase(newSkillStateMachine.getName()))) {
-			Logging.error("The skill {} already exists", newSkillStateMachine.getName());
+		this.addSkillStateMachine(newSkillStateMachine);
+	}
+
+	/**
+	 * Add a new Skill with an already compiled state machine to the
+	 * {@link ConversationEngine}. The {@link SkillDefinition} can be shared by any
+	 * number of {@link ConversationEngine} objects
+	 *
+	 * @param skill      the skill to add to the {@link ConversationEngine}
+	 * @param definition the skill's compiled state machine
+	 */
+	public void addSkill(ISkill skill, SkillDefinition definition) {
+		if (this.closed) {
+			this.logIllegalAccess();
+			return;
+		}
+		if (skill == null) {
+			Logging.error("The skill to add to the Conversation Engine is null");
 			return;
 		}
+		if (definition == null) {
+			Logging.error("The SkillDefinition for the skill to add to the Conversation Engine is null");
+			return;
+		}
+		this.addSkillStateMachine(GenerateSkillStateMachine.fromDefinition(skill, definition, this.nlpComponent));
+	}
 
-		this.allSkillStateMachines.add(newSkillStateMachine);
+	/**
+	 * Adds multiple new Skills to the {@link ConversationEngine}. The state
+	 * machines of all skills are validated and compiled in parallel on the
+	 * {@link ForkJoinPool#commonPool() common pool}
+	 *
+	 * @param skills the skills to add to the {@link ConversationEngine} mapped to
+	 *               their state machine in JSON-Format. For the JSON-Schema please
+	 *               check out the <a href=
+	 *               "file:../../resources/SkillStateMachine_Schema.json">Schema.json</a>
+	 *               file
+	 * @return the skills that could not be added mapped to the reasons why
+	 */
+	public Map<ISkill, String> addSkills(Map<ISkill, String> skills) {
+		return this.addSkills(skills, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Adds multiple new Skills to the {@link ConversationEngine}. The state
+	 * machines of all skills are validated and compiled in parallel on the given
+	 * {@link ForkJoinPool}. The skills are added in the iteration order of the
+	 * given map
+	 *
+	 * @param skills the skills to add to the {@link ConversationEngine} mapped to
+	 *               their state machine in JSON-Format. For the JSON-Schema please
+	 *               check out the <a href=
+	 *               "file:../../resources/SkillStateMachine_Schema.json">Schema.json</a>
+	 *               file
+	 * @param pool   the pool to compile the state machines on
+	 * @return the skills that could not be added mapped to the reasons why. If
+	 *         the pool is null, all skills are returned
+	 */
+	public Map<ISkill, String> addSkills(Map<ISkill, String> skills, ForkJoinPool pool) {
+		Map<ISkill, String> failedSkills = new LinkedHashMap<>();
+		if (skills == null) {
+			Logging.error("The skills to add to the Conversation Engine are null");
+			return failedSkills;
+		}
+		if (pool == null) {
+			Logging.error("The ForkJoinPool to compile the skills on is null");
+			skills.keySet().forEach(skill -> failedSkills.put(skill, "The ForkJoinPool is null"));
+			return failedSkills;
+		}
+		if (this.closed) {
+			this.logIllegalAccess();
+			skills.keySet().forEach(skill -> failedSkills.put(skill, "The Conversation Engine has been shut down"));
+			return failedSkills;
+		}
+		List<ISkill> skillList = new ArrayList<>(skills.keySet());
+		List<String> jsonStateMachines = new ArrayList<>(skills.values());
+		List<List<String>> errors = new ArrayList<>();
+		List<SkillDefinition> definitions = GenerateSkillStateMachine.compileAll(jsonStateMachines, errors, pool);
+		for (int i = 0; i < skillList.size(); i++) {
+			ISkill skill = skillList.get(i);
+			SkillDefinition definition = definitions.get(i);
+			if (skill == null) {
+				Logging.error("The skill to add to the Conversation Engine is null");
+				failedSkills.put(null, "The skill is null");
+			} else if (definition == null) {
+				Logging.error("Could not add the skill {}", skill);
+				failedSkills.put(skill, String.join(System.lineSeparator(), errors.get(i)));
+			} else if (!this.addSkillStateMachine(
+					GenerateSkillStateMachine.fromDefinition(skill, definition, this.nlpComponent))) {
+				failedSkills.put(skill, "The skill " + definition.getName() + " already exists");
+			}
+		}
+		return failedSkills;
 	}
 
 	/**
@@ -226,19 +663,91 @@ public class ConversationEngine {
 			this.logIllegalAccess();
 			return;
 		}
-		Logging.debug("Shutting down the Conversation Engine {}", this);
-		this.timer.cancel();
-		this.closed = true;
+		ConversationContext lastContext = this.close();
 		if (operation == null) {
 			Logging.warn("The consumer passed to the shutdown function was null");
 			return;
 		}
 		StringBuilder sb = new StringBuilder();
-		sb.append(this.contextObject);
-		this.contextObject = new JSONObject();
+		sb.append(lastContext);
 		operation.accept(sb);
 	}
 
+	/**
+	 * Writes the current context object incrementally as JSON to a
+	 * {@link Writer} and shuts this ConversationEngine object down. The
+	 * {@link Writer} is flushed, but not closed. If the context object could not
+	 * be written, the ConversationEngine is not shut down
+	 *
+	 * @param writer the {@link Writer} to write the context object to
+	 * @throws IllegalArgumentException if the {@link Writer} is null
+	 * @throws IOException              if the context object could not be
+	 *                                  written
+	 */
+	public void shutdownTo(Writer writer) throws IllegalArgumentException, IOException {
+		if (this.closed) {
+			this.logIllegalAccess();
+			return;
+		}
+		if (writer == null) {
+			Logging.error("The Writer passed to the shutdown function is null");
+			throw new IllegalArgumentException("The Writer passed to the shutdown function is null");
+		}
+		this.context.writeTo(writer);
+		writer.flush();
+		this.close();
+	}
+
+	/**
+	 * Writes the current context object incrementally as UTF-8 encoded JSON to an
+	 * {@link OutputStream} and shuts this ConversationEngine object down. The
+	 * {@link OutputStream} is flushed, but not closed. If the context object
+	 * could not be written, the ConversationEngine is not shut down
+	 *
+	 * @param outputStream the {@link OutputStream} to write the context object to
+	 * @throws IllegalArgumentException if the {@link OutputStream} is null
+	 * @throws IOException              if the context object could not be
+	 *                                  written
+	 */
+	public void shutdownTo(OutputStream outputStream) throws IllegalArgumentException, IOException {
+		this.shutdownTo(outputStream == null ? null
+				: new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), STREAMBUFFERSIZE));
+	}
+
+	/**
+	 * Writes the current context object incrementally as UTF-8 encoded JSON to a
+	 * blocking {@link WritableByteChannel} and shuts this ConversationEngine
+	 * object down. The channel is not closed. If the context object could not be
+	 * written, the ConversationEngine is not shut down
+	 *
+	 * @param channel the {@link WritableByteChannel} to write the context object
+	 *                to
+	 * @throws IllegalArgumentException if the {@link WritableByteChannel} is null
+	 * @throws IOException              if the context object could not be
+	 *                                  written
+	 */
+	public void shutdownTo(WritableByteChannel channel) throws IllegalArgumentException, IOException {
+		this.shutdownTo(channel == null ? null
+				: Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), STREAMBUFFERSIZE));
+	}
+
+	/**
+	 * Cancels the timeout, marks this ConversationEngine object as closed and
+	 * releases its context object
+	 *
+	 * @return the context object before the ConversationEngine was closed
+	 */
+	private ConversationContext close() {
+		Logging.debug("Shutting down the Conversation Engine {}", this);
+		if (this.sleepTimeout != null) {
+			this.sleepTimeout.cancel();
+		}
+		this.closed = true;
+		ConversationContext lastContext = this.context;
+		this.context = new ConversationContext();
+		return lastContext;
+	}
+
 	/**
 	 * Processes a new input and returns a {@link List} of answers
 	 *
@@ -246,30 +755,91 @@ public class ConversationEngine {
 	 * @return a {@link List} of answers
 	 */
 	public List<String> userInput(String input) {
+		try {
+			return this.userInputAsync(input).toCompletableFuture().join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Processes a new input asynchronously. The turn continues on the thread that
+	 * completes the stage of the {@link INLPComponent#understandInputAsync
+	 * INLPComponent}, so that no thread waits for the {@link INLPComponent}. With
+	 * a synchronous {@link INLPComponent} the returned stage is already completed.
+	 * <br>
+	 * <br>
+	 * The next input of this {@link ConversationEngine} must not be processed
+	 * before the returned stage completed
+	 *
+	 * @param input the input to process
+	 * @return a stage that completes with the {@link List} of answers or
+	 *         exceptionally if the {@link INLPComponent} or a skill failed, the
+	 *         answers of a failed turn are discarded
+	 */
+	public CompletionStage<List<String>> userInputAsync(String input) {
 		if (this.closed) {
 			this.logIllegalAccess();
-			return new ArrayList<>();
+			return CompletableFuture.completedFuture(new ArrayList<>());
 		}
+		this.lastContextChanges = new JSONArray();
 		if (input == null || input.isBlank()) {
 			Logging.warn("The user input was null or blank");
 			this.defaultErrorUserOuput();
-			return UserOutput.popNextOutput();
+			return CompletableFuture.completedFuture(this.userOutput.popNextOutput());
 		}
 		Logging.userInput(input);
+		if (this.contextChangeTracking) {
+			this.context.trackChanges();
+		}
+		if (!this.entityScopes.isEmpty()) {
+			this.context.collectChangedKeys();
+		}
 		this.leaveSleepState();
-		if (this.wasLastQuestionSkillQuestion) {
-			this.processSkillQuestion(input);
+		CompletionStage<Void> turn;
+		String triggerIntent = this.matchExpectedTriggerIntent(input);
+		if (triggerIntent != null) {
+			Logging.debug("The input was resolved to the trigger intent {} without the NLPComponent", triggerIntent);
+			turn = this.processINLPAnswer(new SimpleNLPAnswer(List.of(triggerIntent), false, this.i18n.getLanguage()));
+		} else if (this.wasLastQuestionSkillQuestion) {
+			turn = this.processSkillQuestion(input);
 		} else if (this.wasLastQuestionChooseSkill) {
-			this.processChooseSkillQuestion(input);
+			turn = this.processChooseSkillQuestion(input);
 		} else {
-			this.processNormalRequest(input);
+			turn = this.processNormalRequest(input);
+		}
+		if (!this.entityScopes.isEmpty()) {
+			turn = turn.whenComplete((ignored, ex) -> this.evictContextEntries());
+		}
+		if (this.contextChangeTracking) {
+			// the changes are also taken if the turn failed, so that no change is lost
+			turn = turn.whenComplete((ignored, ex) -> this.lastContextChanges = this.context.takeChanges());
 		}
+		// the output of a failed turn is discarded, so that it does not precede the
+		// answers of the next turn
+		turn = turn.whenComplete((ignored, ex) -> {
+			if (ex != null) {
+				this.userOutput.clear();
+			}
+		});
+		return turn.thenApply(ignored -> this.finishTurn());
+	}
+
+	/**
+	 * Finishes the current turn and returns its answers
+	 *
+	 * @return a {@link List} of answers
+	 */
+	private List<String> finishTurn() {
 		String withinCurrentSkill = "";
 		if (this.currentSkillStateMachine != null) {
 			withinCurrentSkill = " within the skill " + this.currentSkillStateMachine.getName();
 		}
 		Logging.debug("The Conversation Engine is currently in the state: {}{}", this.getState(), withinCurrentSkill);
-		return UserOutput.popNextOutput();
+		return this.userOutput.popNextOutput();
 	}
 
 	/**
@@ -277,22 +847,49 @@ public class ConversationEngine {
 	 * previously
 	 *
 	 * @param input the user input
+	 * @return a stage that completes once the input was processed
 	 */
-	private void processNormalRequest(String input) {
-		this.processINLPAnswer(this.nlpComponent.understandInput(input, this.contextObject));
+	private CompletionStage<Void> processNormalRequest(String input) {
+		return ContextMutations
+				.withProjection(this.context, this.projectedContextKeys,
+						projection -> this.nlpComponent.understandInputWithContextAsync(input, projection))
+				.thenCompose(this::processINLPAnswer);
+	}
 
+	/**
+	 * Returns the trigger intent of the input, if the input answers the abort
+	 * question or the question to return to the previous skill with trigger
+	 * words only
+	 *
+	 * @param input the user input
+	 * @return the trigger intent that answers the last question or null if the
+	 *         input has to be processed by the {@link INLPComponent}
+	 */
+	private String matchExpectedTriggerIntent(String input) {
+		if (!this.wasLastQuestionAbortQuestion && !this.wasLastQuestionReturnToPreviousSkill) {
+			return null;
+		}
+		String intent = this.i18n.getTriggerKeywords().getIntent(input);
+		if (this.wasLastQuestionAbortQuestion && ("last".equals(intent) || "all".equals(intent))) {
+			return intent;
+		}
+		if (this.wasLastQuestionReturnToPreviousSkill && ("yes".equals(intent) || "no".equals(intent))) {
+			return intent;
+		}
+		return null;
 	}
 
 	/**
 	 * Processes the returned {@link INLPAnswer} of the {@link INLPComponent}
 	 *
 	 * @param processedInput the {@link INLPAnswer} of the {@link INLPComponent}
+	 * @return a stage that completes once the {@link INLPAnswer} was processed
 	 */
-	private void processINLPAnswer(INLPAnswer processedInput) {
+	private CompletionStage<Void> processINLPAnswer(INLPAnswer processedInput) {
 		if (processedInput == null) {
 			Logging.error("NLP Component's returned INLPAnswer is null");
 			this.defaultErrorUserOuput();
-			return;
+			return done();
 		}
 		List<String> intents = processedInput.getIntents();
 		Locale foundLanguage = processedInput.getInputLanguage();
@@ -300,43 +897,45 @@ public class ConversationEngine {
 		if (foundLanguage == null) {
 			Logging.warn("NLPComponent did not return a language");
 		} else {
-			I18n.setLanguage(foundLanguage);
+			this.i18n.setLanguage(foundLanguage);
 		}
 		// If the NLPAnswer has no result -> treat it as bad input
 		if (!addedEntities && (intents == null || intents.isEmpty())) {
 			this.defaultErrorUserOuput();
-			return;
+			return done();
 		}
 		if (intents != null && !intents.isEmpty()) {
 			// keep the correct input order for the stack/dequeue
 			Collections.reverse(intents);
 			this.pendingIntents.addAll(intents);
 			if (this.wasLastQuestionAbortQuestion || this.wasLastQuestionReturnToPreviousSkill) {
-				this.processSpecialQuestion();
-				return;
+				return this.processSpecialQuestion();
 			}
 			if ("abort".equalsIgnoreCase(intents.get(0))) {
 				this.pendingIntents.removeLast();
 				this.abortRequested();
-				return;
+				return done();
 			}
 		}
-		this.evaluateNextAction();
+		return this.evaluateNextAction();
 	}
 
 	/**
 	 * Process special questions that were asked by the {@link ConversationEngine}
 	 * itself
+	 *
+	 * @return a stage that completes once the question was processed
 	 */
-	private void processSpecialQuestion() {
+	private CompletionStage<Void> processSpecialQuestion() {
 		if (this.wasLastQuestionAbortQuestion) {
 			this.wasLastQuestionAbortQuestion = false;
-			this.processAbortQuestion();
-		} else if (this.wasLastQuestionReturnToPreviousSkill) {
+			return this.processAbortQuestion();
+		}
+		if (this.wasLastQuestionReturnToPreviousSkill) {
 			this.wasLastQuestionReturnToPreviousSkill = false;
-			this.processReturnToPreviousSkillQuestion();
+			return this.processReturnToPreviousSkillQuestion();
 		}
-
+		return done();
 	}
 
 	/**
@@ -352,22 +951,23 @@ public class ConversationEngine {
 	 * If the abort question was not answered, the input will be processed
 	 * {@link #processNormalRequest(String)}
 	 *
+	 * @return a stage that completes once the question was processed
 	 */
-	private void processAbortQuestion() {
+	private CompletionStage<Void> processAbortQuestion() {
 		String intent = this.pendingIntents.peekLast();
 		if ("last".equalsIgnoreCase(intent)) {
 			this.pendingIntents.removeLast();
 			this.resetCurrentSkillStateMachine(false);
-			UserOutput.addOutputMessageFromLocalizationKey("BackToSkill", this.currentSkillStateMachine.getName());
-			this.evaluateNextAction();
-			return;
+			this.userOutput.addOutputMessageFromLocalizationKey("BackToSkill", this.currentSkillStateMachine.getName());
+			return this.evaluateNextAction();
 		}
 		if ("all".equalsIgnoreCase(intent)) {
 			this.pendingIntents.removeLast();
 			this.clearPipeline();
-			return;
+			return done();
 		}
 		this.askAbortQuestion();
+		return done();
 	}
 
 	/**
@@ -385,21 +985,22 @@ public class ConversationEngine {
 	 * If the abort question was not answered, the input will be processed
 	 * {@link #processNormalRequest normally}
 	 *
+	 * @return a stage that completes once the question was processed
 	 */
-	private void processReturnToPreviousSkillQuestion() {
+	private CompletionStage<Void> processReturnToPreviousSkillQuestion() {
 		String intent = this.pendingIntents.peekLast();
 		if ("Yes".equalsIgnoreCase(intent)) {
 			this.pendingIntents.removeLast();
-			UserOutput.addOutputMessageFromLocalizationKey("BackToSkill", this.currentSkillStateMachine.getName());
-			this.evaluateNextAction();
-			return;
+			this.userOutput.addOutputMessageFromLocalizationKey("BackToSkill", this.currentSkillStateMachine.getName());
+			return this.evaluateNextAction();
 		}
 		if ("No".equalsIgnoreCase(intent)) {
 			this.pendingIntents.removeLast();
 			this.resetCurrentSkillStateMachine(true);
-			return;
+			return done();
 		}
 		this.askContinueLastSkill();
+		return done();
 	}
 
 	/**
@@ -407,18 +1008,30 @@ public class ConversationEngine {
 	 * was not answered, the corresponding skill will have to ask the question again
 	 *
 	 * @param input the input to process
+	 * @return a stage that completes once the input was processed
 	 */
-	private void processSkillQuestion(String input) {
-		INLPAnswer processedInput;
+	private CompletionStage<Void> processSkillQuestion(String input) {
 		String entityName = this.pendingSkillQuestions.getTopEntity(this.currentSkillStateMachine.getName());
-		processedInput = this.nlpComponent.understandInput(input, entityName, this.contextObject);
-		if (processedInput.hasAddedEntities()) {
+		return ContextMutations
+				.withProjection(this.context, this.currentSkillStateMachine.getProjectedContextKeys(),
+						projection -> this.nlpComponent.understandInputWithContextAsync(input, entityName, projection))
+				.thenCompose(this::processSkillQuestionAnswer);
+	}
+
+	/**
+	 * Processes the {@link INLPAnswer} to a skill question
+	 *
+	 * @param processedInput the {@link INLPAnswer} of the {@link INLPComponent}
+	 * @return a stage that completes once the {@link INLPAnswer} was processed
+	 */
+	private CompletionStage<Void> processSkillQuestionAnswer(INLPAnswer processedInput) {
+		if (processedInput != null && processedInput.hasAddedEntities()) {
 			// Remove last asked question. If the question was not answered, then the
 			// corresponding skill will have to ask the same question again
 			this.wasLastQuestionSkillQuestion = false;
 			this.pendingSkillQuestions.removeTopQuestionAndEntity(this.currentSkillStateMachine.getName());
 		}
-		this.processINLPAnswer(processedInput);
+		return this.processINLPAnswer(processedInput);
 	}
 
 	/**
@@ -429,8 +1042,9 @@ public class ConversationEngine {
 	 * {@link #processNormalRequest normal request}
 	 *
 	 * @param input the input to process
+	 * @return a stage that completes once the input was processed
 	 */
-	private void processChooseSkillQuestion(String input) {
+	private CompletionStage<Void> processChooseSkillQuestion(String input) {
 		// match input to possible skills to choose from
 		String nextSkill = this.possibleSkillsForChooseSkillQuestion.stream().filter(input::equalsIgnoreCase)
 				.findFirst().orElse("");
@@ -440,34 +1054,44 @@ public class ConversationEngine {
 					"The question to choose a skill was not answered!\nPossible skills are: {}\nUser input is: {}",
 					this.possibleSkillsForChooseSkillQuestion, input);
 			this.askChooseSkillQuestion();
-		} else {
-			this.wasLastQuestionChooseSkill = false;
-			this.leaveCurrentSkillStateMachine();
-			this.currentSkillStateMachine = this.allSkillStateMachines.stream()
-					.filter(skill -> skill.getName().equals(nextSkill)).findFirst().orElse(null);
-			this.evaluateNextAction();
-			this.possibleSkillsForChooseSkillQuestion.clear();
+			return done();
 		}
+		this.wasLastQuestionChooseSkill = false;
+		this.leaveCurrentSkillStateMachine();
+		this.currentSkillStateMachine = this.allSkillStateMachines.stream()
+				.filter(skill -> skill.getName().equals(nextSkill)).findFirst().orElse(null);
+		return this.evaluateNextAction().thenRun(this.possibleSkillsForChooseSkillQuestion::clear);
 	}
 
 	/**
 	 * Processes the next {@link #pendingIntents intent}
 	 *
+	 * @return a stage that completes once the intent was processed
 	 */
-	private void processNextIntent() {
+	private CompletionStage<Void> processNextIntent() {
 		String intent = this.pendingIntents.peekLast();
 		Logging.debug("Processing the intent '{}'", intent);
 		this.lastIntent = intent;
 		SkillStateMachine nextSkillStateMachine = this.getNextSkillStateMachine(intent);
 		if (nextSkillStateMachine == null) {
-			return;
+			return done();
 		}
 		this.currentSkillStateMachine = nextSkillStateMachine;
 
-		ISkillAnswer answer = this.currentSkillStateMachine.execute(intent, this.contextObject, I18n.getLanguage());
+		return this.currentSkillStateMachine.execute(intent, this.context, this.i18n.getLanguage())
+				.thenCompose(this::processSkillExecution);
+	}
+
+	/**
+	 * Continues the conversation with the answer of the executed skill
+	 *
+	 * @param answer the answer of the executed skill or null if an error occurred
+	 * @return a stage that completes once the next action was processed
+	 */
+	private CompletionStage<Void> processSkillExecution(ISkillAnswer answer) {
 		if (answer == null) {
 			this.defaultErrorUserOuput();
-			return;
+			return done();
 		}
 
 		this.processSkillAnswer(answer);
@@ -475,9 +1099,9 @@ public class ConversationEngine {
 		if (skillMachineEnded && this.currentSkillStateMachine != null) {
 			this.wasLastQuestionReturnToPreviousSkill = true;
 			this.askContinueLastSkill();
-			return;
+			return done();
 		}
-		this.evaluateNextAction();
+		return this.evaluateNextAction();
 	}
 
 	/**
@@ -488,7 +1112,7 @@ public class ConversationEngine {
 	private void processSkillAnswer(ISkillAnswer skillAnswer) {
 		boolean answerIsEmpty = true;
 		if (skillAnswer.answers() != null && !skillAnswer.answers().isEmpty()) {
-			UserOutput.addOutputMessages(skillAnswer.answers());
+			this.userOutput.addOutputMessages(skillAnswer.answers());
 			answerIsEmpty = false;
 		}
 		if (skillAnswer.skipUserOutput()) {
@@ -516,8 +1140,10 @@ public class ConversationEngine {
 
 	/**
 	 * Evaluates the next possible action. <br>
+	 *
+	 * @return a stage that completes once the next action was processed
 	 */
-	private void evaluateNextAction() {
+	private CompletionStage<Void> evaluateNextAction() {
 
 		// if the intent is still the same and the skill for the intent has questions
 		// left to ask of the user
@@ -525,13 +1151,14 @@ public class ConversationEngine {
 				&& this.lastIntent.equals(this.pendingIntents.peekLast())
 				&& this.pendingSkillQuestions.getNumberOfQuestions(this.currentSkillStateMachine.getName()) > 0) {
 			this.askNextQuestion();
-			return;
+			return done();
 
 		}
 
 		if (!this.pendingIntents.isEmpty()) {
-			this.processNextIntent();
+			return this.processNextIntent();
 		}
+		return done();
 	}
 
 	/**
@@ -551,7 +1178,7 @@ public class ConversationEngine {
 
 	/**
 	 * Resets the {@link ConversationEngine} to the initial state, except for the
-	 * {@link #contextObject}
+	 * {@link #context}
 	 */
 	private void clearPipeline() {
 		// reset both, the current and last skillStateMachine
@@ -567,28 +1194,32 @@ public class ConversationEngine {
 	}
 
 	/**
-	 * Creates a new {@link Timer} that transitions the {@link ConversationEngine}
-	 * into the sleepState after {@link #timeoutInSeconds } seconds and if an old
-	 * timer exists, cancels it
+	 * (Re-)arms the {@link #sleepTimeout} that transitions the
+	 * {@link ConversationEngine} into the sleepState after
+	 * {@link #timeoutInSeconds} seconds
 	 */
 	private void scheduleNewTimeoutTask() {
-		// This could be extended
-		TimerTask timerTask = new TimerTask() {
-			@Override
-			public void run() {
-				if ("defaultState".equals(ConversationEngine.this.currentState.getName())) {
-					Logging.debug("Entering Sleep State");
-					ConversationEngine.this.currentState = ConversationEngine.this.currentState.getNextState("SLEEP");
-				}
+		this.sleepTimeout.schedule(this.timeoutInSeconds * 1000L);
+	}
+
+	/**
+	 * Transitions the {@link ConversationEngine} into the sleepState, if it is
+	 * currently in the defaultState. Runs on the thread of the
+	 * {@link TimeoutScheduler}
+	 */
+	private void enterSleepState() {
+		if ("defaultState".equals(this.currentState.getName())) {
+			Logging.debug("Entering Sleep State");
+			this.currentState = this.currentState.getNextState("SLEEP");
+			Runnable listener = this.sleepListener;
+			if (listener != null) {
+				listener.run();
 			}
-		};
-		this.timer.cancel();
-		this.timer = new Timer();
-		this.timer.schedule(timerTask, this.timeoutInSeconds * 1000L);
+		}
 	}
 
 	/**
-	 * Resets the {@link #timer}.<br>
+	 * Resets the {@link #sleepTimeout}.<br>
 	 * If the {@link ConversationEngine} is currently in the sleepState, then it
 	 * will transition to the defaultState
 	 */
@@ -596,10 +1227,12 @@ public class ConversationEngine {
 		if ("sleepState".equals(this.currentState.getName())) {
 			Logging.debug("Leaving Sleep State");
 			this.currentState = this.currentState.getNextState("WAKEUP");
-			UserOutput.addOutputMessageFromLocalizationKey("WelcomeBack");
+			this.userOutput.addOutputMessageFromLocalizationKey("WelcomeBack");
 		}
 
-		this.scheduleNewTimeoutTask();
+		if (this.timeoutInSeconds > 0) {
+			this.scheduleNewTimeoutTask();
+		}
 	}
 
 	/**
@@ -607,7 +1240,7 @@ public class ConversationEngine {
 	 */
 	private void askNextQuestion() {
 		String nextQuestion = this.pendingSkillQuestions.getTopQuestion(this.currentSkillStateMachine.getName());
-		UserOutput.addOutputQuestion(nextQuestion);
+		this.userOutput.addOutputQuestion(nextQuestion);
 		this.wasLastQuestionSkillQuestion = true;
 	}
 
@@ -615,7 +1248,7 @@ public class ConversationEngine {
 	 * Adds the question of choosing a skill to the {@link UserOutput}
 	 */
 	private void askChooseSkillQuestion() {
-		UserOutput.addOutputMessageFromLocalizationKey("MultipleSkills",
+		this.userOutput.addOutputMessageFromLocalizationKey("MultipleSkills",
 				this.possibleSkillsForChooseSkillQuestion.stream().collect(Collectors.joining(",")));
 	}
 
@@ -624,7 +1257,7 @@ public class ConversationEngine {
 	 * the {@link UserOutput}
 	 */
 	private void askAbortQuestion() {
-		UserOutput.addOutputMessageFromLocalizationKey("AbortQuestion");
+		this.userOutput.addOutputMessageFromLocalizationKey("AbortQuestion");
 	}
 
 	/**
@@ -632,7 +1265,7 @@ public class ConversationEngine {
 	 * {@link UserOutput}
 	 */
 	private void askContinueLastSkill() {
-		UserOutput.addOutputMessageFromLocalizationKey("ContinueLastSkill", this.currentSkillStateMachine.getName());
+		this.userOutput.addOutputMessageFromLocalizationKey("ContinueLastSkill", this.currentSkillStateMachine.getName());
 	}
 
 	/**
@@ -649,15 +1282,10 @@ public class ConversationEngine {
 			return this.currentSkillStateMachine;
 		}
 
-		List<SkillStateMachine> possibleSkills = new ArrayList<>();
-		for (SkillStateMachine ssm : this.allSkillStateMachines) {
-			if (ssm.canExecute(intent)) {
-				possibleSkills.add(ssm);
-			}
-		}
+		List<SkillStateMachine> possibleSkills = this.skillRouter.getPossibleSkillStateMachines(intent);
 
 		if (possibleSkills.isEmpty()) {
-			UserOutput.addOutputMessageFromLocalizationKey("NoSkillFound");
+			this.userOutput.addOutputMessageFromLocalizationKey("NoSkillFound");
 			Logging.debug("Could not find a skill to process the intent {}", intent);
 			return null;
 		}
@@ -680,6 +1308,143 @@ public class ConversationEngine {
 
 	}
 
+	/**
+	 * Adds a new {@link SkillStateMachine} to the list of all skill state machines,
+	 * unless a skill with the same name already exists
+	 *
+	 * @param newSkillStateMachine the {@link SkillStateMachine} to add
+	 * @return true if the {@link SkillStateMachine} was added
+	 */
+	private boolean addSkillStateMachine(SkillStateMachine newSkillStateMachine) {
+		if (this.allSkillStateMachines.stream().anyMatch(
+				skillStateMachine -> skillStateMachine.getName().equalsIgnoreCase(newSkillStateMachine.getName()))) {
+			Logging.error("The skill {} already exists", newSkillStateMachine.getName());
+			return false;
+		}
+
+		this.allSkillStateMachines.add(newSkillStateMachine);
+		this.skillRouter.add(newSkillStateMachine);
+		this.updateProjectedContextKeys();
+		this.updateEntityScopes();
+		return true;
+	}
+
+	/**
+	 * Updates the keys of the context entries the {@link INLPComponent} receives
+	 * for a new input. The {@link INLPComponent} only receives the used entities
+	 * of all skills, if there is at least one skill and every skill declares a
+	 * context projection
+	 */
+	private void updateProjectedContextKeys() {
+		if (this.allSkillStateMachines.isEmpty()) {
+			this.projectedContextKeys = null;
+			return;
+		}
+		Set<String> keys = new HashSet<>();
+		for (SkillStateMachine skillStateMachine : this.allSkillStateMachines) {
+			List<String> skillKeys = skillStateMachine.getProjectedContextKeys();
+			if (skillKeys == null) {
+				this.projectedContextKeys = null;
+				return;
+			}
+			keys.addAll(skillKeys);
+		}
+		this.projectedContextKeys = keys;
+	}
+
+	/**
+	 * Updates the combined lifecycles of the entities of all skills. An entity
+	 * that is used by multiple skills is kept as long as the longest declared
+	 * lifecycle demands, an entity without a declared lifecycle is kept for the
+	 * whole session
+	 */
+	private void updateEntityScopes() {
+		Map<String, EntityScope> scopes = new HashMap<>();
+		for (SkillStateMachine skillStateMachine : this.allSkillStateMachines) {
+			SkillDefinition definition = skillStateMachine.getDefinition();
+			for (String entity : definition.getUsedEntities()) {
+				scopes.merge(entity, definition.getEntityScope(entity), EntityScope::merge);
+			}
+		}
+		scopes.values().removeIf(EntityScope::isPermanent);
+		this.entityScopes = scopes;
+	}
+
+	/**
+	 * Removes the entities of the context object, that are only kept for a single
+	 * input or whose time to live expired. Called after each input
+	 */
+	private void evictContextEntries() {
+		long now = System.nanoTime();
+		for (Map.Entry<String, EntityScope> entry : this.entityScopes.entrySet()) {
+			String entity = entry.getKey();
+			EntityScope scope = entry.getValue();
+			if (scope.getLifetime() == EntityScope.Lifetime.TURN) {
+				this.evictEntity(entity);
+			} else if (scope.expires() && this.context.hasSessionEntry(entity) && this.context.wasChanged(entity)) {
+				this.entityChangeTimes.put(entity, now);
+			}
+		}
+		this.evictExpiredContextEntries(now);
+	}
+
+	/**
+	 * Removes the entities of the context object, whose time to live expired.
+	 * Entities that were not seen before, e.g. of a restored context object,
+	 * start their time to live now
+	 *
+	 * @param now the current time in nanoseconds
+	 * @return the number of removed entities
+	 */
+	private int evictExpiredContextEntries(long now) {
+		int evictedEntities = 0;
+		for (Map.Entry<String, EntityScope> entry : this.entityScopes.entrySet()) {
+			String entity = entry.getKey();
+			EntityScope scope = entry.getValue();
+			if (!scope.expires()) {
+				continue;
+			}
+			if (!this.context.hasSessionEntry(entity)) {
+				this.entityChangeTimes.remove(entity);
+				continue;
+			}
+			Long lastChange = this.entityChangeTimes.putIfAbsent(entity, now);
+			if (lastChange != null && now - lastChange >= scope.getTtlInNanos()) {
+				this.evictEntity(entity);
+				evictedEntities++;
+			}
+		}
+		return evictedEntities;
+	}
+
+	/**
+	 * Removes the entities of a skill from the context object, that are only kept
+	 * while the skill runs
+	 *
+	 * @param skillStateMachine the skill that ended or was aborted
+	 */
+	private void evictSkillEntities(SkillStateMachine skillStateMachine) {
+		for (String entity : skillStateMachine.getDefinition().getUsedEntities()) {
+			EntityScope scope = this.entityScopes.get(entity);
+			if (scope != null && scope.getLifetime() == EntityScope.Lifetime.SKILL) {
+				this.evictEntity(entity);
+			}
+		}
+	}
+
+	/**
+	 * Removes an entity from the context object
+	 *
+	 * @param entity the entity to remove
+	 */
+	private void evictEntity(String entity) {
+		if (this.context.hasSessionEntry(entity)) {
+			Logging.debug("Removing the entity {} from the context object", entity);
+			this.context.evictEntry(entity);
+		}
+		this.entityChangeTimes.remove(entity);
+	}
+
 	/**
 	 * leaves the {@link #currentSkillStateMachine} and sets it as the
 	 * {@link #lastUsedSkillStateMachine}
@@ -706,6 +1471,7 @@ public class ConversationEngine {
 			return;
 		}
 		this.removeIntentsOfCurrentSkill();
+		this.evictSkillEntities(this.currentSkillStateMachine);
 		this.currentSkillStateMachine.reset();
 		this.pendingSkillQuestions.removeAllSkillQuestions(this.currentSkillStateMachine.getName());
 		this.wasLastQuestionSkillQuestion = false;
@@ -745,6 +1511,15 @@ public class ConversationEngine {
 		return currentSkillStateMachineEnded;
 	}
 
+	/**
+	 * Returns an already completed stage
+	 *
+	 * @return an already completed stage
+	 */
+	private static CompletionStage<Void> done() {
+		return CompletableFuture.completedFuture(null);
+	}
+
 	/**
 	 * Logs that a method on this object was called after it has been shut down
 	 */
@@ -756,18 +1531,19 @@ public class ConversationEngine {
 	 * Handles default errors and give the user a few example requests.
 	 */
 	private void defaultErrorUserOuput() {
-		UserOutput.addDefaultErrorMessage();
+		this.userOutput.addDefaultErrorMessage();
 		if (this.currentSkillStateMachine != null) {
-			List<String> possibleRequest = this.currentSkillStateMachine.getExampleRequests(I18n.getLanguage());
+			List<String> possibleRequest = this.currentSkillStateMachine
+					.getExampleRequests(this.i18n.getLanguage());
 			if (possibleRequest != null && !possibleRequest.isEmpty()) {
-				UserOutput.addOutputMessages(possibleRequest);
+				this.userOutput.addOutputMessages(possibleRequest);
 			}
 		} else {
 			// Get all possible requests from all skills
 			List<String> allPossibleRequests = new ArrayList<>(this.allSkillStateMachines.size());
 			List<String> selectedPossibleRequests = new ArrayList<>(3);
 			for (SkillStateMachine skill : this.allSkillStateMachines) {
-				allPossibleRequests.addAll(skill.getExampleRequests(I18n.getLanguage()));
+				allPossibleRequests.addAll(skill.getExampleRequests(this.i18n.getLanguage()));
 			}
 			// Select 3 possible requests
 			Collections.shuffle(allPossibleRequests);
@@ -777,8 +1553,8 @@ public class ConversationEngine {
 					break;
 				}
 			}
-			UserOutput.addOutputMessageFromLocalizationKey("PossibleInputs");
-			UserOutput.addOutputMessages(selectedPossibleRequests);
+			this.userOutput.addOutputMessageFromLocalizationKey("PossibleInputs");
+			this.userOutput.addOutputMessages(selectedPossibleRequests);
 
 		}
 		if (this.wasLastQuestionSkillQuestion) {
@@ -0,0 +1,360 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONException;
+
+/**
+ * The complete state of a {@link ConversationEngine} session and its binary
+ * format. The format starts with a magic number and its version, followed by a
+ * table of all names, intents and questions. The state itself only refers to
+ * the entries of the table by their index, so that each String is stored once.
+ * Numbers are stored as variable-length integers. The context object follows
+ * as UTF-8 encoded JSON up to the end of the snapshot, so that it is written
+ * directly into the snapshot
+ *
+ * @author Marcel Engelmann
+ *
+ */
+final class EngineSnapshot {
+	private static final int MAGIC = 0x43455331;
+	private static final byte VERSION = 2;
+	private static final int SLEEPING = 1;
+	private static final int CHOOSESKILLQUESTION = 1 << 1;
+	private static final int SKILLQUESTION = 1 << 2;
+	private static final int ABORTQUESTION = 1 << 3;
+	private static final int RETURNTOPREVIOUSSKILLQUESTION = 1 << 4;
+
+	boolean sleeping;
+	boolean wasLastQuestionChooseSkill;
+	boolean wasLastQuestionSkillQuestion;
+	boolean wasLastQuestionAbortQuestion;
+	boolean wasLastQuestionReturnToPreviousSkill;
+	String language;
+	String lastIntent;
+	// the names of the skills, null if there is no such skill
+	String currentSkill;
+	String lastUsedSkill;
+	// the current states of the skills that are not in their start state, mapped
+	// by the names of the skills
+	Map<String, String> skillStates = new LinkedHashMap<>();
+	List<String> pendingIntents = new ArrayList<>();
+	// the entity names and questions of each skill, in the order they were asked
+	Map<String, List<QuestionTuple>> pendingQuestions = new LinkedHashMap<>();
+	List<String> possibleSkillsForChooseSkillQuestion = new ArrayList<>();
+	// the wall-clock times in milliseconds of the last changes of the expiring
+	// entities, mapped by the names of the entities
+	Map<String, Long> entityChangeTimes = new LinkedHashMap<>();
+	ConversationContext context;
+
+	/**
+	 * Encodes the snapshot into its binary format
+	 *
+	 * @return the encoded snapshot
+	 */
+	byte[] encode() {
+		Map<String, Integer> strings = new LinkedHashMap<>();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try {
+			DataOutputStream out = new DataOutputStream(body);
+			int flags = (this.sleeping ? SLEEPING : 0) | (this.wasLastQuestionChooseSkill ? CHOOSESKILLQUESTION : 0)
+					| (this.wasLastQuestionSkillQuestion ? SKILLQUESTION : 0)
+					| (this.wasLastQuestionAbortQuestion ? ABORTQUESTION : 0)
+					| (this.wasLastQuestionReturnToPreviousSkill ? RETURNTOPREVIOUSSKILLQUESTION : 0);
+			out.writeByte(flags);
+			writeString(out, strings, this.language);
+			writeString(out, strings, this.lastIntent);
+			writeString(out, strings, this.currentSkill);
+			writeString(out, strings, this.lastUsedSkill);
+			writeVarInt(out, this.skillStates.size());
+			for (Map.Entry<String, String> entry : this.skillStates.entrySet()) {
+				writeString(out, strings, entry.getKey());
+				writeString(out, strings, entry.getValue());
+			}
+			writeStrings(out, strings, this.pendingIntents);
+			writeVarInt(out, this.pendingQuestions.size());
+			for (Map.Entry<String, List<QuestionTuple>> entry : this.pendingQuestions.entrySet()) {
+				writeString(out, strings, entry.getKey());
+				writeVarInt(out, entry.getValue().size());
+				for (QuestionTuple question : entry.getValue()) {
+					writeString(out, strings, question.getEntityName());
+					writeString(out, strings, question.getQuestion());
+				}
+			}
+			writeStrings(out, strings, this.possibleSkillsForChooseSkillQuestion);
+			writeVarInt(out, this.entityChangeTimes.size());
+			for (Map.Entry<String, Long> entry : this.entityChangeTimes.entrySet()) {
+				writeString(out, strings, entry.getKey());
+				out.writeLong(entry.getValue());
+			}
+
+			ByteArrayOutputStream snapshot = new ByteArrayOutputStream(body.size() + 64);
+			DataOutputStream header = new DataOutputStream(snapshot);
+			header.writeInt(MAGIC);
+			header.writeByte(VERSION);
+			writeVarInt(header, strings.size());
+			for (String string : strings.keySet()) {
+				byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(header, bytes.length);
+				header.write(bytes);
+			}
+			body.writeTo(snapshot);
+			Writer writer = new BufferedWriter(new OutputStreamWriter(snapshot, StandardCharsets.UTF_8));
+			this.context.writeTo(writer);
+			writer.flush();
+			return snapshot.toByteArray();
+		} catch (IOException ex) {
+			// a ByteArrayOutputStream does not throw IOExceptions
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Decodes a snapshot from its binary format
+	 *
+	 * @param bytes the encoded snapshot
+	 * @return the decoded snapshot
+	 * @throws IllegalArgumentException if the bytes are no snapshot, the snapshot
+	 *                                  has an unsupported version or is corrupted
+	 */
+	static EngineSnapshot decode(byte[] bytes) throws IllegalArgumentException {
+		if (bytes == null) {
+			Logging.error("The snapshot to restore is null");
+			throw new IllegalArgumentException("The snapshot to restore is null");
+		}
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+			if (in.readInt() != MAGIC) {
+				throw invalid("The bytes are no snapshot of a ConversationEngine");
+			}
+			byte version = in.readByte();
+			if (version != VERSION) {
+				throw invalid("The snapshot version " + version + " is not supported");
+			}
+			String[] strings = new String[readLength(in)];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = new String(readBytes(in), StandardCharsets.UTF_8);
+			}
+			EngineSnapshot snapshot = new EngineSnapshot();
+			int flags = in.readUnsignedByte();
+			snapshot.sleeping = (flags & SLEEPING) != 0;
+			snapshot.wasLastQuestionChooseSkill = (flags & CHOOSESKILLQUESTION) != 0;
+			snapshot.wasLastQuestionSkillQuestion = (flags & SKILLQUESTION) != 0;
+			snapshot.wasLastQuestionAbortQuestion = (flags & ABORTQUESTION) != 0;
+			snapshot.wasLastQuestionReturnToPreviousSkill = (flags & RETURNTOPREVIOUSSKILLQUESTION) != 0;
+			snapshot.language = readRequiredString(in, strings);
+			snapshot.lastIntent = readString(in, strings);
+			snapshot.currentSkill = readString(in, strings);
+			snapshot.lastUsedSkill = readString(in, strings);
+			int numberOfSkillStates = readLength(in);
+			for (int i = 0; i < numberOfSkillStates; i++) {
+				snapshot.skillStates.put(readRequiredString(in, strings), readRequiredString(in, strings));
+			}
+			snapshot.pendingIntents = readStrings(in, strings);
+			int numberOfSkills = readLength(in);
+			for (int i = 0; i < numberOfSkills; i++) {
+				String skill = readRequiredString(in, strings);
+				int numberOfQuestions = readLength(in);
+				List<QuestionTuple> questions = new ArrayList<>(numberOfQuestions);
+				for (int j = 0; j < numberOfQuestions; j++) {
+					questions.add(
+							new QuestionTuple(readRequiredString(in, strings), readRequiredString(in, strings)));
+				}
+				snapshot.pendingQuestions.put(skill, questions);
+			}
+			snapshot.possibleSkillsForChooseSkillQuestion = readStrings(in, strings);
+			int numberOfEntities = readLength(in);
+			for (int i = 0; i < numberOfEntities; i++) {
+				snapshot.entityChangeTimes.put(readRequiredString(in, strings), in.readLong());
+			}
+			snapshot.context = ConversationContext.read(new InputStreamReader(in, StandardCharsets.UTF_8));
+			return snapshot;
+		} catch (IOException | JSONException | IndexOutOfBoundsException ex) {
+			throw invalid("The snapshot is corrupted: " + ex);
+		}
+	}
+
+	/**
+	 * Writes the index of a String and adds the String to the table, if it is not
+	 * part of it yet
+	 *
+	 * @param out     the output to write to
+	 * @param strings the table of all Strings mapped to their index
+	 * @param string  the String to write or null
+	 * @throws IOException if the index could not be written
+	 */
+	private static void writeString(DataOutputStream out, Map<String, Integer> strings, String string)
+			throws IOException {
+		// 0 is reserved for null
+		writeVarInt(out, string == null ? 0 : strings.computeIfAbsent(string, key -> strings.size()) + 1);
+	}
+
+	/**
+	 * Writes a list of Strings
+	 *
+	 * @param out     the output to write to
+	 * @param strings the table of all Strings mapped to their index
+	 * @param list    the Strings to write
+	 * @throws IOException if the Strings could not be written
+	 */
+	private static void writeStrings(DataOutputStream out, Map<String, Integer> strings, List<String> list)
+			throws IOException {
+		writeVarInt(out, list.size());
+		for (String string : list) {
+			writeString(out, strings, string);
+		}
+	}
+
+	/**
+	 * Writes a non-negative int with 7 bits per byte
+	 *
+	 * @param out   the output to write to
+	 * @param value the value to write
+	 * @throws IOException if the value could not be written
+	 */
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * Reads a String by its index in the table
+	 *
+	 * @param in      the input to read from
+	 * @param strings the table of all Strings
+	 * @return the String or null
+	 * @throws IOException if the index could not be read
+	 */
+	private static String readString(DataInputStream in, String[] strings) throws IOException {
+		int index = readVarInt(in);
+		return index == 0 ? null : strings[index - 1];
+	}
+
+	/**
+	 * Reads a String by its index in the table, that must not be null
+	 *
+	 * @param in      the input to read from
+	 * @param strings the table of all Strings
+	 * @return the String
+	 * @throws IOException if the index could not be read or refers to null
+	 */
+	private static String readRequiredString(DataInputStream in, String[] strings) throws IOException {
+		String string = readString(in, strings);
+		if (string == null) {
+			throw new IOException("A required String is missing");
+		}
+		return string;
+	}
+
+	/**
+	 * Reads a list of Strings, that must not be null
+	 *
+	 * @param in      the input to read from
+	 * @param strings the table of all Strings
+	 * @return the read Strings
+	 * @throws IOException if the Strings could not be read
+	 */
+	private static List<String> readStrings(DataInputStream in, String[] strings) throws IOException {
+		int size = readLength(in);
+		List<String> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(readRequiredString(in, strings));
+		}
+		return list;
+	}
+
+	/**
+	 * Reads a length-prefixed byte array
+	 *
+	 * @param in the input to read from
+	 * @return the read bytes
+	 * @throws IOException if the bytes could not be read
+	 */
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[readLength(in)];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Reads the length of an array or a list. Each element takes at least one
+	 * byte, so a length that exceeds the remaining bytes is rejected before
+	 * anything is allocated for it
+	 *
+	 * @param in the input to read from
+	 * @return the read length
+	 * @throws IOException if the length could not be read or exceeds the
+	 *                     remaining bytes
+	 */
+	private static int readLength(DataInputStream in) throws IOException {
+		int length = readVarInt(in);
+		if (length < 0 || length > in.available()) {
+			throw new IOException("The length " + length + " exceeds the remaining bytes");
+		}
+		return length;
+	}
+
+	/**
+	 * Reads a non-negative int with 7 bits per byte
+	 *
+	 * @param in the input to read from
+	 * @return the read value
+	 * @throws IOException if the value could not be read or is too large
+	 */
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Invalid variable-length integer");
+	}
+
+	/**
+	 * Logs and returns an exception for an invalid snapshot
+	 *
+	 * @param message the message of the exception
+	 * @return the new exception
+	 */
+	private static IllegalArgumentException invalid(String message) {
+		Logging.error(message);
+		return new IllegalArgumentException(message);
+	}
+
+	/**
+	 * Returns the open questions of a {@link PendingQuestions} object as lists
+	 *
+	 * @param pendingQuestions the open questions
+	 * @return the open questions of each skill mapped by the names of the skills
+	 */
+	static Map<String, List<QuestionTuple>> copyQuestions(PendingQuestions pendingQuestions) {
+		Map<String, List<QuestionTuple>> questions = new HashMap<>();
+		pendingQuestions.getAllQuestions().forEach((skill, skillQuestions) -> {
+			if (!skillQuestions.isEmpty()) {
+				questions.put(skill, new ArrayList<>(skillQuestions));
+			}
+		});
+		return questions;
+	}
+}
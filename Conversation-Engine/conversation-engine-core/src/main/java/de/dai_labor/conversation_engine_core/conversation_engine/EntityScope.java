@@ -0,0 +1,100 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The declared lifecycle of an entity in the context object: how long the
+ * entity is kept and after how many seconds without a change it expires
+ *
+ * @author Marcel Engelmann
+ *
+ */
+final class EntityScope {
+	/**
+	 * The entity is kept for the whole session
+	 */
+	static final EntityScope SESSION = new EntityScope(Lifetime.SESSION, 0);
+
+	/**
+	 * How long an entity is kept, ordered from the shortest to the longest
+	 * lifetime
+	 */
+	enum Lifetime {
+		/**
+		 * The entity is removed after each input
+		 */
+		TURN,
+		/**
+		 * The entity is removed once the skill ended or was aborted
+		 */
+		SKILL,
+		/**
+		 * The entity is kept for the whole session
+		 */
+		SESSION
+	}
+
+	private final Lifetime lifetime;
+	private final long ttlInNanos;
+
+	/**
+	 * Creates a new EntityScope object
+	 *
+	 * @param lifetime     how long the entity is kept
+	 * @param ttlInSeconds the number of seconds without a change after which the
+	 *                     entity expires or 0 if it does not expire
+	 */
+	EntityScope(Lifetime lifetime, long ttlInSeconds) {
+		this.lifetime = lifetime;
+		this.ttlInNanos = TimeUnit.SECONDS.toNanos(ttlInSeconds);
+	}
+
+	/**
+	 * Returns how long the entity is kept
+	 *
+	 * @return how long the entity is kept
+	 */
+	Lifetime getLifetime() {
+		return this.lifetime;
+	}
+
+	/**
+	 * Returns true if the entity expires after a time without a change
+	 *
+	 * @return true if the entity expires
+	 */
+	boolean expires() {
+		return this.ttlInNanos > 0;
+	}
+
+	/**
+	 * Returns the time without a change after which the entity expires
+	 *
+	 * @return the time in nanoseconds or 0 if the entity does not expire
+	 */
+	long getTtlInNanos() {
+		return this.ttlInNanos;
+	}
+
+	/**
+	 * Returns true if the entity is kept for the whole session and never expires
+	 *
+	 * @return true if the entity is never evicted
+	 */
+	boolean isPermanent() {
+		return this.lifetime == Lifetime.SESSION && !this.expires();
+	}
+
+	/**
+	 * Combines the scopes that two skills declare for the same entity. The entity
+	 * is kept as long as the longer lifetime and the longer time to live demand
+	 *
+	 * @param other the scope of the other skill
+	 * @return the combined scope
+	 */
+	EntityScope merge(EntityScope other) {
+		Lifetime longerLifetime = this.lifetime.compareTo(other.lifetime) >= 0 ? this.lifetime : other.lifetime;
+		long longerTtl = this.expires() && other.expires() ? Math.max(this.ttlInNanos, other.ttlInNanos) : 0;
+		return new EntityScope(longerLifetime, TimeUnit.NANOSECONDS.toSeconds(longerTtl));
+	}
+}
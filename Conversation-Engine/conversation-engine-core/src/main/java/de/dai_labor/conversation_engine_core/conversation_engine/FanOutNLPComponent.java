@@ -0,0 +1,404 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.json.JSONObject;
+
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.INLPComponent;
+
+/**
+ * An {@link INLPComponent} that sends each input to several
+ * {@link INLPComponent INLPComponents} at the same time, e.g. one for each
+ * supported language.<br>
+ * <br>
+ * The first answer that passes the acceptance rule answers the request and all
+ * other calls of the request are cancelled. If no answer passes the rule, the
+ * answer of the first {@link INLPComponent} in the given order that did not fail
+ * is used. Each call processes its own copy of the context object and only the
+ * changes of the call that answered the request are applied to the context
+ * object of the request.<br>
+ * <br>
+ * Cancelling a call cancels the stage returned by
+ * {@link INLPComponent#understandInputAsync}. A call that has not been started
+ * by the executor yet is skipped, a blocking call that is already running is
+ * not interrupted, but its answer is ignored
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class FanOutNLPComponent implements INLPComponent {
+
+	private final List<INLPComponent> nlpComponents;
+	private final Predicate<INLPAnswer> acceptanceRule;
+	private final Executor executor;
+	private final AtomicLongArray calls;
+	private final AtomicLongArray wins;
+	private final AtomicLongArray failures;
+	private final AtomicLongArray cancelledCalls;
+	private final AtomicLongArray answeredCalls;
+	private final AtomicLongArray totalLatencyNanos;
+	private final AtomicLongArray maximumLatencyNanos;
+
+	/**
+	 * Creates a new FanOutNLPComponent object, that accepts every answer with an
+	 * intent or added entities and calls the {@link INLPComponent
+	 * INLPComponents} on the {@link ForkJoinPool#commonPool() common pool}
+	 *
+	 * @param nlpComponents the {@link INLPComponent INLPComponents} to call
+	 *                      ordered by their priority
+	 * @throws IllegalArgumentException if no {@link INLPComponent} was given
+	 */
+	public FanOutNLPComponent(List<INLPComponent> nlpComponents) throws IllegalArgumentException {
+		this(nlpComponents, FanOutNLPComponent::isUnderstood, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a new FanOutNLPComponent object
+	 *
+	 * @param nlpComponents  the {@link INLPComponent INLPComponents} to call
+	 *                       ordered by their priority
+	 * @param acceptanceRule the rule an answer has to pass to answer a request
+	 * @param executor       the executor to call the {@link INLPComponent
+	 *                       INLPComponents} on. Blocking components need an
+	 *                       executor with enough threads for all calls that are
+	 *                       pending at the same time
+	 * @throws IllegalArgumentException if no {@link INLPComponent} was given or
+	 *                                  one of the arguments is null
+	 */
+	public FanOutNLPComponent(List<INLPComponent> nlpComponents, Predicate<INLPAnswer> acceptanceRule,
+			Executor executor) throws IllegalArgumentException {
+		if (nlpComponents == null || nlpComponents.isEmpty()
+				|| nlpComponents.stream().anyMatch(Objects::isNull)) {
+			Logging.error("The FanOutNLPComponent requires at least one NLPComponent");
+			throw new IllegalArgumentException("The FanOutNLPComponent requires at least one NLPComponent");
+		}
+		if (acceptanceRule == null || executor == null) {
+			Logging.error("The acceptance rule or the executor of the FanOutNLPComponent is null");
+			throw new IllegalArgumentException("The acceptance rule or the executor of the FanOutNLPComponent is null");
+		}
+		this.nlpComponents = List.copyOf(nlpComponents);
+		this.acceptanceRule = acceptanceRule;
+		this.executor = executor;
+		int size = this.nlpComponents.size();
+		this.calls = new AtomicLongArray(size);
+		this.wins = new AtomicLongArray(size);
+		this.failures = new AtomicLongArray(size);
+		this.cancelledCalls = new AtomicLongArray(size);
+		this.answeredCalls = new AtomicLongArray(size);
+		this.totalLatencyNanos = new AtomicLongArray(size);
+		this.maximumLatencyNanos = new AtomicLongArray(size);
+	}
+
+	/**
+	 * The default acceptance rule, that accepts every answer with an intent or
+	 * added entities
+	 *
+	 * @param answer the answer to check
+	 * @return true if the answer contains an intent or added entities
+	 */
+	public static boolean isUnderstood(INLPAnswer answer) {
+		if (answer == null) {
+			return false;
+		}
+		List<String> intents = answer.getIntents();
+		return answer.hasAddedEntities() || (intents != null && !intents.isEmpty());
+	}
+
+	@Override
+	public void addUsedEntities(List<String> entities) {
+		this.nlpComponents.forEach(component -> component.addUsedEntities(entities));
+	}
+
+	@Override
+	public void addUsedIntents(List<String> intents) {
+		this.nlpComponents.forEach(component -> component.addUsedIntents(intents));
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, String entityName, JSONObject contextObject) {
+		return join(this.understandInputAsync(input, entityName, contextObject));
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, JSONObject contextObject) {
+		return join(this.understandInputAsync(input, contextObject));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, String entityName,
+			JSONObject contextObject) {
+		return this.understandInputWithContextAsync(input, entityName, ContextMutations.wrap(contextObject));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+		return this.understandInputWithContextAsync(input, ContextMutations.wrap(contextObject));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, String entityName,
+			IContext context) {
+		return new Request(context,
+				(component, callContext) -> component.understandInputWithContextAsync(input, entityName, callContext))
+				.start();
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, IContext context) {
+		return new Request(context,
+				(component, callContext) -> component.understandInputWithContextAsync(input, callContext)).start();
+	}
+
+	/**
+	 * Returns the number of calls of an {@link INLPComponent}
+	 *
+	 * @param index the index of the {@link INLPComponent}
+	 * @return the number of calls
+	 */
+	public long getCalls(int index) {
+		return this.calls.get(index);
+	}
+
+	/**
+	 * Returns the number of requests an {@link INLPComponent} answered
+	 *
+	 * @param index the index of the {@link INLPComponent}
+	 * @return the number of won requests
+	 */
+	public long getWins(int index) {
+		return this.wins.get(index);
+	}
+
+	/**
+	 * Returns the share of the requests an {@link INLPComponent} answered
+	 *
+	 * @param index the index of the {@link INLPComponent}
+	 * @return the win rate between 0 and 1 or 0 if it was not called yet
+	 */
+	public double getWinRate(int index) {
+		long numberOfCalls = this.calls.get(index);
+		return numberOfCalls == 0 ? 0 : (double) this.wins.get(index) / numberOfCalls;
+	}
+
+	/**
+	 * Returns the number of failed calls of an {@link INLPComponent}
+	 *
+	 * @param index the index of the {@link INLPComponent}
+	 * @return the number of failed calls
+	 */
+	public long getFailures(int index) {
+		return this.failures.get(index);
+	}
+
+	/**
+	 * Returns the number of calls of an {@link INLPComponent} that were cancelled,
+	 * because another {@link INLPComponent} answered the request first
+	 *
+	 * @param index the index of the {@link INLPComponent}
+	 * @return the number of cancelled calls
+	 */
+	public long getCancelledCalls(int index) {
+		return this.cancelledCalls.get(index);
+	}
+
+	/**
+	 * Returns the average latency of the answered calls of an
+	 * {@link INLPComponent}
+	 *
+	 * @param index the index of the {@link INLPComponent}
+	 * @return the average latency or {@link Duration#ZERO} if no call was answered
+	 *         yet
+	 */
+	public Duration getAverageLatency(int index) {
+		long numberOfAnsweredCalls = this.answeredCalls.get(index);
+		if (numberOfAnsweredCalls == 0) {
+			return Duration.ZERO;
+		}
+		return Duration.ofNanos(this.totalLatencyNanos.get(index) / numberOfAnsweredCalls);
+	}
+
+	/**
+	 * Returns the maximum latency of the answered calls of an
+	 * {@link INLPComponent}
+	 *
+	 * @param index the index of the {@link INLPComponent}
+	 * @return the maximum latency or {@link Duration#ZERO} if no call was answered
+	 *         yet
+	 */
+	public Duration getMaximumLatency(int index) {
+		return Duration.ofNanos(this.maximumLatencyNanos.get(index));
+	}
+
+	/**
+	 * Records the latency of an answered call
+	 *
+	 * @param index        the index of the {@link INLPComponent}
+	 * @param latencyNanos the latency of the call
+	 */
+	private void recordLatency(int index, long latencyNanos) {
+		this.answeredCalls.incrementAndGet(index);
+		this.totalLatencyNanos.addAndGet(index, latencyNanos);
+		this.maximumLatencyNanos.accumulateAndGet(index, latencyNanos, Math::max);
+	}
+
+	/**
+	 * Waits for the answer of a request and rethrows the cause of a failed request
+	 *
+	 * @param answer the stage of the request
+	 * @return the answer of the request
+	 */
+	private static INLPAnswer join(CompletionStage<INLPAnswer> answer) {
+		try {
+			return answer.toCompletableFuture().join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * A pending request that is answered by its first accepted answer or by the
+	 * answer of the first {@link INLPComponent} once all calls completed
+	 */
+	private final class Request {
+		private final ContextCopies contextCopies;
+		private final BiFunction<INLPComponent, IContext, CompletionStage<INLPAnswer>> request;
+		private final CompletableFuture<INLPAnswer> result;
+		private final List<CompletableFuture<CompletionStage<INLPAnswer>>> calls;
+		private final IContext[] contexts;
+		private final INLPAnswer[] answers;
+		private final boolean[] completed;
+		private final long startTime;
+		private int numberOfCompletedCalls;
+		private boolean answered;
+		private Throwable lastFailure;
+
+		/**
+		 * Creates a new Request object
+		 *
+		 * @param context the context of the request
+		 * @param request the request to send to each {@link INLPComponent}
+		 */
+		private Request(IContext context, BiFunction<INLPComponent, IContext, CompletionStage<INLPAnswer>> request) {
+			int size = FanOutNLPComponent.this.nlpComponents.size();
+			this.contextCopies = new ContextCopies(context);
+			this.request = request;
+			this.result = new CompletableFuture<>();
+			this.calls = new ArrayList<>(size);
+			this.contexts = new IContext[size];
+			this.answers = new INLPAnswer[size];
+			this.completed = new boolean[size];
+			this.startTime = System.nanoTime();
+		}
+
+		/**
+		 * Calls all {@link INLPComponent INLPComponents} with their own copy of the
+		 * context
+		 *
+		 * @return a stage that completes with the answer of the request, after the
+		 *         changes to the context object were applied
+		 */
+		private synchronized CompletionStage<INLPAnswer> start() {
+			for (int i = 0; i < FanOutNLPComponent.this.nlpComponents.size(); i++) {
+				int index = i;
+				INLPComponent component = FanOutNLPComponent.this.nlpComponents.get(index);
+				IContext callContext = this.contextCopies.newCopy();
+				this.contexts[index] = callContext;
+				FanOutNLPComponent.this.calls.incrementAndGet(index);
+				this.calls.add(CompletableFuture.supplyAsync(() -> this.request.apply(component, callContext),
+						FanOutNLPComponent.this.executor));
+			}
+			// the calls are registered first, so that an early answer can cancel all of them
+			for (int i = 0; i < this.calls.size(); i++) {
+				int index = i;
+				this.calls.get(index).thenCompose(Function.identity())
+						.whenComplete((answer, ex) -> this.complete(index, answer, ex));
+			}
+			return this.result;
+		}
+
+		/**
+		 * Processes a completed call. Answers the request if the answer was accepted
+		 * or if it was the last pending call
+		 *
+		 * @param index  the index of the {@link INLPComponent}
+		 * @param answer the answer of the call
+		 * @param ex     the exception of the call or null
+		 */
+		private synchronized void complete(int index, INLPAnswer answer, Throwable ex) {
+			// the calls that are cancelled by the answer are completed afterwards
+			if (this.answered) {
+				return;
+			}
+			this.completed[index] = true;
+			this.numberOfCompletedCalls++;
+			if (ex == null) {
+				FanOutNLPComponent.this.recordLatency(index, System.nanoTime() - this.startTime);
+				this.answers[index] = answer;
+				if (FanOutNLPComponent.this.acceptanceRule.test(answer)) {
+					this.answerWith(index);
+					return;
+				}
+			} else {
+				this.lastFailure = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+				FanOutNLPComponent.this.failures.incrementAndGet(index);
+				Logging.warn("The NLPComponent {} of the FanOutNLPComponent failed: {}", index,
+						this.lastFailure.toString());
+			}
+			if (this.numberOfCompletedCalls < this.calls.size()) {
+				return;
+			}
+			for (int i = 0; i < this.answers.length; i++) {
+				if (this.answers[i] != null) {
+					Logging.debug("No answer of the FanOutNLPComponent was accepted, using the answer of the "
+							+ "NLPComponent {}", i);
+					this.answerWith(i);
+					return;
+				}
+			}
+			this.answered = true;
+			this.result.completeExceptionally(this.lastFailure);
+		}
+
+		/**
+		 * Answers the request with the answer of a call, applies the changes the
+		 * call made to the context object and cancels all pending calls
+		 *
+		 * @param index the index of the {@link INLPComponent} that answered the
+		 *              request
+		 */
+		private void answerWith(int index) {
+			this.answered = true;
+			this.contextCopies.applyChangesOf(this.contexts[index]);
+			FanOutNLPComponent.this.wins.incrementAndGet(index);
+			for (int i = 0; i < this.calls.size(); i++) {
+				if (!this.completed[i]) {
+					FanOutNLPComponent.this.cancelledCalls.incrementAndGet(i);
+					CompletableFuture<CompletionStage<INLPAnswer>> call = this.calls.get(i);
+					// a call that was not started yet is skipped, otherwise the stage of the
+					// INLPComponent is cancelled
+					if (!call.cancel(true) && !call.isCompletedExceptionally()) {
+						call.join().toCompletableFuture().cancel(true);
+					}
+				}
+			}
+			this.result.complete(this.answers[index]);
+		}
+	}
+}
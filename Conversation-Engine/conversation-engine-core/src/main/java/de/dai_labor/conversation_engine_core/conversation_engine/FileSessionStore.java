@@ -0,0 +1,80 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+
+import de.dai_labor.conversation_engine_core.interfaces.ISessionStore;
+
+/**
+ * Stores the snapshots of passivated sessions as files in a local directory.
+ * Each snapshot is written to a temporary file first and then moved, so that a
+ * snapshot is never read half written
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class FileSessionStore implements ISessionStore {
+	private static final String FILEEXTENSION = ".session";
+
+	private final Path directory;
+
+	/**
+	 * Creates a new FileSessionStore object and the directory, if it does not
+	 * exist yet
+	 *
+	 * @param directory the directory to store the snapshots in
+	 * @throws IllegalArgumentException if the directory is null
+	 * @throws IOException              if the directory could not be created
+	 */
+	public FileSessionStore(Path directory) throws IllegalArgumentException, IOException {
+		if (directory == null) {
+			Logging.error("The directory of the FileSessionStore is null");
+			throw new IllegalArgumentException("The directory of the FileSessionStore is null");
+		}
+		this.directory = Files.createDirectories(directory);
+	}
+
+	@Override
+	public void save(String sessionId, byte[] snapshot) throws IOException {
+		Path file = this.getFile(sessionId);
+		Path temporaryFile = Files.createTempFile(this.directory, null, null);
+		try {
+			Files.write(temporaryFile, snapshot);
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	@Override
+	public byte[] load(String sessionId) throws IOException {
+		try {
+			return Files.readAllBytes(this.getFile(sessionId));
+		} catch (NoSuchFileException ex) {
+			return null;
+		}
+	}
+
+	@Override
+	public void remove(String sessionId) throws IOException {
+		Files.deleteIfExists(this.getFile(sessionId));
+	}
+
+	/**
+	 * Returns the file of a session. The session id is encoded, so that any id is
+	 * a valid file name
+	 *
+	 * @param sessionId the id of the session
+	 * @return the file of the session
+	 */
+	private Path getFile(String sessionId) {
+		String fileName = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(sessionId.getBytes(StandardCharsets.UTF_8));
+		return this.directory.resolve(fileName + FILEEXTENSION);
+	}
+}
@@ -1,27 +1,49 @@
 package de.dai_labor.conversation_engine_core.conversation_engine;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
-import org.everit.json.schema.loader.SchemaLoader;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONTokener;
+import org.slf4j.helpers.MessageFormatter;
 
 import de.dai_labor.conversation_engine_core.interfaces.INLPComponent;
 import de.dai_labor.conversation_engine_core.interfaces.ISkill;
 
 /**
- * Utility class for generating {@link SkillStateMachine SkillStateMachines}
+ * Utility class for generating {@link SkillStateMachine SkillStateMachines} and
+ * compiling their shared {@link SkillDefinition SkillDefinitions}
  *
  * @author Marcel Engelmann
  *
  */
 class GenerateSkillStateMachine {
 
+	private static final int MAXCOMPILEDDEFINITIONS = 256;
+	// the compiled definitions of the most recently used JSON-Strings
+	private static final Map<String, SkillDefinition> COMPILEDDEFINITIONS = Collections
+			.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, SkillDefinition> eldest) {
+					return this.size() > MAXCOMPILEDDEFINITIONS;
+				}
+			});
+
 	/**
 	 * Static class, constructor is not allowed
 	 *
@@ -44,45 +66,161 @@ class GenerateSkillStateMachine {
 	 * @return a new SkillStateMachine object
 	 */
 	static SkillStateMachine fromJson(ISkill skill, String jsonSkillStateMachine, INLPComponent nlpComponent) {
+		SkillDefinition definition = compile(jsonSkillStateMachine);
+		if (definition == null) {
+			return null;
+		}
+		return fromDefinition(skill, definition, nlpComponent);
+	}
+
+	/**
+	 * Generate a new skill state machine from an already compiled
+	 * {@link SkillDefinition}
+	 *
+	 * @param skill        new skill to generate a state machine for
+	 * @param definition   the compiled state machine of the skill
+	 * @param nlpComponent the used NLP-Component to add the skill's used intents
+	 *                     and entities
+	 * @return a new SkillStateMachine object
+	 */
+	static SkillStateMachine fromDefinition(ISkill skill, SkillDefinition definition, INLPComponent nlpComponent) {
+		nlpComponent.addUsedEntities(definition.getUsedEntities());
+		nlpComponent.addUsedIntents(definition.getUsedIntents());
+		return new SkillStateMachine(definition, skill);
+	}
+
+	/**
+	 * Compiles the state machine of a skill from a JSON file. Each JSON-String is
+	 * only compiled once, afterwards the already compiled {@link SkillDefinition}
+	 * is returned
+	 *
+	 * @param jsonSkillStateMachine the JSON-String for the skill's state machine.
+	 *                              For the correct syntax check out the <a href=
+	 *                              "file:../../resources/SkillStateMachine_Schema.json">Schema.json</a>
+	 *                              file
+	 * @return the compiled {@link SkillDefinition} or null if the JSON-String is
+	 *         invalid
+	 */
+	static SkillDefinition compile(String jsonSkillStateMachine) {
+		return compile(jsonSkillStateMachine, new ArrayList<>());
+	}
+
+	/**
+	 * Compiles the state machine of a skill from a JSON file. Each JSON-String is
+	 * only compiled once, afterwards the already compiled {@link SkillDefinition}
+	 * is returned
+	 *
+	 * @param jsonSkillStateMachine the JSON-String for the skill's state machine.
+	 *                              For the correct syntax check out the <a href=
+	 *                              "file:../../resources/SkillStateMachine_Schema.json">Schema.json</a>
+	 *                              file
+	 * @param errors                the list to add all found errors to
+	 * @return the compiled {@link SkillDefinition} or null if the JSON-String is
+	 *         invalid
+	 */
+	static SkillDefinition compile(String jsonSkillStateMachine, List<String> errors) {
+		if (jsonSkillStateMachine == null) {
+			error(errors, "The JSON-String of the skill state machine is null");
+			return null;
+		}
+		SkillDefinition definition = COMPILEDDEFINITIONS.get(jsonSkillStateMachine);
+		if (definition != null) {
+			return definition;
+		}
+		definition = compileDefinition(jsonSkillStateMachine, errors);
+		if (definition != null) {
+			COMPILEDDEFINITIONS.put(jsonSkillStateMachine, definition);
+		}
+		return definition;
+	}
+
+	/**
+	 * Compiles the state machines of multiple skills in parallel
+	 *
+	 * @param jsonSkillStateMachines the JSON-Strings for the skills' state
+	 *                               machines
+	 * @param errors                 the list to add the list of found errors of
+	 *                               each JSON-String to, in the same order as the
+	 *                               JSON-Strings
+	 * @param pool                   the pool to compile the state machines on
+	 * @return the compiled {@link SkillDefinition SkillDefinitions} in the same
+	 *         order as the JSON-Strings. Contains null for each invalid JSON-String
+	 */
+	static List<SkillDefinition> compileAll(List<String> jsonSkillStateMachines, List<List<String>> errors,
+			ForkJoinPool pool) {
+		List<List<String>> compilationErrors = new ArrayList<>(jsonSkillStateMachines.size());
+		for (int i = 0; i < jsonSkillStateMachines.size(); i++) {
+			compilationErrors.add(new ArrayList<>());
+		}
+		List<SkillDefinition> definitions = pool.submit(() -> IntStream.range(0, jsonSkillStateMachines.size())
+				.parallel().mapToObj(i -> compile(jsonSkillStateMachines.get(i), compilationErrors.get(i)))
+				.collect(Collectors.toList())).join();
+		errors.addAll(compilationErrors);
+		return definitions;
+	}
+
+	/**
+	 * Compiles the state machine of a skill from a JSON file without using the
+	 * already compiled {@link SkillDefinition SkillDefinitions}
+	 *
+	 * @param jsonSkillStateMachine the JSON-String for the skill's state machine
+	 * @param errors                the list to add all found errors to
+	 * @return a new {@link SkillDefinition} or null if the JSON-String is invalid
+	 */
+	static SkillDefinition compileDefinition(String jsonSkillStateMachine, List<String> errors) {
 		JSONObject skillStateMachine;
 		try {
 			skillStateMachine = new JSONObject(new JSONTokener(jsonSkillStateMachine));
 		} catch (JSONException ex) {
-			Logging.error("Invalid JSON-String: {}", ex.getLocalizedMessage());
+			error(errors, "Invalid JSON-String: {}", ex.getLocalizedMessage());
 			return null;
 		}
 
 		try {
-			validJsonSkillStateMachine(skillStateMachine);
+			SkillStateMachineValidator.validate(skillStateMachine);
 		} catch (ValidationException ex) {
-			Logging.error("Invalid SkillStateMachine JSON format: {}", buildExceptionString(ex));
+			error(errors, "Invalid SkillStateMachine JSON format: {}", buildExceptionString(ex));
 			return null;
 		}
 
 		List<State> states = getStates(skillStateMachine);
+		Map<String, State> statesByName = getStatesByName(states);
 		boolean hasErrors = false;
 		String startStateName = skillStateMachine.getString("startAt");
 		String endStateName = skillStateMachine.getString("endAt");
 		String name = skillStateMachine.getString("name");
 
-		State startState = getStateByName(startStateName, states);
-		State endState = getStateByName(endStateName, states);
+		State startState = statesByName.get(startStateName);
+		State endState = statesByName.get(endStateName);
 
-		if (!successfullyAddedTransitions(skillStateMachine, states)) {
+		TransitionTable transitions = getTransitions(skillStateMachine, statesByName, errors);
+		if (transitions == null) {
 			hasErrors = true;
 		}
 		if (startState == null) {
-			Logging.error("Could not find the defined startAt state {} in the list of all defined states",
+			error(errors, "Could not find the defined startAt state {} in the list of all defined states",
 					startStateName);
 			hasErrors = true;
 		}
 		if (endState == null) {
-			Logging.error("Could not find the defined endAt state {} in the list of all defined states", endStateName);
+			error(errors, "Could not find the defined endAt state {} in the list of all defined states",
+					endStateName);
 			hasErrors = true;
 		}
 
 		if (name.isBlank()) {
-			Logging.error("The name of the skill is empty");
+			error(errors, "The name of the skill is empty");
+			hasErrors = true;
+		}
+
+		Map<State, Set<String>> routing = getRouting(skillStateMachine, statesByName, errors);
+		if (skillStateMachine.has("routing") && routing == null) {
+			hasErrors = true;
+		}
+
+		List<String> usedEntities = getUsedEntities(skillStateMachine);
+		Map<String, EntityScope> entityScopes = getEntityScopes(skillStateMachine, usedEntities, errors);
+		if (entityScopes == null) {
 			hasErrors = true;
 		}
 
@@ -90,12 +228,10 @@ class GenerateSkillStateMachine {
 			return null;
 		}
 
-		List<String> usedEntities = getUsedEntities(skillStateMachine);
 		List<String> usedIntents = getUsedIntents(skillStateMachine);
-		nlpComponent.addUsedEntities(usedEntities);
-		nlpComponent.addUsedIntents(usedIntents);
 
-		return new SkillStateMachine(name, startState, endState, skill);
+		return new SkillDefinition(name, states, transitions, startState, endState, usedEntities, usedIntents,
+				routing, skillStateMachine.optBoolean("contextProjection"), entityScopes);
 	}
 
 	/**
@@ -131,39 +267,44 @@ class GenerateSkillStateMachine {
 	}
 
 	/**
-	 * Tries to add all defined transitions to the correct states of the skill's new
-	 * state machine
+	 * Compiles all defined transitions of the skill's new state machine into a
+	 * {@link TransitionTable}
 	 *
 	 * @param skillStateMachine the {@link JSONObject} of the skill's new state
 	 *                          machine
-	 * @param states            the list of {@link State States} found in the
-	 *                          skill's {@link JSONObject}
-	 * @return true if all transitions were added successfully
+	 * @param statesByName      the {@link State States} found in the skill's
+	 *                          {@link JSONObject} mapped by their names
+	 * @param errors            the list to add all found errors to
+	 * @return the compiled transitions or null if not all transitions could be
+	 *         added
 	 */
-	private static boolean successfullyAddedTransitions(JSONObject skillStateMachine, Iterable<State> states) {
+	private static TransitionTable getTransitions(JSONObject skillStateMachine, Map<String, State> statesByName,
+			List<String> errors) {
+		JSONArray jsonTransitions = skillStateMachine.getJSONArray("transitions");
+		TransitionTable transitions = new TransitionTable(jsonTransitions.length());
 		int index = 0;
 		boolean noErrors = true;
-		for (Object t : skillStateMachine.getJSONArray("transitions")) {
+		for (Object t : jsonTransitions) {
 			JSONObject transition = (JSONObject) t;
-			State source = getStateByName(transition.getString("source"), states);
+			State source = statesByName.get(transition.getString("source"));
 			if (source == null) {
-				Logging.error("Cannot find the source state {} in transition #{}", transition.getString("source"),
+				error(errors, "Cannot find the source state {} in transition #{}", transition.getString("source"),
 						index);
 				noErrors = false;
 			}
-			State target = getStateByName(transition.getString("target"), states);
+			State target = statesByName.get(transition.getString("target"));
 			if (target == null) {
-				Logging.error("Cannot find the target state {} in transition #{}", transition.getString("target"),
+				error(errors, "Cannot find the target state {} in transition #{}", transition.getString("target"),
 						index);
 				noErrors = false;
 			}
 			String trigger = transition.getString("trigger");
 			index++;
 			if (source != null && target != null) {
-				source.addTransition(new Transition(target, trigger));
+				transitions.addTransition(source.getId(), trigger, target.getId());
 			}
 		}
-		return noErrors;
+		return noErrors ? transitions : null;
 	}
 
 	/**
@@ -179,7 +320,7 @@ class GenerateSkillStateMachine {
 		List<State> states = new ArrayList<>();
 
 		for (Object state : skillStateMachine.getJSONArray("states")) {
-			states.add(new State(((JSONObject) state).getString("name")));
+			states.add(new State(((JSONObject) state).getString("name"), states.size()));
 		}
 
 		return states;
@@ -187,41 +328,97 @@ class GenerateSkillStateMachine {
 	}
 
 	/**
-	 * Finds a {@link State} in a given list by a given name
+	 * Maps the given {@link State States} by their names. If multiple
+	 * {@link State States} share a name, the first one is used
 	 *
-	 * @param name   the name of the state to be found
-	 * @param states the list of {@link State States} to search for the wanted
-	 *               {@link State}
-	 * @return the {@link State} corresponding to the given name or null if the
-	 *         {@link State} was not found
+	 * @param states the list of {@link State States} to map
+	 * @return the given {@link State States} mapped by their names
 	 */
-	private static State getStateByName(String name, Iterable<State> states) {
+	private static Map<String, State> getStatesByName(List<State> states) {
+		Map<String, State> statesByName = new HashMap<>();
 		for (State state : states) {
-			if (state.getName().equals(name)) {
-				return state;
-			}
+			statesByName.putIfAbsent(state.getName(), state);
 		}
-		return null;
+		return statesByName;
 	}
 
 	/**
-	 * Validates the {@link JSONObject} of the skill's new state machine with this
-	 * <a href= "file:../../resources/SkillStateMachine_Schema.json">JSON-Schema</a>
+	 * Reads the optional routing section of the skill's {@link JSONObject}, that
+	 * declares which intents each state accepts
 	 *
-	 * @param skillStateMachine the {@link JSONObject} of the skill's new state
-	 *                          machine
-	 * @throws ValidationException if the JSON-Object is invalid
+	 * @param skillStateMachine the skill's state machine as {@link JSONObject}
+	 * @param statesByName      the {@link State States} found in the skill's
+	 *                          {@link JSONObject} mapped by their names
+	 * @param errors            the list to add all found errors to
+	 * @return the accepted intents of each state or null if the skill does not
+	 *         declare its routing or the routing is invalid
 	 */
-	private static void validJsonSkillStateMachine(JSONObject skillStateMachine) throws ValidationException {
-
-		// load JSON file to use as validation schema
-		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-		JSONObject jsonSchema = new JSONObject(
-				new JSONTokener(classLoader.getResourceAsStream("SkillStateMachine_Schema.json")));
+	private static Map<State, Set<String>> getRouting(JSONObject skillStateMachine,
+			Map<String, State> statesByName, List<String> errors) {
+		JSONObject routingObject = skillStateMachine.optJSONObject("routing");
+		if (routingObject == null) {
+			return null;
+		}
+		Map<State, Set<String>> routing = new HashMap<>();
+		boolean hasErrors = false;
+		for (String stateName : routingObject.keySet()) {
+			State state = statesByName.get(stateName);
+			if (state == null) {
+				error(errors, "Cannot find the state {} of the routing section", stateName);
+				hasErrors = true;
+				continue;
+			}
+			Set<String> intents = new HashSet<>();
+			for (Object intent : routingObject.getJSONArray(stateName)) {
+				intents.add((String) intent);
+			}
+			routing.put(state, intents);
+		}
+		return hasErrors ? null : routing;
+	}
 
-		Schema schema = SchemaLoader.load(jsonSchema);
-		schema.validate(skillStateMachine);
+	/**
+	 * Reads the optional entityScopes section of the skill's {@link JSONObject},
+	 * that declares the lifecycle of the skill's entities
+	 *
+	 * @param skillStateMachine the skill's state machine as {@link JSONObject}
+	 * @param usedEntities      the entities that are used by the skill
+	 * @param errors            the list to add all found errors to
+	 * @return the declared scopes mapped by the entities or null if a scope is
+	 *         declared for an entity the skill does not use
+	 */
+	private static Map<String, EntityScope> getEntityScopes(JSONObject skillStateMachine, List<String> usedEntities,
+			List<String> errors) {
+		JSONObject scopesObject = skillStateMachine.optJSONObject("entityScopes");
+		Map<String, EntityScope> entityScopes = new HashMap<>();
+		if (scopesObject == null) {
+			return entityScopes;
+		}
+		boolean hasErrors = false;
+		for (String entity : scopesObject.keySet()) {
+			if (!usedEntities.contains(entity)) {
+				error(errors, "The entity {} of the entityScopes section is not a used entity", entity);
+				hasErrors = true;
+				continue;
+			}
+			JSONObject scopeObject = scopesObject.getJSONObject(entity);
+			EntityScope.Lifetime lifetime = EntityScope.Lifetime
+					.valueOf(scopeObject.optString("scope", "session").toUpperCase(Locale.ROOT));
+			entityScopes.put(entity, new EntityScope(lifetime, scopeObject.optLong("ttlInSeconds")));
+		}
+		return hasErrors ? null : entityScopes;
+	}
 
+	/**
+	 * Logs an error and adds it to the given list of errors
+	 *
+	 * @param errors  the list to add the error to
+	 * @param message the error message
+	 * @param args    the arguments for the message
+	 */
+	private static void error(List<String> errors, String message, Object... args) {
+		Logging.error(message, args);
+		errors.add(MessageFormatter.arrayFormat(message, args).getMessage());
 	}
 
 	/**
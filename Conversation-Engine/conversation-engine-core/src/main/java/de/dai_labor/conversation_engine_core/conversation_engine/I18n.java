@@ -2,27 +2,35 @@ package de.dai_labor.conversation_engine_core.conversation_engine;
 
 import java.text.MessageFormat;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Utility class for handling the localization
+ * Handles the localization of a single {@link ConversationEngine} session.
+ * Every session owns its own instance, so that sessions running on different
+ * threads never change each other's language
  *
  * @author Marcel Engelmann
  *
  */
 class I18n {
 
-	private static ResourceBundle bundle;
-	private static Locale defaultLocale;
+	private static final String BUNDLENAME = "localization.localization";
+	private static final String TRIGGERKEYPREFIX = "Trigger";
+	private static final String[] TRIGGERINTENTS = { "last", "all", "yes", "no" };
+	private static final Map<Locale, KeywordTrie> TRIGGERKEYWORDS = new ConcurrentHashMap<>();
+
+	private ResourceBundle bundle;
+	private Locale defaultLocale;
 
 	/**
-	 * Static class, constructor is not allowed
+	 * Creates a new I18n object with the given default language
 	 *
-	 * @throws IllegalStateException static class, constructor is not allowed
+	 * @param defaultLanguage the language locale to use as default
 	 */
-
-	private I18n() throws IllegalStateException {
-		throw new IllegalStateException("Static class");
+	I18n(Locale defaultLanguage) {
+		this.setDefaultLanguage(defaultLanguage);
 	}
 
 	/**
@@ -31,11 +39,11 @@ class I18n {
 	 *
 	 * @param language the new language
 	 */
-	static void setLanguage(Locale language) {
-		bundle = ResourceBundle.getBundle("localization.localization", language);
-		if (!bundle.getLocale().getDisplayName().equals(language.getDisplayName())) {
+	void setLanguage(Locale language) {
+		this.bundle = ResourceBundle.getBundle(BUNDLENAME, language);
+		if (!this.bundle.getLocale().getDisplayName().equals(language.getDisplayName())) {
 			Logging.error("The language {} is not supported.", language.toLanguageTag());
-			bundle = ResourceBundle.getBundle("localization.localization", defaultLocale);
+			this.bundle = this.getDefaultBundle();
 		}
 	}
 
@@ -44,8 +52,8 @@ class I18n {
 	 *
 	 * @return the currently used language locale
 	 */
-	static Locale getLanguage() {
-		return bundle.getLocale();
+	Locale getLanguage() {
+		return this.bundle.getLocale();
 	}
 
 	/**
@@ -53,18 +61,19 @@ class I18n {
 	 *
 	 * @param language the language locale to use as default
 	 */
-	static void setDefaultLanguage(Locale language) {
+	void setDefaultLanguage(Locale language) {
 		// Check whether the locale exists or not
-		if (ResourceBundle.getBundle("localization.localization", language).getLocale().getLanguage()
-				.equals(language.getLanguage())) {
-			defaultLocale = language;
-			setLanguage(defaultLocale);
+		if (ResourceBundle.getBundle(BUNDLENAME, language).getLocale().getLanguage().equals(language.getLanguage())) {
+			this.defaultLocale = language;
+			this.setLanguage(this.defaultLocale);
 			return;
 		}
 		Logging.warn(
 				"Default language was not set! The language {} could not be found. Please make sure that the correct localization file exists.",
 				language.getLanguage());
-
+		if (this.bundle == null) {
+			this.bundle = this.getDefaultBundle();
+		}
 	}
 
 	/**
@@ -73,8 +82,8 @@ class I18n {
 	 * @param key the key to the message
 	 * @return the message corresponding to the key
 	 */
-	static String getMessage(String key) {
-		return bundle.getString(key);
+	String getMessage(String key) {
+		return this.bundle.getString(key);
 	}
 
 	/**
@@ -84,8 +93,44 @@ class I18n {
 	 * @param arguments the arguments for the message
 	 * @return the message corresponding to the key and arguments
 	 */
-	static String getMessage(String key, Object... arguments) {
-		return MessageFormat.format(bundle.getString(key), arguments);
+	String getMessage(String key, Object... arguments) {
+		return MessageFormat.format(this.bundle.getString(key), arguments);
+	}
+
+	/**
+	 * Returns the trigger words of the current language. The trigger words are
+	 * read from the keys "TriggerLast", "TriggerAll", "TriggerYes" and
+	 * "TriggerNo" and are built only once per language
+	 *
+	 * @return a {@link KeywordTrie} with the trigger words of the current language
+	 */
+	KeywordTrie getTriggerKeywords() {
+		ResourceBundle currentBundle = this.bundle;
+		return TRIGGERKEYWORDS.computeIfAbsent(currentBundle.getLocale(), language -> {
+			KeywordTrie keywords = new KeywordTrie(language);
+			for (String intent : TRIGGERINTENTS) {
+				String key = TRIGGERKEYPREFIX + Character.toUpperCase(intent.charAt(0)) + intent.substring(1);
+				if (currentBundle.containsKey(key)) {
+					for (String phrase : currentBundle.getString(key).split(",")) {
+						keywords.add(phrase, intent);
+					}
+				}
+			}
+			return keywords;
+		});
+	}
+
+	/**
+	 * Returns the bundle of the default language or the base bundle, if no
+	 * supported default language was set
+	 *
+	 * @return the bundle of the default language or the base bundle
+	 */
+	private ResourceBundle getDefaultBundle() {
+		if (this.defaultLocale == null) {
+			return ResourceBundle.getBundle(BUNDLENAME, Locale.ROOT);
+		}
+		return ResourceBundle.getBundle(BUNDLENAME, this.defaultLocale);
 	}
 
 }
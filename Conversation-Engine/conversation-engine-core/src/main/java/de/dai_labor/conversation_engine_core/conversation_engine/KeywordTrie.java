@@ -0,0 +1,112 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A trie of keyword phrases that resolves short answers to an intent without
+ * asking the {@link de.dai_labor.conversation_engine_core.interfaces.INLPComponent
+ * INLPComponent}.<br>
+ * <br>
+ * The phrases are stored word by word. An input is only resolved, if it
+ * consists of keyword phrases only and all of them belong to the same intent,
+ * e.g. "Ja, bitte" but neither "Ja, in Berlin" nor "Nein, den letzten". All
+ * other inputs are left to the
+ * {@link de.dai_labor.conversation_engine_core.interfaces.INLPComponent
+ * INLPComponent}. The trie is only modified while it is built and can be shared
+ * by all sessions afterwards
+ *
+ * @author Marcel Engelmann
+ *
+ */
+final class KeywordTrie {
+	private static final Pattern WORDSEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private final Locale language;
+	private final Node root;
+
+	/**
+	 * Creates a new and empty KeywordTrie object
+	 *
+	 * @param language the language of the keyword phrases
+	 */
+	KeywordTrie(Locale language) {
+		this.language = language;
+		this.root = new Node();
+	}
+
+	/**
+	 * Adds a keyword phrase. If the phrase was already added for another intent,
+	 * the first intent is kept
+	 *
+	 * @param phrase the keyword phrase
+	 * @param intent the intent of the phrase
+	 */
+	void add(String phrase, String intent) {
+		Node node = this.root;
+		for (String word : this.split(phrase)) {
+			if (!word.isEmpty()) {
+				node = node.children.computeIfAbsent(word, key -> new Node());
+			}
+		}
+		if (node != this.root && node.intent == null) {
+			node.intent = intent;
+		}
+	}
+
+	/**
+	 * Returns the intent of the given input
+	 *
+	 * @param input the input to resolve
+	 * @return the intent of all keyword phrases of the input or null if the input
+	 *         contains other words or keyword phrases of different intents
+	 */
+	String getIntent(String input) {
+		String[] words = this.split(input);
+		String intent = null;
+		int position = words.length > 0 && words[0].isEmpty() ? 1 : 0;
+		if (position == words.length) {
+			return null;
+		}
+		while (position < words.length) {
+			// find the longest phrase that starts at the current word
+			Node node = this.root;
+			Node longestMatch = null;
+			int end = position;
+			for (int i = position; i < words.length && node != null; i++) {
+				node = node.children.get(words[i]);
+				if (node != null && node.intent != null) {
+					longestMatch = node;
+					end = i + 1;
+				}
+			}
+			if (longestMatch == null || (intent != null && !intent.equals(longestMatch.intent))) {
+				return null;
+			}
+			intent = longestMatch.intent;
+			position = end;
+		}
+		return intent;
+	}
+
+	/**
+	 * Splits a text into its lowercase words
+	 *
+	 * @param text the text to split
+	 * @return the words of the text. The first word is empty, if the text starts
+	 *         with a separator
+	 */
+	private String[] split(String text) {
+		return WORDSEPARATORS.split(text.toLowerCase(this.language));
+	}
+
+	/**
+	 * A node of the trie
+	 */
+	private static final class Node {
+		private final Map<String, Node> children = new HashMap<>();
+		private String intent;
+	}
+}
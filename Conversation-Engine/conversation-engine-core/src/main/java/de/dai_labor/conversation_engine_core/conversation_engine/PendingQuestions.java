@@ -1,6 +1,7 @@
 package de.dai_labor.conversation_engine_core.conversation_engine;
 
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -85,6 +86,16 @@ class PendingQuestions {
 		return 0;
 	}
 
+	/**
+	 * Returns the open questions of all skills mapped by the names of the skills.
+	 * The question that was asked last is the last question of each skill
+	 * 
+	 * @return the open questions of all skills
+	 */
+	Map<String, ArrayDeque<QuestionTuple>> getAllQuestions() {
+		return Collections.unmodifiableMap(this.questions);
+	}
+
 	/**
 	 * Clears all open questions
 	 */
@@ -0,0 +1,464 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.json.JSONObject;
+
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.INLPComponent;
+
+/**
+ * An {@link INLPComponent} that protects the {@link ConversationEngine} from a
+ * slow or failing {@link INLPComponent}.<br>
+ * <br>
+ * Every request has a deadline. A request that is not answered in time or that
+ * failed is answered with an empty {@link INLPAnswer}, so that the
+ * {@link ConversationEngine} tells the user that it could not process the
+ * request. After a number of consecutive failed requests, the circuit breaker
+ * opens and answers all requests immediately with an empty {@link INLPAnswer},
+ * until the break duration elapsed and a single trial request succeeded.<br>
+ * <br>
+ * Optionally, a request that takes longer than a percentile of the recent
+ * latencies is also sent to a second {@link INLPComponent} and the first
+ * answer wins.<br>
+ * <br>
+ * Each call processes its own copy of the context object and only the changes
+ * of the call that answered the request are applied to the context object of
+ * the request. A call that is still running after its request was answered,
+ * e.g. after the deadline, therefore never changes the context object
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class ResilientNLPComponent implements INLPComponent {
+
+	private static final INLPAnswer EMPTYANSWER = new SimpleNLPAnswer(Collections.emptyList(), false, null);
+	private static final int LATENCYSAMPLES = 1024;
+	private static final int MINIMUMLATENCYSAMPLES = 20;
+
+	private static final int CLOSED = 0;
+	private static final int OPEN = 1;
+	private static final int HALFOPEN = 2;
+
+	private final INLPComponent nlpComponent;
+	private final INLPComponent hedgeNLPComponent;
+	private final double hedgePercentile;
+	private final Duration deadline;
+	private final int failureThreshold;
+	private final long breakDurationNanos;
+	private final Executor executor;
+	private final Executor deadlineExecutor;
+	private final long[] latencies;
+	private int numberOfLatencies;
+	private long hedgeDelayNanos;
+	private int circuitState;
+	private int consecutiveFailures;
+	private long circuitOpenedAt;
+	private final AtomicLong timeouts;
+	private final AtomicLong failures;
+	private final AtomicLong breakerTrips;
+	private final AtomicLong rejectedRequests;
+	private final AtomicLong hedgedRequests;
+	private final AtomicLong hedgeWins;
+
+	/**
+	 * Creates a new ResilientNLPComponent object without hedged requests, that
+	 * calls the {@link INLPComponent} on the {@link ForkJoinPool#commonPool()
+	 * common pool}
+	 *
+	 * @param nlpComponent     the {@link INLPComponent} to protect
+	 * @param deadline         the maximum duration of a request
+	 * @param failureThreshold the number of consecutive failed requests that
+	 *                         open the circuit breaker
+	 * @param breakDuration    the duration the circuit breaker stays open
+	 * @throws IllegalArgumentException if one of the arguments is null or not
+	 *                                  positive
+	 */
+	public ResilientNLPComponent(INLPComponent nlpComponent, Duration deadline, int failureThreshold,
+			Duration breakDuration) throws IllegalArgumentException {
+		this(nlpComponent, null, 1, deadline, failureThreshold, breakDuration, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a new ResilientNLPComponent object
+	 *
+	 * @param nlpComponent      the {@link INLPComponent} to protect
+	 * @param hedgeNLPComponent the second {@link INLPComponent} to send slow
+	 *                          requests to or null to disable hedged requests
+	 * @param hedgePercentile   the percentile (between 0 and 1) of the recent
+	 *                          latencies, after which a request is also sent to
+	 *                          the second {@link INLPComponent}
+	 * @param deadline          the maximum duration of a request
+	 * @param failureThreshold  the number of consecutive failed requests that
+	 *                          open the circuit breaker
+	 * @param breakDuration     the duration the circuit breaker stays open
+	 * @param executor          the executor to call the {@link INLPComponent
+	 *                          INLPComponents} on. Blocking components need an
+	 *                          executor with enough threads for all requests
+	 *                          that are pending at the same time
+	 * @throws IllegalArgumentException if one of the arguments except the second
+	 *                                  {@link INLPComponent} is null, not positive
+	 *                                  or the percentile is out of range
+	 */
+	public ResilientNLPComponent(INLPComponent nlpComponent, INLPComponent hedgeNLPComponent, double hedgePercentile,
+			Duration deadline, int failureThreshold, Duration breakDuration, Executor executor)
+			throws IllegalArgumentException {
+		if (nlpComponent == null || deadline == null || breakDuration == null || executor == null) {
+			Logging.error("The NLPComponent, the deadline, the break duration or the executor of the "
+					+ "ResilientNLPComponent is null");
+			throw new IllegalArgumentException("The NLPComponent, the deadline, the break duration or the executor "
+					+ "of the ResilientNLPComponent is null");
+		}
+		if (deadline.isNegative() || deadline.isZero() || breakDuration.isNegative() || failureThreshold <= 0
+				|| hedgePercentile <= 0 || hedgePercentile > 1) {
+			Logging.error("Invalid deadline, break duration, failure threshold or hedge percentile of the "
+					+ "ResilientNLPComponent");
+			throw new IllegalArgumentException("Invalid deadline, break duration, failure threshold or hedge "
+					+ "percentile of the ResilientNLPComponent");
+		}
+		this.nlpComponent = nlpComponent;
+		this.hedgeNLPComponent = hedgeNLPComponent;
+		this.hedgePercentile = hedgePercentile;
+		this.deadline = deadline;
+		this.failureThreshold = failureThreshold;
+		this.breakDurationNanos = breakDuration.toNanos();
+		this.executor = executor;
+		this.deadlineExecutor = CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS,
+				executor);
+		this.latencies = new long[LATENCYSAMPLES];
+		this.hedgeDelayNanos = -1;
+		this.circuitState = CLOSED;
+		this.timeouts = new AtomicLong();
+		this.failures = new AtomicLong();
+		this.breakerTrips = new AtomicLong();
+		this.rejectedRequests = new AtomicLong();
+		this.hedgedRequests = new AtomicLong();
+		this.hedgeWins = new AtomicLong();
+	}
+
+	@Override
+	public void addUsedEntities(List<String> entities) {
+		this.nlpComponent.addUsedEntities(entities);
+		if (this.hedgeNLPComponent != null) {
+			this.hedgeNLPComponent.addUsedEntities(entities);
+		}
+	}
+
+	@Override
+	public void addUsedIntents(List<String> intents) {
+		this.nlpComponent.addUsedIntents(intents);
+		if (this.hedgeNLPComponent != null) {
+			this.hedgeNLPComponent.addUsedIntents(intents);
+		}
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, String entityName, JSONObject contextObject) {
+		return this.understandInputAsync(input, entityName, contextObject).toCompletableFuture().join();
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, JSONObject contextObject) {
+		return this.understandInputAsync(input, contextObject).toCompletableFuture().join();
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, String entityName,
+			JSONObject contextObject) {
+		return this.understandInputWithContextAsync(input, entityName, ContextMutations.wrap(contextObject));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+		return this.understandInputWithContextAsync(input, ContextMutations.wrap(contextObject));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, String entityName,
+			IContext context) {
+		return this.process(context,
+				(component, callContext) -> component.understandInputWithContextAsync(input, entityName, callContext));
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, IContext context) {
+		return this.process(context,
+				(component, callContext) -> component.understandInputWithContextAsync(input, callContext));
+	}
+
+	/**
+	 * Returns the number of requests that exceeded their deadline
+	 *
+	 * @return the number of timeouts
+	 */
+	public long getTimeouts() {
+		return this.timeouts.get();
+	}
+
+	/**
+	 * Returns the number of requests whose calls all failed
+	 *
+	 * @return the number of failed requests
+	 */
+	public long getFailures() {
+		return this.failures.get();
+	}
+
+	/**
+	 * Returns how often the circuit breaker opened
+	 *
+	 * @return the number of circuit breaker trips
+	 */
+	public long getBreakerTrips() {
+		return this.breakerTrips.get();
+	}
+
+	/**
+	 * Returns the number of requests that were rejected by the open circuit
+	 * breaker
+	 *
+	 * @return the number of rejected requests
+	 */
+	public long getRejectedRequests() {
+		return this.rejectedRequests.get();
+	}
+
+	/**
+	 * Returns the number of requests that were also sent to the second
+	 * {@link INLPComponent}
+	 *
+	 * @return the number of hedged requests
+	 */
+	public long getHedgedRequests() {
+		return this.hedgedRequests.get();
+	}
+
+	/**
+	 * Returns the number of hedged requests that were answered by the second
+	 * {@link INLPComponent} first
+	 *
+	 * @return the number of hedge wins
+	 */
+	public long getHedgeWins() {
+		return this.hedgeWins.get();
+	}
+
+	/**
+	 * Returns whether the circuit breaker currently rejects requests
+	 *
+	 * @return true if the circuit breaker is open
+	 */
+	public synchronized boolean isCircuitOpen() {
+		return this.circuitState == OPEN && System.nanoTime() - this.circuitOpenedAt < this.breakDurationNanos;
+	}
+
+	/**
+	 * Processes a request with a deadline and an optional hedged call
+	 *
+	 * @param context the context of the request
+	 * @param request the request to send to an {@link INLPComponent} with its
+	 *                own copy of the context
+	 * @return a stage that completes with the answer of the request, after the
+	 *         changes to the context were applied
+	 */
+	private CompletionStage<INLPAnswer> process(IContext context,
+			BiFunction<INLPComponent, IContext, CompletionStage<INLPAnswer>> request) {
+		if (!this.tryAcquirePermission()) {
+			this.rejectedRequests.incrementAndGet();
+			return CompletableFuture.completedFuture(EMPTYANSWER);
+		}
+		long hedgeDelay = this.getHedgeDelayNanos();
+		Request pendingRequest = new Request(context, request);
+		pendingRequest.start(this.nlpComponent, false);
+		if (this.hedgeNLPComponent != null && hedgeDelay >= 0) {
+			CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS, this.executor)
+					.execute(() -> pendingRequest.start(this.hedgeNLPComponent, true));
+		}
+		this.deadlineExecutor.execute(() -> pendingRequest.fail(null));
+		return pendingRequest.result;
+	}
+
+	/**
+	 * Checks whether the circuit breaker lets a request pass. Once the break
+	 * duration elapsed, a single trial request passes
+	 *
+	 * @return true if the request may be sent
+	 */
+	private synchronized boolean tryAcquirePermission() {
+		if (this.circuitState == CLOSED) {
+			return true;
+		}
+		if (this.circuitState == OPEN && System.nanoTime() - this.circuitOpenedAt >= this.breakDurationNanos) {
+			this.circuitState = HALFOPEN;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Closes the circuit breaker after a successful request
+	 */
+	private synchronized void recordSuccess() {
+		this.consecutiveFailures = 0;
+		this.circuitState = CLOSED;
+	}
+
+	/**
+	 * Opens the circuit breaker after too many consecutive failed requests or a
+	 * failed trial request
+	 */
+	private synchronized void recordFailure() {
+		this.consecutiveFailures++;
+		if (this.circuitState == HALFOPEN
+				|| (this.circuitState == CLOSED && this.consecutiveFailures >= this.failureThreshold)) {
+			Logging.warn("Opening the circuit breaker of the NLPComponent after {} failed requests",
+					this.consecutiveFailures);
+			this.circuitState = OPEN;
+			this.circuitOpenedAt = System.nanoTime();
+			this.breakerTrips.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Records the latency of a successful call of the first {@link INLPComponent}
+	 * and updates the hedge delay every {@link #MINIMUMLATENCYSAMPLES} samples
+	 *
+	 * @param latencyNanos the latency of the call
+	 */
+	private synchronized void recordLatency(long latencyNanos) {
+		this.latencies[this.numberOfLatencies % LATENCYSAMPLES] = latencyNanos;
+		this.numberOfLatencies++;
+		if (this.numberOfLatencies % MINIMUMLATENCYSAMPLES == 0) {
+			long[] samples = Arrays.copyOf(this.latencies, Math.min(this.numberOfLatencies, LATENCYSAMPLES));
+			Arrays.sort(samples);
+			int index = (int) Math.ceil(this.hedgePercentile * samples.length) - 1;
+			this.hedgeDelayNanos = samples[Math.max(index, 0)];
+		}
+	}
+
+	/**
+	 * Returns the delay after which a request is also sent to the second
+	 * {@link INLPComponent}
+	 *
+	 * @return the hedge delay or -1 if there are not enough latency samples yet
+	 */
+	private synchronized long getHedgeDelayNanos() {
+		return this.hedgeDelayNanos;
+	}
+
+	/**
+	 * A pending request that is answered by its first successful call, its
+	 * deadline or its last failed call
+	 */
+	private final class Request {
+		private final ContextCopies contextCopies;
+		private final BiFunction<INLPComponent, IContext, CompletionStage<INLPAnswer>> request;
+		private final CompletableFuture<INLPAnswer> result;
+		private final AtomicInteger pendingCalls;
+		private final long startTime;
+
+		/**
+		 * Creates a new Request object
+		 *
+		 * @param context the context of the request
+		 * @param request the request to send to an {@link INLPComponent}
+		 */
+		private Request(IContext context, BiFunction<INLPComponent, IContext, CompletionStage<INLPAnswer>> request) {
+			this.contextCopies = new ContextCopies(context);
+			this.request = request;
+			this.result = new CompletableFuture<>();
+			this.pendingCalls = new AtomicInteger();
+			this.startTime = System.nanoTime();
+		}
+
+		/**
+		 * Calls the given {@link INLPComponent} with a new copy of the context. A
+		 * hedged call is skipped, if the request was already answered
+		 *
+		 * @param component the {@link INLPComponent} to call
+		 * @param hedged    whether the call is a hedged call
+		 */
+		private synchronized void start(INLPComponent component, boolean hedged) {
+			// the lock keeps the context unchanged while it is copied, because the request
+			// cannot be answered in the meantime
+			if (this.result.isDone()) {
+				return;
+			}
+			if (hedged) {
+				ResilientNLPComponent.this.hedgedRequests.incrementAndGet();
+			}
+			this.pendingCalls.incrementAndGet();
+			IContext callContext = this.contextCopies.newCopy();
+			CompletableFuture.supplyAsync(() -> this.request.apply(component, callContext),
+					ResilientNLPComponent.this.executor).thenCompose(Function.identity())
+					.whenComplete((answer, ex) -> {
+						if (ex == null) {
+							if (!hedged) {
+								ResilientNLPComponent.this.recordLatency(System.nanoTime() - this.startTime);
+							}
+							this.succeed(answer, callContext, hedged);
+						} else if (this.pendingCalls.decrementAndGet() == 0) {
+							this.fail(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+						}
+					});
+		}
+
+		/**
+		 * Answers the request with the answer of a call and applies the changes the
+		 * call made to its copy of the context, unless the request was already
+		 * answered
+		 *
+		 * @param answer      the answer of the call
+		 * @param callContext the context the call processed
+		 * @param hedged      whether the call is a hedged call
+		 */
+		private synchronized void succeed(INLPAnswer answer, IContext callContext, boolean hedged) {
+			if (this.result.isDone()) {
+				return;
+			}
+			this.contextCopies.applyChangesOf(callContext);
+			if (hedged) {
+				ResilientNLPComponent.this.hedgeWins.incrementAndGet();
+			}
+			ResilientNLPComponent.this.recordSuccess();
+			this.result.complete(answer);
+		}
+
+		/**
+		 * Answers the request with an empty {@link INLPAnswer}, unless it was already
+		 * answered
+		 *
+		 * @param cause the exception of the last failed call or null if the deadline
+		 *              was exceeded
+		 */
+		private synchronized void fail(Throwable cause) {
+			if (this.result.isDone()) {
+				return;
+			}
+			if (cause == null) {
+				Logging.warn("The NLPComponent did not answer within the deadline of {} ms",
+						ResilientNLPComponent.this.deadline.toMillis());
+				ResilientNLPComponent.this.timeouts.incrementAndGet();
+			} else {
+				Logging.error("The NLPComponent failed: {}", cause.toString());
+				ResilientNLPComponent.this.failures.incrementAndGet();
+			}
+			ResilientNLPComponent.this.recordFailure();
+			this.result.complete(EMPTYANSWER);
+		}
+	}
+}
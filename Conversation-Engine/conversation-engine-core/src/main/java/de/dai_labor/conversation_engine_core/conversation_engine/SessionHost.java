@@ -0,0 +1,715 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import de.dai_labor.conversation_engine_core.interfaces.ISessionStore;
+
+/**
+ * Hosts many {@link ConversationEngine} sessions that can be called from any
+ * thread.<br>
+ * <br>
+ * Every session owns a mailbox of pending turns. The mailbox is drained one
+ * turn at a time on a shared executor, so that the turns of a session never
+ * overlap and are processed in the order they were submitted, while different
+ * sessions never block each other. A turn that waits for an asynchronous
+ * {@link de.dai_labor.conversation_engine_core.interfaces.INLPComponent
+ * INLPComponent} or {@link de.dai_labor.conversation_engine_core.interfaces.ISkill
+ * skill} does not occupy a thread of the executor.<br>
+ * <br>
+ * With an {@link ISessionStore}, only the most recently used sessions are kept
+ * in memory. The {@link ConversationEngine#snapshot() snapshot} of the least
+ * recently used session is saved to the store in the background, once more
+ * sessions are live than allowed, and the session is restored with its next
+ * input. A session is also passivated in the background, once its
+ * {@link ConversationEngine} entered the sleepState after its timeout. The
+ * mailbox of a passivated session without pending turns is dropped as well and
+ * created again with the next input. A session whose snapshot can not be
+ * restored starts anew
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class SessionHost {
+
+	private final Function<String, ConversationEngine> sessionFactory;
+	private final Executor executor;
+	private final Map<String, Mailbox> sessions;
+	// the store of passivated sessions, null if all sessions are kept in memory
+	private final ISessionStore sessionStore;
+	private final int maxLiveSessions;
+	// the live sessions in the order they were used, the least recently used
+	// first. Guarded by itself
+	private final LinkedHashMap<String, Mailbox> liveSessions;
+	private final AtomicInteger numberOfLiveSessions;
+	private final AtomicLong hits;
+	private final AtomicLong rehydrations;
+	private final AtomicLong rehydrationNanos;
+	private final AtomicLong passivations;
+
+	/**
+	 * Creates a new SessionHost object that drains the mailboxes on the
+	 * {@link ForkJoinPool#commonPool() common pool}
+	 *
+	 * @param sessionFactory creates the {@link ConversationEngine} of a new
+	 *                       session with the given session id
+	 */
+	public SessionHost(Function<String, ConversationEngine> sessionFactory) {
+		this(sessionFactory, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a new SessionHost object that keeps all sessions in memory
+	 *
+	 * @param sessionFactory creates the {@link ConversationEngine} of a new
+	 *                       session with the given session id
+	 * @param executor       the shared executor to drain the mailboxes on
+	 * @throws IllegalArgumentException if the session factory or the executor is
+	 *                                  null
+	 */
+	public SessionHost(Function<String, ConversationEngine> sessionFactory, Executor executor)
+			throws IllegalArgumentException {
+		this(sessionFactory, executor, null, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new SessionHost object that passivates the least recently used
+	 * sessions to an {@link ISessionStore}
+	 *
+	 * @param sessionFactory  creates the {@link ConversationEngine} of a session
+	 *                        with the given session id. A passivated session is
+	 *                        restored in a new {@link ConversationEngine} of the
+	 *                        factory
+	 * @param executor        the shared executor to drain the mailboxes on
+	 * @param sessionStore    the store of the passivated sessions or null to keep
+	 *                        all sessions in memory
+	 * @param maxLiveSessions the maximum number of sessions kept in memory
+	 * @throws IllegalArgumentException if the session factory or the executor is
+	 *                                  null or the maximum number of sessions is
+	 *                                  less than 1
+	 */
+	public SessionHost(Function<String, ConversationEngine> sessionFactory, Executor executor,
+			ISessionStore sessionStore, int maxLiveSessions) throws IllegalArgumentException {
+		if (sessionFactory == null || executor == null) {
+			Logging.error("The session factory or the executor of the SessionHost is null");
+			throw new IllegalArgumentException("The session factory or the executor of the SessionHost is null");
+		}
+		if (maxLiveSessions < 1) {
+			Logging.error("The maximum number of live sessions must be greater than 0");
+			throw new IllegalArgumentException("The maximum number of live sessions must be greater than 0");
+		}
+		this.sessionFactory = sessionFactory;
+		this.executor = executor;
+		this.sessions = new ConcurrentHashMap<>();
+		this.sessionStore = sessionStore;
+		this.maxLiveSessions = maxLiveSessions;
+		this.liveSessions = new LinkedHashMap<>(16, 0.75f, true);
+		this.numberOfLiveSessions = new AtomicInteger();
+		this.hits = new AtomicLong();
+		this.rehydrations = new AtomicLong();
+		this.rehydrationNanos = new AtomicLong();
+		this.passivations = new AtomicLong();
+	}
+
+	/**
+	 * Submits a new input to the session with the given id. The session is
+	 * created or restored from the {@link ISessionStore}, if it is not live
+	 *
+	 * @param sessionId the id of the session
+	 * @param input     the input to process
+	 * @return a future that completes with the {@link List} of answers, once the
+	 *         input was processed
+	 */
+	public CompletableFuture<List<String>> submit(String sessionId, String input) {
+		while (true) {
+			Mailbox mailbox = this.getMailbox(sessionId);
+			synchronized (mailbox) {
+				// a removed mailbox gets no new turns, they go to the new session instead
+				if (!mailbox.removed) {
+					this.markAsUsed(mailbox);
+					return mailbox.enqueue(true, engine -> engine.userInputAsync(input));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Shuts the session with the given id down after all of its pending turns
+	 * were processed and removes it from this SessionHost and its
+	 * {@link ISessionStore}. A later {@link #submit(String, String) submit} with
+	 * the same id creates a new session, whose first turn waits until the removed
+	 * session was shut down. A passivated session is restored before it is shut
+	 * down
+	 *
+	 * @param sessionId the id of the session
+	 * @param operation the operation to call, with the context object passed as
+	 *                  parameter, after shutting down.
+	 * @return a future that completes once the session was shut down
+	 */
+	public CompletableFuture<Void> removeSession(String sessionId, Consumer<StringBuilder> operation) {
+		while (true) {
+			Mailbox mailbox = this.sessions.get(sessionId);
+			if (mailbox == null && this.sessionStore != null) {
+				// the mailbox of a passivated session may have been dropped
+				mailbox = this.getMailbox(sessionId);
+			}
+			if (mailbox == null) {
+				Logging.warn("The session {} to remove does not exist", sessionId);
+				return CompletableFuture.completedFuture(null);
+			}
+			synchronized (mailbox) {
+				if (mailbox.dropped) {
+					// the session was passivated in the meantime, it gets a new mailbox
+					continue;
+				}
+				if (mailbox.removed) {
+					Logging.warn("The session {} to remove does not exist", sessionId);
+					return CompletableFuture.completedFuture(null);
+				}
+				return this.removeMailbox(mailbox, operation);
+			}
+		}
+	}
+
+	/**
+	 * Shuts the session of the given mailbox down after all of its pending turns
+	 * were processed. Must only be called under the lock of the mailbox
+	 *
+	 * @param mailbox   the mailbox of the session to remove
+	 * @param operation the operation to call, with the context object passed as
+	 *                  parameter, after shutting down.
+	 * @return a future that completes once the session was shut down
+	 */
+	private CompletableFuture<Void> removeMailbox(Mailbox mailbox, Consumer<StringBuilder> operation) {
+		String sessionId = mailbox.sessionId;
+		synchronized (this.liveSessions) {
+			this.liveSessions.remove(sessionId, mailbox);
+		}
+		CompletableFuture<Void> shutdown = mailbox.enqueue(true, engine -> {
+			engine.shutdown(operation);
+			mailbox.releaseEngine();
+			// a pending turn may have marked the session as used again
+			synchronized (this.liveSessions) {
+				this.liveSessions.remove(sessionId, mailbox);
+			}
+			if (this.sessionStore != null) {
+				try {
+					this.sessionStore.remove(sessionId);
+				} catch (IOException ex) {
+					Logging.error("The passivated session {} could not be removed", sessionId, ex);
+				}
+			}
+			return CompletableFuture.completedFuture(null);
+		});
+		// the removed mailbox stays in the sessions until it was shut down, so that
+		// a new session with the same id does not load the snapshot at the same time
+		mailbox.shutdown = shutdown;
+		mailbox.removed = true;
+		shutdown.whenComplete((ignored, ex) -> this.sessions.remove(sessionId, mailbox));
+		return shutdown;
+	}
+
+	/**
+	 * Removes the expired entities from the context objects of all idle live
+	 * sessions, see {@link ConversationEngine#evictExpiredContextEntries()}.
+	 * Sessions with pending turns are skipped, they remove their expired entities
+	 * after each turn anyway
+	 *
+	 * @return a future that completes with the number of removed entities
+	 */
+	public CompletableFuture<Integer> evictExpiredContextEntries() {
+		List<CompletableFuture<Integer>> evictions = new ArrayList<>();
+		this.sessions.forEach((sessionId, mailbox) -> {
+			if (mailbox.pendingTasks.get() == 0) {
+				evictions.add(mailbox.enqueue(false, engine -> CompletableFuture
+						.completedFuture(engine == null ? 0 : engine.evictExpiredContextEntries())));
+			}
+		});
+		return CompletableFuture.allOf(evictions.toArray(new CompletableFuture<?>[0]))
+				.thenApply(ignored -> evictions.stream().mapToInt(CompletableFuture::join).sum());
+	}
+
+	/**
+	 * Passivates all idle live sessions, whose {@link ConversationEngine} entered
+	 * the sleepState, to the {@link ISessionStore}. Sessions with pending turns
+	 * are skipped. Sessions are also passivated in the background once they
+	 * entered the sleepState, this method passivates the sessions that could not
+	 * be passivated at that time, e.g. because a turn was pending
+	 *
+	 * @return a future that completes with the number of passivated sessions
+	 */
+	public CompletableFuture<Integer> passivateSleepingSessions() {
+		if (this.sessionStore == null) {
+			Logging.warn("The SessionHost has no ISessionStore to passivate sessions to");
+			return CompletableFuture.completedFuture(0);
+		}
+		List<CompletableFuture<Boolean>> passivatedSessions = new ArrayList<>();
+		this.sessions.forEach((sessionId, mailbox) -> {
+			if (mailbox.pendingTasks.get() == 0) {
+				passivatedSessions.add(mailbox.passivateIfSleeping());
+			}
+		});
+		return CompletableFuture.allOf(passivatedSessions.toArray(new CompletableFuture<?>[0]))
+				.thenApply(ignored -> (int) passivatedSessions.stream().filter(CompletableFuture::join).count());
+	}
+
+	/**
+	 * Returns the number of turns of the session with the given id that are
+	 * pending or currently processed
+	 *
+	 * @param sessionId the id of the session
+	 * @return the number of pending turns or 0 if the session does not exist
+	 */
+	public int getQueueDepth(String sessionId) {
+		Mailbox mailbox = this.sessions.get(sessionId);
+		return mailbox == null ? 0 : mailbox.pendingTasks.get();
+	}
+
+	/**
+	 * Returns the number of pending turns of all sessions
+	 *
+	 * @return the number of pending turns mapped by the session ids
+	 */
+	public Map<String, Integer> getQueueDepths() {
+		Map<String, Integer> queueDepths = new HashMap<>();
+		this.sessions.forEach((sessionId, mailbox) -> queueDepths.put(sessionId, mailbox.pendingTasks.get()));
+		return queueDepths;
+	}
+
+	/**
+	 * Returns the number of hosted sessions with a mailbox: the live sessions, the
+	 * sessions with pending turns and the sessions that are being removed. Idle
+	 * passivated sessions are only kept in the {@link ISessionStore}
+	 *
+	 * @return the number of hosted sessions
+	 */
+	public int getNumberOfSessions() {
+		return this.sessions.size();
+	}
+
+	/**
+	 * Returns the number of sessions whose {@link ConversationEngine} is kept in
+	 * memory
+	 *
+	 * @return the number of live sessions
+	 */
+	public int getNumberOfLiveSessions() {
+		return this.numberOfLiveSessions.get();
+	}
+
+	/**
+	 * Returns the share of the turns of existing sessions that found their
+	 * session live, instead of restoring it from the {@link ISessionStore}
+	 *
+	 * @return the hit rate between 0 and 1 or 1 if there was no such turn yet
+	 */
+	public double getHitRate() {
+		long hitCount = this.hits.get();
+		long total = hitCount + this.rehydrations.get();
+		return total == 0 ? 1 : (double) hitCount / total;
+	}
+
+	/**
+	 * Returns the number of sessions that were restored from the
+	 * {@link ISessionStore}
+	 *
+	 * @return the number of restored sessions
+	 */
+	public long getNumberOfRehydrations() {
+		return this.rehydrations.get();
+	}
+
+	/**
+	 * Returns the average time it took to restore a session from the
+	 * {@link ISessionStore}, including the creation of its
+	 * {@link ConversationEngine}
+	 *
+	 * @return the average time in milliseconds or 0 if no session was restored
+	 */
+	public double getAverageRehydrationMillis() {
+		long count = this.rehydrations.get();
+		return count == 0 ? 0 : this.rehydrationNanos.get() / 1_000_000.0 / count;
+	}
+
+	/**
+	 * Returns the number of sessions that were passivated to the
+	 * {@link ISessionStore}
+	 *
+	 * @return the number of passivated sessions
+	 */
+	public long getNumberOfPassivations() {
+		return this.passivations.get();
+	}
+
+	/**
+	 * Returns the used heap divided by the number of live sessions. The used heap
+	 * includes everything else of the application and garbage that was not
+	 * collected yet, the value is therefore only an upper bound to choose the
+	 * maximum number of live sessions
+	 *
+	 * @return the used heap per live session in bytes
+	 */
+	public long getUsedHeapPerLiveSession() {
+		Runtime runtime = Runtime.getRuntime();
+		return (runtime.totalMemory() - runtime.freeMemory()) / Math.max(1, this.numberOfLiveSessions.get());
+	}
+
+	/**
+	 * Returns the mailbox of the session with the given id and creates it if it
+	 * does not exist yet or was removed. The first task of a mailbox that
+	 * replaces a removed one runs once the removed session was shut down
+	 *
+	 * @param sessionId the id of the session
+	 * @return the mailbox of the session
+	 */
+	private Mailbox getMailbox(String sessionId) {
+		Mailbox mailbox = this.sessions.get(sessionId);
+		if (mailbox != null && !mailbox.removed) {
+			return mailbox;
+		}
+		return this.sessions.compute(sessionId, (id, existing) -> {
+			if (existing == null) {
+				return new Mailbox(id, CompletableFuture.completedFuture(null));
+			}
+			return existing.removed ? new Mailbox(id, existing.shutdown) : existing;
+		});
+	}
+
+	/**
+	 * Marks a session as the most recently used session and passivates the least
+	 * recently used sessions in the background, if more sessions are live than
+	 * allowed
+	 *
+	 * @param mailbox the mailbox of the session
+	 */
+	private void markAsUsed(Mailbox mailbox) {
+		if (this.sessionStore == null) {
+			return;
+		}
+		List<Mailbox> leastRecentlyUsed = new ArrayList<>();
+		synchronized (this.liveSessions) {
+			this.liveSessions.put(mailbox.sessionId, mailbox);
+			Iterator<Mailbox> iterator = this.liveSessions.values().iterator();
+			while (this.liveSessions.size() > this.maxLiveSessions) {
+				leastRecentlyUsed.add(iterator.next());
+				iterator.remove();
+			}
+		}
+		for (Mailbox session : leastRecentlyUsed) {
+			session.enqueue(false,
+					engine -> CompletableFuture.completedFuture(engine != null && this.passivate(session, true)));
+		}
+	}
+
+	/**
+	 * Saves the snapshot of a live session to the {@link ISessionStore} and shuts
+	 * its {@link ConversationEngine} down. Must only be called by a task of the
+	 * session
+	 *
+	 * @param mailbox           the mailbox of the session
+	 * @param leastRecentlyUsed true if the session is passivated because it was
+	 *                          the least recently used session. It is kept, if it
+	 *                          was used again in the meantime
+	 * @return true if the session was passivated
+	 */
+	private boolean passivate(Mailbox mailbox, boolean leastRecentlyUsed) {
+		synchronized (this.liveSessions) {
+			if (leastRecentlyUsed && this.liveSessions.containsKey(mailbox.sessionId)) {
+				return false;
+			}
+			this.liveSessions.remove(mailbox.sessionId, mailbox);
+		}
+		ConversationEngine engine = mailbox.engine;
+		try {
+			this.sessionStore.save(mailbox.sessionId, engine.snapshot());
+		} catch (IOException | RuntimeException ex) {
+			Logging.error("The session {} could not be passivated", mailbox.sessionId, ex);
+			this.markAsUsed(mailbox);
+			return false;
+		}
+		engine.shutdown(lastContext -> {
+			// the context object is part of the snapshot
+		});
+		mailbox.releaseEngine();
+		this.passivations.incrementAndGet();
+		Logging.debug("Passivated the session {}", mailbox.sessionId);
+		mailbox.dropIfIdle();
+		return true;
+	}
+
+	/**
+	 * A pending task of a session
+	 *
+	 * @param <T> the result type of the task
+	 */
+	private static final class Task<T> {
+		private final Function<ConversationEngine, CompletionStage<T>> action;
+		private final boolean needsEngine;
+		private final CompletableFuture<T> result;
+
+		/**
+		 * Creates a new Task object
+		 *
+		 * @param needsEngine true if a passivated session has to be restored before
+		 *                    the task runs
+		 * @param action      the action to run on the session's
+		 *                    {@link ConversationEngine}
+		 */
+		private Task(boolean needsEngine, Function<ConversationEngine, CompletionStage<T>> action) {
+			this.action = action;
+			this.needsEngine = needsEngine;
+			this.result = new CompletableFuture<>();
+		}
+
+		/**
+		 * Runs the task
+		 *
+		 * @param engine the session's {@link ConversationEngine} or null if the
+		 *               session is not live
+		 * @return a stage that completes once the task completed
+		 */
+		private CompletionStage<T> run(ConversationEngine engine) {
+			try {
+				return this.action.apply(engine);
+			} catch (RuntimeException ex) {
+				return CompletableFuture.failedFuture(ex);
+			}
+		}
+
+		/**
+		 * Completes the result of the task
+		 *
+		 * @param value the result of the action
+		 * @param ex    the exception the action failed with or null
+		 */
+		private void complete(T value, Throwable ex) {
+			if (ex == null) {
+				this.result.complete(value);
+			} else {
+				this.result.completeExceptionally(ex);
+			}
+		}
+	}
+
+	/**
+	 * The mailbox of a single session
+	 */
+	private final class Mailbox {
+		private final String sessionId;
+		private final Queue<Task<?>> tasks;
+		// the number of queued tasks including the task that is currently running
+		private final AtomicInteger pendingTasks;
+		// completes once the previous mailbox of the session was shut down
+		private final CompletionStage<?> predecessor;
+		// the session's ConversationEngine, null if the session is not live. Only
+		// accessed by the tasks of the session
+		private volatile ConversationEngine engine;
+		// completes once the removed session was shut down, set before removed
+		private volatile CompletionStage<?> shutdown;
+		// true once the session was removed or the mailbox was dropped, only set
+		// under the lock of the mailbox
+		private volatile boolean removed;
+		// true if the mailbox was dropped after its session was passivated, the
+		// session itself still exists. Guarded by the mailbox
+		private boolean dropped;
+
+		/**
+		 * Creates a new Mailbox object. The {@link ConversationEngine} of the session
+		 * is created by its first task
+		 *
+		 * @param sessionId   the id of the session
+		 * @param predecessor the first task runs once this stage completed, e.g. once
+		 *                    the removed session with the same id was shut down
+		 */
+		private Mailbox(String sessionId, CompletionStage<?> predecessor) {
+			this.sessionId = sessionId;
+			this.tasks = new ConcurrentLinkedQueue<>();
+			this.pendingTasks = new AtomicInteger();
+			this.predecessor = predecessor;
+		}
+
+		/**
+		 * Adds a new task to the mailbox and starts draining the mailbox, unless it
+		 * is already being drained
+		 *
+		 * @param <T>         the result type of the task
+		 * @param needsEngine true if a passivated session has to be restored before
+		 *                    the task runs. Otherwise the action receives null, if
+		 *                    the session is not live
+		 * @param action      the action to run on the session's
+		 *                    {@link ConversationEngine}
+		 * @return a future that completes with the result of the action
+		 */
+		private <T> CompletableFuture<T> enqueue(boolean needsEngine,
+				Function<ConversationEngine, CompletionStage<T>> action) {
+			Task<T> task = new Task<>(needsEngine, action);
+			this.tasks.add(task);
+			if (this.pendingTasks.getAndIncrement() == 0) {
+				this.predecessor.whenComplete((ignored, ex) -> SessionHost.this.executor.execute(this::runNextTask));
+			}
+			return task.result;
+		}
+
+		/**
+		 * Passivates the session in the background, if its
+		 * {@link ConversationEngine} is in the sleepState once the task runs
+		 *
+		 * @return a future that completes with true if the session was passivated
+		 */
+		private CompletableFuture<Boolean> passivateIfSleeping() {
+			return this.enqueue(false, engine -> CompletableFuture.completedFuture(
+					engine != null && "sleepState".equals(engine.getState()) && SessionHost.this.passivate(this, false)));
+		}
+
+		/**
+		 * Removes the mailbox of a passivated session from the sessions, unless
+		 * another task than the running one is pending. The next input creates a new
+		 * mailbox, that restores the session. Must only be called by a task of the
+		 * session
+		 */
+		private void dropIfIdle() {
+			synchronized (this) {
+				if (this.removed || this.engine != null || this.pendingTasks.get() > 1) {
+					return;
+				}
+				// the snapshot was saved, so the next mailbox can restore it right away
+				this.shutdown = CompletableFuture.completedFuture(null);
+				this.dropped = true;
+				this.removed = true;
+				SessionHost.this.sessions.remove(this.sessionId, this);
+			}
+		}
+
+		/**
+		 * Runs the next task and schedules the following one once it completed
+		 */
+		private void runNextTask() {
+			this.runTask(this.tasks.poll());
+		}
+
+		/**
+		 * Runs the given task and schedules the following one once it completed. The
+		 * task is no longer counted as pending when its result completes
+		 *
+		 * @param <T>  the result type of the task
+		 * @param task the task to run
+		 */
+		private <T> void runTask(Task<T> task) {
+			CompletionStage<T> result;
+			try {
+				if (task.needsEngine) {
+					this.ensureEngine();
+				}
+				result = task.run(this.engine);
+			} catch (IOException ex) {
+				Logging.error("The passivated session {} could not be loaded", this.sessionId, ex);
+				result = CompletableFuture.failedFuture(new UncheckedIOException(ex));
+			} catch (RuntimeException ex) {
+				result = CompletableFuture.failedFuture(ex);
+			}
+			result.whenComplete((value, ex) -> {
+				boolean hasPendingTasks = this.pendingTasks.decrementAndGet() > 0;
+				task.complete(value, ex);
+				if (hasPendingTasks) {
+					SessionHost.this.executor.execute(this::runNextTask);
+				}
+			});
+		}
+
+		/**
+		 * Creates the {@link ConversationEngine} of the session, if the session is
+		 * not live, and restores the session from the {@link ISessionStore}, if it
+		 * was passivated. A snapshot that can not be restored is removed from the
+		 * {@link ISessionStore} and the session starts anew
+		 *
+		 * @throws IOException if the passivated session could not be loaded
+		 */
+		private void ensureEngine() throws IOException {
+			if (this.engine != null) {
+				SessionHost.this.hits.incrementAndGet();
+				return;
+			}
+			long start = System.nanoTime();
+			ConversationEngine newEngine = SessionHost.this.sessionFactory.apply(this.sessionId);
+			ISessionStore store = SessionHost.this.sessionStore;
+			if (store != null) {
+				try {
+					byte[] snapshot = store.load(this.sessionId);
+					if (snapshot != null) {
+						if (this.restore(newEngine, snapshot)) {
+							SessionHost.this.rehydrations.incrementAndGet();
+							SessionHost.this.rehydrationNanos.addAndGet(System.nanoTime() - start);
+						} else {
+							newEngine = SessionHost.this.sessionFactory.apply(this.sessionId);
+						}
+						store.remove(this.sessionId);
+					}
+				} catch (IOException | RuntimeException ex) {
+					newEngine.shutdown(lastContext -> {
+						// the session stays passivated
+					});
+					throw ex;
+				}
+				newEngine.setSleepListener(this::passivateIfSleeping);
+				// the session may have been passivated as least recently used session,
+				// unless it is being removed
+				if (!this.removed) {
+					SessionHost.this.markAsUsed(this);
+				}
+			}
+			this.engine = newEngine;
+			SessionHost.this.numberOfLiveSessions.incrementAndGet();
+		}
+
+		/**
+		 * Restores the session from its snapshot. A {@link ConversationEngine} that
+		 * could not restore the snapshot, e.g. because the skills of the session
+		 * changed, is shut down
+		 *
+		 * @param newEngine the new {@link ConversationEngine} of the session
+		 * @param snapshot  the snapshot of the session
+		 * @return true if the session was restored
+		 */
+		private boolean restore(ConversationEngine newEngine, byte[] snapshot) {
+			try {
+				newEngine.restore(snapshot);
+				Logging.debug("Restored the passivated session {}", this.sessionId);
+				return true;
+			} catch (RuntimeException ex) {
+				Logging.error("The passivated session {} could not be restored and starts anew", this.sessionId, ex);
+				newEngine.shutdown(lastContext -> {
+					// the session starts anew
+				});
+				return false;
+			}
+		}
+
+		/**
+		 * Releases the {@link ConversationEngine} of the session after it was shut
+		 * down
+		 */
+		private void releaseEngine() {
+			if (this.engine != null) {
+				this.engine = null;
+				SessionHost.this.numberOfLiveSessions.decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.json.JSONObject;
+
+/**
+ * A read-only context, that holds the entries that are the same for all
+ * sessions, e.g. catalogs or city lists. A single SharedContext can be layered
+ * under the {@link ConversationContext} of any number of
+ * {@link ConversationEngine} sessions, each session only stores the entries it
+ * changed.<br>
+ * <br>
+ * The entries are copied once when the SharedContext is created, so that later
+ * changes to the given {@link JSONObject} do not change it. The objects and
+ * arrays returned by a layered {@link ConversationContext} can belong to the
+ * SharedContext and must not be changed, changes have to be stored with the
+ * put methods of the context instead
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public final class SharedContext {
+	private final JSONObject values;
+
+	/**
+	 * Creates a new SharedContext object from a JSON-String
+	 *
+	 * @param json the shared entries as JSON-String
+	 * @throws IllegalArgumentException if the JSON-String is null
+	 */
+	public SharedContext(String json) throws IllegalArgumentException {
+		if (json == null) {
+			Logging.error("The JSON-String of the shared context is null");
+			throw new IllegalArgumentException("The JSON-String of the shared context is null");
+		}
+		this.values = new JSONObject(json);
+	}
+
+	/**
+	 * Creates a new SharedContext object with a copy of the given
+	 * {@link JSONObject}
+	 *
+	 * @param values the shared entries
+	 * @throws IllegalArgumentException if the {@link JSONObject} is null
+	 */
+	public SharedContext(JSONObject values) throws IllegalArgumentException {
+		if (values == null) {
+			Logging.error("The JSONObject of the shared context is null");
+			throw new IllegalArgumentException("The JSONObject of the shared context is null");
+		}
+		this.values = (JSONObject) ContextMutations.deepCopy(values);
+	}
+
+	/**
+	 * Returns the keys of the shared top-level entries
+	 *
+	 * @return the keys of the shared top-level entries
+	 */
+	public Set<String> keySet() {
+		return Collections.unmodifiableSet(this.values.keySet());
+	}
+
+	/**
+	 * Returns true if the SharedContext contains a top-level entry with the given
+	 * key
+	 *
+	 * @param key the key of the entry
+	 * @return true if the entry exists
+	 */
+	public boolean has(String key) {
+		return this.values.has(key);
+	}
+
+	/**
+	 * Returns the shared entries, that must not be changed
+	 *
+	 * @return the shared entries
+	 */
+	JSONObject getValues() {
+		return this.values;
+	}
+}
@@ -0,0 +1,63 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+
+/**
+ * An immutable {@link INLPAnswer} that can be handed out many times. Every call
+ * of {@link #getIntents()} returns a new {@link List}, because the
+ * {@link ConversationEngine} modifies the returned intents
+ *
+ * @author Marcel Engelmann
+ *
+ */
+final class SimpleNLPAnswer implements INLPAnswer {
+	private final List<String> intents;
+	private final boolean addedEntities;
+	private final Locale inputLanguage;
+
+	/**
+	 * Creates a new SimpleNLPAnswer object
+	 *
+	 * @param intents       the intents found in the input
+	 * @param addedEntities whether new entities were added to the context object
+	 * @param inputLanguage the language found in the input
+	 */
+	SimpleNLPAnswer(List<String> intents, boolean addedEntities, Locale inputLanguage) {
+		this.intents = intents == null ? Collections.emptyList() : new ArrayList<>(intents);
+		this.addedEntities = addedEntities;
+		this.inputLanguage = inputLanguage;
+	}
+
+	/**
+	 * Returns an immutable copy of the given {@link INLPAnswer}
+	 *
+	 * @param answer the {@link INLPAnswer} to copy
+	 * @return the copy of the answer or null if the answer is null
+	 */
+	static SimpleNLPAnswer copyOf(INLPAnswer answer) {
+		if (answer == null) {
+			return null;
+		}
+		return new SimpleNLPAnswer(answer.getIntents(), answer.hasAddedEntities(), answer.getInputLanguage());
+	}
+
+	@Override
+	public List<String> getIntents() {
+		return new ArrayList<>(this.intents);
+	}
+
+	@Override
+	public boolean hasAddedEntities() {
+		return this.addedEntities;
+	}
+
+	@Override
+	public Locale getInputLanguage() {
+		return this.inputLanguage;
+	}
+}
@@ -0,0 +1,237 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The compiled and immutable state machine of a skill. A SkillDefinition is
+ * built once per skill JSON and can be shared by any number of
+ * {@link ConversationEngine} sessions, each session only keeps track of its
+ * current state within the definition.
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public final class SkillDefinition {
+	private final String name;
+	private final State[] states;
+	private final TransitionTable transitions;
+	private final int startState;
+	private final int endState;
+	private final List<String> usedEntities;
+	private final List<String> usedIntents;
+	// the intents each state accepts, indexed by the state's id. Null if the
+	// skill does not declare its routing
+	private final List<Set<String>> routing;
+	private final Set<String> routedIntents;
+	private final boolean contextProjection;
+	private final Map<String, EntityScope> entityScopes;
+
+	/**
+	 * Creates a new SkillDefinition object
+	 *
+	 * @param name              the name of the skill
+	 * @param states            all states of the skill's state machine, ordered
+	 *                          by their index
+	 * @param transitions       the compiled transitions of the skill's state
+	 *                          machine
+	 * @param startState        the start state of the skill
+	 * @param endState          the end state of the skill
+	 * @param usedEntities      the entities that are used by the skill
+	 * @param usedIntents       the intents that are used by the skill
+	 * @param routing           the intents each state accepts or null if the
+	 *                          skill does not declare its routing
+	 * @param contextProjection true if the skill only receives its used entities
+	 *                          of the context object
+	 * @param entityScopes      the declared lifecycles of the used entities
+	 */
+	SkillDefinition(String name, List<State> states, TransitionTable transitions, State startState, State endState,
+			List<String> usedEntities, List<String> usedIntents, Map<State, Set<String>> routing,
+			boolean contextProjection, Map<String, EntityScope> entityScopes) {
+		this.name = name;
+		this.states = states.toArray(new State[0]);
+		this.transitions = transitions;
+		this.startState = startState.getId();
+		this.endState = endState.getId();
+		this.usedEntities = Collections.unmodifiableList(usedEntities);
+		this.usedIntents = Collections.unmodifiableList(usedIntents);
+		this.contextProjection = contextProjection;
+		this.entityScopes = Collections.unmodifiableMap(entityScopes);
+		if (routing == null) {
+			this.routing = null;
+			this.routedIntents = Collections.emptySet();
+			return;
+		}
+		List<Set<String>> acceptedIntents = new ArrayList<>(states.size());
+		Set<String> allRoutedIntents = new HashSet<>();
+		for (State state : states) {
+			Set<String> intents = routing.getOrDefault(state, Collections.emptySet());
+			acceptedIntents.add(Collections.unmodifiableSet(new HashSet<>(intents)));
+			allRoutedIntents.addAll(intents);
+		}
+		this.routing = Collections.unmodifiableList(acceptedIntents);
+		this.routedIntents = Collections.unmodifiableSet(allRoutedIntents);
+	}
+
+	/**
+	 * Compiles the state machine of a skill. Compiling the same JSON-String again
+	 * returns the already compiled SkillDefinition
+	 *
+	 * @param jsonSkillStateMachine the JSON-String for the skill's state machine.
+	 *                              For the correct syntax check out the <a href=
+	 *                              "file:../../resources/SkillStateMachine_Schema.json">Schema.json</a>
+	 *                              file
+	 * @return the compiled SkillDefinition
+	 * @throws IllegalArgumentException if the JSON-String is not a valid skill
+	 *                                  state machine
+	 */
+	public static SkillDefinition fromJson(String jsonSkillStateMachine) throws IllegalArgumentException {
+		List<String> errors = new ArrayList<>();
+		SkillDefinition definition = GenerateSkillStateMachine.compile(jsonSkillStateMachine, errors);
+		if (definition == null) {
+			throw new IllegalArgumentException(
+					"Invalid skill state machine: " + String.join(System.lineSeparator(), errors));
+		}
+		return definition;
+	}
+
+	/**
+	 * Returns the name of the skill
+	 *
+	 * @return the name of the skill
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the {@link State} with the given index
+	 *
+	 * @param id the index of the {@link State}
+	 * @return the {@link State} with the given index
+	 */
+	State getState(int id) {
+		return this.states[id];
+	}
+
+	/**
+	 * Returns the index of the {@link State} with the given name
+	 *
+	 * @param name the name of the {@link State}
+	 * @return the index of the {@link State} or -1 if it does not exist
+	 */
+	int getStateId(String name) {
+		for (State state : this.states) {
+			if (state.getName().equals(name)) {
+				return state.getId();
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the target {@link State} of the transition with the given trigger
+	 *
+	 * @param source  the index of the source state
+	 * @param trigger the trigger of the transition
+	 * @return the target {@link State} of the transition or null if the
+	 *         transition does not exist
+	 */
+	State getNextState(int source, String trigger) {
+		int target = this.transitions.getNextState(source, trigger);
+		return target < 0 ? null : this.states[target];
+	}
+
+	/**
+	 * Returns the index of the start state
+	 *
+	 * @return the index of the start state
+	 */
+	int getStartState() {
+		return this.startState;
+	}
+
+	/**
+	 * Returns the index of the end state
+	 *
+	 * @return the index of the end state
+	 */
+	int getEndState() {
+		return this.endState;
+	}
+
+	/**
+	 * Returns the entities that are used by the skill
+	 *
+	 * @return the entities that are used by the skill
+	 */
+	List<String> getUsedEntities() {
+		return this.usedEntities;
+	}
+
+	/**
+	 * Returns the intents that are used by the skill
+	 *
+	 * @return the intents that are used by the skill
+	 */
+	List<String> getUsedIntents() {
+		return this.usedIntents;
+	}
+
+	/**
+	 * Returns true if the skill only receives the entries of the context object,
+	 * that are listed in its {@link #getUsedEntities() used entities}
+	 *
+	 * @return true if the skill only receives its used entities of the context
+	 *         object
+	 */
+	boolean isContextProjected() {
+		return this.contextProjection;
+	}
+
+	/**
+	 * Returns the lifecycle of a used entity
+	 *
+	 * @param entity the used entity
+	 * @return the declared lifecycle of the entity or {@link EntityScope#SESSION}
+	 *         if the skill does not declare it
+	 */
+	EntityScope getEntityScope(String entity) {
+		return this.entityScopes.getOrDefault(entity, EntityScope.SESSION);
+	}
+
+	/**
+	 * Returns true if the skill declares which intents its states accept
+	 *
+	 * @return true if the skill declares which intents its states accept
+	 */
+	boolean hasRouting() {
+		return this.routing != null;
+	}
+
+	/**
+	 * Returns all intents that are accepted by at least one state of the skill.
+	 * Empty if the skill does not declare its routing
+	 *
+	 * @return all intents that are accepted by at least one state of the skill
+	 */
+	Set<String> getRoutedIntents() {
+		return this.routedIntents;
+	}
+
+	/**
+	 * Checks whether the given state accepts the given intent. Must only be
+	 * called if the skill {@link #hasRouting() declares its routing}
+	 *
+	 * @param state  the index of the state
+	 * @param intent the intent to check
+	 * @return true if the state accepts the intent
+	 */
+	boolean accepts(int state, String intent) {
+		return this.routing.get(state).contains(intent);
+	}
+}
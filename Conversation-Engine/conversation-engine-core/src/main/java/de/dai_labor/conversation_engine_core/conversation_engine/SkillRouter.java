@@ -0,0 +1,80 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the {@link SkillStateMachine SkillStateMachines} that can execute an
+ * intent.<br>
+ * <br>
+ * Skills that declare their routing in their {@link SkillDefinition} are found
+ * by an index from each intent to the skills that accept it in at least one
+ * state. Only the current state of these candidates is checked afterwards.
+ * Skills without a declared routing are still asked one by one.
+ *
+ * @author Marcel Engelmann
+ *
+ */
+class SkillRouter {
+	private final Map<String, List<SkillStateMachine>> routedSkillStateMachines;
+	private final List<SkillStateMachine> unroutedSkillStateMachines;
+	private final Map<SkillStateMachine, Integer> registrationOrder;
+
+	/**
+	 * Creates a new SkillRouter object without any skills
+	 */
+	SkillRouter() {
+		this.routedSkillStateMachines = new HashMap<>();
+		this.unroutedSkillStateMachines = new ArrayList<>();
+		this.registrationOrder = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Adds a new {@link SkillStateMachine} to the router
+	 *
+	 * @param skillStateMachine the {@link SkillStateMachine} to add
+	 */
+	void add(SkillStateMachine skillStateMachine) {
+		this.registrationOrder.put(skillStateMachine, this.registrationOrder.size());
+		SkillDefinition definition = skillStateMachine.getDefinition();
+		if (!definition.hasRouting()) {
+			this.unroutedSkillStateMachines.add(skillStateMachine);
+			return;
+		}
+		for (String intent : definition.getRoutedIntents()) {
+			this.routedSkillStateMachines.computeIfAbsent(intent, key -> new ArrayList<>()).add(skillStateMachine);
+		}
+	}
+
+	/**
+	 * Returns all {@link SkillStateMachine SkillStateMachines} that can execute
+	 * the given intent in their current state
+	 *
+	 * @param intent the intent to execute
+	 * @return all {@link SkillStateMachine SkillStateMachines} that can execute
+	 *         the given intent, ordered by the time they were added
+	 */
+	List<SkillStateMachine> getPossibleSkillStateMachines(String intent) {
+		List<SkillStateMachine> possibleSkills = new ArrayList<>();
+		for (SkillStateMachine ssm : this.routedSkillStateMachines.getOrDefault(intent, Collections.emptyList())) {
+			if (ssm.canExecute(intent)) {
+				possibleSkills.add(ssm);
+			}
+		}
+		int numberOfRoutedSkills = possibleSkills.size();
+		for (SkillStateMachine ssm : this.unroutedSkillStateMachines) {
+			if (ssm.canExecute(intent)) {
+				possibleSkills.add(ssm);
+			}
+		}
+		if (numberOfRoutedSkills > 0 && possibleSkills.size() > numberOfRoutedSkills) {
+			possibleSkills.sort(Comparator.comparing(this.registrationOrder::get));
+		}
+		return possibleSkills;
+	}
+}
@@ -2,39 +2,35 @@ package de.dai_labor.conversation_engine_core.conversation_engine;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletionStage;
 
-import org.json.JSONObject;
-
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
 import de.dai_labor.conversation_engine_core.interfaces.ISkill;
 import de.dai_labor.conversation_engine_core.interfaces.ISkillAnswer;
 
 /**
- * Represents the state machine of a skill
+ * Represents the state machine of a skill within a single session. The
+ * state machine itself is defined by a shared {@link SkillDefinition}, this
+ * object only keeps track of the session's current state
  * 
  * @author Marcel Engelmann
  *
  */
 class SkillStateMachine {
-	private String name;
-	private State currentState;
-	private State startState;
-	private State endState;
-	private ISkill skill;
+	private final SkillDefinition definition;
+	private final ISkill skill;
+	private int currentState;
 
 	/**
 	 * Create a new SkillStateMachine object
 	 * 
-	 * @param name       the name of the skill
-	 * @param startState the start state of the skill
-	 * @param endState   the end state of the skill
+	 * @param definition the compiled state machine of the skill
 	 * @param skill      the corresponding skill to the state machine
 	 */
-	SkillStateMachine(String name, State startState, State endState, ISkill skill) {
-		this.name = name;
-		this.startState = startState;
-		this.currentState = startState;
-		this.endState = endState;
+	SkillStateMachine(SkillDefinition definition, ISkill skill) {
+		this.definition = definition;
 		this.skill = skill;
+		this.currentState = definition.getStartState();
 	}
 
 	/**
@@ -43,7 +39,7 @@ class SkillStateMachine {
 	 * @return the current {@link State} of the skill's state machine
 	 */
 	State getCurrentState() {
-		return this.currentState;
+		return this.definition.getState(this.currentState);
 	}
 
 	/**
@@ -52,7 +48,16 @@ class SkillStateMachine {
 	 * @return the name of the skill
 	 */
 	String getName() {
-		return this.name;
+		return this.definition.getName();
+	}
+
+	/**
+	 * Returns the compiled state machine of the skill
+	 * 
+	 * @return the compiled state machine of the skill
+	 */
+	SkillDefinition getDefinition() {
+		return this.definition;
 	}
 
 	/**
@@ -61,7 +66,17 @@ class SkillStateMachine {
 	 * @return true if the state machine ended
 	 */
 	boolean hasEnded() {
-		return this.currentState.equals(endState);
+		return this.currentState == this.definition.getEndState();
+	}
+
+	/**
+	 * Returns the keys of the context entries the skill receives
+	 * 
+	 * @return the used entities of the skill or null if the skill receives the
+	 *         whole context object
+	 */
+	List<String> getProjectedContextKeys() {
+		return this.definition.isContextProjected() ? this.definition.getUsedEntities() : null;
 	}
 
 	/**
@@ -69,41 +84,79 @@ class SkillStateMachine {
 	 * corresponding skill
 	 */
 	void reset() {
-		this.currentState = this.startState;
+		this.currentState = this.definition.getStartState();
 		this.skill.reset();
 	}
 
 	/**
-	 * Checks if the corresponding skill can execute a given intent
+	 * Enters the state with the given name without notifying the skill, e.g. to
+	 * restore a snapshot of the conversation
+	 * 
+	 * @param stateName the name of the state to enter
+	 * @return true if the state exists
+	 */
+	boolean restoreState(String stateName) {
+		int state = this.definition.getStateId(stateName);
+		if (state < 0) {
+			return false;
+		}
+		this.currentState = state;
+		return true;
+	}
+
+	/**
+	 * Checks if the corresponding skill can execute a given intent. Uses the
+	 * declared routing of the skill's {@link SkillDefinition} if available,
+	 * otherwise asks the skill itself
 	 * 
 	 * @param intent the intent that's supposed to be executed
 	 * @return true if the skill can execute the intent
 	 */
 	boolean canExecute(String intent) {
-		return this.skill.canExecute(intent, currentState.getName());
+		if (this.definition.hasRouting()) {
+			return this.definition.accepts(this.currentState, intent);
+		}
+		return this.skill.canExecute(intent, this.getCurrentState().getName());
 	}
 
 	/**
-	 * Sends the to executing intent to the skill
+	 * Sends the to executing intent to the skill and enters the next state once
+	 * the skill answered
 	 * 
-	 * @param intent        the intent to execute
-	 * @param contextObject the current context object of the conversations engine
-	 * @param language      the user's language
-	 * @return a {@link ISkillAnswer} from the corresponding skill or null if an
-	 *         error occurred
+	 * @param intent   the intent to execute
+	 * @param context  the current context of the conversations engine. If the
+	 *                 skill declares a context projection, it only receives its
+	 *                 used entities
+	 * @param language the user's language
+	 * @return a stage that completes with the {@link ISkillAnswer} from the
+	 *         corresponding skill or null if an error occurred
 	 */
-	ISkillAnswer execute(String intent, JSONObject contextObject, Locale language) {
-		if (this.currentState.equals(this.startState)) {
+	CompletionStage<ISkillAnswer> execute(String intent, IContext context, Locale language) {
+		if (this.currentState == this.definition.getStartState()) {
 			Logging.debug("Starting the Skill {}", this.getName());
 		}
-		ISkillAnswer answer = this.skill.execute(intent, contextObject, this.currentState.getName(), language);
+		String stateName = this.getCurrentState().getName();
+		return ContextMutations
+				.withProjection(context, this.getProjectedContextKeys(),
+						projection -> this.skill.executeWithContextAsync(intent, projection, stateName, language))
+				.thenApply(answer -> this.processAnswer(intent, answer));
+	}
+
+	/**
+	 * Checks the answer of the skill and enters the next state
+	 * 
+	 * @param intent the executed intent
+	 * @param answer the answer of the skill
+	 * @return the answer of the skill or null if an error occurred
+	 */
+	private ISkillAnswer processAnswer(String intent, ISkillAnswer answer) {
 		if (answer == null) {
-			Logging.error("Returned answer of the skill {} for the intent {} is null", this.name, intent);
+			Logging.error("Returned answer of the skill {} for the intent {} is null", this.getName(), intent);
 			return null;
 		}
 		if (answer.getTransitionTrigger() == null || answer.getTransitionTrigger().isBlank()) {
-			Logging.error("The trigger in the answer of the skill {}, for the intent {}, is null or empty", this.name,
-					intent);
+			Logging.error("The trigger in the answer of the skill {}, for the intent {}, is null or empty",
+					this.getName(), intent);
 			return null;
 		}
 		if (!this.enteredNextStateSuccessfully(answer.getTransitionTrigger())) {
@@ -120,7 +173,7 @@ class SkillStateMachine {
 	 * @return a list of possible request for the skill
 	 */
 	List<String> getExampleRequests(Locale language) {
-		return this.skill.getExampleRequests(this.currentState.getName(), language);
+		return this.skill.getExampleRequests(this.getCurrentState().getName(), language);
 	}
 
 	/**
@@ -130,16 +183,15 @@ class SkillStateMachine {
 	 * @return true if the next state was entered correctly
 	 */
 	private boolean enteredNextStateSuccessfully(String trigger) {
-		State nextState = this.currentState.getNextState(trigger);
+		State oldState = this.getCurrentState();
+		State nextState = this.definition.getNextState(this.currentState, trigger);
 		if (nextState == null) {
-			Logging.error("Cannot find Transition {} in {}'s State {}", trigger, this.name,
-					this.currentState.getName());
+			Logging.error("Cannot find Transition {} in {}'s State {}", trigger, this.getName(), oldState.getName());
 			return false;
 		}
-		String oldState = this.currentState.getName();
-		this.currentState = nextState;
-		Logging.debug("Transition from State {} to the State {} within the skill {}", oldState,
-				this.currentState.getName(), this.name);
+		this.currentState = nextState.getId();
+		Logging.debug("Transition from State {} to the State {} within the skill {}", oldState.getName(),
+				nextState.getName(), this.getName());
 		return true;
 	}
 
@@ -0,0 +1,175 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Utility class for validating skill state machines with this
+ * <a href= "file:../../resources/SkillStateMachine_Schema.json">JSON-Schema</a>.
+ * The schema is loaded and compiled only once per class loader.<br>
+ * <br>
+ * The schema compares all pairs of states and of transitions to ensure that
+ * they are unique, which does not scale to large state machines. Those two
+ * arrays are therefore checked for duplicates in linear time first and the
+ * full schema is only used if a duplicate was found, so that the reported
+ * errors stay the same
+ *
+ * @author Marcel Engelmann
+ *
+ */
+class SkillStateMachineValidator {
+
+	private static final String SCHEMAFILE = "SkillStateMachine_Schema.json";
+	private static final String[] LARGEARRAYS = { "states", "transitions" };
+	private static final Map<ClassLoader, Schema[]> SCHEMAS = Collections.synchronizedMap(new WeakHashMap<>());
+	private static final int FULLSCHEMA = 0;
+	private static final int SCHEMAWITHOUTUNIQUEITEMS = 1;
+
+	/**
+	 * Static class, constructor is not allowed
+	 *
+	 * @throws IllegalStateException static class, constructor is not allowed
+	 */
+	private SkillStateMachineValidator() throws IllegalStateException {
+		throw new IllegalStateException("Static class");
+	}
+
+	/**
+	 * Validates the {@link JSONObject} of a skill's state machine
+	 *
+	 * @param skillStateMachine the {@link JSONObject} of the skill's state machine
+	 * @throws ValidationException if the JSON-Object is invalid
+	 */
+	static void validate(JSONObject skillStateMachine) throws ValidationException {
+		Schema[] schemas = getSchemas();
+		if (hasDuplicatedItems(skillStateMachine)) {
+			schemas[FULLSCHEMA].validate(skillStateMachine);
+		} else {
+			schemas[SCHEMAWITHOUTUNIQUEITEMS].validate(skillStateMachine);
+		}
+	}
+
+	/**
+	 * Returns the compiled schema of the current thread's context class loader
+	 *
+	 * @return the compiled schema
+	 */
+	static Schema getSchema() {
+		return getSchemas()[FULLSCHEMA];
+	}
+
+	/**
+	 * Returns the full compiled schema and the compiled schema without the
+	 * uniqueness checks of the {@link #LARGEARRAYS} of the current thread's
+	 * context class loader
+	 *
+	 * @return the compiled schemas
+	 */
+	private static Schema[] getSchemas() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if (classLoader == null) {
+			classLoader = SkillStateMachineValidator.class.getClassLoader();
+		}
+		return SCHEMAS.computeIfAbsent(classLoader, SkillStateMachineValidator::loadSchemas);
+	}
+
+	/**
+	 * Loads and compiles the schemas from the given class loader
+	 *
+	 * @param classLoader the class loader to load the schema file from
+	 * @return the full compiled schema and the compiled schema without the
+	 *         uniqueness checks of the {@link #LARGEARRAYS}
+	 */
+	private static Schema[] loadSchemas(ClassLoader classLoader) {
+		InputStream resource = classLoader.getResourceAsStream(SCHEMAFILE);
+		if (resource == null) {
+			resource = SkillStateMachineValidator.class.getClassLoader().getResourceAsStream(SCHEMAFILE);
+		}
+		try (InputStream schemaFile = resource) {
+			JSONObject jsonSchema = new JSONObject(new JSONTokener(schemaFile));
+			Schema fullSchema = SchemaLoader.load(jsonSchema);
+			JSONObject properties = jsonSchema.getJSONObject("properties");
+			for (String array : LARGEARRAYS) {
+				properties.getJSONObject(array).remove("uniqueItems");
+			}
+			return new Schema[] { fullSchema, SchemaLoader.load(jsonSchema) };
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Checks whether one of the {@link #LARGEARRAYS} of the skill's state machine
+	 * contains an item more than once
+	 *
+	 * @param skillStateMachine the {@link JSONObject} of the skill's state machine
+	 * @return true if a duplicated item was found
+	 */
+	private static boolean hasDuplicatedItems(JSONObject skillStateMachine) {
+		for (String arrayName : LARGEARRAYS) {
+			JSONArray array = skillStateMachine.optJSONArray(arrayName);
+			if (array == null) {
+				continue;
+			}
+			Set<String> items = new HashSet<>();
+			for (Object item : array) {
+				if (!items.add(canonicalString(item))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a String that is equal for all JSON values that are equal,
+	 * regardless of the order of their keys or the notation of their numbers
+	 *
+	 * @param value the JSON value
+	 * @return the canonical String of the JSON value
+	 */
+	static String canonicalString(Object value) {
+		if (value instanceof JSONObject) {
+			JSONObject object = (JSONObject) value;
+			StringBuilder canonical = new StringBuilder("{");
+			for (String key : new TreeSet<>(object.keySet())) {
+				canonical.append(JSONObject.quote(key)).append(':').append(canonicalString(object.get(key)))
+						.append(',');
+			}
+			return canonical.append('}').toString();
+		}
+		if (value instanceof JSONArray) {
+			StringBuilder canonical = new StringBuilder("[");
+			for (Object item : (JSONArray) value) {
+				canonical.append(canonicalString(item)).append(',');
+			}
+			return canonical.append(']').toString();
+		}
+		if (value instanceof String) {
+			return JSONObject.quote((String) value);
+		}
+		if (value instanceof Number) {
+			try {
+				return new BigDecimal(value.toString()).stripTrailingZeros().toPlainString();
+			} catch (NumberFormatException ex) {
+				return value.toString();
+			}
+		}
+		return String.valueOf(value);
+	}
+}
@@ -4,22 +4,27 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Represents a State of a state machine
+ * Represents a State of a state machine. A State is only modified while its
+ * state machine is built and is immutable afterwards, so that it can be shared
+ * by all sessions
  * 
  * @author Marcel Engelmann
  *
  */
 class State {
-	private List<Transition> transitions;
-	private String name;
+	private final List<Transition> transitions;
+	private final String name;
+	private final int id;
 
 	/**
 	 * Create a new State object
 	 * 
 	 * @param name the name of the state
+	 * @param id   the index of the state within its state machine
 	 */
-	State(String name) {
+	State(String name, int id) {
 		this.name = name;
+		this.id = id;
 		this.transitions = new ArrayList<>();
 	}
 
@@ -33,7 +38,17 @@ class State {
 	}
 
 	/**
-	 * Adds a new transition to the State
+	 * Returns the index of the state within its state machine
+	 * 
+	 * @return the index of the state within its state machine
+	 */
+	int getId() {
+		return this.id;
+	}
+
+	/**
+	 * Adds a new transition to the State. The transitions of a skill's states are
+	 * compiled into the skill's {@link TransitionTable} instead
 	 * 
 	 * @param transition the transition to add
 	 */
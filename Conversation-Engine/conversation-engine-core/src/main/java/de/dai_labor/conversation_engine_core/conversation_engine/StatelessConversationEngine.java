@@ -0,0 +1,254 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Processes inputs as a pure function of a conversation state and an input:
+ * {@code (state, input) -> (newState, answers)}. The state is a
+ * {@link ConversationEngine#snapshot() snapshot} that the caller keeps, e.g. in
+ * a token that is passed with each request, so that any node can process any
+ * turn of any session.<br>
+ * <br>
+ * The {@link ConversationEngine} objects with their NLPComponent and skills
+ * are created once and reused for the turns of all sessions: a turn borrows an
+ * idle {@link ConversationEngine}, {@link ConversationEngine#restore(byte[])
+ * restores} the state, processes the input and returns the new snapshot. The
+ * skills therefore have to keep the state of a session in the context object.
+ * The {@link ConversationEngine} objects should be created without a timeout,
+ * the sleep state of a session is not used in this mode.<br>
+ * <br>
+ * A new {@link ConversationEngine} is created whenever all idle ones are busy,
+ * so there are as many {@link ConversationEngine} objects as turns run at the
+ * same time. After a turn, its {@link ConversationEngine} is kept for the next
+ * turns only while fewer than the maximum number of idle engines are kept,
+ * otherwise it is shut down. A turn that failed restores the state a new
+ * session starts with, before its {@link ConversationEngine} is reused
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class StatelessConversationEngine {
+
+	private final Supplier<ConversationEngine> engineFactory;
+	private final int maxIdleEngines;
+	private final Queue<PooledEngine> idleEngines;
+	// the number of engines in the queue, ConcurrentLinkedQueue.size() is not
+	// constant time
+	private final AtomicInteger numberOfIdleEngines;
+
+	/**
+	 * Creates a new StatelessConversationEngine object, that keeps as many idle
+	 * {@link ConversationEngine} objects as there are available processors
+	 *
+	 * @param engineFactory creates a {@link ConversationEngine} with all skills
+	 *                      and the context object a new session starts with,
+	 *                      whenever all existing ones are busy
+	 * @throws IllegalArgumentException if the engine factory is null
+	 */
+	public StatelessConversationEngine(Supplier<ConversationEngine> engineFactory) throws IllegalArgumentException {
+		this(engineFactory, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new StatelessConversationEngine object
+	 *
+	 * @param engineFactory  creates a {@link ConversationEngine} with all skills
+	 *                       and the context object a new session starts with,
+	 *                       whenever all existing ones are busy
+	 * @param maxIdleEngines the maximum number of idle {@link ConversationEngine}
+	 *                       objects that are kept for the next turns, e.g. the
+	 *                       number of turns that usually run at the same time
+	 * @throws IllegalArgumentException if the engine factory is null or the
+	 *                                  maximum number of idle engines is
+	 *                                  negative
+	 */
+	public StatelessConversationEngine(Supplier<ConversationEngine> engineFactory, int maxIdleEngines)
+			throws IllegalArgumentException {
+		if (engineFactory == null) {
+			Logging.error("The engine factory of the StatelessConversationEngine is null");
+			throw new IllegalArgumentException("The engine factory of the StatelessConversationEngine is null");
+		}
+		if (maxIdleEngines < 0) {
+			Logging.error("The maximum number of idle engines of the StatelessConversationEngine is negative");
+			throw new IllegalArgumentException(
+					"The maximum number of idle engines of the StatelessConversationEngine is negative");
+		}
+		this.engineFactory = engineFactory;
+		this.maxIdleEngines = maxIdleEngines;
+		this.idleEngines = new ConcurrentLinkedQueue<>();
+		this.numberOfIdleEngines = new AtomicInteger();
+	}
+
+	/**
+	 * Processes an input of the session with the given state
+	 *
+	 * @param state the state of the session returned by the last turn or null
+	 *              to start a new session
+	 * @param input the input to process
+	 * @return the new state of the session and the answers
+	 * @throws IllegalArgumentException if the state is invalid
+	 */
+	public Turn userInput(byte[] state, String input) throws IllegalArgumentException {
+		try {
+			return this.userInputAsync(state, input).toCompletableFuture().join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Processes an input of the session with the given state asynchronously, see
+	 * {@link ConversationEngine#userInputAsync(String)}
+	 *
+	 * @param state the state of the session returned by the last turn or null
+	 *              to start a new session
+	 * @param input the input to process
+	 * @return a stage that completes with the new state of the session and the
+	 *         answers or exceptionally if the state is invalid or the
+	 *         NLPComponent failed
+	 */
+	public CompletionStage<Turn> userInputAsync(byte[] state, String input) {
+		PooledEngine pooledEngine = this.borrowEngine();
+		ConversationEngine engine = pooledEngine.engine;
+		try {
+			engine.restore(state == null || state.length == 0 ? pooledEngine.initialState : state);
+		} catch (IllegalArgumentException ex) {
+			// a failed restore does not change the engine
+			this.returnEngine(pooledEngine);
+			return CompletableFuture.failedFuture(ex);
+		}
+		return engine.userInputAsync(input).thenApply(answers -> new Turn(engine.snapshot(), answers))
+				.whenComplete((turn, ex) -> {
+					if (ex != null && !this.resetEngine(pooledEngine)) {
+						pooledEngine.engine.shutdown(lastContext -> {
+						});
+						return;
+					}
+					this.returnEngine(pooledEngine);
+				});
+	}
+
+	/**
+	 * Returns the number of idle {@link ConversationEngine} objects, that are
+	 * kept for the next turns
+	 *
+	 * @return the number of idle {@link ConversationEngine} objects
+	 */
+	public int getNumberOfIdleEngines() {
+		return this.numberOfIdleEngines.get();
+	}
+
+	/**
+	 * Returns an idle {@link ConversationEngine} or creates a new one
+	 *
+	 * @return the borrowed {@link ConversationEngine}
+	 */
+	private PooledEngine borrowEngine() {
+		PooledEngine pooledEngine = this.idleEngines.poll();
+		if (pooledEngine != null) {
+			this.numberOfIdleEngines.decrementAndGet();
+			return pooledEngine;
+		}
+		ConversationEngine engine = this.engineFactory.get();
+		Logging.debug("Created a new Conversation Engine for the StatelessConversationEngine {}", this);
+		return new PooledEngine(engine, engine.snapshot());
+	}
+
+	/**
+	 * Keeps a {@link ConversationEngine} for the next turns or shuts it down, if
+	 * the maximum number of idle engines is reached
+	 *
+	 * @param pooledEngine the {@link ConversationEngine} of a finished turn
+	 */
+	private void returnEngine(PooledEngine pooledEngine) {
+		if (this.numberOfIdleEngines.incrementAndGet() > this.maxIdleEngines) {
+			this.numberOfIdleEngines.decrementAndGet();
+			Logging.debug("Shut down a Conversation Engine of the StatelessConversationEngine {}", this);
+			pooledEngine.engine.shutdown(lastContext -> {
+			});
+			return;
+		}
+		this.idleEngines.add(pooledEngine);
+	}
+
+	/**
+	 * Restores the state a new session starts with after a failed turn
+	 *
+	 * @param pooledEngine the {@link ConversationEngine} of the failed turn
+	 * @return true if the state was restored
+	 */
+	private boolean resetEngine(PooledEngine pooledEngine) {
+		try {
+			pooledEngine.engine.restore(pooledEngine.initialState);
+			return true;
+		} catch (RuntimeException ex) {
+			Logging.error("The Conversation Engine of a failed turn could not be reset and is shut down", ex);
+			return false;
+		}
+	}
+
+	/**
+	 * The result of a turn: the new state of the session and the answers
+	 *
+	 * @author Marcel Engelmann
+	 *
+	 */
+	public static final class Turn {
+		private final byte[] state;
+		private final List<String> answers;
+
+		/**
+		 * Creates a new Turn object
+		 *
+		 * @param state   the new state of the session
+		 * @param answers the answers of the turn
+		 */
+		Turn(byte[] state, List<String> answers) {
+			this.state = state;
+			this.answers = answers;
+		}
+
+		/**
+		 * Returns the new state of the session, that has to be passed with the next
+		 * input of the session
+		 *
+		 * @return the new state of the session
+		 */
+		public byte[] getState() {
+			return this.state;
+		}
+
+		/**
+		 * Returns the answers of the turn
+		 *
+		 * @return the answers of the turn
+		 */
+		public List<String> getAnswers() {
+			return this.answers;
+		}
+	}
+
+	/**
+	 * A reusable {@link ConversationEngine} and the state a new session starts
+	 * with
+	 */
+	private static final class PooledEngine {
+		private final ConversationEngine engine;
+		private final byte[] initialState;
+
+		private PooledEngine(ConversationEngine engine, byte[] initialState) {
+			this.engine = engine;
+			this.initialState = initialState;
+		}
+	}
+}
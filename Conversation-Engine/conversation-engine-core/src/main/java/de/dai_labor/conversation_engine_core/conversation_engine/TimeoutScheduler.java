@@ -0,0 +1,309 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timing wheel that runs the timeouts of all
+ * {@link ConversationEngine} sessions on a single thread.<br>
+ * <br>
+ * Every session owns one reusable {@link Timeout}. Re-arming a scheduled
+ * {@link Timeout} only moves its deadline, the wheel thread notices the new
+ * deadline once it reaches the {@link Timeout} and moves it to the correct
+ * bucket. A {@link Timeout} without a pending deadline is not part of the wheel
+ * and costs nothing. The wheel thread parks while no {@link Timeout} is
+ * pending.
+ *
+ * @author Marcel Engelmann
+ *
+ */
+class TimeoutScheduler {
+
+	private static final long DEFAULTTICKMILLIS = 20;
+	private static final int DEFAULTWHEELSIZE = 1024;
+	private static final TimeoutScheduler SHARED = new TimeoutScheduler(DEFAULTTICKMILLIS, DEFAULTWHEELSIZE);
+
+	private static final int IDLE = 0;
+	private static final int SCHEDULED = 1;
+	private static final int CANCELLED = 2;
+
+	private final long tickNanos;
+	private final int mask;
+	private final Timeout[] wheel;
+	private final Queue<Timeout> pendingTimeouts;
+	private final Thread worker;
+	private final long startTime;
+	private volatile boolean parked;
+	private long currentTick;
+	private volatile int numberOfScheduledTimeouts;
+
+	/**
+	 * Creates a new TimeoutScheduler object and starts its wheel thread
+	 *
+	 * @param tickMillis the duration of one tick (the resolution of the wheel) in
+	 *                   milliseconds
+	 * @param wheelSize  the number of buckets of the wheel. Will be rounded up to
+	 *                   the next power of two
+	 */
+	TimeoutScheduler(long tickMillis, int wheelSize) {
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+		int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+		this.mask = size - 1;
+		this.wheel = new Timeout[size];
+		this.pendingTimeouts = new ConcurrentLinkedQueue<>();
+		this.startTime = System.nanoTime();
+		this.currentTick = 0;
+		this.worker = new Thread(this::run, "ConversationEngine-TimeoutScheduler");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Returns the process-wide TimeoutScheduler that is shared by all
+	 * {@link ConversationEngine} sessions
+	 *
+	 * @return the process-wide TimeoutScheduler
+	 */
+	static TimeoutScheduler shared() {
+		return SHARED;
+	}
+
+	/**
+	 * Creates a new, not yet scheduled {@link Timeout} for the given task
+	 *
+	 * @param task the task to run on the wheel thread, once the {@link Timeout}
+	 *             expires. The task has to return quickly
+	 * @return a new {@link Timeout}
+	 */
+	Timeout newTimeout(Runnable task) {
+		return new Timeout(task);
+	}
+
+	/**
+	 * Returns the number of {@link Timeout Timeouts} that are currently placed in
+	 * the wheel
+	 *
+	 * @return the number of {@link Timeout Timeouts} that are currently placed in
+	 *         the wheel
+	 */
+	int getNumberOfScheduledTimeouts() {
+		return this.numberOfScheduledTimeouts;
+	}
+
+	/**
+	 * Hands a newly scheduled {@link Timeout} over to the wheel thread
+	 *
+	 * @param timeout the newly scheduled {@link Timeout}
+	 */
+	private void enqueue(Timeout timeout) {
+		this.pendingTimeouts.add(timeout);
+		if (this.parked) {
+			LockSupport.unpark(this.worker);
+		}
+	}
+
+	/**
+	 * The loop of the wheel thread
+	 */
+	private void run() {
+		while (true) {
+			this.transferPendingTimeouts();
+			if (this.numberOfScheduledTimeouts == 0) {
+				this.parkUntilNewTimeout();
+				continue;
+			}
+			long deadlineOfTick = this.startTime + (this.currentTick + 1) * this.tickNanos;
+			long sleepTime = deadlineOfTick - System.nanoTime();
+			if (sleepTime > 0) {
+				LockSupport.parkNanos(this, sleepTime);
+				continue;
+			}
+			this.currentTick++;
+			this.expireTimeouts((int) (this.currentTick & this.mask), System.nanoTime());
+		}
+	}
+
+	/**
+	 * Parks the wheel thread until a new {@link Timeout} was scheduled and moves
+	 * the wheel to the current time afterwards
+	 */
+	private void parkUntilNewTimeout() {
+		this.parked = true;
+		if (this.pendingTimeouts.isEmpty()) {
+			LockSupport.park(this);
+		}
+		this.parked = false;
+		this.currentTick = (System.nanoTime() - this.startTime) / this.tickNanos;
+	}
+
+	/**
+	 * Places all newly scheduled {@link Timeout Timeouts} in their buckets
+	 */
+	private void transferPendingTimeouts() {
+		Timeout timeout = this.pendingTimeouts.poll();
+		while (timeout != null) {
+			if (timeout.state.get() == SCHEDULED) {
+				this.addToBucket(timeout);
+			}
+			timeout = this.pendingTimeouts.poll();
+		}
+	}
+
+	/**
+	 * Processes all {@link Timeout Timeouts} of a bucket. Expired
+	 * {@link Timeout Timeouts} are run, cancelled ones are removed and re-armed
+	 * ones are moved to the bucket of their new deadline
+	 *
+	 * @param bucket the index of the bucket to process
+	 * @param now    the current time in nanoseconds
+	 */
+	private void expireTimeouts(int bucket, long now) {
+		Timeout timeout = this.wheel[bucket];
+		while (timeout != null) {
+			Timeout next = timeout.next;
+			int state = timeout.state.get();
+			if (state == CANCELLED) {
+				this.removeFromBucket(timeout);
+			} else if (timeout.deadline - now > 0) {
+				if (this.bucketOf(timeout.deadline) != bucket) {
+					this.removeFromBucket(timeout);
+					this.addToBucket(timeout);
+				}
+			} else {
+				this.removeFromBucket(timeout);
+				timeout.expire();
+			}
+			timeout = next;
+		}
+	}
+
+	/**
+	 * Returns the index of the bucket for the given deadline
+	 *
+	 * @param deadline the deadline in nanoseconds
+	 * @return the index of the bucket for the given deadline
+	 */
+	private int bucketOf(long deadline) {
+		long tick = Math.max((deadline - this.startTime + this.tickNanos - 1) / this.tickNanos, this.currentTick + 1);
+		return (int) (tick & this.mask);
+	}
+
+	/**
+	 * Adds a {@link Timeout} to the bucket of its deadline
+	 *
+	 * @param timeout the {@link Timeout} to add
+	 */
+	private void addToBucket(Timeout timeout) {
+		int bucket = this.bucketOf(timeout.deadline);
+		timeout.bucket = bucket;
+		timeout.prev = null;
+		timeout.next = this.wheel[bucket];
+		if (timeout.next != null) {
+			timeout.next.prev = timeout;
+		}
+		this.wheel[bucket] = timeout;
+		this.numberOfScheduledTimeouts++;
+	}
+
+	/**
+	 * Removes a {@link Timeout} from its current bucket
+	 *
+	 * @param timeout the {@link Timeout} to remove
+	 */
+	private void removeFromBucket(Timeout timeout) {
+		if (timeout.prev == null) {
+			this.wheel[timeout.bucket] = timeout.next;
+		} else {
+			timeout.prev.next = timeout.next;
+		}
+		if (timeout.next != null) {
+			timeout.next.prev = timeout.prev;
+		}
+		timeout.prev = null;
+		timeout.next = null;
+		this.numberOfScheduledTimeouts--;
+	}
+
+	/**
+	 * A reusable timeout of a single session
+	 *
+	 * @author Marcel Engelmann
+	 *
+	 */
+	final class Timeout {
+		private final Runnable task;
+		private final AtomicInteger state;
+		private volatile long deadline;
+		// only accessed by the wheel thread
+		private Timeout prev;
+		private Timeout next;
+		private int bucket;
+
+		/**
+		 * Creates a new Timeout object
+		 *
+		 * @param task the task to run once the timeout expires
+		 */
+		private Timeout(Runnable task) {
+			this.task = task;
+			this.state = new AtomicInteger(IDLE);
+		}
+
+		/**
+		 * Schedules the timeout or moves the deadline of an already scheduled timeout.
+		 * Does nothing if the timeout has been cancelled.<br>
+		 * <br>
+		 * Postponing a deadline is free. An earlier deadline is only noticed once the
+		 * previous deadline is reached
+		 *
+		 * @param delayMillis the delay in milliseconds after which the task will run
+		 */
+		void schedule(long delayMillis) {
+			this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+			if (this.state.compareAndSet(IDLE, SCHEDULED)) {
+				TimeoutScheduler.this.enqueue(this);
+			}
+		}
+
+		/**
+		 * Cancels the timeout permanently
+		 */
+		void cancel() {
+			this.state.set(CANCELLED);
+		}
+
+		/**
+		 * Returns true if the timeout is waiting to expire
+		 *
+		 * @return true if the timeout is waiting to expire
+		 */
+		boolean isScheduled() {
+			return this.state.get() == SCHEDULED;
+		}
+
+		/**
+		 * Runs the task, unless the timeout has been re-armed or cancelled in the
+		 * meantime
+		 */
+		private void expire() {
+			if (!this.state.compareAndSet(SCHEDULED, IDLE)) {
+				return;
+			}
+			// the timeout may have been re-armed while it was processed
+			if (this.deadline - System.nanoTime() > 0) {
+				if (this.state.compareAndSet(IDLE, SCHEDULED)) {
+					TimeoutScheduler.this.addToBucket(this);
+				}
+				return;
+			}
+			try {
+				this.task.run();
+			} catch (RuntimeException ex) {
+				Logging.error("The timeout task {} failed: {}", this.task, ex.getLocalizedMessage());
+			}
+		}
+	}
+}
@@ -7,8 +7,8 @@ package de.dai_labor.conversation_engine_core.conversation_engine;
  *
  */
 class Transition {
-	private State target;
-	private String trigger;
+	private final State target;
+	private final String trigger;
 
 	/**
 	 * Creates a new Transition object
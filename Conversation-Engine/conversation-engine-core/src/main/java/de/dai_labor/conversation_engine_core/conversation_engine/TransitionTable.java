@@ -0,0 +1,160 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled transitions of a skill's state machine.<br>
+ * <br>
+ * Each trigger is interned to an integer id while the state machine is built.
+ * The transitions are stored in an open addressing hash table, keyed by the
+ * index of the source state and the id of the trigger, so that resolving a
+ * transition needs a single lookup of the trigger and does not compare any
+ * state names. The table is only modified while its state machine is built and
+ * is immutable afterwards, so that it can be shared by all sessions
+ *
+ * @author Marcel Engelmann
+ *
+ */
+final class TransitionTable {
+	private static final long EMPTYKEY = -1L;
+	private static final int NOTRANSITION = -1;
+
+	private final Map<String, Integer> triggerIds;
+	private long[] keys;
+	private int[] targets;
+	private int mask;
+	private int size;
+
+	/**
+	 * Creates a new and empty TransitionTable object
+	 *
+	 * @param expectedTransitions the expected number of transitions
+	 */
+	TransitionTable(int expectedTransitions) {
+		this.triggerIds = new HashMap<>();
+		this.allocate(Integer.highestOneBit(Math.max(expectedTransitions, 4) * 2 - 1) << 1);
+	}
+
+	/**
+	 * Adds a new transition to the table. If the source state already has a
+	 * transition with the same trigger, the existing transition is kept
+	 *
+	 * @param source  the index of the source state
+	 * @param trigger the trigger of the transition
+	 * @param target  the index of the target state
+	 * @return true if the transition was added
+	 */
+	boolean addTransition(int source, String trigger, int target) {
+		int triggerId = this.triggerIds.computeIfAbsent(trigger, key -> this.triggerIds.size());
+		if ((this.size + 1) * 2 > this.keys.length) {
+			this.resize();
+		}
+		return this.insert(key(source, triggerId), target);
+	}
+
+	/**
+	 * Returns the index of the target state of the transition with the given
+	 * trigger
+	 *
+	 * @param source  the index of the source state
+	 * @param trigger the trigger of the transition
+	 * @return the index of the target state or -1 if the transition does not exist
+	 */
+	int getNextState(int source, String trigger) {
+		Integer triggerId = this.triggerIds.get(trigger);
+		if (triggerId == null) {
+			return NOTRANSITION;
+		}
+		long key = key(source, triggerId);
+		int slot = slot(key, this.mask);
+		while (this.keys[slot] != EMPTYKEY) {
+			if (this.keys[slot] == key) {
+				return this.targets[slot];
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		return NOTRANSITION;
+	}
+
+	/**
+	 * Returns the number of transitions in the table
+	 *
+	 * @return the number of transitions in the table
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Inserts a key into the table, unless it already exists
+	 *
+	 * @param key    the key of the transition
+	 * @param target the index of the target state
+	 * @return true if the key was inserted
+	 */
+	private boolean insert(long key, int target) {
+		int slot = slot(key, this.mask);
+		while (this.keys[slot] != EMPTYKEY) {
+			if (this.keys[slot] == key) {
+				return false;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		this.keys[slot] = key;
+		this.targets[slot] = target;
+		this.size++;
+		return true;
+	}
+
+	/**
+	 * Doubles the capacity of the table and re-inserts all transitions
+	 */
+	private void resize() {
+		long[] oldKeys = this.keys;
+		int[] oldTargets = this.targets;
+		this.allocate(oldKeys.length * 2);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTYKEY) {
+				this.insert(oldKeys[i], oldTargets[i]);
+			}
+		}
+	}
+
+	/**
+	 * Allocates new and empty arrays for the table
+	 *
+	 * @param capacity the capacity of the table, must be a power of two
+	 */
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		Arrays.fill(this.keys, EMPTYKEY);
+		this.targets = new int[capacity];
+		this.mask = capacity - 1;
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the key of a transition
+	 *
+	 * @param source    the index of the source state
+	 * @param triggerId the id of the trigger
+	 * @return the key of the transition
+	 */
+	private static long key(int source, int triggerId) {
+		return ((long) source << 32) | triggerId;
+	}
+
+	/**
+	 * Returns the first slot to probe for the given key
+	 *
+	 * @param key  the key of the transition
+	 * @param mask the mask of the table's capacity
+	 * @return the first slot to probe for the given key
+	 */
+	private static int slot(long key, int mask) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+}
@@ -5,30 +5,33 @@ import java.util.Arrays;
 import java.util.List;
 
 /**
- * Utility class to handle the user output messages
+ * Buffers the user output messages of a single {@link ConversationEngine}
+ * session
  *
  * @author Marcel Engelmann
  *
  */
 class UserOutput {
 
+	private final I18n i18n;
+	private List<String> nextOutput;
+
 	/**
-	 * Static class, constructor is not allowed
+	 * Creates a new UserOutput object
 	 *
-	 * @throws IllegalStateException static class, constructor is not allowed
+	 * @param i18n the localization of the session the output belongs to
 	 */
-	private UserOutput() throws IllegalStateException {
-		throw new IllegalStateException("Static class");
+	UserOutput(I18n i18n) {
+		this.i18n = i18n;
+		this.nextOutput = new ArrayList<>();
 	}
 
-	private static List<String> nextOutput = new ArrayList<>();
-
 	/**
 	 * Adds the default error message declared in the localization file to the user
 	 * output
 	 */
-	static void addDefaultErrorMessage() {
-		addOutputMessageFromLocalizationKey("CouldNotProcessRequest");
+	void addDefaultErrorMessage() {
+		this.addOutputMessageFromLocalizationKey("CouldNotProcessRequest");
 	}
 
 	/**
@@ -36,9 +39,9 @@ class UserOutput {
 	 *
 	 * @param localizationKey the localization key for the message
 	 */
-	static void addOutputMessageFromLocalizationKey(String localizationKey) {
-		String message = I18n.getMessage(localizationKey);
-		nextOutput.add(message);
+	void addOutputMessageFromLocalizationKey(String localizationKey) {
+		String message = this.i18n.getMessage(localizationKey);
+		this.nextOutput.add(message);
 	}
 
 	/**
@@ -48,9 +51,9 @@ class UserOutput {
 	 * @param localizationKey the localization key for the message
 	 * @param args            the arguments for the message formatting
 	 */
-	static void addOutputMessageFromLocalizationKey(String localizationKey, Object... args) {
-		String message = I18n.getMessage(localizationKey, args);
-		nextOutput.add(message);
+	void addOutputMessageFromLocalizationKey(String localizationKey, Object... args) {
+		String message = this.i18n.getMessage(localizationKey, args);
+		this.nextOutput.add(message);
 	}
 
 	/**
@@ -58,8 +61,8 @@ class UserOutput {
 	 *
 	 * @param question the question to be asked of the user
 	 */
-	static void addOutputQuestion(String question) {
-		nextOutput.add(question);
+	void addOutputQuestion(String question) {
+		this.nextOutput.add(question);
 	}
 
 	/**
@@ -67,8 +70,15 @@ class UserOutput {
 	 *
 	 * @param messages a {@link List} of messages to add to the user output
 	 */
-	static void addOutputMessages(List<String> messages) {
-		nextOutput.addAll(messages);
+	void addOutputMessages(List<String> messages) {
+		this.nextOutput.addAll(messages);
+	}
+
+	/**
+	 * Discards all messages of the next output, e.g. of a failed turn
+	 */
+	void clear() {
+		this.nextOutput.clear();
 	}
 
 	/**
@@ -76,13 +86,13 @@ class UserOutput {
 	 *
 	 * @return all messages for the next user output
 	 */
-	static List<String> popNextOutput() {
-		if (nextOutput.isEmpty()) {
-			nextOutput.add(I18n.getMessage("WhatToDoNext"));
+	List<String> popNextOutput() {
+		if (this.nextOutput.isEmpty()) {
+			this.nextOutput.add(this.i18n.getMessage("WhatToDoNext"));
 		}
-		Logging.conversationMessages(nextOutput);
-		final List<String> returnedList = nextOutput;
-		nextOutput = new ArrayList<>();
+		Logging.conversationMessages(this.nextOutput);
+		final List<String> returnedList = this.nextOutput;
+		this.nextOutput = new ArrayList<>();
 		// remove empty elements
 		returnedList.removeAll(Arrays.asList("", null));
 		return returnedList;
@@ -0,0 +1,49 @@
+package de.dai_labor.conversation_engine_core.interfaces;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import de.dai_labor.conversation_engine_core.conversation_engine.BatchingNLPComponent;
+import de.dai_labor.conversation_engine_core.conversation_engine.ConversationEngine;
+
+/**
+ * This is an interface for an {@link INLPComponent} that processes many inputs
+ * at once, e.g. because its model server is more efficient on batches. The
+ * requests of many {@link ConversationEngine} sessions are collected by a
+ * {@link BatchingNLPComponent}
+ * 
+ * @author Marcel Engelmann
+ *
+ */
+public interface IBatchNLPComponent extends INLPComponent {
+
+	/**
+	 * Processes all given requests. Each request fills its own context object
+	 * like a call of {@link #understandInput(String, String, org.json.JSONObject)
+	 * understandInput} would
+	 * 
+	 * @param requests the requests to be processed
+	 * @return a {@link List} with a new {@link INLPAnswer} for each request, in
+	 *         the order of the requests
+	 */
+	List<INLPAnswer> understandInputs(List<INLPRequest> requests);
+
+	/**
+	 * Asynchronously processes all given requests. The default implementation
+	 * calls {@link #understandInputs(List)} on the calling thread
+	 * 
+	 * @param requests the requests to be processed. Their context objects must
+	 *                 not be accessed after the returned stage completed
+	 * @return a stage that completes with a {@link List} with a new
+	 *         {@link INLPAnswer} for each request, in the order of the requests
+	 */
+	default CompletionStage<List<INLPAnswer>> understandInputsAsync(List<INLPRequest> requests) {
+		try {
+			return CompletableFuture.completedFuture(this.understandInputs(requests));
+		} catch (RuntimeException ex) {
+			return CompletableFuture.failedFuture(ex);
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+package de.dai_labor.conversation_engine_core.interfaces;
+
+import org.json.JSONObject;
+
+import de.dai_labor.conversation_engine_core.conversation_engine.ContextPath;
+import de.dai_labor.conversation_engine_core.conversation_engine.ConversationContext;
+import de.dai_labor.conversation_engine_core.conversation_engine.ConversationEngine;
+
+/**
+ * This is an interface for the context of a conversation, that is shared by the
+ * {@link ConversationEngine}, its {@link INLPComponent} and its {@link ISkill
+ * skills}. The entries are accessed with precompiled {@link ContextPath
+ * ContextPaths}, primitive values can be read and written without boxing them.
+ * <br>
+ * <br>
+ * The values are the same as the values of a {@link JSONObject}: nested
+ * {@link JSONObject JSONObjects} and {@link org.json.JSONArray JSONArrays},
+ * Strings, Numbers and Booleans. The default implementation is the
+ * {@link ConversationContext}, which can also wrap an existing
+ * {@link JSONObject}
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public interface IContext {
+
+	/**
+	 * Returns true if the context contains an entry at the given path
+	 *
+	 * @param path the path of the entry
+	 * @return true if the entry exists
+	 */
+	boolean has(ContextPath path);
+
+	/**
+	 * Returns the value at the given path
+	 *
+	 * @param path the path of the entry
+	 * @return the value or null if the entry does not exist
+	 */
+	Object get(ContextPath path);
+
+	/**
+	 * Returns the object at the given path
+	 *
+	 * @param path the path of the entry
+	 * @return the object or null if the entry does not exist or is no object
+	 */
+	JSONObject getObject(ContextPath path);
+
+	/**
+	 * Returns the String at the given path
+	 *
+	 * @param path the path of the entry
+	 * @return the String or null if the entry does not exist or is no String
+	 */
+	String getString(ContextPath path);
+
+	/**
+	 * Returns the int at the given path
+	 *
+	 * @param path         the path of the entry
+	 * @param defaultValue the value to return if the entry does not exist or is no
+	 *                     number
+	 * @return the int or the default value
+	 */
+	int getInt(ContextPath path, int defaultValue);
+
+	/**
+	 * Returns the long at the given path
+	 *
+	 * @param path         the path of the entry
+	 * @param defaultValue the value to return if the entry does not exist or is no
+	 *                     number
+	 * @return the long or the default value
+	 */
+	long getLong(ContextPath path, long defaultValue);
+
+	/**
+	 * Returns the double at the given path
+	 *
+	 * @param path         the path of the entry
+	 * @param defaultValue the value to return if the entry does not exist or is no
+	 *                     number
+	 * @return the double or the default value
+	 */
+	double getDouble(ContextPath path, double defaultValue);
+
+	/**
+	 * Returns the boolean at the given path
+	 *
+	 * @param path         the path of the entry
+	 * @param defaultValue the value to return if the entry does not exist or is no
+	 *                     boolean
+	 * @return the boolean or the default value
+	 */
+	boolean getBoolean(ContextPath path, boolean defaultValue);
+
+	/**
+	 * Stores a value at the given path. Missing parent objects are created
+	 *
+	 * @param path  the path of the entry
+	 * @param value the value to store or null to remove the entry
+	 */
+	void put(ContextPath path, Object value);
+
+	/**
+	 * Stores an int at the given path. Missing parent objects are created
+	 *
+	 * @param path  the path of the entry
+	 * @param value the value to store
+	 */
+	void putInt(ContextPath path, int value);
+
+	/**
+	 * Stores a long at the given path. Missing parent objects are created
+	 *
+	 * @param path  the path of the entry
+	 * @param value the value to store
+	 */
+	void putLong(ContextPath path, long value);
+
+	/**
+	 * Stores a double at the given path. Missing parent objects are created
+	 *
+	 * @param path  the path of the entry
+	 * @param value the value to store
+	 */
+	void putDouble(ContextPath path, double value);
+
+	/**
+	 * Stores a boolean at the given path. Missing parent objects are created
+	 *
+	 * @param path  the path of the entry
+	 * @param value the value to store
+	 */
+	void putBoolean(ContextPath path, boolean value);
+
+	/**
+	 * Removes the entry at the given path
+	 *
+	 * @param path the path of the entry
+	 */
+	void remove(ContextPath path);
+
+	/**
+	 * Returns the context as {@link JSONObject}, e.g. for components that still
+	 * work with a {@link JSONObject}. Changes to the returned object change the
+	 * context. The returned object must not be used after the context was accessed
+	 * through this interface again
+	 *
+	 * @return the context as {@link JSONObject}
+	 */
+	JSONObject asJSONObject();
+}
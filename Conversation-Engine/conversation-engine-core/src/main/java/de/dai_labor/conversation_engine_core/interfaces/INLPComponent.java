@@ -1,6 +1,8 @@
 package de.dai_labor.conversation_engine_core.interfaces;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.json.JSONObject;
 
@@ -56,4 +58,87 @@ public interface INLPComponent {
 	 */
 	INLPAnswer understandInput(String input, JSONObject contextObject);
 
-}
\ No newline at end of file
+	/**
+	 * Asynchronously processes the given input to fill the context object with
+	 * the given entityName. The default implementation calls
+	 * {@link #understandInput(String, String, JSONObject)} on the calling thread.
+	 * Components that wait for a remote service should override this method and
+	 * complete the returned stage once the service answered, so that no thread is
+	 * blocked in the meantime
+	 * 
+	 * @param input         the input to be processed
+	 * @param entityName    the entity name to be filled
+	 * @param contextObject a reference to the context object used by the
+	 *                      {@link ConversationEngine}. Must not be accessed after
+	 *                      the returned stage completed
+	 * @return a stage that completes with a new {@link INLPAnswer}
+	 */
+	default CompletionStage<INLPAnswer> understandInputAsync(String input, String entityName,
+			JSONObject contextObject) {
+		try {
+			return CompletableFuture.completedFuture(this.understandInput(input, entityName, contextObject));
+		} catch (RuntimeException ex) {
+			return CompletableFuture.failedFuture(ex);
+		}
+	}
+
+	/**
+	 * Asynchronously processes the given input to fill the context object with
+	 * the found information in the input. The default implementation calls
+	 * {@link #understandInput(String, JSONObject)} on the calling thread.
+	 * Components that wait for a remote service should override this method and
+	 * complete the returned stage once the service answered, so that no thread is
+	 * blocked in the meantime
+	 * 
+	 * @param input         the input to be processed
+	 * @param contextObject a reference to the context object used by the
+	 *                      {@link ConversationEngine}. Must not be accessed after
+	 *                      the returned stage completed
+	 * @return a stage that completes with a new {@link INLPAnswer}
+	 */
+	default CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+		try {
+			return CompletableFuture.completedFuture(this.understandInput(input, contextObject));
+		} catch (RuntimeException ex) {
+			return CompletableFuture.failedFuture(ex);
+		}
+	}
+
+	/**
+	 * Asynchronously processes the given input to fill the context with the given
+	 * entityName. The {@link ConversationEngine} calls this method. The default
+	 * implementation passes the context {@link IContext#asJSONObject() as
+	 * JSONObject} to {@link #understandInputAsync(String, String, JSONObject)}.
+	 * Components that work with the typed {@link IContext} and components that
+	 * wrap another {@link INLPComponent} should override this method
+	 * 
+	 * @param input      the input to be processed
+	 * @param entityName the entity name to be filled
+	 * @param context    the context used by the {@link ConversationEngine}. Must
+	 *                   not be accessed after the returned stage completed
+	 * @return a stage that completes with a new {@link INLPAnswer}
+	 */
+	default CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, String entityName,
+			IContext context) {
+		return this.understandInputAsync(input, entityName, context == null ? null : context.asJSONObject());
+	}
+
+	/**
+	 * Asynchronously processes the given input to fill the context with the found
+	 * information in the input. The {@link ConversationEngine} calls this method.
+	 * The default implementation passes the context
+	 * {@link IContext#asJSONObject() as JSONObject} to
+	 * {@link #understandInputAsync(String, JSONObject)}. Components that work with
+	 * the typed {@link IContext} and components that wrap another
+	 * {@link INLPComponent} should override this method
+	 * 
+	 * @param input   the input to be processed
+	 * @param context the context used by the {@link ConversationEngine}. Must not
+	 *                be accessed after the returned stage completed
+	 * @return a stage that completes with a new {@link INLPAnswer}
+	 */
+	default CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, IContext context) {
+		return this.understandInputAsync(input, context == null ? null : context.asJSONObject());
+	}
+
+}
@@ -0,0 +1,55 @@
+package de.dai_labor.conversation_engine_core.interfaces;
+
+import org.json.JSONObject;
+
+import de.dai_labor.conversation_engine_core.conversation_engine.ConversationContext;
+import de.dai_labor.conversation_engine_core.conversation_engine.ConversationEngine;
+
+/**
+ * This is an interface for a single request of a batch that is processed by an
+ * {@link IBatchNLPComponent}
+ * 
+ * @author Marcel Engelmann
+ *
+ */
+public interface INLPRequest {
+
+	/**
+	 * Returns the input to be processed
+	 * 
+	 * @return the input to be processed
+	 */
+	String getInput();
+
+	/**
+	 * Returns the entity name to be filled
+	 * 
+	 * @return the entity name to be filled or null if the input is supposed to be
+	 *         processed like in {@link INLPComponent#understandInput(String,
+	 *         JSONObject)}
+	 */
+	String getEntityName();
+
+	/**
+	 * Returns the context object of the request
+	 * 
+	 * @return a reference to the context object used by the
+	 *         {@link ConversationEngine} that sent the request
+	 */
+	JSONObject getContextObject();
+
+	/**
+	 * Returns the context of the request. The default implementation wraps the
+	 * {@link #getContextObject() context object}. Components that work with the
+	 * typed {@link IContext} should use this method instead of
+	 * {@link #getContextObject()}
+	 * 
+	 * @return the context used by the {@link ConversationEngine} that sent the
+	 *         request or null if the request has no context
+	 */
+	default IContext getContext() {
+		JSONObject contextObject = this.getContextObject();
+		return contextObject == null ? null : new ConversationContext(contextObject);
+	}
+
+}
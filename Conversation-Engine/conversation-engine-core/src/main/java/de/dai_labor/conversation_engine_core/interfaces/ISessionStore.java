@@ -0,0 +1,45 @@
+package de.dai_labor.conversation_engine_core.interfaces;
+
+import java.io.IOException;
+
+import de.dai_labor.conversation_engine_core.conversation_engine.ConversationEngine;
+import de.dai_labor.conversation_engine_core.conversation_engine.SessionHost;
+
+/**
+ * This is an interface for a store of passivated sessions. A {@link SessionHost}
+ * saves the {@link ConversationEngine#snapshot() snapshot} of a session that
+ * was idle or least recently used and loads it again with the next input of
+ * the session. The methods are called from the threads of the
+ * {@link SessionHost}, but never at the same time for the same session
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public interface ISessionStore {
+
+	/**
+	 * Saves the snapshot of a session and replaces its previous snapshot
+	 *
+	 * @param sessionId the id of the session
+	 * @param snapshot  the snapshot of the session
+	 * @throws IOException if the snapshot could not be saved
+	 */
+	void save(String sessionId, byte[] snapshot) throws IOException;
+
+	/**
+	 * Loads the snapshot of a session
+	 *
+	 * @param sessionId the id of the session
+	 * @return the snapshot of the session or null if there is no snapshot
+	 * @throws IOException if the snapshot could not be loaded
+	 */
+	byte[] load(String sessionId) throws IOException;
+
+	/**
+	 * Removes the snapshot of a session, if there is one
+	 *
+	 * @param sessionId the id of the session
+	 * @throws IOException if the snapshot could not be removed
+	 */
+	void remove(String sessionId) throws IOException;
+}
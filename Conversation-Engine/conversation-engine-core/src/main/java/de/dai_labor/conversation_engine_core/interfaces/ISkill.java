@@ -2,6 +2,8 @@ package de.dai_labor.conversation_engine_core.interfaces;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.json.JSONObject;
 
@@ -36,6 +38,50 @@ public interface ISkill {
 	 */
 	ISkillAnswer execute(String intent, JSONObject contextObject, String currentState, Locale language);
 
+	/**
+	 * Executes the given intent asynchronously. The default implementation calls
+	 * {@link #execute(String, JSONObject, String, Locale)} on the calling thread.
+	 * Skills that wait for a remote service should override this method and
+	 * complete the returned stage once the service answered, so that no thread is
+	 * blocked in the meantime. The {@link ConversationEngine} continues the
+	 * conversation only after the returned stage completed
+	 * 
+	 * @param intent        the intent to be executed
+	 * @param contextObject the reference to the context object used by the
+	 *                      {@link ConversationEngine}. Must not be accessed after
+	 *                      the returned stage completed
+	 * @param currentState  the current state of the skill
+	 * @param language      the user's language
+	 * @return a stage that completes with a new {@link ISkillAnswer}
+	 */
+	default CompletionStage<ISkillAnswer> executeAsync(String intent, JSONObject contextObject, String currentState,
+			Locale language) {
+		try {
+			return CompletableFuture.completedFuture(this.execute(intent, contextObject, currentState, language));
+		} catch (RuntimeException ex) {
+			return CompletableFuture.failedFuture(ex);
+		}
+	}
+
+	/**
+	 * Executes the given intent asynchronously with the typed context. The
+	 * {@link ConversationEngine} calls this method. The default implementation
+	 * passes the context {@link IContext#asJSONObject() as JSONObject} to
+	 * {@link #executeAsync(String, JSONObject, String, Locale)}. Skills that work
+	 * with the typed {@link IContext} should override this method
+	 * 
+	 * @param intent       the intent to be executed
+	 * @param context      the context used by the {@link ConversationEngine}. Must
+	 *                     not be accessed after the returned stage completed
+	 * @param currentState the current state of the skill
+	 * @param language     the user's language
+	 * @return a stage that completes with a new {@link ISkillAnswer}
+	 */
+	default CompletionStage<ISkillAnswer> executeWithContextAsync(String intent, IContext context,
+			String currentState, Locale language) {
+		return this.executeAsync(intent, context == null ? null : context.asJSONObject(), currentState, language);
+	}
+
 	/**
 	 * Resets the skill. This is usually required when the user aborts a request
 	 */
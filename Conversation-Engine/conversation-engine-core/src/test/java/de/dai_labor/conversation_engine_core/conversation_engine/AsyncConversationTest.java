@@ -0,0 +1,102 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.AsyncNLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class AsyncConversationTest {
+
+	private static final int SESSIONS = 200;
+	private static final long NLPDELAY = 50;
+	private ExecutorService executor;
+	private String weatherSkillStateMachine;
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@BeforeEach
+	void init() {
+		this.executor = Executors.newFixedThreadPool(2);
+		this.weatherSkillStateMachine = TestHelperFunctions.loadJsonFileAsString("Weather.json");
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Many asynchronous conversations share few threads")
+	void manyConversationsOnFewThreads() throws InterruptedException, ExecutionException, TimeoutException {
+		List<CompletableFuture<List<String>>> conversations = new ArrayList<>(SESSIONS);
+		for (int i = 0; i < SESSIONS; i++) {
+			ConversationEngine conversationEngine = new ConversationEngine(
+					new AsyncNLPComponent(NLPDELAY, this.executor), 0, this.defaultLanguage);
+			conversationEngine.addSkill(new WeatherSkill(), this.weatherSkillStateMachine);
+			conversations.add(conversationEngine.userInputAsync("Wie ist das Wetter?")
+					.thenCompose(answers -> {
+						assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", answers.get(0));
+						return conversationEngine.userInputAsync("Hamburg");
+					}).toCompletableFuture());
+		}
+		// two blocking threads would need SESSIONS * 2 * NLPDELAY / 2 = 10 seconds
+		CompletableFuture.allOf(conversations.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+		for (CompletableFuture<List<String>> conversation : conversations) {
+			assertTrue(conversation.get().get(0).startsWith("In Hamburg sind es"));
+		}
+	}
+
+	@Test
+	@DisplayName("Synchronous components complete the turn immediately")
+	void synchronousComponent() {
+		ConversationEngine conversationEngine = new ConversationEngine(new NLPComponent(), 0, this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), this.weatherSkillStateMachine);
+		CompletionStage<List<String>> turn = conversationEngine.userInputAsync("Wetter");
+		assertTrue(turn.toCompletableFuture().isDone());
+		assertEquals("Mid", conversationEngine.getState());
+	}
+
+	@Test
+	@DisplayName("Synchronous input with an asynchronous component")
+	void synchronousInputWithAsynchronousComponent() {
+		ConversationEngine conversationEngine = new ConversationEngine(new AsyncNLPComponent(NLPDELAY, this.executor),
+				0, this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), this.weatherSkillStateMachine);
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", conversationEngine.userInput("Wetter").get(0));
+		assertTrue(conversationEngine.userInput("Berlin").get(0).startsWith("In Berlin sind es"));
+	}
+
+	@Test
+	@DisplayName("A failing asynchronous component fails the turn")
+	void failingComponent() {
+		ConversationEngine conversationEngine = new ConversationEngine(new NLPComponent() {
+			@Override
+			public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+				return CompletableFuture.failedFuture(new IllegalStateException("NLP service unavailable"));
+			}
+		}, 0, this.defaultLanguage);
+		CompletableFuture<List<String>> turn = conversationEngine.userInputAsync("Wetter").toCompletableFuture();
+		assertTrue(turn.isCompletedExceptionally());
+		assertThrows(IllegalStateException.class, () -> conversationEngine.userInput("Wetter"));
+	}
+}
@@ -0,0 +1,95 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.AsyncWeatherSkill;
+import de.dai_labor.conversation_engine_core.skills.GreetingSkill;
+import de.dai_labor.conversation_engine_core.skills.RecipeSearchSkill;
+
+class AsyncSkillTest {
+
+	private static final int SESSIONS = 200;
+	private static final long SKILLDELAY = 50;
+	private ExecutorService executor;
+	private ConversationEngine conversationEngine;
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@BeforeEach
+	void init() {
+		this.executor = Executors.newFixedThreadPool(2);
+		this.conversationEngine = this.newConversationEngine();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Answers keep the order of the intents")
+	void answersKeepOrder() {
+		List<String> answers = this.conversationEngine
+				.userInput("Wie ist das Wetter in Berlin, welche Rezepte gibt es mit Paprika?");
+		assertTrue(answers.get(0).startsWith("In Berlin sind es"));
+		assertTrue(answers.get(1).contains("Rezepte mit Paprika gefunden:"));
+
+		answers = this.conversationEngine.userInput("Hallo, wie ist das Wetter in Berlin?");
+		assertTrue(answers.get(0).contains(TestHelperFunctions.getDayTime()));
+		assertTrue(answers.get(1).startsWith("In Berlin sind es"));
+	}
+
+	@Test
+	@DisplayName("Skill questions are asked after the skill answered")
+	void skillQuestion() throws InterruptedException, ExecutionException {
+		CompletableFuture<List<String>> turn = this.conversationEngine.userInputAsync("Wie ist das Wetter?")
+				.toCompletableFuture();
+		assertFalse(turn.isDone());
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", turn.get().get(0));
+		assertEquals("Mid", this.conversationEngine.getState());
+		assertTrue(this.conversationEngine.userInput("Hamburg").get(0).startsWith("In Hamburg sind es"));
+		assertEquals("defaultState", this.conversationEngine.getState());
+	}
+
+	@Test
+	@DisplayName("Many skill calls in flight on few threads")
+	void manySkillCallsInFlight() throws InterruptedException, ExecutionException, TimeoutException {
+		List<CompletableFuture<List<String>>> turns = new ArrayList<>(SESSIONS);
+		for (int i = 0; i < SESSIONS; i++) {
+			turns.add(this.newConversationEngine().userInputAsync("Wie ist das Wetter in Dortmund?")
+					.toCompletableFuture());
+		}
+		// two blocking threads would need SESSIONS * SKILLDELAY / 2 = 5 seconds
+		CompletableFuture.allOf(turns.toArray(new CompletableFuture[0])).get(3, TimeUnit.SECONDS);
+		for (CompletableFuture<List<String>> turn : turns) {
+			assertTrue(turn.get().get(0).startsWith("In Dortmund sind es"));
+		}
+	}
+
+	private ConversationEngine newConversationEngine() {
+		ConversationEngine newConversationEngine = new ConversationEngine(new NLPComponent(), 0, this.defaultLanguage);
+		newConversationEngine.addSkill(new AsyncWeatherSkill(SKILLDELAY, this.executor),
+				TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		newConversationEngine.addSkill(new RecipeSearchSkill(),
+				TestHelperFunctions.loadJsonFileAsString("RecipeSearch.json"));
+		newConversationEngine.addSkill(new GreetingSkill(), TestHelperFunctions.loadJsonFileAsString("Greeting.json"));
+		return newConversationEngine;
+	}
+}
@@ -0,0 +1,111 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dai_labor.conversation_engine_core.interfaces.IBatchNLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.INLPRequest;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+
+/**
+ * Measures the throughput and the latency distribution of the
+ * {@link BatchingNLPComponent} for different batch windows. 64 threads emulate
+ * concurrent sessions that call a single model server, which needs a fixed
+ * overhead per call and a small additional time per input. A maximum batch
+ * size of 1 disables the batching
+ *
+ * @author Marcel Engelmann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+public class BatchingNLPComponentBenchmark {
+
+	private static final long OVERHEADPERCALLNANOS = TimeUnit.MILLISECONDS.toNanos(2);
+	private static final long TIMEPERINPUTNANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+	@Param({ "1", "64" })
+	private int maximumBatchSize;
+
+	@Param({ "0", "500", "2000", "5000" })
+	private long batchWindowInMicroseconds;
+
+	private ExecutorService modelServer;
+	private BatchingNLPComponent nlpComponent;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.modelServer = Executors.newSingleThreadExecutor();
+		this.nlpComponent = new BatchingNLPComponent(new ModelServerNLPComponent(this.modelServer),
+				this.maximumBatchSize, Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(this.batchWindowInMicroseconds)));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.modelServer.shutdownNow();
+	}
+
+	@Benchmark
+	public INLPAnswer understandInput() {
+		return this.nlpComponent.understandInput("Wie ist das Wetter?", new JSONObject());
+	}
+
+	/**
+	 * Emulates a model server that processes one call at a time
+	 */
+	private static class ModelServerNLPComponent extends NLPComponent implements IBatchNLPComponent {
+		private static final INLPAnswer ANSWER = new SimpleNLPAnswer(List.of("weather"), false, Locale.GERMANY);
+		private final ExecutorService modelServer;
+
+		private ModelServerNLPComponent(ExecutorService modelServer) {
+			this.modelServer = modelServer;
+		}
+
+		@Override
+		public List<INLPAnswer> understandInputs(List<INLPRequest> requests) {
+			return this.understandInputsAsync(requests).toCompletableFuture().join();
+		}
+
+		@Override
+		public CompletionStage<List<INLPAnswer>> understandInputsAsync(List<INLPRequest> requests) {
+			return CompletableFuture.supplyAsync(() -> {
+				LockSupport.parkNanos(OVERHEADPERCALLNANOS + TIMEPERINPUTNANOS * requests.size());
+				List<INLPAnswer> answers = new ArrayList<>(requests.size());
+				for (int i = 0; i < requests.size(); i++) {
+					answers.add(ANSWER);
+				}
+				return answers;
+			}, this.modelServer);
+		}
+	}
+}
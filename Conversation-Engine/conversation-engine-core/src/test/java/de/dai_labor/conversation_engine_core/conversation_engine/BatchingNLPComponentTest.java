@@ -0,0 +1,126 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import de.dai_labor.conversation_engine_core.interfaces.BatchNLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.INLPRequest;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class BatchingNLPComponentTest {
+
+	private MemoryLogger logs;
+	private String weatherSkillStateMachine;
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@BeforeEach
+	void init() {
+		this.logs = TestHelperFunctions.getNewLogAppender();
+		this.logs.reset();
+		this.weatherSkillStateMachine = TestHelperFunctions.loadJsonFileAsString("Weather.json");
+	}
+
+	@Test
+	@DisplayName("Concurrent requests of many sessions are processed in full batches")
+	void fullBatches() throws InterruptedException, ExecutionException, TimeoutException {
+		BatchNLPComponent batchNLP = new BatchNLPComponent(10);
+		BatchingNLPComponent nlp = new BatchingNLPComponent(batchNLP, 32, Duration.ofSeconds(10));
+		List<CompletableFuture<List<String>>> replies = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			ConversationEngine conversationEngine = new ConversationEngine(nlp, 0, this.defaultLanguage);
+			conversationEngine.addSkill(new WeatherSkill(), this.weatherSkillStateMachine);
+			replies.add(conversationEngine.userInputAsync("Wie ist das Wetter in Berlin?").toCompletableFuture());
+		}
+		CompletableFuture.allOf(replies.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+		for (CompletableFuture<List<String>> reply : replies) {
+			assertTrue(reply.get().get(0).startsWith("In Berlin sind es"));
+		}
+		assertEquals(List.of(32, 32), batchNLP.getBatchSizes());
+		assertEquals(2, nlp.getNumberOfBatches());
+		assertEquals(64, nlp.getNumberOfRequests());
+	}
+
+	@Test
+	@DisplayName("An incomplete batch is processed after the batch window")
+	void batchWindow() throws InterruptedException, ExecutionException, TimeoutException {
+		BatchNLPComponent batchNLP = new BatchNLPComponent(0);
+		BatchingNLPComponent nlp = new BatchingNLPComponent(batchNLP, 32, Duration.ofMillis(20));
+		List<JSONObject> contexts = new ArrayList<>();
+		List<CompletableFuture<INLPAnswer>> answers = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			JSONObject context = new JSONObject();
+			contexts.add(context);
+			answers.add(nlp.understandInputAsync("Berlin", "weatherLocations", context).toCompletableFuture());
+		}
+		CompletableFuture.allOf(answers.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+		assertEquals(List.of(5), batchNLP.getBatchSizes());
+		for (JSONObject context : contexts) {
+			assertTrue(context.has("weatherLocations"));
+		}
+		// the synchronous call waits for its own batch
+		assertEquals(List.of("weather"), nlp.understandInput("Wetter", new JSONObject()).getIntents());
+		assertEquals(List.of(5, 1), batchNLP.getBatchSizes());
+	}
+
+	@Test
+	@DisplayName("A batch with the wrong number of answers fails")
+	void wrongNumberOfAnswers() {
+		BatchNLPComponent batchNLP = new BatchNLPComponent(0) {
+			@Override
+			public synchronized List<INLPAnswer> understandInputs(List<INLPRequest> requests) {
+				return new ArrayList<>();
+			}
+		};
+		BatchingNLPComponent nlp = new BatchingNLPComponent(batchNLP, 1, Duration.ZERO);
+		assertThrows(IllegalStateException.class, () -> nlp.understandInput("Wetter", new JSONObject()));
+		assertTrue(this.logs.contains("The IBatchNLPComponent returned 0 answers for 1 requests", Level.ERROR));
+	}
+
+	@Test
+	@DisplayName("A failed batch fails all of its requests")
+	void failedBatch() {
+		BatchNLPComponent batchNLP = new BatchNLPComponent(0) {
+			@Override
+			public synchronized List<INLPAnswer> understandInputs(List<INLPRequest> requests) {
+				throw new IllegalStateException("Model server unavailable");
+			}
+		};
+		BatchingNLPComponent nlp = new BatchingNLPComponent(batchNLP, 2, Duration.ofMillis(10));
+		CompletableFuture<INLPAnswer> first = nlp.understandInputAsync("Wetter", new JSONObject())
+				.toCompletableFuture();
+		IllegalStateException ex = assertThrows(IllegalStateException.class,
+				() -> nlp.understandInput("Hallo", new JSONObject()));
+		assertEquals("Model server unavailable", ex.getMessage());
+		assertTrue(first.isCompletedExceptionally());
+	}
+
+	@Test
+	@DisplayName("Invalid arguments")
+	void invalidArguments() {
+		BatchNLPComponent batchNLP = new BatchNLPComponent(0);
+		assertThrows(IllegalArgumentException.class, () -> new BatchingNLPComponent(null, 1, Duration.ZERO));
+		assertThrows(IllegalArgumentException.class, () -> new BatchingNLPComponent(batchNLP, 1, null));
+		assertThrows(IllegalArgumentException.class, () -> new BatchingNLPComponent(batchNLP, 0, Duration.ZERO));
+		assertThrows(IllegalArgumentException.class,
+				() -> new BatchingNLPComponent(batchNLP, 1, Duration.ofMillis(-1)));
+		assertThrows(IllegalArgumentException.class,
+				() -> new BatchingNLPComponent(batchNLP, 1, Duration.ZERO, null));
+	}
+}
@@ -0,0 +1,200 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.AsyncNLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class CachingNLPComponentTest {
+
+	private static final List<String> CONTEXTKEYS = List.of("weatherLocations", "locations", "availableIngredients",
+			"recipeSearchIngredients", "useLastSelectedRecipe");
+	private static final Duration TIMETOLIVE = Duration.ofMinutes(1);
+	private ExecutorService executor;
+	private AtomicInteger nlpCalls;
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@BeforeEach
+	void init() {
+		this.executor = Executors.newFixedThreadPool(2);
+		this.nlpCalls = new AtomicInteger();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Repeated inputs are answered from the cache and change the context")
+	void repeatedInput() {
+		CachingNLPComponent nlp = new CachingNLPComponent(this.countingNLPComponent(), CONTEXTKEYS, 10, TIMETOLIVE);
+		JSONObject firstContext = new JSONObject();
+		JSONObject secondContext = new JSONObject().put("unrelated", 1);
+		INLPAnswer firstAnswer = nlp.understandInput("Wie ist das Wetter in Berlin?", firstContext);
+		INLPAnswer secondAnswer = nlp.understandInput("  wie ist das   WETTER in Berlin? ", secondContext);
+		assertEquals(1, this.nlpCalls.get());
+		assertEquals(1, nlp.getHits());
+		assertEquals(1, nlp.getMisses());
+		assertEquals(List.of("weather"), firstAnswer.getIntents());
+		assertEquals(List.of("weather"), secondAnswer.getIntents());
+		assertTrue(secondAnswer.hasAddedEntities());
+		assertTrue(firstContext.getJSONArray("weatherLocations")
+				.similar(secondContext.getJSONArray("weatherLocations")));
+		assertEquals(1, secondContext.getInt("unrelated"));
+		// the cached values are not shared with the contexts
+		firstContext.getJSONArray("weatherLocations").put("changed");
+		secondAnswer.getIntents().clear();
+		JSONObject thirdContext = new JSONObject();
+		INLPAnswer thirdAnswer = nlp.understandInput("Wie ist das Wetter in Berlin?", thirdContext);
+		assertEquals(List.of("weather"), thirdAnswer.getIntents());
+		assertEquals(1, thirdContext.getJSONArray("weatherLocations").length());
+		assertEquals(1, this.nlpCalls.get());
+	}
+
+	@Test
+	@DisplayName("The cache distinguishes the entity name and the relevant context entries")
+	void differentRequests() {
+		CachingNLPComponent nlp = new CachingNLPComponent(this.countingNLPComponent(), CONTEXTKEYS, 10, TIMETOLIVE);
+		nlp.understandInput("Wetter", new JSONObject());
+		nlp.understandInput("Wetter", "weatherLocations", new JSONObject());
+		nlp.understandInput("Wetter", new JSONObject().put("locations", new JSONObject().put("Berlin", 1)));
+		assertEquals(3, this.nlpCalls.get());
+		nlp.understandInput("Wetter", new JSONObject().put("unrelated", true));
+		assertEquals(3, this.nlpCalls.get());
+	}
+
+	@Test
+	@DisplayName("Concurrent identical requests call the NLPComponent once")
+	void coalescedRequests() throws InterruptedException, ExecutionException, TimeoutException {
+		NLPComponent asyncNLP = new AsyncNLPComponent(100, this.executor) {
+			@Override
+			public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+				CachingNLPComponentTest.this.nlpCalls.incrementAndGet();
+				return super.understandInputAsync(input, contextObject);
+			}
+		};
+		CachingNLPComponent nlp = new CachingNLPComponent(asyncNLP, CONTEXTKEYS, 10, TIMETOLIVE);
+		List<JSONObject> contexts = new ArrayList<>();
+		List<CompletableFuture<INLPAnswer>> answers = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			JSONObject context = new JSONObject();
+			contexts.add(context);
+			answers.add(nlp.understandInputAsync("Wetter in Hamburg", context).toCompletableFuture());
+		}
+		CompletableFuture.allOf(answers.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+		assertEquals(1, this.nlpCalls.get());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(List.of("weather"), answers.get(i).get().getIntents());
+			assertTrue(contexts.get(i).has("weatherLocations"));
+		}
+	}
+
+	@Test
+	@DisplayName("Answers are evicted by size and time to live")
+	void eviction() throws InterruptedException {
+		CachingNLPComponent nlp = new CachingNLPComponent(this.countingNLPComponent(), CONTEXTKEYS, 2,
+				Duration.ofMillis(100));
+		nlp.understandInput("Hallo", new JSONObject());
+		nlp.understandInput("Wetter", new JSONObject());
+		nlp.understandInput("Hallo", new JSONObject());
+		nlp.understandInput("Rezepte mit Paprika", new JSONObject());
+		assertEquals(2, nlp.size());
+		assertEquals(3, this.nlpCalls.get());
+		// "Wetter" was the least recently used answer
+		nlp.understandInput("Wetter", new JSONObject());
+		assertEquals(4, this.nlpCalls.get());
+		Thread.sleep(150);
+		nlp.understandInput("Wetter", new JSONObject());
+		assertEquals(5, this.nlpCalls.get());
+		nlp.addUsedIntents(List.of("weather"));
+		assertEquals(0, nlp.size());
+	}
+
+	@Test
+	@DisplayName("Failed requests are not cached")
+	void failedRequests() {
+		NLPComponent failingNLP = new NLPComponent() {
+			@Override
+			public INLPAnswer understandInput(String input, JSONObject contextObject) {
+				CachingNLPComponentTest.this.nlpCalls.incrementAndGet();
+				throw new IllegalStateException("NLP service unavailable");
+			}
+		};
+		CachingNLPComponent nlp = new CachingNLPComponent(failingNLP, CONTEXTKEYS, 10, TIMETOLIVE);
+		IllegalStateException ex = assertThrows(IllegalStateException.class,
+				() -> nlp.understandInput("Wetter", new JSONObject()));
+		assertEquals("NLP service unavailable", ex.getMessage());
+		assertThrows(IllegalStateException.class, () -> nlp.understandInput("Wetter", new JSONObject()));
+		assertEquals(2, this.nlpCalls.get());
+		assertEquals(0, nlp.size());
+	}
+
+	@Test
+	@DisplayName("Conversations with a shared cache")
+	void conversations() {
+		CachingNLPComponent nlp = new CachingNLPComponent(this.countingNLPComponent(), CONTEXTKEYS, 10, TIMETOLIVE);
+		String weatherSkillStateMachine = TestHelperFunctions.loadJsonFileAsString("Weather.json");
+		for (int i = 0; i < 3; i++) {
+			ConversationEngine conversationEngine = new ConversationEngine(nlp, 0, this.defaultLanguage);
+			conversationEngine.addSkill(new WeatherSkill(), weatherSkillStateMachine);
+			assertEquals("Von welchem Ort möchten Sie das Wetter wissen?",
+					conversationEngine.userInput("Wie ist das Wetter?").get(0));
+			assertTrue(conversationEngine.userInput("Berlin").get(0).startsWith("In Berlin sind es"));
+			assertTrue(conversationEngine.userInput("Wie ist das Wetter?").get(0).startsWith("In Berlin sind es"));
+		}
+		assertEquals(3, this.nlpCalls.get());
+		assertEquals(6, nlp.getHits());
+	}
+
+	@Test
+	@DisplayName("Invalid arguments")
+	void invalidArguments() {
+		NLPComponent nlpComponent = new NLPComponent();
+		assertThrows(IllegalArgumentException.class,
+				() -> new CachingNLPComponent(null, CONTEXTKEYS, 10, TIMETOLIVE));
+		assertThrows(IllegalArgumentException.class, () -> new CachingNLPComponent(nlpComponent, null, 10, TIMETOLIVE));
+		assertThrows(IllegalArgumentException.class, () -> new CachingNLPComponent(nlpComponent, CONTEXTKEYS, 0, TIMETOLIVE));
+		assertThrows(IllegalArgumentException.class,
+				() -> new CachingNLPComponent(nlpComponent, CONTEXTKEYS, 10, Duration.ZERO));
+	}
+
+	private NLPComponent countingNLPComponent() {
+		return new NLPComponent() {
+			@Override
+			public INLPAnswer understandInput(String input, String entityName, JSONObject contextObject) {
+				CachingNLPComponentTest.this.nlpCalls.incrementAndGet();
+				return super.understandInput(input, entityName, contextObject);
+			}
+
+			@Override
+			public INLPAnswer understandInput(String input, JSONObject contextObject) {
+				CachingNLPComponentTest.this.nlpCalls.incrementAndGet();
+				return super.understandInput(input, contextObject);
+			}
+		};
+	}
+}
@@ -0,0 +1,92 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponentEnglish;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkillEnglish;
+
+class ConcurrentSessionsTest {
+
+	private static final int SESSIONS = 64;
+	private static final int ROUNDS = 50;
+	private static final int THREADS = 16;
+	private static final String[] GERMANCITIES = new String[] { "Berlin", "Dortmund", "München", "Hamburg" };
+	private static final String[] ENGLISHCITIES = new String[] { "Berlin", "Dortmund", "Munich", "Hamburg" };
+
+	@Test
+	@DisplayName("Parallel sessions never mix up their replies and languages")
+	void parallelSessionsAreIsolated() throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch startSignal = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>(SESSIONS);
+		String weatherSkillStateMachine = TestHelperFunctions.loadJsonFileAsString("Weather.json");
+		for (int i = 0; i < SESSIONS; i++) {
+			boolean german = i % 2 == 0;
+			int city = i % GERMANCITIES.length;
+			results.add(executor.submit(
+					this.createConversation(german, city, weatherSkillStateMachine, startSignal)));
+		}
+		startSignal.countDown();
+		for (Future<Integer> result : results) {
+			assertEquals(ROUNDS, result.get().intValue());
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	private Callable<Integer> createConversation(boolean german, int city, String weatherSkillStateMachine,
+			CountDownLatch startSignal) {
+		return () -> {
+			ConversationEngine conversationEngine;
+			String cityName;
+			if (german) {
+				conversationEngine = new ConversationEngine(new NLPComponent(), 0, new Locale("de", "DE"));
+				conversationEngine.addSkill(new WeatherSkill(), weatherSkillStateMachine);
+				cityName = GERMANCITIES[city];
+			} else {
+				conversationEngine = new ConversationEngine(new NLPComponentEnglish(), 0, new Locale("en", "US"));
+				conversationEngine.addSkill(new WeatherSkillEnglish(), weatherSkillStateMachine);
+				cityName = ENGLISHCITIES[city];
+			}
+			startSignal.await();
+			List<String> answers = conversationEngine
+					.userInput(german ? "Wie ist das Wetter?" : "How is the weather?");
+			assertEquals(1, answers.size());
+			assertEquals(german ? "Von welchem Ort möchten Sie das Wetter wissen?"
+					: "From which location do you want to know the weather?", answers.get(0));
+			String expectedWeather = "In " + cityName + (german ? " sind es " : " it is ");
+			answers = conversationEngine.userInput(cityName);
+			assertEquals(1, answers.size());
+			assertTrue(answers.get(0).startsWith(expectedWeather), answers.get(0));
+			int finishedRounds = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				answers = conversationEngine.userInput(
+						german ? "Wie ist das Wetter in " + cityName : "How is the weather in " + cityName);
+				assertEquals(1, answers.size());
+				assertTrue(answers.get(0).startsWith(expectedWeather), answers.get(0));
+				answers = conversationEngine.userInput("ggf");
+				assertEquals(german ? "Es tut mir leid, aber ich konnte Ihre Anfrage leider nicht bearbeiten."
+						: "I'm sorry, but unfortunately I was unable to process your request.", answers.get(0));
+				finishedRounds++;
+			}
+			return finishedRounds;
+		};
+	}
+}
@@ -0,0 +1,132 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+/**
+ * Compares persisting the {@link ConversationEngine#snapshot() snapshot} of a
+ * session after each turn with persisting only the {@link ContextPatch changes}
+ * of the turn. Each turn asks the weather skill for the weather of a city. The
+ * NLPComponent receives the whole context as {@link JSONObject} and counts the
+ * requests in it, while the rest of the context stays the same. The bytes
+ * written per turn are reported as auxiliary counters
+ *
+ * @author Marcel Engelmann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextChangesBenchmark {
+	private static final String[] CITIES = { "Berlin", "Hamburg", "München", "Dortmund" };
+
+	@Param({ "100", "10000" })
+	private int numberOfEntries;
+
+	private ConversationEngine engine;
+	private int turn;
+
+	/**
+	 * Counts the bytes that are persisted in an iteration
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class WrittenBytes {
+		public long bytes;
+		public long turns;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			this.bytes = 0;
+			this.turns = 0;
+		}
+
+		public long bytesPerTurn() {
+			return this.bytes / Math.max(1, this.turns);
+		}
+
+		private void add(byte[] written) {
+			this.bytes += written.length;
+			this.turns++;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		JSONObject history = new JSONObject();
+		for (int i = 0; i < this.numberOfEntries; i++) {
+			history.put("Location" + i, new JSONObject().put("country", "Germany").put("visits", i));
+		}
+		JSONObject skill = new JSONObject(TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		// the locations are removed once the skill answered, so that the context does
+		// not grow from turn to turn
+		skill.put("usedEntities", new JSONArray(List.of("weatherLocations")));
+		skill.put("entityScopes", new JSONObject().put("weatherLocations", new JSONObject().put("scope", "skill")));
+		this.engine = new ConversationEngine(new CountingNLPComponent(),
+				new JSONObject().put("history", history).toString(), new Locale("de", "DE"));
+		this.engine.addSkill(new WeatherSkill(), skill.toString());
+		this.turn = 0;
+	}
+
+	@Benchmark
+	public List<String> fullContext(WrittenBytes writtenBytes) {
+		this.engine.setContextChangeTracking(false);
+		List<String> answers = this.engine.userInput(this.nextInput());
+		writtenBytes.add(this.engine.snapshot());
+		return answers;
+	}
+
+	@Benchmark
+	public List<String> contextChanges(WrittenBytes writtenBytes) {
+		this.engine.setContextChangeTracking(true);
+		List<String> answers = this.engine.userInput(this.nextInput());
+		writtenBytes.add(this.engine.getLastContextChanges().toString().getBytes(StandardCharsets.UTF_8));
+		return answers;
+	}
+
+	/**
+	 * Returns the input of the next turn
+	 *
+	 * @return the input of the next turn
+	 */
+	private String nextInput() {
+		return "Wie ist das Wetter in " + CITIES[this.turn++ % CITIES.length] + "?";
+	}
+
+	/**
+	 * An NLPComponent that counts the weather requests in the context object
+	 */
+	private static class CountingNLPComponent extends NLPComponent {
+
+		@Override
+		public INLPAnswer understandInput(String input, JSONObject contextObject) {
+			contextObject.put("weatherRequests", contextObject.optInt("weatherRequests") + 1);
+			return super.understandInput(input, contextObject);
+		}
+	}
+}
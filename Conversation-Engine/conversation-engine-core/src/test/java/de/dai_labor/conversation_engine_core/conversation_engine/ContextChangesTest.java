@@ -0,0 +1,160 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class ContextChangesTest {
+
+	private NLPComponent nlp;
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@BeforeEach
+	void init() {
+		this.nlp = new NLPComponent();
+	}
+
+	@Test
+	@DisplayName("Rebuild the context object from the changes of each turn")
+	void rebuildContext() {
+		String initialContext = "{\"user\":{\"name\":\"Max\"}}";
+		ConversationEngine conversationEngine = new ConversationEngine(this.nlp, initialContext,
+				this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		conversationEngine.setContextChangeTracking(true);
+		JSONObject rebuiltContext = new JSONObject(initialContext);
+
+		conversationEngine.userInput("Wie ist das Wetter in München?");
+		JSONArray changes = conversationEngine.getLastContextChanges();
+		assertEquals(1, changes.length());
+		assertEquals("add", changes.getJSONObject(0).getString("op"));
+		assertEquals("/weatherLocations", changes.getJSONObject(0).getString("path"));
+		ContextPatch.apply(rebuiltContext, changes);
+
+		conversationEngine.userInput("Wie ist das Wetter in Berlin?");
+		changes = conversationEngine.getLastContextChanges();
+		// the NLPComponent adds Berlin to the last item and appends the item again
+		assertEquals(2, changes.length());
+		assertEquals("/weatherLocations/0/Berlin", changes.getJSONObject(0).getString("path"));
+		assertEquals("add", changes.getJSONObject(1).getString("op"));
+		assertEquals("/weatherLocations/-", changes.getJSONObject(1).getString("path"));
+		assertTrue(changes.getJSONObject(1).getJSONObject("value").has("Berlin"));
+		ContextPatch.apply(rebuiltContext, changes);
+
+		conversationEngine.userInput("Hallo");
+		ContextPatch.apply(rebuiltContext, conversationEngine.getLastContextChanges());
+
+		StringBuilder lastContext = new StringBuilder();
+		conversationEngine.shutdown(lastContext::append);
+		assertTrue(new JSONObject(lastContext.toString()).similar(rebuiltContext));
+	}
+
+	@Test
+	@DisplayName("Entities removed while the session is idle are part of the next changes")
+	void idleEviction() throws InterruptedException {
+		String initialContext = "{\"user\":{\"name\":\"Max\"}}";
+		JSONObject skill = new JSONObject(TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		skill.put("usedEntities", new JSONArray(List.of("weatherLocations")));
+		skill.put("entityScopes",
+				new JSONObject().put("weatherLocations", new JSONObject().put("ttlInSeconds", 1)));
+		ConversationEngine conversationEngine = new ConversationEngine(this.nlp, initialContext,
+				this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), skill.toString());
+		conversationEngine.setContextChangeTracking(true);
+		JSONObject rebuiltContext = new JSONObject(initialContext);
+
+		conversationEngine.userInput("Wie ist das Wetter in Berlin?");
+		ContextPatch.apply(rebuiltContext, conversationEngine.getLastContextChanges());
+		assertTrue(rebuiltContext.has("weatherLocations"));
+
+		new CountDownLatch(1).await(1100, TimeUnit.MILLISECONDS);
+		assertEquals(1, conversationEngine.evictExpiredContextEntries());
+		conversationEngine.userInput("Hallo");
+		JSONArray changes = conversationEngine.getLastContextChanges();
+		assertTrue(changes.toString().contains("{\"op\":\"remove\",\"path\":\"/weatherLocations\"}"));
+		ContextPatch.apply(rebuiltContext, changes);
+
+		StringBuilder lastContext = new StringBuilder();
+		conversationEngine.shutdown(lastContext::append);
+		assertTrue(new JSONObject(lastContext.toString()).similar(rebuiltContext));
+	}
+
+	@Test
+	@DisplayName("No changes are tracked by default")
+	void trackingDisabled() {
+		ConversationEngine conversationEngine = new ConversationEngine(this.nlp, this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		conversationEngine.userInput("Wie ist das Wetter in München?");
+		assertEquals(0, conversationEngine.getLastContextChanges().length());
+	}
+
+	@Test
+	@DisplayName("Track the changes of the typed context")
+	void typedChanges() {
+		ContextPath counter = ContextPath.compile("turnCounter");
+		ContextPath city = ContextPath.compile("user.city");
+		ContextPath obsolete = ContextPath.compile("obsolete");
+		ConversationContext context = new ConversationContext(
+				"{\"turnCounter\":1,\"user\":{\"name\":\"Max\",\"city\":\"Berlin\"},\"obsolete\":true,\"large\":[1,2,3]}");
+
+		context.trackChanges();
+		context.putInt(counter, 2);
+		context.put(city, "Hamburg");
+		context.remove(obsolete);
+		JSONArray changes = context.takeChanges();
+
+		JSONArray expected = new JSONArray("[{\"op\":\"replace\",\"path\":\"/turnCounter\",\"value\":2},"
+				+ "{\"op\":\"replace\",\"path\":\"/user/city\",\"value\":\"Hamburg\"},"
+				+ "{\"op\":\"remove\",\"path\":\"/obsolete\"}]");
+		assertEquals(expected.length(), changes.length());
+		for (int i = 0; i < expected.length(); i++) {
+			assertTrue(changes.toList().contains(expected.getJSONObject(i).toMap()));
+		}
+		assertEquals(0, context.takeChanges().length());
+	}
+
+	@Test
+	@DisplayName("Track changes made to the context as JSONObject")
+	void changesAsJSONObject() {
+		ConversationContext context = new ConversationContext("{\"list\":[1],\"a/b~c\":{\"d\":1}}");
+		context.trackChanges();
+		context.putInt(ContextPath.compile("number"), 5);
+		JSONObject jsonObject = context.asJSONObject();
+		jsonObject.getJSONArray("list").put(2);
+		jsonObject.getJSONObject("a/b~c").put("d", 2);
+		JSONArray changes = context.takeChanges();
+
+		JSONObject rebuiltContext = new JSONObject("{\"list\":[1],\"a/b~c\":{\"d\":1}}");
+		ContextPatch.apply(rebuiltContext, changes);
+		assertTrue(rebuiltContext.similar(context.asJSONObject()));
+		assertEquals(3, changes.length());
+		assertTrue(changes.toString().contains("\"/a~1b~0c/d\""));
+		assertTrue(changes.toString().contains("\"/list/-\""));
+	}
+
+	@Test
+	@DisplayName("Reject invalid patches")
+	void invalidPatch() {
+		JSONObject contextObject = new JSONObject("{\"a\":1}");
+		assertThrows(IllegalArgumentException.class, () -> ContextPatch.apply(contextObject,
+				new JSONArray("[{\"op\":\"move\",\"path\":\"/a\",\"from\":\"/b\"}]")));
+		assertThrows(IllegalArgumentException.class,
+				() -> ContextPatch.apply(contextObject, new JSONArray("[{\"op\":\"remove\",\"path\":\"/b\"}]")));
+		assertThrows(IllegalArgumentException.class,
+				() -> ContextPatch.apply(contextObject, new JSONArray("[{\"op\":\"add\",\"path\":\"/b/c\"}]")));
+	}
+}
@@ -0,0 +1,132 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.ISkillAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.GreetingSkill;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class ContextProjectionTest {
+
+	private static final String CONTEXTOBJECT = "{\"userProfile\": {\"name\": \"Alex\"}}";
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@Test
+	@DisplayName("Skills and the NLPComponent only receive the used entities")
+	void projectedContext() {
+		RecordingNLPComponent nlp = new RecordingNLPComponent();
+		RecordingWeatherSkill weatherSkill = new RecordingWeatherSkill();
+		ConversationEngine conversationEngine = new ConversationEngine(nlp, CONTEXTOBJECT, this.defaultLanguage);
+		conversationEngine.addSkill(weatherSkill, projectedWeatherSkill());
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter in Berlin?").get(0).startsWith("In Berlin sind es"));
+		assertEquals(Set.of(), nlp.receivedKeys);
+		assertEquals(Set.of("weatherLocations"), weatherSkill.receivedKeys);
+		// the changes of the skill are merged back into the context object
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter in Hamburg?").get(1).startsWith("In Hamburg sind es"));
+		assertEquals(Set.of("weatherLocations", "weatherRequests"), nlp.receivedKeys);
+		assertEquals(Set.of("weatherLocations", "weatherRequests"), weatherSkill.receivedKeys);
+		assertEquals(2, weatherSkill.weatherRequests);
+	}
+
+	@Test
+	@DisplayName("The NLPComponent receives the whole context object unless all skills declare a projection")
+	void partialProjection() {
+		RecordingNLPComponent nlp = new RecordingNLPComponent();
+		RecordingWeatherSkill weatherSkill = new RecordingWeatherSkill();
+		ConversationEngine conversationEngine = new ConversationEngine(nlp, CONTEXTOBJECT, this.defaultLanguage);
+		conversationEngine.addSkill(weatherSkill, projectedWeatherSkill());
+		conversationEngine.addSkill(new GreetingSkill(), TestHelperFunctions.loadJsonFileAsString("Greeting.json"));
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?",
+				conversationEngine.userInput("Wie ist das Wetter?").get(0));
+		assertEquals(Set.of("userProfile"), nlp.receivedKeys);
+		assertEquals(Set.of(), weatherSkill.receivedKeys);
+		// the answer to a skill question only receives the used entities of the
+		// asking skill
+		assertTrue(conversationEngine.userInput("In Dortmund").get(0).startsWith("In Dortmund sind es"));
+		assertEquals(Set.of(), nlp.receivedKeys);
+		assertEquals(Set.of("weatherLocations"), weatherSkill.receivedKeys);
+		assertEquals(1, weatherSkill.weatherRequests);
+	}
+
+	@Test
+	@DisplayName("Without skills the NLPComponent receives the whole context object")
+	void noSkills() {
+		RecordingNLPComponent nlp = new RecordingNLPComponent();
+		ConversationEngine conversationEngine = new ConversationEngine(nlp, CONTEXTOBJECT, this.defaultLanguage);
+		conversationEngine.userInput("Wie ist das Wetter?");
+		assertEquals(Set.of("userProfile"), nlp.receivedKeys);
+	}
+
+	@Test
+	@DisplayName("The context projection has to be a boolean")
+	void invalidContextProjection() {
+		JSONObject skill = new JSONObject(projectedWeatherSkill()).put("contextProjection", "yes");
+		assertThrows(IllegalArgumentException.class, () -> SkillDefinition.fromJson(skill.toString()));
+	}
+
+	/**
+	 * Returns the state machine of the weather skill with a context projection
+	 *
+	 * @return the state machine of the weather skill
+	 */
+	private static String projectedWeatherSkill() {
+		JSONObject skill = new JSONObject(TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		skill.put("usedEntities", new JSONArray(List.of("weatherLocations", "weatherRequests")));
+		skill.put("contextProjection", true);
+		return skill.toString();
+	}
+
+	/**
+	 * A {@link NLPComponent} that records the keys of the last received context
+	 * object
+	 */
+	private static class RecordingNLPComponent extends NLPComponent {
+		private Set<String> receivedKeys;
+
+		@Override
+		public INLPAnswer understandInput(String input, JSONObject contextObject) {
+			this.receivedKeys = new HashSet<>(contextObject.keySet());
+			return super.understandInput(input, contextObject);
+		}
+
+		@Override
+		public INLPAnswer understandInput(String input, String entityName, JSONObject contextObject) {
+			this.receivedKeys = new HashSet<>(contextObject.keySet());
+			return super.understandInput(input, entityName, contextObject);
+		}
+	}
+
+	/**
+	 * A {@link WeatherSkill} that records the keys of the last received context
+	 * object and counts its answered requests in the context object
+	 */
+	private static class RecordingWeatherSkill extends WeatherSkill {
+		private Set<String> receivedKeys;
+		private int weatherRequests;
+
+		@Override
+		public ISkillAnswer execute(String intent, JSONObject contextObject, String currentState, Locale language) {
+			this.receivedKeys = new HashSet<>(contextObject.keySet());
+			ISkillAnswer answer = super.execute(intent, contextObject, currentState, language);
+			if ("SUCCESS".equals(answer.getTransitionTrigger())) {
+				this.weatherRequests = contextObject.optInt("weatherRequests") + 1;
+				contextObject.put("weatherRequests", this.weatherRequests);
+			}
+			return answer;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares writing a large context into a String, as
+ * {@link ConversationEngine#shutdown(java.util.function.Consumer)} does, with
+ * writing it incrementally to an {@link OutputStream}, as
+ * {@link ConversationEngine#shutdownTo(OutputStream)} does. Run it with the
+ * GC profiler (<code>-prof gc</code>) to compare the allocated bytes
+ *
+ * @author Marcel Engelmann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextStreamingBenchmark {
+
+	@Param({ "100", "10000" })
+	private int numberOfEntries;
+
+	private ConversationContext context;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		JSONObject locations = new JSONObject();
+		for (int i = 0; i < this.numberOfEntries; i++) {
+			locations.put("Location" + i, new JSONObject().put("country", "Germany").put("visits", i));
+		}
+		this.context = new ConversationContext(new JSONObject().put("locations", locations));
+	}
+
+	@Benchmark
+	public int string() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(this.context);
+		return sb.length();
+	}
+
+	@Benchmark
+	public void stream() throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(),
+				StandardCharsets.UTF_8), 8192);
+		this.context.writeTo(writer);
+		writer.flush();
+	}
+}
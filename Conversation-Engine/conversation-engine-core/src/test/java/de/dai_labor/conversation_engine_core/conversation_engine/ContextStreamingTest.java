@@ -0,0 +1,134 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class ContextStreamingTest {
+
+	private NLPComponent nlp;
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@BeforeEach
+	void init() {
+		this.nlp = new NLPComponent();
+	}
+
+	@Test
+	@DisplayName("Write the context to a Writer and read it from a Reader")
+	void writerAndReader() throws IOException {
+		ConversationEngine conversationEngine = this.createConversationEngine();
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter in München?").get(0).startsWith("In München"));
+		StringWriter writer = new StringWriter();
+		conversationEngine.shutdownTo(writer);
+		assertEquals("{\"weatherLocations\":[{\"München\":{\"country\":\"Germany\"}}]}", writer.toString());
+		assertEquals("", conversationEngine.getState());
+
+		conversationEngine = new ConversationEngine(this.nlp, 0, new StringReader(writer.toString()),
+				this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter?").get(0).startsWith("In München"));
+	}
+
+	@Test
+	@DisplayName("Write the context to an OutputStream and read it from an InputStream")
+	void outputAndInputStream() throws IOException {
+		ConversationEngine conversationEngine = this.createConversationEngine();
+		conversationEngine.userInput("Wie ist das Wetter in München?");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		conversationEngine.shutdownTo(outputStream);
+		JSONObject context = new JSONObject(outputStream.toString(StandardCharsets.UTF_8));
+		assertTrue(context.getJSONArray("weatherLocations").getJSONObject(0).has("München"));
+
+		conversationEngine = new ConversationEngine(this.nlp, 0,
+				new ByteArrayInputStream(outputStream.toByteArray()), this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter?").get(0).startsWith("In München"));
+	}
+
+	@Test
+	@DisplayName("Write the context to a WritableByteChannel")
+	void channel(@TempDir Path directory) throws IOException {
+		ConversationEngine conversationEngine = this.createConversationEngine();
+		conversationEngine.userInput("Wie ist das Wetter in Berlin?");
+		Path file = directory.resolve("context.json");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			conversationEngine.shutdownTo(channel);
+		}
+		assertEquals("{\"weatherLocations\":[{\"Berlin\":{\"country\":\"Germany\"}}]}",
+				Files.readString(file, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	@DisplayName("The ConversationEngine is not shut down if the context could not be written")
+	void failedWrite() {
+		ConversationEngine conversationEngine = this.createConversationEngine();
+		Writer failingWriter = new Writer() {
+			@Override
+			public void write(char[] buffer, int offset, int length) throws IOException {
+				throw new IOException("Disk full");
+			}
+
+			@Override
+			public void flush() {
+				// nothing to flush
+			}
+
+			@Override
+			public void close() {
+				// nothing to close
+			}
+		};
+		conversationEngine.userInput("Wie ist das Wetter in Berlin?");
+		assertThrows(IOException.class, () -> conversationEngine.shutdownTo(failingWriter));
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter?").get(0).startsWith("In Berlin"));
+		StringBuilder contextData = new StringBuilder();
+		conversationEngine.shutdown(contextData::append);
+		assertTrue(contextData.toString().contains("Berlin"));
+	}
+
+	@Test
+	@DisplayName("Invalid arguments")
+	void invalidArguments() {
+		ConversationEngine conversationEngine = this.createConversationEngine();
+		assertThrows(IllegalArgumentException.class, () -> conversationEngine.shutdownTo((Writer) null));
+		assertThrows(IllegalArgumentException.class,
+				() -> new ConversationEngine(this.nlp, 0, (StringReader) null, this.defaultLanguage));
+		assertThrows(JSONException.class,
+				() -> new ConversationEngine(this.nlp, 0, new StringReader("{\"a\": "), this.defaultLanguage));
+	}
+
+	/**
+	 * Creates a new {@link ConversationEngine} with the weather skill
+	 *
+	 * @return the new {@link ConversationEngine}
+	 */
+	private ConversationEngine createConversationEngine() {
+		ConversationEngine conversationEngine = new ConversationEngine(this.nlp, 0, this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		return conversationEngine;
+	}
+}
@@ -0,0 +1,58 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading and updating a counter and a nested value of a context with
+ * String keys on a {@link JSONObject} and with precompiled {@link ContextPath
+ * ContextPaths} on a {@link ConversationContext}
+ *
+ * @author Marcel Engelmann
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversationContextBenchmark {
+
+	private static final ContextPath COUNTER = ContextPath.compile("recipeCookingStep");
+	private static final ContextPath SERVINGS = ContextPath.compile("recipeSelect.servings.amount");
+
+	private JSONObject jsonObject;
+	private ConversationContext context;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		String json = "{\"recipeCookingStep\": 0, \"recipeSelect\": {\"servings\": {\"amount\": 4}}}";
+		this.jsonObject = new JSONObject(json);
+		this.context = new ConversationContext(json);
+	}
+
+	@Benchmark
+	public int jsonObject() {
+		this.jsonObject.put("recipeCookingStep", this.jsonObject.optInt("recipeCookingStep") + 1);
+		return this.jsonObject.getJSONObject("recipeSelect").getJSONObject("servings").getInt("amount");
+	}
+
+	@Benchmark
+	public int conversationContext() {
+		this.context.putInt(COUNTER, this.context.getInt(COUNTER, 0) + 1);
+		return this.context.getInt(SERVINGS, 0);
+	}
+}
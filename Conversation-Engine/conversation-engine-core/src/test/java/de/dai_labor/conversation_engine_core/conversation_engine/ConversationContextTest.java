@@ -0,0 +1,170 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.IContext;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.INLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.ISkillAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class ConversationContextTest {
+
+	private static final ContextPath WEATHERREQUESTS = ContextPath.compile("weatherRequests");
+	private static final ContextPath TEMPERATURE = ContextPath.compile("temperature");
+	private static final ContextPath USERNAME = ContextPath.compile("userProfile.name");
+	private static final ContextPath USERAGE = ContextPath.compile("userProfile.age");
+	private static final ContextPath USERPROFILE = ContextPath.compile("userProfile");
+
+	@Test
+	@DisplayName("Primitive values")
+	void primitiveValues() {
+		ConversationContext context = new ConversationContext();
+		context.putInt(WEATHERREQUESTS, 3);
+		context.putDouble(TEMPERATURE, 21.5);
+		assertTrue(context.has(WEATHERREQUESTS));
+		assertEquals(3, context.getInt(WEATHERREQUESTS, 0));
+		assertEquals(3L, context.getLong(WEATHERREQUESTS, 0));
+		assertEquals(21.5, context.getDouble(TEMPERATURE, 0));
+		assertEquals(Integer.valueOf(3), context.get(WEATHERREQUESTS));
+		assertFalse(context.getBoolean(WEATHERREQUESTS, false));
+		// the JSONObject is a view of the primitive values
+		JSONObject jsonObject = context.asJSONObject();
+		assertEquals(3, jsonObject.getInt("weatherRequests"));
+		assertEquals(21.5, jsonObject.getDouble("temperature"));
+		jsonObject.put("weatherRequests", 4);
+		assertEquals(4, context.getInt(WEATHERREQUESTS, 0));
+		context.putInt(WEATHERREQUESTS, 5);
+		assertEquals(5, jsonObject.getInt("weatherRequests"));
+		assertEquals(5, context.getInt(WEATHERREQUESTS, 0));
+		assertTrue(new JSONObject("{\"weatherRequests\":5,\"temperature\":21.5}").similar(jsonObject));
+		context.putBoolean(WEATHERREQUESTS, true);
+		assertTrue(context.getBoolean(WEATHERREQUESTS, false));
+		context.remove(WEATHERREQUESTS);
+		assertFalse(context.has(WEATHERREQUESTS));
+		assertEquals(-1, context.getInt(WEATHERREQUESTS, -1));
+	}
+
+	@Test
+	@DisplayName("Nested paths")
+	void nestedPaths() {
+		ConversationContext context = new ConversationContext();
+		context.put(USERNAME, "Alex");
+		context.putInt(USERAGE, 30);
+		assertEquals("Alex", context.getString(USERNAME));
+		assertEquals(30, context.getInt(USERAGE, 0));
+		assertEquals(2, context.getObject(USERPROFILE).length());
+		assertNull(context.getString(USERAGE));
+		context.put(USERNAME, null);
+		assertFalse(context.has(USERNAME));
+		assertTrue(context.has(USERPROFILE));
+		// a primitive value is replaced by an object for a nested path
+		context.putInt(USERPROFILE, 1);
+		context.put(USERNAME, "Kim");
+		assertEquals("{\"userProfile\":{\"name\":\"Kim\"}}", context.toString());
+		assertThrows(IllegalArgumentException.class, () -> ContextPath.compile("userProfile..name"));
+		assertThrows(IllegalArgumentException.class, () -> ContextPath.compile(" "));
+	}
+
+	@Test
+	@DisplayName("The JSON-String is parsed on the first access")
+	void lazyParsing() {
+		String json = "{ \"userProfile\" : { \"name\" : \"Alex\" } }";
+		ConversationContext context = new ConversationContext(json);
+		assertEquals(json, context.toString());
+		assertEquals("Alex", context.getString(USERNAME));
+		assertEquals("{\"userProfile\":{\"name\":\"Alex\"}}", context.toString());
+		ConversationContext invalidContext = new ConversationContext("{");
+		assertThrows(JSONException.class, () -> invalidContext.has(USERNAME));
+		assertThrows(IllegalArgumentException.class, () -> new ConversationContext((String) null));
+	}
+
+	@Test
+	@DisplayName("A ConversationContext wraps an existing JSONObject")
+	void jsonObjectAdapter() {
+		JSONObject jsonObject = new JSONObject("{\"weatherRequests\": 2}");
+		ConversationContext context = new ConversationContext(jsonObject);
+		assertEquals(2, context.getInt(WEATHERREQUESTS, 0));
+		context.put(USERNAME, "Alex");
+		assertEquals("Alex", jsonObject.getJSONObject("userProfile").getString("name"));
+		assertThrows(IllegalArgumentException.class, () -> new ConversationContext((JSONObject) null));
+	}
+
+	@Test
+	@DisplayName("Skills can use the typed context alongside components that use a JSONObject")
+	void typedSkill() {
+		StringBuilder contextData = new StringBuilder();
+		ConversationEngine conversationEngine = new ConversationEngine(new NLPComponent(),
+				"{\"weatherRequests\": 1}", new Locale("de", "DE"));
+		conversationEngine.addSkill(new TypedWeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter in Berlin?").get(0).startsWith("In Berlin sind es"));
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter?").get(0).startsWith("In Berlin sind es"));
+		conversationEngine.shutdown(contextData::append);
+		JSONObject context = new JSONObject(contextData.toString());
+		assertEquals(3, context.getInt("weatherRequests"));
+		assertTrue(context.has("weatherLocations"));
+	}
+
+	@Test
+	@DisplayName("The NLPComponent decorators pass the typed context on")
+	void typedNLPComponentDecorators() {
+		TypedNLPComponent typedNLP = new TypedNLPComponent();
+		List<INLPComponent> decorators = List.of(
+				new ResilientNLPComponent(typedNLP, Duration.ofSeconds(5), 3, Duration.ofSeconds(1)),
+				new FanOutNLPComponent(List.of(typedNLP)),
+				new CachingNLPComponent(typedNLP, List.of("weatherLocations"), 10, Duration.ofMinutes(1)));
+		for (INLPComponent decorator : decorators) {
+			ConversationContext context = new ConversationContext();
+			INLPAnswer answer = decorator.understandInputWithContextAsync("Wie ist das Wetter in Berlin?", context)
+					.toCompletableFuture().join();
+			assertEquals(List.of("weather"), answer.getIntents());
+			assertTrue(context.has(ContextPath.compile("weatherLocations")));
+		}
+		assertEquals(3, typedNLP.typedRequests);
+	}
+
+	/**
+	 * A {@link NLPComponent} that counts the requests it received with the typed
+	 * context
+	 */
+	private static class TypedNLPComponent extends NLPComponent {
+		private int typedRequests;
+
+		@Override
+		public CompletionStage<INLPAnswer> understandInputWithContextAsync(String input, IContext context) {
+			this.typedRequests++;
+			return super.understandInputWithContextAsync(input, context);
+		}
+	}
+
+	/**
+	 * A {@link WeatherSkill} that counts its answered requests with the typed
+	 * context
+	 */
+	private static class TypedWeatherSkill extends WeatherSkill {
+		@Override
+		public CompletionStage<ISkillAnswer> executeWithContextAsync(String intent, IContext context,
+				String currentState, Locale language) {
+			int weatherRequests = context.getInt(WEATHERREQUESTS, 0);
+			ISkillAnswer answer = this.execute(intent, context.asJSONObject(), currentState, language);
+			context.putInt(WEATHERREQUESTS, weatherRequests + 1);
+			return CompletableFuture.completedFuture(answer);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class EntityScopeTest {
+
+	private static final String LOCATIONQUESTION = "Von welchem Ort möchten Sie das Wetter wissen?";
+	private static final String CONTEXTOBJECT = "{\"userProfile\": {\"name\": \"Alex\"}}";
+	private final CountDownLatch waiter = new CountDownLatch(1);
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@Test
+	@DisplayName("Skill entities are removed once the skill ended")
+	void skillScope() {
+		ConversationEngine conversationEngine = this.createConversationEngine(CONTEXTOBJECT,
+				new JSONObject().put("scope", "skill"));
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter in Berlin?").get(0).startsWith("In Berlin"));
+		assertEquals(LOCATIONQUESTION, conversationEngine.userInput("Wie ist das Wetter?").get(0));
+		assertTrue(conversationEngine.userInput("In Dortmund").get(0).startsWith("In Dortmund"));
+		assertEquals(new JSONObject(CONTEXTOBJECT).toString(), this.getLastContext(conversationEngine));
+	}
+
+	@Test
+	@DisplayName("Turn entities are removed after each input")
+	void turnScope() {
+		ConversationEngine conversationEngine = this.createConversationEngine(
+				"{\"weatherLocations\": [{\"Berlin\": {\"country\": \"Germany\"}}]}",
+				new JSONObject().put("scope", "turn"));
+		conversationEngine.userInput("Hallo");
+		assertEquals("{}", this.getLastContext(conversationEngine));
+	}
+
+	@Test
+	@DisplayName("Entities are removed once their time to live expired")
+	void timeToLive() throws InterruptedException {
+		JSONObject scope = new JSONObject().put("ttlInSeconds", 1);
+		ConversationEngine conversationEngine = this.createConversationEngine(CONTEXTOBJECT, scope);
+		SessionHost sessionHost = new SessionHost(sessionId -> this.createConversationEngine(CONTEXTOBJECT, scope));
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter in Berlin?").get(0).startsWith("In Berlin"));
+		sessionHost.submit("session", "Wie ist das Wetter in Berlin?").join();
+		assertEquals(0, conversationEngine.evictExpiredContextEntries());
+		assertEquals(0, sessionHost.evictExpiredContextEntries().join());
+
+		this.waiter.await(1100, TimeUnit.MILLISECONDS);
+		assertEquals(1, conversationEngine.evictExpiredContextEntries());
+		assertEquals(1, sessionHost.evictExpiredContextEntries().join());
+		assertEquals(LOCATIONQUESTION, conversationEngine.userInput("Wie ist das Wetter?").get(0));
+		assertEquals(LOCATIONQUESTION, sessionHost.submit("session", "Wie ist das Wetter?").join().get(0));
+	}
+
+	@Test
+	@DisplayName("The time to live continues after a restore")
+	void timeToLiveAfterRestore() throws InterruptedException {
+		JSONObject scope = new JSONObject().put("ttlInSeconds", 1);
+		ConversationEngine conversationEngine = this.createConversationEngine(CONTEXTOBJECT, scope);
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter in Berlin?").get(0).startsWith("In Berlin"));
+		this.waiter.await(1100, TimeUnit.MILLISECONDS);
+		ConversationEngine restoredEngine = this.createConversationEngine("{}", scope);
+		restoredEngine.restore(conversationEngine.snapshot());
+		assertEquals(1, restoredEngine.evictExpiredContextEntries());
+		assertEquals(LOCATIONQUESTION, restoredEngine.userInput("Wie ist das Wetter?").get(0));
+	}
+
+	@Test
+	@DisplayName("Combine the scopes of multiple skills")
+	void mergeScopes() {
+		EntityScope skillScope = new EntityScope(EntityScope.Lifetime.SKILL, 10);
+		EntityScope merged = skillScope.merge(new EntityScope(EntityScope.Lifetime.TURN, 20));
+		assertEquals(EntityScope.Lifetime.SKILL, merged.getLifetime());
+		assertEquals(TimeUnit.SECONDS.toNanos(20), merged.getTtlInNanos());
+		assertFalse(skillScope.merge(EntityScope.SESSION).expires());
+		assertTrue(skillScope.merge(EntityScope.SESSION).isPermanent());
+	}
+
+	@Test
+	@DisplayName("Scopes can only be declared for used entities")
+	void unusedEntity() {
+		JSONObject skill = new JSONObject(TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		skill.put("entityScopes", new JSONObject().put("weatherLocations", new JSONObject().put("scope", "turn")));
+		assertThrows(IllegalArgumentException.class, () -> SkillDefinition.fromJson(skill.toString()));
+		skill.put("entityScopes", new JSONObject().put("ingredients", new JSONObject().put("scope", "week")));
+		assertThrows(IllegalArgumentException.class, () -> SkillDefinition.fromJson(skill.toString()));
+	}
+
+	private ConversationEngine createConversationEngine(String contextObject, JSONObject weatherLocationsScope) {
+		JSONObject skill = new JSONObject(TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		skill.put("usedEntities", new JSONArray(List.of("weatherLocations")));
+		skill.put("entityScopes", new JSONObject().put("weatherLocations", weatherLocationsScope));
+		ConversationEngine conversationEngine = new ConversationEngine(new NLPComponent(), contextObject,
+				this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), skill.toString());
+		return conversationEngine;
+	}
+
+	private String getLastContext(ConversationEngine conversationEngine) {
+		StringBuilder lastContext = new StringBuilder();
+		conversationEngine.shutdown(lastContext::append);
+		return lastContext.toString();
+	}
+}
@@ -0,0 +1,160 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.INLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponentEnglish;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class FanOutNLPComponentTest {
+
+	private MemoryLogger logs;
+	private ExecutorService executor;
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@BeforeEach
+	void init() {
+		this.logs = TestHelperFunctions.getNewLogAppender();
+		this.logs.reset();
+		this.executor = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("The first accepted answer of any language is used")
+	void firstAcceptedAnswer() {
+		FanOutNLPComponent nlp = new FanOutNLPComponent(List.of(new NLPComponent(), new NLPComponentEnglish()),
+				answer -> !answer.getIntents().isEmpty(), this.executor);
+		JSONObject context = new JSONObject();
+		INLPAnswer answer = nlp.understandInput("What is the weather in Hamburg?", context);
+		assertEquals(List.of("weather"), answer.getIntents());
+		assertEquals(new Locale("en", "US"), answer.getInputLanguage());
+		// only the changes of the answering NLPComponent are applied
+		assertTrue(context.getJSONArray("weatherLocations").getJSONObject(0).has("Hamburg"));
+		assertFalse(context.has("locations"));
+		answer = nlp.understandInput("Wie ist das Wetter in Berlin?", context);
+		assertEquals(this.defaultLanguage, answer.getInputLanguage());
+		assertEquals(1, nlp.getWins(0));
+		assertEquals(1, nlp.getWins(1));
+		assertEquals(2, nlp.getCalls(1));
+		assertEquals(0.5, nlp.getWinRate(0));
+		assertTrue(nlp.getMaximumLatency(0).compareTo(nlp.getAverageLatency(0)) >= 0);
+	}
+
+	@Test
+	@DisplayName("A conversation in two languages")
+	void conversation() {
+		ConversationEngine conversationEngine = new ConversationEngine(
+				new FanOutNLPComponent(List.of(new NLPComponent(), new NLPComponentEnglish()),
+						answer -> !answer.getIntents().isEmpty(), this.executor),
+				this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		assertTrue(conversationEngine.userInput("Wie ist das Wetter in Berlin?").get(0).startsWith("In Berlin sind es"));
+		List<String> answers = conversationEngine.userInput("How is the weather in Hamburg?");
+		assertTrue(answers.get(answers.size() - 1).startsWith("In Hamburg sind es"));
+	}
+
+	@Test
+	@DisplayName("Slower calls are cancelled after an answer was accepted")
+	void cancelSlowCalls() {
+		CompletableFuture<INLPAnswer> slowAnswer = new CompletableFuture<>();
+		CountDownLatch slowCallStarted = new CountDownLatch(1);
+		NLPComponent slowNLP = new NLPComponent() {
+			@Override
+			public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+				slowCallStarted.countDown();
+				return slowAnswer;
+			}
+		};
+		NLPComponent fastNLP = new NLPComponent() {
+			@Override
+			public INLPAnswer understandInput(String input, JSONObject contextObject) {
+				try {
+					slowCallStarted.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return super.understandInput(input, contextObject);
+			}
+		};
+		FanOutNLPComponent nlp = new FanOutNLPComponent(List.of(slowNLP, fastNLP),
+				FanOutNLPComponent::isUnderstood, this.executor);
+		INLPAnswer answer = nlp.understandInput("Wetter", new JSONObject());
+		assertEquals(List.of("weather"), answer.getIntents());
+		assertEquals(1, nlp.getWins(1));
+		assertEquals(1, nlp.getCancelledCalls(0));
+		assertTrue(slowAnswer.isCancelled());
+		assertEquals(0, nlp.getFailures(0));
+	}
+
+	@Test
+	@DisplayName("The answer of the first NLPComponent is used if no answer was accepted")
+	void noAcceptedAnswer() {
+		FanOutNLPComponent nlp = new FanOutNLPComponent(List.of(new NLPComponentEnglish(), new NLPComponent()),
+				answer -> false, this.executor);
+		INLPAnswer answer = nlp.understandInput("Wetter", new JSONObject());
+		assertTrue(answer.getIntents().isEmpty());
+		assertEquals(new Locale("en", "US"), answer.getInputLanguage());
+		assertEquals(1, nlp.getWins(0));
+		assertEquals(0, nlp.getCancelledCalls(1));
+	}
+
+	@Test
+	@DisplayName("Failed calls")
+	void failedCalls() {
+		NLPComponent failingNLP = new NLPComponent() {
+			@Override
+			public INLPAnswer understandInput(String input, JSONObject contextObject) {
+				throw new IllegalStateException("NLP service unavailable");
+			}
+		};
+		FanOutNLPComponent nlp = new FanOutNLPComponent(List.of(failingNLP, new NLPComponent()),
+				answer -> false, this.executor);
+		assertTrue(nlp.understandInput("Hallo", new JSONObject()).getIntents().contains("greeting"));
+		assertEquals(1, nlp.getFailures(0));
+		assertEquals(1, nlp.getWins(1));
+		assertTrue(this.logs.contains(
+				"The NLPComponent 0 of the FanOutNLPComponent failed: java.lang.IllegalStateException: NLP service unavailable",
+				Level.WARN));
+		FanOutNLPComponent failingFanOut = new FanOutNLPComponent(List.of(failingNLP, failingNLP));
+		assertThrows(IllegalStateException.class, () -> failingFanOut.understandInput("Hallo", new JSONObject()));
+	}
+
+	@Test
+	@DisplayName("Invalid arguments")
+	void invalidArguments() {
+		List<INLPComponent> nlpComponents = List.of(new NLPComponent());
+		assertThrows(IllegalArgumentException.class, () -> new FanOutNLPComponent(null));
+		assertThrows(IllegalArgumentException.class, () -> new FanOutNLPComponent(List.of()));
+		assertThrows(IllegalArgumentException.class,
+				() -> new FanOutNLPComponent(Arrays.asList(new NLPComponent(), null)));
+		assertThrows(IllegalArgumentException.class, () -> new FanOutNLPComponent(nlpComponents, null, this.executor));
+		assertThrows(IllegalArgumentException.class,
+				() -> new FanOutNLPComponent(nlpComponents, FanOutNLPComponent::isUnderstood, null));
+	}
+}
@@ -1,9 +1,14 @@
 package de.dai_labor.conversation_engine_core.conversation_engine;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,7 +21,9 @@ import org.junit.jupiter.params.provider.CsvSource;
 
 import ch.qos.logback.classic.Level;
 import de.dai_labor.conversation_engine_core.conversation_engine.ConversationEngine;
+import de.dai_labor.conversation_engine_core.interfaces.ISkill;
 import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.GreetingSkill;
 import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
 
 @TestInstance(Lifecycle.PER_CLASS)
@@ -83,6 +90,67 @@ class GenerateSkillStateMachineTest {
 		assertTrue(logs.contains("The name of the skill is empty", Level.ERROR));
 	}
 
+	@Test
+	@DisplayName("Schema is only loaded once")
+	void schemaLoadedOnce() {
+		assertSame(SkillStateMachineValidator.getSchema(), SkillStateMachineValidator.getSchema());
+	}
+
+	@Test
+	@DisplayName("Duplicated states are reported by the schema")
+	void duplicatedStates() {
+		String jsonInput = loadJsonObject("duplicatedStates.json");
+		myStateMachine.addSkill(weather, jsonInput);
+		assertTrue(logs.contains("#/states: array items are not unique", Level.ERROR));
+	}
+
+	@Test
+	@DisplayName("Adding multiple skills in parallel")
+	void addSkills() {
+		Map<ISkill, String> skills = new LinkedHashMap<>();
+		skills.put(weather, TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		skills.put(new GreetingSkill(), TestHelperFunctions.loadJsonFileAsString("Greeting.json"));
+		assertTrue(myStateMachine.addSkills(skills).isEmpty());
+		assertFalse(logs.contains(Level.ERROR));
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", myStateMachine.userInput("Wetter").get(0));
+	}
+
+	@Test
+	@DisplayName("Adding multiple skills reports the errors of each skill")
+	void addSkillsWithErrors() {
+		ISkill emptyName = new WeatherSkill();
+		ISkill wrongTarget = new WeatherSkill();
+		Map<ISkill, String> skills = new LinkedHashMap<>();
+		skills.put(weather, TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		skills.put(emptyName, loadJsonObject("EmptySkillName.json"));
+		skills.put(wrongTarget, loadJsonObject("WrongStateNameTransitionTarget.json"));
+		ForkJoinPool pool = new ForkJoinPool(2);
+		Map<ISkill, String> failedSkills;
+		try {
+			failedSkills = myStateMachine.addSkills(skills, pool);
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(2, failedSkills.size());
+		assertEquals("The name of the skill is empty", failedSkills.get(emptyName));
+		assertTrue(failedSkills.get(wrongTarget).startsWith("Cannot find the target state"));
+		assertEquals("The skill WeatherSkill already exists", myStateMachine
+				.addSkills(Map.of(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json")))
+				.values().iterator().next());
+	}
+
+	@Test
+	@DisplayName("Adding multiple skills with null arguments")
+	void addSkillsWithNullArguments() {
+		assertTrue(myStateMachine.addSkills(null).isEmpty());
+		assertTrue(logs.contains(Level.ERROR));
+		logs.reset();
+		Map<ISkill, String> failedSkills = myStateMachine.addSkills(Map.of(weather,
+				TestHelperFunctions.loadJsonFileAsString("Weather.json")), null);
+		assertEquals("The ForkJoinPool is null", failedSkills.get(weather));
+		assertTrue(logs.contains(Level.ERROR));
+	}
+
 	// Tests for code coverage
 
 	@Test
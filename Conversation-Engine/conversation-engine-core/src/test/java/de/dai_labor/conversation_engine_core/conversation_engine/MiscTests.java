@@ -16,26 +16,6 @@ import ch.qos.logback.classic.Level;
 @DisplayName("Multiple Tests for code coverage")
 class MiscTests {
 
-	@Test
-	@DisplayName("UserOuput private constructors")
-	void userOuputPrivateConstructor()
-			throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
-		Constructor<UserOutput> constructor = UserOutput.class.getDeclaredConstructor();
-		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
-		constructor.setAccessible(true);
-		assertThrows(InvocationTargetException.class, constructor::newInstance);
-	}
-
-	@Test
-	@DisplayName("I18n private constructors")
-	void i18nPrivateConstructor()
-			throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
-		Constructor<I18n> constructor = I18n.class.getDeclaredConstructor();
-		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
-		constructor.setAccessible(true);
-		assertThrows(InvocationTargetException.class, constructor::newInstance);
-	}
-
 	@Test
 	@DisplayName("GenerateSkillStateMachine private constructors")
 	void generateSkillStateMachinePrivateConstructor()
@@ -55,6 +35,17 @@ class MiscTests {
 				Level.ERROR));
 	}
 
+	@Test
+	@DisplayName("SkillStateMachineValidator private constructors")
+	void skillStateMachineValidatorPrivateConstructor()
+			throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+		Constructor<SkillStateMachineValidator> constructor = SkillStateMachineValidator.class
+				.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		assertThrows(InvocationTargetException.class, constructor::newInstance);
+	}
+
 	@Test
 	@DisplayName("Logging private constructors")
 	void LoggingPrivateConstructor()
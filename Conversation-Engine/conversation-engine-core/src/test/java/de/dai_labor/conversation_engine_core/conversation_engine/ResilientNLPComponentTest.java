@@ -0,0 +1,195 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class ResilientNLPComponentTest {
+
+	private static final String ERRORMESSAGE = "Es tut mir leid, aber ich konnte Ihre Anfrage leider nicht bearbeiten.";
+	private MemoryLogger logs;
+	private ExecutorService executor;
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@BeforeEach
+	void init() {
+		this.logs = TestHelperFunctions.getNewLogAppender();
+		this.logs.reset();
+		this.executor = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Answers within the deadline are passed on")
+	void answerWithinDeadline() {
+		ResilientNLPComponent nlp = new ResilientNLPComponent(new NLPComponent(), Duration.ofSeconds(5), 3,
+				Duration.ofSeconds(1));
+		JSONObject context = new JSONObject();
+		INLPAnswer answer = nlp.understandInput("Wie ist das Wetter in Berlin?", context);
+		assertEquals(List.of("weather"), answer.getIntents());
+		assertTrue(context.has("weatherLocations"));
+		assertEquals(0, nlp.getTimeouts());
+	}
+
+	@Test
+	@DisplayName("A call that exceeds the deadline does not change the context object")
+	void changesAfterDeadline() throws InterruptedException {
+		CountDownLatch lateChange = new CountDownLatch(1);
+		NLPComponent lateNLP = new NLPComponent() {
+			@Override
+			public INLPAnswer understandInput(String input, JSONObject contextObject) {
+				try {
+					Thread.sleep(300);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				contextObject.put("lateEntity", true);
+				lateChange.countDown();
+				return super.understandInput(input, contextObject);
+			}
+		};
+		ResilientNLPComponent nlp = new ResilientNLPComponent(lateNLP, null, 1, Duration.ofMillis(100), 3,
+				Duration.ofSeconds(1), this.executor);
+		JSONObject context = new JSONObject();
+		assertTrue(nlp.understandInput("Wie ist das Wetter in Berlin?", context).getIntents().isEmpty());
+		assertTrue(lateChange.await(5, TimeUnit.SECONDS));
+		Thread.sleep(50);
+		assertFalse(context.has("lateEntity"));
+		assertFalse(context.has("weatherLocations"));
+		assertEquals(1, nlp.getTimeouts());
+	}
+
+	@Test
+	@DisplayName("A slow NLPComponent does not stall the conversation")
+	void deadline() {
+		SlowNLPComponent slowNLP = new SlowNLPComponent(2000);
+		ResilientNLPComponent nlp = new ResilientNLPComponent(slowNLP, null, 1, Duration.ofMillis(100), 3,
+				Duration.ofSeconds(1), this.executor);
+		ConversationEngine conversationEngine = new ConversationEngine(nlp, 0, this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		long start = System.nanoTime();
+		assertEquals(ERRORMESSAGE, conversationEngine.userInput("Wie ist das Wetter in Berlin?").get(0));
+		assertTrue(System.nanoTime() - start < 1_000_000_000L);
+		assertEquals(1, nlp.getTimeouts());
+		assertTrue(this.logs.contains("The NLPComponent did not answer within the deadline of 100 ms", Level.WARN));
+	}
+
+	@Test
+	@DisplayName("The circuit breaker rejects requests after consecutive failures")
+	void circuitBreaker() throws InterruptedException {
+		AtomicInteger calls = new AtomicInteger();
+		NLPComponent failingNLP = new NLPComponent() {
+			@Override
+			public INLPAnswer understandInput(String input, JSONObject contextObject) {
+				if (calls.incrementAndGet() <= 3) {
+					throw new IllegalStateException("NLP service unavailable");
+				}
+				return super.understandInput(input, contextObject);
+			}
+		};
+		ResilientNLPComponent nlp = new ResilientNLPComponent(failingNLP, null, 1, Duration.ofSeconds(5), 2,
+				Duration.ofMillis(200), this.executor);
+		assertTrue(nlp.understandInput("Wetter", new JSONObject()).getIntents().isEmpty());
+		assertFalse(nlp.isCircuitOpen());
+		assertTrue(nlp.understandInput("Wetter", new JSONObject()).getIntents().isEmpty());
+		assertTrue(nlp.isCircuitOpen());
+		assertEquals(1, nlp.getBreakerTrips());
+		assertTrue(nlp.understandInput("Wetter", new JSONObject()).getIntents().isEmpty());
+		assertEquals(2, calls.get());
+		assertEquals(1, nlp.getRejectedRequests());
+		assertTrue(this.logs.contains("The NLPComponent failed: java.lang.IllegalStateException: NLP service unavailable",
+				Level.ERROR));
+		// the failed trial request opens the circuit breaker again
+		Thread.sleep(250);
+		assertTrue(nlp.understandInput("Wetter", new JSONObject()).getIntents().isEmpty());
+		assertEquals(2, nlp.getBreakerTrips());
+		Thread.sleep(250);
+		assertEquals(List.of("weather"), nlp.understandInput("Wetter", new JSONObject()).getIntents());
+		assertFalse(nlp.isCircuitOpen());
+		assertEquals(List.of("weather"), nlp.understandInput("Wetter", new JSONObject()).getIntents());
+		assertEquals(3, nlp.getFailures());
+		assertEquals(5, calls.get());
+	}
+
+	@Test
+	@DisplayName("Slow requests are hedged to a second NLPComponent")
+	void hedgedRequests() {
+		SlowNLPComponent primaryNLP = new SlowNLPComponent(5);
+		ResilientNLPComponent nlp = new ResilientNLPComponent(primaryNLP, new NLPComponent(), 0.9,
+				Duration.ofSeconds(5), 3, Duration.ofSeconds(1), this.executor);
+		for (int i = 0; i < 20; i++) {
+			nlp.understandInput("Hallo", new JSONObject());
+		}
+		assertEquals(0, nlp.getHedgedRequests());
+		primaryNLP.delayInMilliseconds = 2000;
+		JSONObject context = new JSONObject();
+		long start = System.nanoTime();
+		INLPAnswer answer = nlp.understandInput("Wie ist das Wetter in Hamburg?", context);
+		assertTrue(System.nanoTime() - start < 1_000_000_000L);
+		assertEquals(List.of("weather"), answer.getIntents());
+		assertTrue(context.getJSONArray("weatherLocations").getJSONObject(0).has("Hamburg"));
+		assertEquals(1, nlp.getHedgedRequests());
+		assertEquals(1, nlp.getHedgeWins());
+		assertEquals(0, nlp.getTimeouts());
+	}
+
+	@Test
+	@DisplayName("Invalid arguments")
+	void invalidArguments() {
+		NLPComponent nlpComponent = new NLPComponent();
+		Duration second = Duration.ofSeconds(1);
+		assertThrows(IllegalArgumentException.class, () -> new ResilientNLPComponent(null, second, 1, second));
+		assertThrows(IllegalArgumentException.class, () -> new ResilientNLPComponent(nlpComponent, null, 1, second));
+		assertThrows(IllegalArgumentException.class,
+				() -> new ResilientNLPComponent(nlpComponent, Duration.ZERO, 1, second));
+		assertThrows(IllegalArgumentException.class, () -> new ResilientNLPComponent(nlpComponent, second, 0, second));
+		assertThrows(IllegalArgumentException.class,
+				() -> new ResilientNLPComponent(nlpComponent, nlpComponent, 1.5, second, 1, second, this.executor));
+	}
+
+	/**
+	 * A {@link NLPComponent} with a blocking delay
+	 */
+	private static class SlowNLPComponent extends NLPComponent {
+		private volatile long delayInMilliseconds;
+
+		private SlowNLPComponent(long delayInMilliseconds) {
+			this.delayInMilliseconds = delayInMilliseconds;
+		}
+
+		@Override
+		public INLPAnswer understandInput(String input, JSONObject contextObject) {
+			try {
+				Thread.sleep(this.delayInMilliseconds);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return super.understandInput(input, contextObject);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.AsyncNLPComponent;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class SessionHostTest {
+
+	private static final int SESSIONS = 100;
+	private static final int TURNS = 10;
+	private ExecutorService nlpExecutor;
+	private ForkJoinPool pool;
+	private String weatherSkillStateMachine;
+	private AtomicBoolean overlappingTurns;
+	private List<String> processedInputs;
+
+	@BeforeEach
+	void init() {
+		this.nlpExecutor = Executors.newFixedThreadPool(2);
+		this.pool = new ForkJoinPool(4);
+		this.weatherSkillStateMachine = TestHelperFunctions.loadJsonFileAsString("Weather.json");
+		this.overlappingTurns = new AtomicBoolean();
+		this.processedInputs = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.nlpExecutor.shutdownNow();
+		this.pool.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Turns of a session are processed in order and never overlap")
+	void turnsAreOrdered() throws InterruptedException, ExecutionException, TimeoutException {
+		SessionHost host = new SessionHost(this::newSession, this.pool);
+		CompletableFuture<List<String>> question = host.submit("session", "Wie ist das Wetter?");
+		CompletableFuture<List<String>> answer = host.submit("session", "Berlin");
+		List<String> inputs = new ArrayList<>();
+		List<CompletableFuture<List<String>>> replies = new ArrayList<>();
+		for (int turn = 0; turn < TURNS; turn++) {
+			String input = "Wie ist das Wetter? " + turn;
+			inputs.add(input);
+			replies.add(host.submit("session", input));
+		}
+		assertTrue(host.getQueueDepth("session") > 0);
+		CompletableFuture.allOf(replies.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", question.get().get(0));
+		assertTrue(answer.get().get(0).startsWith("In Berlin sind es"));
+		for (CompletableFuture<List<String>> reply : replies) {
+			assertTrue(reply.get().get(0).startsWith("In Berlin sind es"));
+		}
+		inputs.add(0, "Wie ist das Wetter?");
+		inputs.add(1, "Berlin");
+		assertEquals(inputs, this.processedInputs);
+		assertFalse(this.overlappingTurns.get());
+		assertEquals(0, host.getQueueDepth("session"));
+	}
+
+	@Test
+	@DisplayName("Sessions submitted from many threads do not block each other")
+	void manySessions() throws InterruptedException, ExecutionException, TimeoutException {
+		SessionHost host = new SessionHost(this::newSession, this.pool);
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		CountDownLatch startSignal = new CountDownLatch(1);
+		List<CompletableFuture<List<String>>> lastReplies = new ArrayList<>();
+		for (int i = 0; i < SESSIONS; i++) {
+			String sessionId = "session" + i;
+			CompletableFuture<List<String>> lastReply = new CompletableFuture<>();
+			lastReplies.add(lastReply);
+			callers.execute(() -> {
+				try {
+					startSignal.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				CompletableFuture<List<String>> reply = null;
+				for (int turn = 0; turn < TURNS; turn++) {
+					reply = host.submit(sessionId, "Wie ist das Wetter in Dortmund?");
+				}
+				reply.whenComplete((value, ex) -> lastReply.complete(value));
+			});
+		}
+		startSignal.countDown();
+		// sequentially the turns would take SESSIONS * TURNS * 10ms = 10 seconds
+		CompletableFuture.allOf(lastReplies.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+		for (CompletableFuture<List<String>> reply : lastReplies) {
+			assertTrue(reply.get().get(0).startsWith("In Dortmund sind es"));
+		}
+		assertEquals(SESSIONS, host.getNumberOfSessions());
+		assertTrue(host.getQueueDepths().values().stream().allMatch(depth -> depth == 0));
+		assertFalse(this.overlappingTurns.get());
+		callers.shutdown();
+	}
+
+	@Test
+	@DisplayName("Removing a session shuts it down after its pending turns")
+	void removeSession() throws InterruptedException, ExecutionException, TimeoutException {
+		SessionHost host = new SessionHost(this::newSession, this.pool);
+		CompletableFuture<List<String>> reply = host.submit("session", "Wie ist das Wetter?");
+		AtomicReference<String> context = new AtomicReference<>();
+		host.removeSession("session", sb -> context.set(sb.toString())).get(5, TimeUnit.SECONDS);
+		assertTrue(reply.isDone());
+		assertEquals("{}", context.get());
+		assertEquals(0, host.getNumberOfSessions());
+		assertEquals(0, host.getQueueDepth("session"));
+	}
+
+	@Test
+	@DisplayName("Invalid arguments")
+	void invalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new SessionHost(null));
+		assertThrows(IllegalArgumentException.class, () -> new SessionHost(this::newSession, null));
+	}
+
+	private ConversationEngine newSession(String sessionId) {
+		ConversationEngine conversationEngine = new ConversationEngine(new AsyncNLPComponent(10, this.nlpExecutor) {
+			@Override
+			public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+				return this.detectOverlap(input, super.understandInputAsync(input, contextObject));
+			}
+
+			@Override
+			public CompletionStage<INLPAnswer> understandInputAsync(String input, String entityName,
+					JSONObject contextObject) {
+				return this.detectOverlap(input, super.understandInputAsync(input, entityName, contextObject));
+			}
+
+			private final AtomicBoolean inFlight = new AtomicBoolean();
+
+			private CompletionStage<INLPAnswer> detectOverlap(String input, CompletionStage<INLPAnswer> answer) {
+				SessionHostTest.this.processedInputs.add(input);
+				if (!this.inFlight.compareAndSet(false, true)) {
+					SessionHostTest.this.overlappingTurns.set(true);
+				}
+				return answer.whenComplete((value, ex) -> this.inFlight.set(false));
+			}
+		}, 0, new Locale("de", "DE"));
+		conversationEngine.addSkill(new WeatherSkill(), this.weatherSkillStateMachine);
+		return conversationEngine;
+	}
+}
@@ -0,0 +1,183 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class SessionPassivationTest {
+
+	private static final String LOCATIONQUESTION = "Von welchem Ort möchten Sie das Wetter wissen?";
+	// runs the turns on the calling thread, so that passivations complete with
+	// the turn that triggered them
+	private static final Executor CALLINGTHREAD = Runnable::run;
+	private final CountDownLatch waiter = new CountDownLatch(1);
+
+	@TempDir
+	Path directory;
+	private FileSessionStore sessionStore;
+	private String weatherSkillStateMachine;
+
+	@BeforeEach
+	void init() throws IOException {
+		this.sessionStore = new FileSessionStore(this.directory);
+		this.weatherSkillStateMachine = TestHelperFunctions.loadJsonFileAsString("Weather.json");
+	}
+
+	@Test
+	@DisplayName("Passivate the least recently used session")
+	void leastRecentlyUsed() throws IOException {
+		SessionHost host = new SessionHost(id -> this.newSession(0), CALLINGTHREAD, this.sessionStore, 2);
+		for (String sessionId : List.of("first", "second", "third")) {
+			assertEquals(LOCATIONQUESTION, host.submit(sessionId, "Wie ist das Wetter?").join().get(0));
+		}
+		assertEquals(2, host.getNumberOfLiveSessions());
+		// the mailbox of the idle passivated session was dropped
+		assertEquals(2, host.getNumberOfSessions());
+		assertEquals(1, host.getNumberOfPassivations());
+		assertTrue(this.sessionStore.load("first") != null);
+
+		// the passivated session continues where it stopped
+		assertTrue(host.submit("first", "In Dortmund").join().get(0).startsWith("In Dortmund"));
+		assertNull(this.sessionStore.load("first"));
+		assertTrue(this.sessionStore.load("second") != null);
+		assertEquals(2, host.getNumberOfLiveSessions());
+		assertEquals(1, host.getNumberOfRehydrations());
+		assertEquals(0, host.getHitRate());
+
+		assertTrue(host.submit("third", "In Hamburg").join().get(0).startsWith("In Hamburg"));
+		assertEquals(0.5, host.getHitRate());
+		assertTrue(host.getAverageRehydrationMillis() > 0);
+		assertTrue(host.getUsedHeapPerLiveSession() > 0);
+	}
+
+	@Test
+	@DisplayName("Passivate sleeping sessions")
+	void sleepingSessions() throws InterruptedException, IOException {
+		SessionHost host = new SessionHost(id -> this.newSession(1), CALLINGTHREAD, this.sessionStore, 10);
+		assertEquals(LOCATIONQUESTION, host.submit("session", "Wie ist das Wetter?").join().get(0));
+		assertEquals(0, host.passivateSleepingSessions().join());
+
+		// the session is passivated in the background once it fell asleep
+		this.waiter.await(1100, TimeUnit.MILLISECONDS);
+		assertEquals(1, host.getNumberOfPassivations());
+		assertEquals(0, host.passivateSleepingSessions().join());
+		assertEquals(0, host.getNumberOfLiveSessions());
+		assertEquals(0, host.getNumberOfSessions());
+		assertEquals(0, host.evictExpiredContextEntries().join());
+		List<String> answers = host.submit("session", "In Dortmund").join();
+		assertEquals("Willkommen zurück!", answers.get(0));
+		assertTrue(answers.get(1).startsWith("In Dortmund"));
+
+		// a removed session is also removed from the store
+		this.waiter.await(1100, TimeUnit.MILLISECONDS);
+		assertEquals(2, host.getNumberOfPassivations());
+		StringBuilder lastContext = new StringBuilder();
+		host.removeSession("session", lastContext::append).join();
+		assertTrue(lastContext.toString().contains("Dortmund"));
+		assertNull(this.sessionStore.load("session"));
+		assertEquals(0, host.getNumberOfLiveSessions());
+	}
+
+	@Test
+	@DisplayName("Start a session anew if its snapshot can not be restored")
+	void invalidSnapshot() throws IOException {
+		SessionHost host = new SessionHost(id -> this.newSession(0), CALLINGTHREAD, this.sessionStore, 10);
+		this.sessionStore.save("session", new byte[] { 1, 2, 3 });
+		assertEquals(LOCATIONQUESTION, host.submit("session", "Wie ist das Wetter?").join().get(0));
+		assertNull(this.sessionStore.load("session"));
+		assertEquals(1, host.getNumberOfLiveSessions());
+		assertEquals(0, host.getNumberOfRehydrations());
+		assertTrue(host.submit("session", "In Dortmund").join().get(0).startsWith("In Dortmund"));
+	}
+
+	@Test
+	@DisplayName("A new session waits until the removed session with the same id was shut down")
+	void removeAndSubmit() throws IOException {
+		// runs the most recently scheduled task first
+		Deque<Runnable> scheduledTasks = new ArrayDeque<>();
+		SessionHost host = new SessionHost(id -> this.newSession(0), scheduledTasks::add, this.sessionStore, 1);
+		CompletableFuture<List<String>> answers = host.submit("session", "Wie ist das Wetter?");
+		runAll(scheduledTasks);
+		host.submit("other", "Wie ist das Wetter?");
+		runAll(scheduledTasks);
+		assertEquals(LOCATIONQUESTION, answers.join().get(0));
+		assertTrue(this.sessionStore.load("session") != null);
+
+		StringBuilder lastContext = new StringBuilder();
+		CompletableFuture<Void> removal = host.removeSession("session", lastContext::append);
+		answers = host.submit("session", "In Dortmund");
+		runAll(scheduledTasks);
+		assertTrue(removal.isDone());
+		assertEquals(1, host.getNumberOfRehydrations());
+		// the new session did not continue the removed one
+		assertFalse(answers.join().get(0).startsWith("In Dortmund"));
+		assertNull(this.sessionStore.load("session"));
+	}
+
+	@Test
+	@DisplayName("Store snapshots in files")
+	void fileSessionStore() throws IOException {
+		byte[] snapshot = { 1, 2, 3 };
+		this.sessionStore.save("user/1:ä", snapshot);
+		assertArrayEquals(snapshot, this.sessionStore.load("user/1:ä"));
+		assertArrayEquals(snapshot, new FileSessionStore(this.directory).load("user/1:ä"));
+		assertNull(this.sessionStore.load("user/2"));
+		this.sessionStore.remove("user/1:ä");
+		assertNull(this.sessionStore.load("user/1:ä"));
+		this.sessionStore.remove("user/1:ä");
+	}
+
+	@Test
+	@DisplayName("Invalid arguments")
+	void invalidArguments() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new SessionHost(id -> this.newSession(0), CALLINGTHREAD, this.sessionStore, 0));
+		assertThrows(IllegalArgumentException.class, () -> new FileSessionStore(null));
+		SessionHost host = new SessionHost(id -> this.newSession(0), CALLINGTHREAD);
+		host.submit("session", "Wie ist das Wetter?").join();
+		assertEquals(0, host.passivateSleepingSessions().join());
+		assertFalse(host.getNumberOfLiveSessions() == 0);
+	}
+
+	/**
+	 * Runs the scheduled tasks, the most recently scheduled task first, until no
+	 * task is left
+	 *
+	 * @param scheduledTasks the scheduled tasks
+	 */
+	private static void runAll(Deque<Runnable> scheduledTasks) {
+		Runnable task;
+		while ((task = scheduledTasks.pollLast()) != null) {
+			task.run();
+		}
+	}
+
+	private ConversationEngine newSession(int timeoutInSeconds) {
+		ConversationEngine conversationEngine = new ConversationEngine(new NLPComponent(), timeoutInSeconds,
+				new Locale("de", "DE"));
+		conversationEngine.addSkill(new WeatherSkill(), this.weatherSkillStateMachine);
+		return conversationEngine;
+	}
+}
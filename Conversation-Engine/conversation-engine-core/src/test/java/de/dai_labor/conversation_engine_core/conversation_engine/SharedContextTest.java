@@ -0,0 +1,150 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class SharedContextTest {
+
+	private static final ContextPath CITIES = ContextPath.compile("cities");
+	private static final ContextPath BERLINCOUNTRY = ContextPath.compile("cities.Berlin.country");
+	private static final ContextPath HAMBURG = ContextPath.compile("cities.Hamburg");
+	private static final ContextPath UNITS = ContextPath.compile("units");
+	private static final ContextPath LIMIT = ContextPath.compile("limit");
+
+	private SharedContext sharedContext;
+
+	@BeforeEach
+	void init() {
+		this.sharedContext = new SharedContext(
+				"{\"cities\":{\"Berlin\":{\"country\":\"Germany\"}},\"units\":\"metric\",\"limit\":5}");
+	}
+
+	@Test
+	@DisplayName("Look up shared entries")
+	void lookup() {
+		ConversationContext context = this.createContext();
+		assertEquals("Germany", context.getString(BERLINCOUNTRY));
+		assertEquals(5, context.getInt(LIMIT, 0));
+		assertTrue(context.has(UNITS));
+		assertFalse(context.has(HAMBURG));
+		// the context itself stores no entry
+		assertEquals("{}", context.toString());
+
+		context.putInt(LIMIT, 10);
+		assertEquals(10, context.getInt(LIMIT, 0));
+		assertEquals(5, this.createContext().getInt(LIMIT, 0));
+	}
+
+	@Test
+	@DisplayName("Copy a shared entry before it is changed")
+	void copyOnWrite() {
+		ConversationContext context = this.createContext();
+		context.put(HAMBURG, new JSONObject().put("country", "Germany"));
+		assertEquals("Germany", context.getString(BERLINCOUNTRY));
+		assertTrue(context.has(HAMBURG));
+		assertEquals(2, context.getObject(CITIES).length());
+		assertTrue(new JSONObject(context.toString()).getJSONObject("cities").has("Berlin"));
+
+		ConversationContext otherContext = this.createContext();
+		assertFalse(otherContext.has(HAMBURG));
+		assertEquals(1, otherContext.getObject(CITIES).length());
+	}
+
+	@Test
+	@DisplayName("Objects returned for shared entries are copies")
+	void returnedObjects() {
+		ConversationContext context = this.createContext();
+		context.getObject(CITIES).put("Hamburg", new JSONObject());
+		context.getObject(ContextPath.compile("cities.Berlin")).put("country", "Deutschland");
+		assertTrue(context.has(HAMBURG));
+		assertEquals("Deutschland", context.getString(BERLINCOUNTRY));
+
+		ConversationContext otherContext = this.createContext();
+		assertFalse(otherContext.has(HAMBURG));
+		assertEquals("Germany", otherContext.getString(BERLINCOUNTRY));
+	}
+
+	@Test
+	@DisplayName("Hide a removed shared entry")
+	void removeSharedEntry() {
+		ConversationContext context = this.createContext();
+		context.remove(UNITS);
+		assertFalse(context.has(UNITS));
+		assertNull(context.get(UNITS));
+		assertTrue(this.createContext().has(UNITS));
+		assertEquals("{\"units\":null}", context.toString());
+
+		// the hidden entry stays hidden after the context was written and read again
+		ConversationContext restoredContext = new ConversationContext(context.toString());
+		restoredContext.setSharedContext(this.sharedContext);
+		assertFalse(restoredContext.has(UNITS));
+		context.put(UNITS, "imperial");
+		assertEquals("imperial", context.getString(UNITS));
+	}
+
+	@Test
+	@DisplayName("Copy only the shared entries that are changed through the JSONObject")
+	void asJSONObject() {
+		ConversationContext context = this.createContext();
+		context.remove(UNITS);
+		JSONObject jsonObject = context.asJSONObject();
+		assertFalse(jsonObject.has("units"));
+		assertFalse(jsonObject.keySet().contains("units"));
+		assertEquals(5, jsonObject.getInt("limit"));
+		jsonObject.getJSONObject("cities").put("Hamburg", new JSONObject());
+		assertTrue(context.has(HAMBURG));
+		assertFalse(this.createContext().has(HAMBURG));
+		// the context stays layered, only the changed entry was copied
+		assertFalse(new JSONObject(context.toString()).has("limit"));
+		assertTrue(new JSONObject(context.toString()).has("cities"));
+		jsonObject.remove("limit");
+		assertFalse(context.has(LIMIT));
+		assertEquals(5, this.createContext().getInt(LIMIT, 0));
+		// changes to the original JSONObject do not change the shared context
+		JSONObject values = new JSONObject().put("limit", 1);
+		SharedContext copiedContext = new SharedContext(values);
+		values.put("limit", 2);
+		ConversationContext otherContext = new ConversationContext();
+		otherContext.setSharedContext(copiedContext);
+		assertEquals(1, otherContext.getInt(LIMIT, 0));
+	}
+
+	@Test
+	@DisplayName("Share entries between sessions")
+	void sessions() {
+		SharedContext locations = new SharedContext("{\"weatherLocations\":[{\"Berlin\":{\"country\":\"Germany\"}}]}");
+		Locale defaultLanguage = new Locale("de", "DE");
+		ConversationEngine firstEngine = new ConversationEngine(new NLPComponent(), defaultLanguage);
+		ConversationEngine secondEngine = new ConversationEngine(new NLPComponent(), defaultLanguage);
+		for (ConversationEngine engine : new ConversationEngine[] { firstEngine, secondEngine }) {
+			engine.setSharedContext(locations);
+			engine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		}
+		assertTrue(firstEngine.userInput("Wie ist das Wetter in München?").stream()
+				.anyMatch(answer -> answer.startsWith("In München")));
+		assertTrue(secondEngine.userInput("Wie ist das Wetter?").get(0).startsWith("In Berlin"));
+		// the NLPComponent of the first session changed its own copy of the locations
+		ConversationContext context = new ConversationContext();
+		context.setSharedContext(locations);
+		assertEquals("[{\"Berlin\":{\"country\":\"Germany\"}}]",
+				context.get(ContextPath.compile("weatherLocations")).toString());
+	}
+
+	private ConversationContext createContext() {
+		ConversationContext context = new ConversationContext();
+		context.setSharedContext(this.sharedContext);
+		return context;
+	}
+}
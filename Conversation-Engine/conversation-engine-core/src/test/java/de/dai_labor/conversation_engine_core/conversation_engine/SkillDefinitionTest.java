@@ -0,0 +1,75 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class SkillDefinitionTest {
+
+	private MemoryLogger logs;
+	private Locale defaultLanguage = new Locale("de", "DE");
+	private String weatherSkillStateMachine;
+
+	@BeforeEach
+	void init() {
+		this.logs = TestHelperFunctions.getNewLogAppender();
+		this.logs.reset();
+		this.weatherSkillStateMachine = TestHelperFunctions.loadJsonFileAsString("Weather.json");
+	}
+
+	@Test
+	@DisplayName("Each JSON-String is only compiled once")
+	void compiledOnce() {
+		SkillDefinition definition = SkillDefinition.fromJson(this.weatherSkillStateMachine);
+		assertEquals("WeatherSkill", definition.getName());
+		assertSame(definition, SkillDefinition.fromJson(new String(this.weatherSkillStateMachine)));
+		SkillStateMachine skillStateMachine = GenerateSkillStateMachine.fromJson(new WeatherSkill(),
+				this.weatherSkillStateMachine, new NLPComponent());
+		assertSame(definition, skillStateMachine.getDefinition());
+	}
+
+	@Test
+	@DisplayName("Invalid JSON-String")
+	void invalidDefinition() {
+		String invalidSkillStateMachine = TestHelperFunctions.loadJsonFileAsString("EmptySkillName.json",
+				"generate_skill_state_machine");
+		assertThrows(IllegalArgumentException.class, () -> SkillDefinition.fromJson(invalidSkillStateMachine));
+		assertTrue(this.logs.contains("The name of the skill is empty", Level.ERROR));
+	}
+
+	@Test
+	@DisplayName("Sessions sharing a definition keep their own state")
+	void sharedDefinition() {
+		SkillDefinition definition = SkillDefinition.fromJson(this.weatherSkillStateMachine);
+		ConversationEngine firstSession = new ConversationEngine(new NLPComponent(), 0, this.defaultLanguage);
+		ConversationEngine secondSession = new ConversationEngine(new NLPComponent(), 0, this.defaultLanguage);
+		firstSession.addSkill(new WeatherSkill(), definition);
+		secondSession.addSkill(new WeatherSkill(), definition);
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", firstSession.userInput("Wetter").get(0));
+		assertEquals("Mid", firstSession.getState());
+		assertEquals("defaultState", secondSession.getState());
+		assertTrue(secondSession.userInput("Wie ist das Wetter in Berlin").get(0).startsWith("In Berlin sind es"));
+		assertEquals("defaultState", secondSession.getState());
+		assertEquals("Mid", firstSession.getState());
+	}
+
+	@Test
+	@DisplayName("Adding a null definition")
+	void nullDefinition() {
+		ConversationEngine conversationEngine = new ConversationEngine(new NLPComponent(), 0, this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), (SkillDefinition) null);
+		assertTrue(this.logs.contains("The SkillDefinition for the skill to add to the Conversation Engine is null",
+				Level.ERROR));
+	}
+}
@@ -0,0 +1,71 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class SkillRouterTest {
+
+	private MemoryLogger logs;
+	private ConversationEngine conversationEngine;
+	private AtomicInteger canExecuteCalls;
+	private WeatherSkill countingWeatherSkill;
+
+	@BeforeEach
+	void init() {
+		this.logs = TestHelperFunctions.getNewLogAppender();
+		this.logs.reset();
+		this.conversationEngine = new ConversationEngine(new NLPComponent(), 0, new Locale("de", "DE"));
+		this.canExecuteCalls = new AtomicInteger();
+		this.countingWeatherSkill = new WeatherSkill() {
+			@Override
+			public boolean canExecute(String intent, String currentState) {
+				SkillRouterTest.this.canExecuteCalls.incrementAndGet();
+				return super.canExecute(intent, currentState);
+			}
+		};
+	}
+
+	@Test
+	@DisplayName("Skills with a declared routing are not asked")
+	void routedSkill() {
+		this.conversationEngine.addSkill(this.countingWeatherSkill,
+				TestHelperFunctions.loadJsonFileAsString("RoutedWeather.json"));
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", this.conversationEngine.userInput("Wetter").get(0));
+		assertEquals("Mid", this.conversationEngine.getState());
+		assertTrue(this.conversationEngine.userInput("Berlin").get(0).startsWith("In Berlin sind es"));
+		assertEquals("defaultState", this.conversationEngine.getState());
+		assertEquals(0, this.canExecuteCalls.get());
+		assertFalse(this.logs.contains(Level.ERROR));
+	}
+
+	@Test
+	@DisplayName("Routed and unrouted skills are combined in the order they were added")
+	void routedAndUnroutedSkills() {
+		this.conversationEngine.addSkill(this.countingWeatherSkill, TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		this.conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("RoutedWeather.json"));
+		assertEquals(
+				"Für Ihre Anfrage stehen folgende Skills zur Verfügung: WeatherSkill,RoutedWeatherSkill. Welchen Skill wollen Sie nutzen?",
+				this.conversationEngine.userInput("Wetter").get(0));
+		assertTrue(this.canExecuteCalls.get() > 0);
+	}
+
+	@Test
+	@DisplayName("Routing of an unknown state")
+	void unknownRoutingState() {
+		this.conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString(
+				"WrongStateNameRouting.json", "generate_skill_state_machine"));
+		assertTrue(this.logs.contains("Cannot find the state Unknown of the routing section", Level.ERROR));
+	}
+}
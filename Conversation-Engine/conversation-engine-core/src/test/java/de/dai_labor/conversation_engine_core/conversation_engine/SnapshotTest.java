@@ -0,0 +1,88 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class SnapshotTest {
+
+	private static final String LOCATIONQUESTION = "Von welchem Ort möchten Sie das Wetter wissen?";
+	private static final String CONTEXTOBJECT = "{\"userProfile\":{\"name\":\"Alex\"}}";
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@Test
+	@DisplayName("Resume a session in another ConversationEngine")
+	void resumeSession() {
+		ConversationEngine conversationEngine = this.createConversationEngine(CONTEXTOBJECT);
+		assertEquals(LOCATIONQUESTION, conversationEngine.userInput("Wie ist das Wetter?").get(0));
+		byte[] snapshot = conversationEngine.snapshot();
+		String state = conversationEngine.getState();
+		conversationEngine.shutdown(null);
+
+		ConversationEngine restoredEngine = this.createConversationEngine("{}");
+		restoredEngine.restore(snapshot);
+		assertEquals(state, restoredEngine.getState());
+		assertTrue(restoredEngine.userInput("In Dortmund").get(0).startsWith("In Dortmund"));
+		assertTrue(restoredEngine.snapshot().length > 0);
+		StringBuilder lastContext = new StringBuilder();
+		restoredEngine.shutdown(lastContext::append);
+		assertTrue(lastContext.toString().contains("Alex"));
+	}
+
+	@Test
+	@DisplayName("Restore the same state from a snapshot")
+	void roundTrip() {
+		ConversationEngine conversationEngine = this.createConversationEngine(CONTEXTOBJECT);
+		conversationEngine.userInput("Wie ist das Wetter?");
+		byte[] snapshot = conversationEngine.snapshot();
+		ConversationEngine restoredEngine = this.createConversationEngine("{}");
+		restoredEngine.restore(snapshot);
+		assertArrayEquals(snapshot, restoredEngine.snapshot());
+		// the state table stores each name once
+		assertTrue(snapshot.length < 200, "The snapshot has " + snapshot.length + " bytes");
+	}
+
+	@Test
+	@DisplayName("Reject invalid snapshots")
+	void invalidSnapshot() {
+		ConversationEngine conversationEngine = this.createConversationEngine(CONTEXTOBJECT);
+		conversationEngine.userInput("Wie ist das Wetter?");
+		byte[] snapshot = conversationEngine.snapshot();
+		ConversationEngine otherEngine = this.createConversationEngine("{}");
+		assertThrows(IllegalArgumentException.class, () -> otherEngine.restore(null));
+		assertThrows(IllegalArgumentException.class, () -> otherEngine.restore(new byte[] { 1, 2, 3 }));
+		byte[] newerVersion = snapshot.clone();
+		newerVersion[4]++;
+		assertThrows(IllegalArgumentException.class, () -> otherEngine.restore(newerVersion));
+		assertThrows(IllegalArgumentException.class,
+				() -> otherEngine.restore(Arrays.copyOf(snapshot, snapshot.length - 10)));
+		// a string table with Integer.MAX_VALUE entries is not allocated
+		byte[] hugeLength = { 0x43, 0x45, 0x53, 0x31, 2, -1, -1, -1, -1, 7 };
+		assertThrows(IllegalArgumentException.class, () -> otherEngine.restore(hugeLength));
+		// an empty string table, no flags and no language
+		byte[] withoutLanguage = { 0x43, 0x45, 0x53, 0x31, 2, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, '{', '}' };
+		assertThrows(IllegalArgumentException.class, () -> otherEngine.restore(withoutLanguage));
+		// a failed restore changes nothing
+		assertEquals("defaultState", otherEngine.getState());
+
+		ConversationEngine engineWithoutSkills = new ConversationEngine(new NLPComponent(), this.defaultLanguage);
+		assertThrows(IllegalArgumentException.class, () -> engineWithoutSkills.restore(snapshot));
+	}
+
+	private ConversationEngine createConversationEngine(String contextObject) {
+		ConversationEngine conversationEngine = new ConversationEngine(new NLPComponent(), contextObject,
+				this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		return conversationEngine;
+	}
+}
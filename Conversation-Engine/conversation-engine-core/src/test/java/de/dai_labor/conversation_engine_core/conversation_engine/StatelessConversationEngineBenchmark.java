@@ -0,0 +1,69 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+/**
+ * Measures the costs of a turn of the {@link StatelessConversationEngine}
+ * beyond the NLPComponent and the skills: restoring the state of a session
+ * that waits for the answer of a skill question and taking the new snapshot.
+ * The stateless turn answers the skill question from the same state again and
+ * again
+ *
+ * @author Marcel Engelmann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatelessConversationEngineBenchmark {
+
+	private StatelessConversationEngine statelessEngine;
+	private ConversationEngine engine;
+	private byte[] state;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SkillDefinition weather = SkillDefinition.fromJson(TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		this.engine = this.createEngine(weather);
+		this.statelessEngine = new StatelessConversationEngine(() -> this.createEngine(weather));
+		this.state = this.statelessEngine.userInput(null, "Wie ist das Wetter?").getState();
+	}
+
+	@Benchmark
+	public byte[] restoreAndSnapshot() {
+		this.engine.restore(this.state);
+		return this.engine.snapshot();
+	}
+
+	@Benchmark
+	public List<String> statelessTurn() {
+		return this.statelessEngine.userInput(this.state, "In Dortmund").getAnswers();
+	}
+
+	private ConversationEngine createEngine(SkillDefinition weather) {
+		ConversationEngine conversationEngine = new ConversationEngine(new NLPComponent(), 0,
+				"{\"userProfile\":{\"name\":\"Alex\"}}", new Locale("de", "DE"));
+		conversationEngine.addSkill(new WeatherSkill(), weather);
+		return conversationEngine;
+	}
+}
@@ -0,0 +1,165 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.ISkillAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.GreetingSkill;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class StatelessConversationEngineTest {
+
+	private static final String LOCATIONQUESTION = "Von welchem Ort möchten Sie das Wetter wissen?";
+	private final AtomicInteger createdEngines = new AtomicInteger();
+	// completes the pending answers of the NLPComponent
+	private CompletableFuture<Void> nlpGate = CompletableFuture.completedFuture(null);
+	private SkillDefinition weather;
+	private SkillDefinition greeting;
+	private StatelessConversationEngine statelessEngine;
+
+	@BeforeEach
+	void init() {
+		this.weather = SkillDefinition.fromJson(TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		this.greeting = SkillDefinition.fromJson(TestHelperFunctions.loadJsonFileAsString("Greeting.json"));
+		this.statelessEngine = new StatelessConversationEngine(this::createEngine);
+	}
+
+	@Test
+	@DisplayName("Interleave the turns of two sessions")
+	void interleavedSessions() {
+		StatelessConversationEngine.Turn first = this.statelessEngine.userInput(null, "Wie ist das Wetter?");
+		StatelessConversationEngine.Turn second = this.statelessEngine.userInput(null, "Wie ist das Wetter?");
+		assertEquals(LOCATIONQUESTION, first.getAnswers().get(0));
+		assertEquals(LOCATIONQUESTION, second.getAnswers().get(0));
+
+		second = this.statelessEngine.userInput(second.getState(), "In Hamburg");
+		first = this.statelessEngine.userInput(first.getState(), "In Dortmund");
+		assertTrue(first.getAnswers().get(0).startsWith("In Dortmund"));
+		assertTrue(second.getAnswers().get(0).startsWith("In Hamburg"));
+		// the sessions shared one ConversationEngine
+		assertEquals(1, this.createdEngines.get());
+	}
+
+	@Test
+	@DisplayName("Replay a turn from the same state")
+	void replayTurn() {
+		byte[] state = this.statelessEngine.userInput(new byte[0], "Wie ist das Wetter?").getState();
+		StatelessConversationEngine.Turn turn = this.statelessEngine.userInput(state, "In Dortmund");
+		StatelessConversationEngine.Turn replayedTurn = this.statelessEngine.userInput(state, "In Dortmund");
+		// the weather of the WeatherSkill is random
+		assertTrue(turn.getAnswers().get(0).startsWith("In Dortmund"));
+		assertTrue(replayedTurn.getAnswers().get(0).startsWith("In Dortmund"));
+		assertArrayEquals(turn.getState(), replayedTurn.getState());
+	}
+
+	@Test
+	@DisplayName("Reject an invalid state")
+	void invalidState() {
+		assertThrows(IllegalArgumentException.class, () -> this.statelessEngine.userInput(new byte[] { 1 }, "Hallo"));
+		assertThrows(IllegalArgumentException.class, () -> new StatelessConversationEngine(null));
+		// the engine is still usable after a failed turn
+		assertEquals(LOCATIONQUESTION, this.statelessEngine.userInput(null, "Wie ist das Wetter?").getAnswers().get(0));
+		assertEquals(1, this.createdEngines.get());
+	}
+
+	@Test
+	@DisplayName("Keep at most the maximum number of idle engines")
+	void maxIdleEngines() {
+		StatelessConversationEngine pool = new StatelessConversationEngine(this::createEngine, 1);
+		assertThrows(IllegalArgumentException.class, () -> new StatelessConversationEngine(this::createEngine, -1));
+		this.runConcurrentTurns(pool);
+		assertEquals(2, this.createdEngines.get());
+		assertEquals(1, pool.getNumberOfIdleEngines());
+		this.runConcurrentTurns(pool);
+		// one engine was reused, the second one was created again
+		assertEquals(3, this.createdEngines.get());
+		assertEquals(1, pool.getNumberOfIdleEngines());
+	}
+
+	@Test
+	@DisplayName("Reuse the engine of a failed turn")
+	void failedTurn() {
+		CompletionStage<StatelessConversationEngine.Turn> failedTurn = this.statelessEngine.userInputAsync(null,
+				"Fehler");
+		assertThrows(CompletionException.class, () -> failedTurn.toCompletableFuture().join());
+		assertEquals(LOCATIONQUESTION, this.statelessEngine.userInput(null, "Wie ist das Wetter?").getAnswers().get(0));
+		assertEquals(1, this.createdEngines.get());
+		assertEquals(1, this.statelessEngine.getNumberOfIdleEngines());
+	}
+
+	@Test
+	@DisplayName("Discard the output of a failed turn")
+	void outputOfFailedTurn() {
+		// the greeting is answered before the weather skill fails
+		CompletionStage<StatelessConversationEngine.Turn> failedTurn = this.statelessEngine.userInputAsync(null,
+				"Hallo, wie ist das Wetter in München?");
+		assertThrows(CompletionException.class, () -> failedTurn.toCompletableFuture().join());
+		assertEquals(List.of(LOCATIONQUESTION),
+				this.statelessEngine.userInput(null, "Wie ist das Wetter?").getAnswers());
+		assertEquals(1, this.createdEngines.get());
+
+		ConversationEngine engine = this.createEngine();
+		assertThrows(IllegalStateException.class, () -> engine.userInput("Hallo, wie ist das Wetter in München?"));
+		// the greeting of the failed turn is not answered again
+		List<String> answers = engine.userInput("Hallo");
+		assertEquals(1, answers.stream().filter(answer -> answer.contains(TestHelperFunctions.getDayTime())).count());
+	}
+
+	/**
+	 * Runs two turns at the same time, so that each turn needs its own engine
+	 *
+	 * @param pool the StatelessConversationEngine to run the turns with
+	 */
+	private void runConcurrentTurns(StatelessConversationEngine pool) {
+		this.nlpGate = new CompletableFuture<>();
+		CompletionStage<StatelessConversationEngine.Turn> first = pool.userInputAsync(null, "Wie ist das Wetter?");
+		CompletionStage<StatelessConversationEngine.Turn> second = pool.userInputAsync(null, "Wie ist das Wetter?");
+		this.nlpGate.complete(null);
+		assertEquals(LOCATIONQUESTION, first.toCompletableFuture().join().getAnswers().get(0));
+		assertEquals(LOCATIONQUESTION, second.toCompletableFuture().join().getAnswers().get(0));
+	}
+
+	private ConversationEngine createEngine() {
+		this.createdEngines.incrementAndGet();
+		NLPComponent nlpComponent = new NLPComponent() {
+			@Override
+			public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+				if ("Fehler".equals(input)) {
+					return CompletableFuture.failedFuture(new IllegalStateException("The NLP service failed"));
+				}
+				return StatelessConversationEngineTest.this.nlpGate
+						.thenApply(ignored -> this.understandInput(input, contextObject));
+			}
+		};
+		ConversationEngine engine = new ConversationEngine(nlpComponent, 0, "{\"userProfile\":{}}",
+				new Locale("de", "DE"));
+		engine.addSkill(new GreetingSkill(), this.greeting);
+		engine.addSkill(new WeatherSkill() {
+			@Override
+			public ISkillAnswer execute(String intent, JSONObject contextObject, String currentState,
+					Locale language) {
+				if (contextObject.toString().contains("München")) {
+					throw new IllegalStateException("The weather service failed");
+				}
+				return super.execute(intent, contextObject, currentState, language);
+			}
+		}, this.weather);
+		return engine;
+	}
+}
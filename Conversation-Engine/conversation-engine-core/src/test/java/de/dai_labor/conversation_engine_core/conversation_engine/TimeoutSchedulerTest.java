@@ -0,0 +1,92 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TimeoutSchedulerTest {
+
+	private TimeoutScheduler scheduler;
+
+	@BeforeEach
+	void init() {
+		this.scheduler = new TimeoutScheduler(5, 8);
+	}
+
+	@Test
+	@DisplayName("Timeout expires after its delay")
+	void timeoutExpires() throws InterruptedException {
+		CountDownLatch expired = new CountDownLatch(1);
+		TimeoutScheduler.Timeout timeout = this.scheduler.newTimeout(expired::countDown);
+		long start = System.nanoTime();
+		timeout.schedule(100);
+		assertTrue(timeout.isScheduled());
+		assertTrue(expired.await(2, TimeUnit.SECONDS));
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+		assertFalse(timeout.isScheduled());
+	}
+
+	@Test
+	@DisplayName("Re-arming postpones the timeout")
+	void rearmPostponesTimeout() throws InterruptedException {
+		AtomicInteger expirations = new AtomicInteger();
+		TimeoutScheduler.Timeout timeout = this.scheduler.newTimeout(expirations::incrementAndGet);
+		long start = System.nanoTime();
+		// re-arm for longer than a full wheel revolution (8 buckets * 5ms)
+		while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 300) {
+			timeout.schedule(60);
+			Thread.sleep(10);
+		}
+		assertEquals(0, expirations.get());
+		Thread.sleep(300);
+		assertEquals(1, expirations.get());
+	}
+
+	@Test
+	@DisplayName("Cancelled timeout never expires")
+	void cancelledTimeout() throws InterruptedException {
+		AtomicInteger expirations = new AtomicInteger();
+		TimeoutScheduler.Timeout timeout = this.scheduler.newTimeout(expirations::incrementAndGet);
+		timeout.schedule(50);
+		timeout.cancel();
+		timeout.schedule(50);
+		Thread.sleep(200);
+		assertEquals(0, expirations.get());
+		assertEquals(0, this.scheduler.getNumberOfScheduledTimeouts());
+	}
+
+	@Test
+	@DisplayName("Many timeouts expire exactly once")
+	void manyTimeouts() throws InterruptedException {
+		int numberOfTimeouts = 10000;
+		CountDownLatch expired = new CountDownLatch(numberOfTimeouts);
+		AtomicInteger expirations = new AtomicInteger();
+		List<TimeoutScheduler.Timeout> timeouts = new ArrayList<>(numberOfTimeouts);
+		for (int i = 0; i < numberOfTimeouts; i++) {
+			timeouts.add(this.scheduler.newTimeout(() -> {
+				expirations.incrementAndGet();
+				expired.countDown();
+			}));
+		}
+		for (TimeoutScheduler.Timeout timeout : timeouts) {
+			timeout.schedule(500);
+		}
+		for (int i = 0; i < numberOfTimeouts; i++) {
+			timeouts.get(i).schedule(550 + i % 100);
+		}
+		assertTrue(expired.await(5, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals(numberOfTimeouts, expirations.get());
+		assertEquals(0, this.scheduler.getNumberOfScheduledTimeouts());
+	}
+}
@@ -0,0 +1,112 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the compiled {@link TransitionTable} with a linear scan over the
+ * transitions of each state and measures the compilation of large skill state
+ * machines
+ *
+ * @author Marcel Engelmann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransitionTableBenchmark {
+
+	private static final String[] TRIGGERS = { "SUCCESS", "MISSING_ENTITIES", "FAILED", "RETRY", "SKIP" };
+
+	@Param({ "100", "10000" })
+	private int numberOfStates;
+
+	private String jsonSkillStateMachine;
+	private SkillDefinition definition;
+	private List<List<Transition>> linearTransitions;
+	private int[] sources;
+	private String[] triggers;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		JSONArray states = new JSONArray();
+		JSONArray transitions = new JSONArray();
+		List<de.dai_labor.conversation_engine_core.conversation_engine.State> linearStates = new ArrayList<>();
+		this.linearTransitions = new ArrayList<>();
+		for (int i = 0; i < this.numberOfStates; i++) {
+			states.put(new JSONObject().put("name", "State" + i));
+			linearStates.add(new de.dai_labor.conversation_engine_core.conversation_engine.State("State" + i, i));
+			this.linearTransitions.add(new ArrayList<>());
+		}
+		// five transitions per state, 50k transitions for 10k states
+		for (int i = 0; i < this.numberOfStates; i++) {
+			for (int t = 0; t < TRIGGERS.length; t++) {
+				int target = (i * 31 + t * 7 + 1) % this.numberOfStates;
+				transitions.put(new JSONObject().put("source", "State" + i).put("target", "State" + target)
+						.put("trigger", TRIGGERS[t]));
+				this.linearTransitions.get(i).add(new Transition(linearStates.get(target), TRIGGERS[t]));
+			}
+		}
+		this.jsonSkillStateMachine = new JSONObject().put("name", "BenchmarkSkill").put("states", states)
+				.put("transitions", transitions).put("startAt", "State0")
+				.put("endAt", "State" + (this.numberOfStates - 1)).put("usedEntities", new JSONArray())
+				.put("usedIntents", new JSONArray()).toString();
+		this.definition = GenerateSkillStateMachine.compile(this.jsonSkillStateMachine);
+
+		int lookups = 1024;
+		this.sources = new int[lookups];
+		this.triggers = new String[lookups];
+		for (int i = 0; i < lookups; i++) {
+			this.sources[i] = (i * 7919) % this.numberOfStates;
+			// copies, so that the lookups cannot compare the identical String objects
+			this.triggers[i] = new String(TRIGGERS[(i * 13) % TRIGGERS.length]);
+		}
+	}
+
+	@Benchmark
+	public Object compiledTransitionLookup() {
+		int i = this.next++ & (this.sources.length - 1);
+		return this.definition.getNextState(this.sources[i], this.triggers[i]);
+	}
+
+	@Benchmark
+	public Object linearTransitionLookup() {
+		int i = this.next++ & (this.sources.length - 1);
+		String trigger = this.triggers[i];
+		for (Transition transition : this.linearTransitions.get(this.sources[i])) {
+			if (transition.getTrigger().equals(trigger)) {
+				return transition.getTarget();
+			}
+		}
+		return null;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3)
+	@Measurement(iterations = 5)
+	public Object compileStateMachine() {
+		return GenerateSkillStateMachine.compileDefinition(this.jsonSkillStateMachine, new ArrayList<>());
+	}
+}
@@ -0,0 +1,54 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TransitionTableTest {
+
+	@Test
+	@DisplayName("Resolves transitions by source state and trigger")
+	void resolveTransitions() {
+		TransitionTable table = new TransitionTable(2);
+		assertTrue(table.addTransition(0, "SUCCESS", 1));
+		assertTrue(table.addTransition(1, "SUCCESS", 2));
+		assertTrue(table.addTransition(0, "MISSING_ENTITIES", 0));
+		assertEquals(1, table.getNextState(0, "SUCCESS"));
+		assertEquals(2, table.getNextState(1, new String("SUCCESS")));
+		assertEquals(0, table.getNextState(0, "MISSING_ENTITIES"));
+		assertEquals(-1, table.getNextState(1, "MISSING_ENTITIES"));
+		assertEquals(-1, table.getNextState(0, "UNKNOWN"));
+	}
+
+	@Test
+	@DisplayName("The first transition of a duplicated trigger is kept")
+	void duplicatedTransition() {
+		TransitionTable table = new TransitionTable(1);
+		assertTrue(table.addTransition(0, "SUCCESS", 1));
+		assertFalse(table.addTransition(0, "SUCCESS", 2));
+		assertEquals(1, table.getNextState(0, "SUCCESS"));
+		assertEquals(1, table.size());
+	}
+
+	@Test
+	@DisplayName("Large tables grow and keep all transitions")
+	void largeTable() {
+		String[] triggers = { "SUCCESS", "MISSING_ENTITIES", "FAILED", "RETRY", "SKIP" };
+		int numberOfStates = 10000;
+		TransitionTable table = new TransitionTable(1);
+		for (int state = 0; state < numberOfStates; state++) {
+			for (int t = 0; t < triggers.length; t++) {
+				table.addTransition(state, triggers[t], (state + t + 1) % numberOfStates);
+			}
+		}
+		assertEquals(numberOfStates * triggers.length, table.size());
+		for (int state = 0; state < numberOfStates; state++) {
+			for (int t = 0; t < triggers.length; t++) {
+				assertEquals((state + t + 1) % numberOfStates, table.getNextState(state, triggers[t]));
+			}
+		}
+	}
+}
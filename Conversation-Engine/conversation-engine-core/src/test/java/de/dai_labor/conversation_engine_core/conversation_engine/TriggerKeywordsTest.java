@@ -0,0 +1,119 @@
+package de.dai_labor.conversation_engine_core.conversation_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+import de.dai_labor.conversation_engine_core.skills.GreetingSkill;
+import de.dai_labor.conversation_engine_core.skills.RecipeSearchSkill;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class TriggerKeywordsTest {
+
+	private AtomicInteger nlpCalls;
+	private ConversationEngine conversationEngine;
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@BeforeEach
+	void init() {
+		this.nlpCalls = new AtomicInteger();
+		NLPComponent nlp = new NLPComponent() {
+			@Override
+			public INLPAnswer understandInput(String input, JSONObject contextObject) {
+				TriggerKeywordsTest.this.nlpCalls.incrementAndGet();
+				return super.understandInput(input, contextObject);
+			}
+
+			@Override
+			public INLPAnswer understandInput(String input, String entityName, JSONObject contextObject) {
+				TriggerKeywordsTest.this.nlpCalls.incrementAndGet();
+				return super.understandInput(input, entityName, contextObject);
+			}
+		};
+		this.conversationEngine = new ConversationEngine(nlp, this.defaultLanguage);
+		this.conversationEngine.addSkill(new WeatherSkill(), TestHelperFunctions.loadJsonFileAsString("Weather.json"));
+		this.conversationEngine.addSkill(new RecipeSearchSkill(),
+				TestHelperFunctions.loadJsonFileAsString("RecipeSearch.json"));
+		this.conversationEngine.addSkill(new GreetingSkill(),
+				TestHelperFunctions.loadJsonFileAsString("Greeting.json"));
+	}
+
+	@Test
+	@DisplayName("Inputs consisting of trigger words of one intent only")
+	void keywordTrie() {
+		KeywordTrie keywords = new I18n(this.defaultLanguage).getTriggerKeywords();
+		assertEquals("yes", keywords.getIntent("ja"));
+		assertEquals("yes", keywords.getIntent("Ja, bitte!"));
+		assertEquals("yes", keywords.getIntent("  Ja ja "));
+		assertEquals("no", keywords.getIntent("Nö"));
+		assertEquals("last", keywords.getIntent("Den letzten Skill"));
+		assertEquals("all", keywords.getIntent("Alle"));
+		assertNull(keywords.getIntent("Ja, in Berlin"));
+		assertNull(keywords.getIntent("Nein, den letzten"));
+		assertNull(keywords.getIntent("Den"));
+		assertNull(keywords.getIntent("?!"));
+		assertNull(keywords.getIntent(""));
+	}
+
+	@Test
+	@DisplayName("The trigger words are read once per language")
+	void triggerWordsPerLanguage() {
+		KeywordTrie german = new I18n(this.defaultLanguage).getTriggerKeywords();
+		assertSame(german, new I18n(this.defaultLanguage).getTriggerKeywords());
+		KeywordTrie english = new I18n(Locale.US).getTriggerKeywords();
+		assertEquals("last", english.getIntent("The last one"));
+		assertEquals("no", english.getIntent("No thanks"));
+		assertNull(english.getIntent("ja"));
+	}
+
+	@Test
+	@DisplayName("The answer to the continue last skill question does not call the NLPComponent")
+	void continueLastSkill() {
+		this.conversationEngine.userInput("Wie ist das Wetter");
+		assertEquals(TestHelperFunctions.getDayTime(), this.conversationEngine.userInput("Hi").get(0));
+		assertEquals(2, this.nlpCalls.get());
+		List<String> answers = this.conversationEngine.userInput("Ja, bitte");
+		assertEquals("Sie sind wieder im Skill WeatherSkill", answers.get(0));
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", answers.get(1));
+		assertEquals(2, this.nlpCalls.get());
+	}
+
+	@Test
+	@DisplayName("The answer to the abort question does not call the NLPComponent")
+	void abortQuestion() {
+		this.conversationEngine.userInput("Wie ist das Wetter");
+		this.conversationEngine.userInput("Welche Rezepte");
+		assertEquals("Möchten Sie den letzten Skill oder alle Skills abbrechen?",
+				this.conversationEngine.userInput("Abbruch").get(0));
+		assertEquals(3, this.nlpCalls.get());
+		List<String> answers = this.conversationEngine.userInput("Den letzten");
+		assertEquals("Sie sind wieder im Skill WeatherSkill", answers.get(0));
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", answers.get(1));
+		assertEquals(3, this.nlpCalls.get());
+	}
+
+	@Test
+	@DisplayName("Other answers are still processed by the NLPComponent")
+	void otherAnswers() {
+		// without a pending question trigger words are processed normally
+		this.conversationEngine.userInput("Ja");
+		assertEquals(1, this.nlpCalls.get());
+		this.conversationEngine.userInput("Wie ist das Wetter");
+		this.conversationEngine.userInput("Welche Rezepte");
+		this.conversationEngine.userInput("Abbruch");
+		assertEquals("Möchten Sie den letzten Skill oder alle Skills abbrechen?",
+				this.conversationEngine.userInput("Hallo").get(0));
+		assertEquals(5, this.nlpCalls.get());
+	}
+}
@@ -0,0 +1,37 @@
+package de.dai_labor.conversation_engine_core.interfaces;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+/**
+ * A {@link NLPComponent} that emulates a remote NLP service by answering
+ * asynchronously after a fixed delay
+ * 
+ * @author Marcel Engelmann
+ *
+ */
+public class AsyncNLPComponent extends NLPComponent {
+
+	private final Executor delayedExecutor;
+
+	public AsyncNLPComponent(long delayInMilliseconds, Executor executor) {
+		this.delayedExecutor = CompletableFuture.delayedExecutor(delayInMilliseconds, TimeUnit.MILLISECONDS, executor);
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, String entityName,
+			JSONObject contextObject) {
+		return CompletableFuture.supplyAsync(() -> super.understandInput(input, entityName, contextObject),
+				this.delayedExecutor);
+	}
+
+	@Override
+	public CompletionStage<INLPAnswer> understandInputAsync(String input, JSONObject contextObject) {
+		return CompletableFuture.supplyAsync(() -> super.understandInput(input, contextObject),
+				this.delayedExecutor);
+	}
+}
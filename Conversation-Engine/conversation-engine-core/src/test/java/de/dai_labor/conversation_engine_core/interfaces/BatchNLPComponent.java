@@ -0,0 +1,47 @@
+package de.dai_labor.conversation_engine_core.interfaces;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link NLPComponent} that emulates a model server, which processes whole
+ * batches of inputs and needs a fixed delay per batch
+ * 
+ * @author Marcel Engelmann
+ *
+ */
+public class BatchNLPComponent extends NLPComponent implements IBatchNLPComponent {
+
+	private final long delayPerBatchInMilliseconds;
+	private final List<Integer> batchSizes;
+
+	public BatchNLPComponent(long delayPerBatchInMilliseconds) {
+		this.delayPerBatchInMilliseconds = delayPerBatchInMilliseconds;
+		this.batchSizes = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	@Override
+	public synchronized List<INLPAnswer> understandInputs(List<INLPRequest> requests) {
+		this.batchSizes.add(requests.size());
+		try {
+			Thread.sleep(this.delayPerBatchInMilliseconds);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		List<INLPAnswer> answers = new ArrayList<>();
+		for (INLPRequest request : requests) {
+			if (request.getEntityName() == null) {
+				answers.add(this.understandInput(request.getInput(), request.getContextObject()));
+			} else {
+				answers.add(
+						this.understandInput(request.getInput(), request.getEntityName(), request.getContextObject()));
+			}
+		}
+		return answers;
+	}
+
+	public List<Integer> getBatchSizes() {
+		return new ArrayList<>(this.batchSizes);
+	}
+}
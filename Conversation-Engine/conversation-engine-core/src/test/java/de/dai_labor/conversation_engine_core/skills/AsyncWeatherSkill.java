@@ -0,0 +1,35 @@
+package de.dai_labor.conversation_engine_core.skills;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+import de.dai_labor.conversation_engine_core.interfaces.ISkill;
+import de.dai_labor.conversation_engine_core.interfaces.ISkillAnswer;
+
+/**
+ * A {@link WeatherSkill} that emulates a remote weather service by answering
+ * asynchronously after a fixed delay
+ * 
+ * @author Marcel Engelmann
+ *
+ */
+public class AsyncWeatherSkill extends WeatherSkill implements ISkill {
+
+	private final Executor delayedExecutor;
+
+	public AsyncWeatherSkill(long delayInMilliseconds, Executor executor) {
+		this.delayedExecutor = CompletableFuture.delayedExecutor(delayInMilliseconds, TimeUnit.MILLISECONDS, executor);
+	}
+
+	@Override
+	public CompletionStage<ISkillAnswer> executeAsync(String intent, JSONObject contextObject, String currentState,
+			Locale language) {
+		return CompletableFuture.supplyAsync(() -> super.execute(intent, contextObject, currentState, language),
+				this.delayedExecutor);
+	}
+}
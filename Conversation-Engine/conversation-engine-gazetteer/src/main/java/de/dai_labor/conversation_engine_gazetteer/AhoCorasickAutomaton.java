@@ -0,0 +1,300 @@
+package de.dai_labor.conversation_engine_gazetteer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An Aho-Corasick automaton that finds all occurrences of a set of patterns in
+ * a single pass over the input.<br>
+ * <br>
+ * The patterns and the input are compared case-insensitively by folding each
+ * character with {@link Character#toLowerCase(char)}, so that the input does
+ * not have to be copied. Of all overlapping occurrences only the leftmost
+ * longest ones are returned. If whole words are required, an occurrence must
+ * neither be preceded nor followed by a letter or a digit.<br>
+ * <br>
+ * The automaton is immutable and can be shared by all threads
+ *
+ * @author Marcel Engelmann
+ *
+ */
+final class AhoCorasickAutomaton {
+
+	/** The maximum number of patterns */
+	static final int MAXIMUMPATTERNS = 1 << 21;
+	/** The maximum length of a pattern */
+	static final int MAXIMUMPATTERNLENGTH = (1 << 20) - 1;
+	/** The maximum length of an input */
+	static final int MAXIMUMINPUTLENGTH = (1 << 22) - 1;
+
+	private static final int ROOT = 0;
+	private static final int NOSTATE = -1;
+	private static final int NOPATTERN = -1;
+
+	private final boolean wholeWords;
+	// the sorted characters and target states of the transitions of each state
+	private final char[][] transitionCharacters;
+	private final int[][] transitionTargets;
+	private final int[] failureLinks;
+	// the pattern that ends in each state and the next state of the failure chain
+	// that ends a pattern
+	private final int[] patterns;
+	private final int[] outputLinks;
+	private final int[] patternLengths;
+
+	/**
+	 * Creates a new AhoCorasickAutomaton object. The index of a pattern in the
+	 * given list is its id. Patterns that are blank after folding are never
+	 * matched
+	 *
+	 * @param patterns   the patterns to find
+	 * @param wholeWords whether an occurrence must be a whole word
+	 * @throws IllegalArgumentException if there are too many or too long patterns
+	 */
+	AhoCorasickAutomaton(List<String> patterns, boolean wholeWords) throws IllegalArgumentException {
+		if (patterns.size() > MAXIMUMPATTERNS) {
+			throw new IllegalArgumentException("An automaton can only contain " + MAXIMUMPATTERNS + " patterns");
+		}
+		this.wholeWords = wholeWords;
+		this.patternLengths = new int[patterns.size()];
+
+		// build the trie
+		List<Map<Character, Integer>> trie = new ArrayList<>();
+		List<Integer> trieOutputs = new ArrayList<>();
+		trie.add(new TreeMap<>());
+		trieOutputs.add(NOPATTERN);
+		for (int id = 0; id < patterns.size(); id++) {
+			String pattern = patterns.get(id);
+			if (pattern.length() > MAXIMUMPATTERNLENGTH) {
+				throw new IllegalArgumentException(
+						"A pattern must not be longer than " + MAXIMUMPATTERNLENGTH + " characters");
+			}
+			this.patternLengths[id] = pattern.length();
+			if (pattern.isBlank()) {
+				continue;
+			}
+			int state = ROOT;
+			for (int i = 0; i < pattern.length(); i++) {
+				Character character = Character.toLowerCase(pattern.charAt(i));
+				Integer next = trie.get(state).get(character);
+				if (next == null) {
+					next = trie.size();
+					trie.get(state).put(character, next);
+					trie.add(new TreeMap<>());
+					trieOutputs.add(NOPATTERN);
+				}
+				state = next;
+			}
+			if (trieOutputs.get(state) == NOPATTERN) {
+				trieOutputs.set(state, id);
+			}
+		}
+
+		// compile the transitions
+		int numberOfStates = trie.size();
+		this.transitionCharacters = new char[numberOfStates][];
+		this.transitionTargets = new int[numberOfStates][];
+		this.patterns = new int[numberOfStates];
+		for (int state = 0; state < numberOfStates; state++) {
+			Map<Character, Integer> transitions = trie.get(state);
+			char[] characters = new char[transitions.size()];
+			int[] targets = new int[transitions.size()];
+			int i = 0;
+			for (Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+				characters[i] = transition.getKey();
+				targets[i] = transition.getValue();
+				i++;
+			}
+			this.transitionCharacters[state] = characters;
+			this.transitionTargets[state] = targets;
+			this.patterns[state] = trieOutputs.get(state);
+		}
+
+		// compute the failure and output links breadth first
+		this.failureLinks = new int[numberOfStates];
+		this.outputLinks = new int[numberOfStates];
+		Arrays.fill(this.outputLinks, NOSTATE);
+		Deque<Integer> queue = new ArrayDeque<>();
+		for (int child : this.transitionTargets[ROOT]) {
+			this.failureLinks[child] = ROOT;
+			queue.add(child);
+		}
+		while (!queue.isEmpty()) {
+			int state = queue.poll();
+			char[] characters = this.transitionCharacters[state];
+			int[] targets = this.transitionTargets[state];
+			for (int i = 0; i < characters.length; i++) {
+				int child = targets[i];
+				int failure = this.failureLinks[state];
+				int next;
+				while ((next = this.next(failure, characters[i])) == NOSTATE && failure != ROOT) {
+					failure = this.failureLinks[failure];
+				}
+				int failureTarget = next == NOSTATE ? ROOT : next;
+				this.failureLinks[child] = failureTarget;
+				this.outputLinks[child] = this.patterns[failureTarget] != NOPATTERN ? failureTarget
+						: this.outputLinks[failureTarget];
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Returns the leftmost longest non-overlapping occurrences of the patterns
+	 * in the input. Each occurrence is encoded as a long, that can be decoded
+	 * with {@link #start(long)}, {@link #end(long)} and {@link #patternId(long)}
+	 *
+	 * @param input the input to search in
+	 * @return the occurrences in the order of the input
+	 * @throws IllegalArgumentException if the input is too long
+	 */
+	long[] findAll(CharSequence input) throws IllegalArgumentException {
+		if (input.length() > MAXIMUMINPUTLENGTH) {
+			throw new IllegalArgumentException("The input must not be longer than " + MAXIMUMINPUTLENGTH + " characters");
+		}
+		long[] occurrences = new long[8];
+		int numberOfOccurrences = 0;
+		int state = ROOT;
+		for (int position = 0; position < input.length(); position++) {
+			char character = Character.toLowerCase(input.charAt(position));
+			int next;
+			while ((next = this.next(state, character)) == NOSTATE && state != ROOT) {
+				state = this.failureLinks[state];
+			}
+			state = next == NOSTATE ? ROOT : next;
+			int output = this.patterns[state] != NOPATTERN ? state : this.outputLinks[state];
+			while (output != NOSTATE) {
+				int id = this.patterns[output];
+				int start = position + 1 - this.patternLengths[id];
+				if (!this.wholeWords || this.isWordBoundary(input, start, position + 1)) {
+					if (numberOfOccurrences == occurrences.length) {
+						occurrences = Arrays.copyOf(occurrences, occurrences.length * 2);
+					}
+					occurrences[numberOfOccurrences++] = encode(start, this.patternLengths[id], id);
+				}
+				output = this.outputLinks[output];
+			}
+		}
+		return selectLeftmostLongest(occurrences, numberOfOccurrences);
+	}
+
+	/**
+	 * Returns the number of states of the automaton
+	 *
+	 * @return the number of states of the automaton
+	 */
+	int getNumberOfStates() {
+		return this.patterns.length;
+	}
+
+	/**
+	 * Folds the characters of a text the same way as the automaton does
+	 *
+	 * @param text the text to fold
+	 * @return the folded text
+	 */
+	static String fold(CharSequence text) {
+		StringBuilder folded = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			folded.append(Character.toLowerCase(text.charAt(i)));
+		}
+		return folded.toString();
+	}
+
+	/**
+	 * Returns the start index of an encoded occurrence
+	 *
+	 * @param occurrence the encoded occurrence
+	 * @return the index of the first character of the occurrence
+	 */
+	static int start(long occurrence) {
+		return (int) (occurrence >>> 41);
+	}
+
+	/**
+	 * Returns the end index of an encoded occurrence
+	 *
+	 * @param occurrence the encoded occurrence
+	 * @return the index after the last character of the occurrence
+	 */
+	static int end(long occurrence) {
+		return start(occurrence) + MAXIMUMPATTERNLENGTH - (int) ((occurrence >>> 21) & MAXIMUMPATTERNLENGTH);
+	}
+
+	/**
+	 * Returns the pattern id of an encoded occurrence
+	 *
+	 * @param occurrence the encoded occurrence
+	 * @return the index of the pattern that occurred
+	 */
+	static int patternId(long occurrence) {
+		return (int) (occurrence & (MAXIMUMPATTERNS - 1));
+	}
+
+	/**
+	 * Encodes an occurrence, so that the natural order of the encoded
+	 * occurrences is ascending by start and descending by length
+	 *
+	 * @param start  the index of the first character
+	 * @param length the length of the occurrence
+	 * @param id     the id of the pattern
+	 * @return the encoded occurrence
+	 */
+	private static long encode(int start, int length, int id) {
+		return ((long) start << 41) | ((long) (MAXIMUMPATTERNLENGTH - length) << 21) | id;
+	}
+
+	/**
+	 * Selects the leftmost longest occurrences that do not overlap
+	 *
+	 * @param occurrences         all found occurrences
+	 * @param numberOfOccurrences the number of found occurrences
+	 * @return the selected occurrences
+	 */
+	private static long[] selectLeftmostLongest(long[] occurrences, int numberOfOccurrences) {
+		Arrays.sort(occurrences, 0, numberOfOccurrences);
+		int selected = 0;
+		int end = 0;
+		for (int i = 0; i < numberOfOccurrences; i++) {
+			if (start(occurrences[i]) >= end) {
+				end = end(occurrences[i]);
+				occurrences[selected++] = occurrences[i];
+			}
+		}
+		return Arrays.copyOf(occurrences, selected);
+	}
+
+	/**
+	 * Returns the target of the transition of the given state with the given
+	 * character
+	 *
+	 * @param state     the source state
+	 * @param character the folded character
+	 * @return the target state or {@link #NOSTATE} if there is no transition
+	 */
+	private int next(int state, char character) {
+		char[] characters = this.transitionCharacters[state];
+		int index = characters.length == 1 ? (characters[0] == character ? 0 : -1)
+				: Arrays.binarySearch(characters, character);
+		return index < 0 ? NOSTATE : this.transitionTargets[state][index];
+	}
+
+	/**
+	 * Checks whether the given range is neither preceded nor followed by a letter
+	 * or a digit
+	 *
+	 * @param input the input
+	 * @param start the index of the first character of the range
+	 * @param end   the index after the last character of the range
+	 * @return true if the range is a whole word
+	 */
+	private boolean isWordBoundary(CharSequence input, int start, int end) {
+		return (start == 0 || !Character.isLetterOrDigit(input.charAt(start - 1)))
+				&& (end == input.length() || !Character.isLetterOrDigit(input.charAt(end)));
+	}
+}
@@ -0,0 +1,396 @@
+package de.dai_labor.conversation_engine_gazetteer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The intents and entities of a single language with their synonyms, compiled
+ * into one {@link AhoCorasickAutomaton}.<br>
+ * <br>
+ * A gazetteer is loaded from a JSON-String that is validated with this
+ * <a href= "file:../../resources/Gazetteer_Schema.json">JSON-Schema</a>, e.g.
+ *
+ * <pre>
+ * {
+ *   "language": "de-DE",
+ *   "intents": { "weather": ["Wetter", "Temperatur"] },
+ *   "entities": {
+ *     "weatherLocations": {
+ *       "intents": ["weather"],
+ *       "structure": "array",
+ *       "values": { "Berlin": { "data": { "country": "Germany" } } }
+ *     }
+ *   }
+ * }
+ * </pre>
+ *
+ * The gazetteer is immutable and can be shared by all sessions
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public final class Gazetteer {
+	private static final Logger debugLogger = LoggerFactory.getLogger("DeveloperLogger");
+	private static final String SCHEMAFILE = "Gazetteer_Schema.json";
+	private static final Schema SCHEMA = loadSchema();
+
+	private final Locale language;
+	private final Set<String> intents;
+	private final Set<String> entities;
+	private final AhoCorasickAutomaton automaton;
+	// the intents and entity values of each pattern of the automaton
+	private final Target[][] targets;
+
+	/**
+	 * Creates a new Gazetteer object from the given JSON-String
+	 *
+	 * @param jsonGazetteer the JSON-String of the gazetteer
+	 * @throws IllegalArgumentException if the JSON-String is not a valid gazetteer
+	 */
+	public Gazetteer(String jsonGazetteer) throws IllegalArgumentException {
+		JSONObject gazetteer = parse(jsonGazetteer);
+		this.language = Locale.forLanguageTag(gazetteer.getString("language"));
+		if (this.language.getLanguage().isEmpty()) {
+			debugLogger.error("The gazetteer has the invalid language tag {}", gazetteer.getString("language"));
+			throw new IllegalArgumentException("The gazetteer has an invalid language tag");
+		}
+
+		Map<String, List<Target>> targetsByPattern = new HashMap<>();
+		Set<String> intentNames = new LinkedHashSet<>();
+		JSONObject jsonIntents = gazetteer.optJSONObject("intents");
+		if (jsonIntents != null) {
+			for (String intent : jsonIntents.keySet()) {
+				intentNames.add(intent);
+				Target target = new Target(intent, null, null, null);
+				for (Object synonym : jsonIntents.getJSONArray(intent)) {
+					addPattern(targetsByPattern, (String) synonym, target);
+				}
+			}
+		}
+
+		Set<String> entityNames = new LinkedHashSet<>();
+		JSONObject jsonEntities = gazetteer.optJSONObject("entities");
+		if (jsonEntities != null) {
+			for (String entityName : jsonEntities.keySet()) {
+				entityNames.add(entityName);
+				this.addEntity(targetsByPattern, entityName, jsonEntities.getJSONObject(entityName));
+			}
+		}
+
+		List<String> patterns = new ArrayList<>(targetsByPattern.keySet());
+		this.targets = new Target[patterns.size()][];
+		for (int id = 0; id < patterns.size(); id++) {
+			this.targets[id] = targetsByPattern.get(patterns.get(id)).toArray(new Target[0]);
+		}
+		this.automaton = new AhoCorasickAutomaton(patterns, gazetteer.optBoolean("wholeWords", true));
+		this.intents = Collections.unmodifiableSet(intentNames);
+		this.entities = Collections.unmodifiableSet(entityNames);
+		debugLogger.debug("Loaded the gazetteer of the language {} with {} patterns and {} states",
+				this.language.toLanguageTag(), patterns.size(), this.automaton.getNumberOfStates());
+	}
+
+	/**
+	 * Loads a gazetteer from a UTF-8 encoded JSON file
+	 *
+	 * @param file the path to the JSON file
+	 * @return the loaded gazetteer
+	 * @throws IOException              if the file could not be read
+	 * @throws IllegalArgumentException if the file does not contain a valid
+	 *                                  gazetteer
+	 */
+	public static Gazetteer load(Path file) throws IOException, IllegalArgumentException {
+		return new Gazetteer(Files.readString(file, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Returns the language of the gazetteer
+	 *
+	 * @return the language of the gazetteer
+	 */
+	public Locale getLanguage() {
+		return this.language;
+	}
+
+	/**
+	 * Returns the names of all intents of the gazetteer
+	 *
+	 * @return an unmodifiable {@link Set} of the intent names
+	 */
+	public Set<String> getIntents() {
+		return this.intents;
+	}
+
+	/**
+	 * Returns the names of all entities of the gazetteer
+	 *
+	 * @return an unmodifiable {@link Set} of the entity names
+	 */
+	public Set<String> getEntities() {
+		return this.entities;
+	}
+
+	/**
+	 * Returns the leftmost longest occurrences of all synonyms in the input
+	 *
+	 * @param input the input to search in
+	 * @return the encoded occurrences, see {@link AhoCorasickAutomaton#findAll}
+	 */
+	long[] findAll(String input) {
+		return this.automaton.findAll(input);
+	}
+
+	/**
+	 * Returns the intents and entity values of an occurrence
+	 *
+	 * @param occurrence the encoded occurrence
+	 * @return the intents and entity values of the synonym that occurred
+	 */
+	Target[] getTargets(long occurrence) {
+		return this.targets[AhoCorasickAutomaton.patternId(occurrence)];
+	}
+
+	/**
+	 * Adds the values of an entity
+	 *
+	 * @param targetsByPattern the targets mapped by their folded synonyms
+	 * @param entityName       the name of the entity
+	 * @param jsonEntity       the {@link JSONObject} of the entity
+	 */
+	private void addEntity(Map<String, List<Target>> targetsByPattern, String entityName, JSONObject jsonEntity) {
+		Set<String> entityIntents = new HashSet<>();
+		JSONArray jsonEntityIntents = jsonEntity.optJSONArray("intents");
+		if (jsonEntityIntents != null) {
+			for (Object intent : jsonEntityIntents) {
+				entityIntents.add((String) intent);
+			}
+		}
+		Entity entity = new Entity(entityName, entityIntents, "array".equals(jsonEntity.optString("structure")));
+		JSONObject values = jsonEntity.getJSONObject("values");
+		for (String value : values.keySet()) {
+			Object jsonValue = values.get(value);
+			JSONArray synonyms;
+			Object data;
+			if (jsonValue instanceof JSONArray) {
+				synonyms = (JSONArray) jsonValue;
+				data = new JSONObject();
+			} else {
+				JSONObject valueObject = (JSONObject) jsonValue;
+				synonyms = valueObject.optJSONArray("synonyms");
+				data = valueObject.has("data") ? valueObject.get("data") : new JSONObject();
+			}
+			Target target = new Target(null, entity, value, data);
+			addPattern(targetsByPattern, value, target);
+			if (synonyms != null) {
+				for (Object synonym : synonyms) {
+					addPattern(targetsByPattern, (String) synonym, target);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a target to the folded synonym, unless the synonym already has the
+	 * target
+	 *
+	 * @param targetsByPattern the targets mapped by their folded synonyms
+	 * @param synonym          the synonym
+	 * @param target           the target of the synonym
+	 */
+	private static void addPattern(Map<String, List<Target>> targetsByPattern, String synonym, Target target) {
+		String pattern = AhoCorasickAutomaton.fold(synonym.strip());
+		if (pattern.isEmpty()) {
+			return;
+		}
+		List<Target> patternTargets = targetsByPattern.computeIfAbsent(pattern, key -> new ArrayList<>(1));
+		if (!patternTargets.contains(target)) {
+			patternTargets.add(target);
+		}
+	}
+
+	/**
+	 * Parses and validates the JSON-String of a gazetteer
+	 *
+	 * @param jsonGazetteer the JSON-String of the gazetteer
+	 * @return the validated {@link JSONObject}
+	 * @throws IllegalArgumentException if the JSON-String is not a valid gazetteer
+	 */
+	private static JSONObject parse(String jsonGazetteer) throws IllegalArgumentException {
+		if (jsonGazetteer == null || jsonGazetteer.isBlank()) {
+			debugLogger.error("The JSON-String of the gazetteer is blank");
+			throw new IllegalArgumentException("The JSON-String of the gazetteer is blank");
+		}
+		try {
+			JSONObject gazetteer = new JSONObject(jsonGazetteer);
+			SCHEMA.validate(gazetteer);
+			return gazetteer;
+		} catch (JSONException ex) {
+			debugLogger.error("Invalid JSON-String: {}", ex.getMessage());
+			throw new IllegalArgumentException("Invalid JSON-String", ex);
+		} catch (ValidationException ex) {
+			debugLogger.error("Invalid gazetteer: {}", ex.getMessage());
+			throw new IllegalArgumentException("Invalid gazetteer: " + ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Loads and compiles the schema of the gazetteers
+	 *
+	 * @return the compiled schema
+	 */
+	private static Schema loadSchema() {
+		try (InputStream schemaFile = Gazetteer.class.getClassLoader().getResourceAsStream(SCHEMAFILE)) {
+			return SchemaLoader.load(new JSONObject(new JSONTokener(schemaFile)));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * An entity of the gazetteer
+	 */
+	static final class Entity {
+		private final String name;
+		private final Set<String> intents;
+		private final boolean storedInArray;
+
+		private Entity(String name, Set<String> intents, boolean storedInArray) {
+			this.name = name;
+			this.intents = intents;
+			this.storedInArray = storedInArray;
+		}
+
+		/**
+		 * Returns the name of the entity
+		 *
+		 * @return the name of the entity
+		 */
+		String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Returns whether the entity is stored, if the given intents were found and
+		 * the given entity was asked for
+		 *
+		 * @param foundIntents the intents that were found in the input
+		 * @param askedEntity  the name of the entity that was asked for or null
+		 * @return true if the entity should be stored
+		 */
+		boolean isRelevant(Set<String> foundIntents, String askedEntity) {
+			if (this.intents.isEmpty() || isAskedEntity(askedEntity)) {
+				return true;
+			}
+			for (String intent : foundIntents) {
+				if (this.intents.contains(intent)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Returns whether the values are stored in the last object of an array
+		 *
+		 * @return true if the values are stored in an array, false if they are
+		 *         stored in an object
+		 */
+		boolean isStoredInArray() {
+			return this.storedInArray;
+		}
+
+		/**
+		 * Checks whether the entity or one of its values was asked for
+		 *
+		 * @param askedEntity the name of the entity that was asked for or null
+		 * @return true if the entity was asked for
+		 */
+		private boolean isAskedEntity(String askedEntity) {
+			return askedEntity != null && (askedEntity.equals(this.name)
+					|| (askedEntity.startsWith(this.name) && askedEntity.charAt(this.name.length()) == '.'));
+		}
+	}
+
+	/**
+	 * An intent or an entity value of a synonym
+	 */
+	static final class Target {
+		private final String intent;
+		private final Entity entity;
+		private final String value;
+		private final Object data;
+
+		private Target(String intent, Entity entity, String value, Object data) {
+			this.intent = intent;
+			this.entity = entity;
+			this.value = value;
+			this.data = data;
+		}
+
+		/**
+		 * Returns the intent of the synonym
+		 *
+		 * @return the intent or null if the synonym belongs to an entity value
+		 */
+		String getIntent() {
+			return this.intent;
+		}
+
+		/**
+		 * Returns the entity of the synonym
+		 *
+		 * @return the entity or null if the synonym belongs to an intent
+		 */
+		Entity getEntity() {
+			return this.entity;
+		}
+
+		/**
+		 * Returns the name of the entity value
+		 *
+		 * @return the name of the entity value or null if the synonym belongs to an
+		 *         intent
+		 */
+		String getValue() {
+			return this.value;
+		}
+
+		/**
+		 * Returns a copy of the data of the entity value, that can be stored in a
+		 * context object
+		 *
+		 * @return a copy of the data of the entity value
+		 */
+		Object copyData() {
+			if (this.data instanceof JSONObject) {
+				return new JSONObject(((JSONObject) this.data).toMap());
+			}
+			if (this.data instanceof JSONArray) {
+				return new JSONArray(((JSONArray) this.data).toList());
+			}
+			return this.data;
+		}
+	}
+}
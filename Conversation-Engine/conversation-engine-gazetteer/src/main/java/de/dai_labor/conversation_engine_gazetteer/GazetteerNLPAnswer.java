@@ -0,0 +1,46 @@
+package de.dai_labor.conversation_engine_gazetteer;
+
+import java.util.List;
+import java.util.Locale;
+
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+
+/**
+ * The {@link INLPAnswer} of the {@link GazetteerNLPComponent}
+ *
+ * @author Marcel Engelmann
+ *
+ */
+final class GazetteerNLPAnswer implements INLPAnswer {
+	private final List<String> intents;
+	private final boolean addedEntities;
+	private final Locale inputLanguage;
+
+	/**
+	 * Creates a new GazetteerNLPAnswer object
+	 *
+	 * @param intents       the intents found in the input
+	 * @param addedEntities whether new entities were added to the context object
+	 * @param inputLanguage the language of the gazetteer that matched the input
+	 */
+	GazetteerNLPAnswer(List<String> intents, boolean addedEntities, Locale inputLanguage) {
+		this.intents = intents;
+		this.addedEntities = addedEntities;
+		this.inputLanguage = inputLanguage;
+	}
+
+	@Override
+	public List<String> getIntents() {
+		return this.intents;
+	}
+
+	@Override
+	public boolean hasAddedEntities() {
+		return this.addedEntities;
+	}
+
+	@Override
+	public Locale getInputLanguage() {
+		return this.inputLanguage;
+	}
+}
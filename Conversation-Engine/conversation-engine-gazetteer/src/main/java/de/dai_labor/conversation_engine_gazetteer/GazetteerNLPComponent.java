@@ -0,0 +1,194 @@
+package de.dai_labor.conversation_engine_gazetteer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.INLPComponent;
+
+/**
+ * A rule-based {@link INLPComponent} that finds the intents and entities of an
+ * input with {@link Gazetteer gazetteers}.<br>
+ * <br>
+ * Each gazetteer finds all of its synonyms in a single pass over the input. If
+ * there are gazetteers of multiple languages, the language whose synonyms cover
+ * the most characters of the input is used. The first gazetteer is used, if no
+ * synonym was found.<br>
+ * <br>
+ * The found intents are returned in the order of the input. The found entity
+ * values are stored in the context object with the name of their entity:
+ * <ul>
+ * <li>object: <code>{"entity": {"value": data}}</code></li>
+ * <li>array: <code>{"entity": [{"value": data}]}</code>, the values are added to
+ * the last object of the array</li>
+ * </ul>
+ * The component holds no state of a session, so that a single instance can be
+ * shared by all sessions
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class GazetteerNLPComponent implements INLPComponent {
+	private static final Logger debugLogger = LoggerFactory.getLogger("DeveloperLogger");
+
+	private final List<Gazetteer> gazetteers;
+
+	/**
+	 * Creates a new GazetteerNLPComponent object
+	 *
+	 * @param gazetteers the gazetteers of the supported languages. The first
+	 *                   gazetteer is the default
+	 * @throws IllegalArgumentException if no gazetteer was given
+	 */
+	public GazetteerNLPComponent(Gazetteer... gazetteers) throws IllegalArgumentException {
+		this(gazetteers == null ? null : Arrays.asList(gazetteers));
+	}
+
+	/**
+	 * Creates a new GazetteerNLPComponent object
+	 *
+	 * @param gazetteers the gazetteers of the supported languages. The first
+	 *                   gazetteer is the default
+	 * @throws IllegalArgumentException if no gazetteer was given
+	 */
+	public GazetteerNLPComponent(List<Gazetteer> gazetteers) throws IllegalArgumentException {
+		if (gazetteers == null || gazetteers.isEmpty() || gazetteers.stream().anyMatch(Objects::isNull)) {
+			debugLogger.error("The GazetteerNLPComponent requires at least one gazetteer");
+			throw new IllegalArgumentException("The GazetteerNLPComponent requires at least one gazetteer");
+		}
+		this.gazetteers = List.copyOf(gazetteers);
+	}
+
+	@Override
+	public void addUsedEntities(List<String> entities) {
+		for (Gazetteer gazetteer : this.gazetteers) {
+			for (String entity : entities) {
+				if (!gazetteer.getEntities().contains(entity)) {
+					debugLogger.warn("The gazetteer of the language {} does not contain the entity {}",
+							gazetteer.getLanguage().toLanguageTag(), entity);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void addUsedIntents(List<String> intents) {
+		for (Gazetteer gazetteer : this.gazetteers) {
+			for (String intent : intents) {
+				if (!gazetteer.getIntents().contains(intent)) {
+					debugLogger.warn("The gazetteer of the language {} does not contain the intent {}",
+							gazetteer.getLanguage().toLanguageTag(), intent);
+				}
+			}
+		}
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, String entityName, JSONObject contextObject) {
+		return this.understand(input, entityName, contextObject);
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, JSONObject contextObject) {
+		return this.understand(input, null, contextObject);
+	}
+
+	/**
+	 * Finds the intents and entities of the input and stores the entities in the
+	 * context object
+	 *
+	 * @param input         the input to be processed
+	 * @param askedEntity   the name of the entity that was asked for or null
+	 * @param contextObject the context object to store the entities in
+	 * @return a new {@link INLPAnswer}
+	 */
+	private INLPAnswer understand(String input, String askedEntity, JSONObject contextObject) {
+		Gazetteer gazetteer = this.gazetteers.get(0);
+		long[] occurrences = gazetteer.findAll(input);
+		if (this.gazetteers.size() > 1) {
+			int coveredCharacters = coveredCharacters(occurrences);
+			for (int i = 1; i < this.gazetteers.size(); i++) {
+				long[] otherOccurrences = this.gazetteers.get(i).findAll(input);
+				int otherCoveredCharacters = coveredCharacters(otherOccurrences);
+				if (otherCoveredCharacters > coveredCharacters) {
+					gazetteer = this.gazetteers.get(i);
+					occurrences = otherOccurrences;
+					coveredCharacters = otherCoveredCharacters;
+				}
+			}
+		}
+
+		Set<String> intents = new LinkedHashSet<>();
+		for (long occurrence : occurrences) {
+			for (Gazetteer.Target target : gazetteer.getTargets(occurrence)) {
+				if (target.getIntent() != null) {
+					intents.add(target.getIntent());
+				}
+			}
+		}
+		boolean addedEntities = false;
+		for (long occurrence : occurrences) {
+			for (Gazetteer.Target target : gazetteer.getTargets(occurrence)) {
+				Gazetteer.Entity entity = target.getEntity();
+				if (entity != null && entity.isRelevant(intents, askedEntity)) {
+					storeEntityValue(contextObject, target);
+					addedEntities = true;
+				}
+			}
+		}
+		return new GazetteerNLPAnswer(new ArrayList<>(intents), addedEntities, gazetteer.getLanguage());
+	}
+
+	/**
+	 * Stores an entity value in the context object
+	 *
+	 * @param contextObject the context object
+	 * @param target        the entity value to store
+	 */
+	private static void storeEntityValue(JSONObject contextObject, Gazetteer.Target target) {
+		String entityName = target.getEntity().getName();
+		JSONObject values;
+		if (target.getEntity().isStoredInArray()) {
+			JSONArray array = contextObject.optJSONArray(entityName);
+			if (array == null) {
+				array = new JSONArray();
+				contextObject.put(entityName, array);
+			}
+			values = array.optJSONObject(array.length() - 1);
+			if (values == null) {
+				values = new JSONObject();
+				array.put(values);
+			}
+		} else {
+			values = contextObject.optJSONObject(entityName);
+			if (values == null) {
+				values = new JSONObject();
+				contextObject.put(entityName, values);
+			}
+		}
+		values.put(target.getValue(), target.copyData());
+	}
+
+	/**
+	 * Returns the number of characters that are covered by the occurrences
+	 *
+	 * @param occurrences the encoded occurrences
+	 * @return the number of covered characters
+	 */
+	private static int coveredCharacters(long[] occurrences) {
+		int coveredCharacters = 0;
+		for (long occurrence : occurrences) {
+			coveredCharacters += AhoCorasickAutomaton.end(occurrence) - AhoCorasickAutomaton.start(occurrence);
+		}
+		return coveredCharacters;
+	}
+}
@@ -0,0 +1,115 @@
+package de.dai_labor.conversation_engine_gazetteer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AhoCorasickAutomatonTest {
+
+	@Test
+	@DisplayName("Overlapping patterns are resolved to the leftmost longest occurrences")
+	void leftmostLongest() {
+		AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("he", "she", "his", "hers"), false);
+		assertEquals(List.of("she"), this.find(automaton, List.of("he", "she", "his", "hers"), "ushers"));
+		assertEquals(List.of("his", "hers"),
+				this.find(automaton, List.of("he", "she", "his", "hers"), "HIShers"));
+	}
+
+	@Test
+	@DisplayName("Whole words only")
+	void wholeWords() {
+		List<String> patterns = List.of("tag", "guten tag", "tag der arbeit");
+		AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(patterns, true);
+		assertEquals(List.of("guten tag"), this.find(automaton, patterns, "Guten Tag der Arbeit!"));
+		assertEquals(List.of("tag der arbeit"), this.find(automaton, patterns, "Am Tag der Arbeit"));
+		assertEquals(List.of(), this.find(automaton, patterns, "Wettertag"));
+		assertEquals(List.of("tag"), this.find(automaton, patterns, "(Tag)"));
+	}
+
+	@Test
+	@DisplayName("The same occurrences as a naive search")
+	void naiveSearch() {
+		Random random = new Random(42);
+		List<String> patterns = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			patterns.add(randomText(random, 1 + random.nextInt(4)));
+		}
+		AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(patterns, false);
+		for (int i = 0; i < 200; i++) {
+			String input = randomText(random, random.nextInt(40));
+			long[] occurrences = automaton.findAll(input);
+			List<Integer> expected = new ArrayList<>();
+			int position = 0;
+			while (position < input.length()) {
+				// the longest pattern that starts at the position
+				int longest = 0;
+				for (String pattern : patterns) {
+					if (pattern.length() > longest && input.startsWith(pattern, position)) {
+						longest = pattern.length();
+					}
+				}
+				if (longest > 0) {
+					expected.add(position);
+					expected.add(position + longest);
+					position += longest;
+				} else {
+					position++;
+				}
+			}
+			List<Integer> actual = new ArrayList<>();
+			for (long occurrence : occurrences) {
+				actual.add(AhoCorasickAutomaton.start(occurrence));
+				actual.add(AhoCorasickAutomaton.end(occurrence));
+				assertEquals(patterns.get(AhoCorasickAutomaton.patternId(occurrence)),
+						input.substring(AhoCorasickAutomaton.start(occurrence), AhoCorasickAutomaton.end(occurrence)));
+			}
+			assertEquals(expected, actual, input);
+		}
+	}
+
+	@Test
+	@DisplayName("Empty patterns and inputs")
+	void empty() {
+		AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("", " "), true);
+		assertArrayEquals(new long[0], automaton.findAll(""));
+		assertArrayEquals(new long[0], automaton.findAll("  "));
+		assertArrayEquals(new long[0], new AhoCorasickAutomaton(List.of(), true).findAll("Hallo"));
+	}
+
+	@Test
+	@DisplayName("Too long inputs")
+	void tooLongInput() {
+		AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("a"), true);
+		String input = "a".repeat(AhoCorasickAutomaton.MAXIMUMINPUTLENGTH + 1);
+		assertThrows(IllegalArgumentException.class, () -> automaton.findAll(input));
+	}
+
+	/**
+	 * Returns the patterns that occurred in the input
+	 */
+	private List<String> find(AhoCorasickAutomaton automaton, List<String> patterns, String input) {
+		List<String> found = new ArrayList<>();
+		for (long occurrence : automaton.findAll(input)) {
+			found.add(patterns.get(AhoCorasickAutomaton.patternId(occurrence)));
+		}
+		return found;
+	}
+
+	/**
+	 * Returns a random text of the characters a, b and c
+	 */
+	private static String randomText(Random random, int length) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			text.append((char) ('a' + random.nextInt(3)));
+		}
+		return text.toString();
+	}
+}
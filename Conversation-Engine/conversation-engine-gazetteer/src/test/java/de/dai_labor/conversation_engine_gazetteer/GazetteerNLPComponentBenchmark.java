@@ -0,0 +1,102 @@
+package de.dai_labor.conversation_engine_gazetteer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+
+/**
+ * Compares the {@link GazetteerNLPComponent} with the reference
+ * {@link NLPComponent} of the core's tests, that searches every synonym on its
+ * own. The gazetteer contains the same intents and entities as the reference
+ * and optionally additional locations, to show that the time per input does
+ * not depend on the number of synonyms
+ *
+ * @author Marcel Engelmann
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GazetteerNLPComponentBenchmark {
+
+	private static final String[] INPUTS = { "Hallo, wie ist das Wetter in Berlin?", "Welche Rezepte mit Paprika gibt es?",
+			"Wie viel Grad sind es in München und in Hamburg?", "Ich möchte etwas mit Kartoffeln und Erbsen essen",
+			"Nächster Schritt", "Koche das Rezept Paprika-Kartoffelsuppe", "abbruch",
+			"Guten Tag, ich hätte gerne die Temperatur in Dortmund" };
+
+	/**
+	 * The inputs of a thread
+	 */
+	@State(Scope.Thread)
+	public static class Inputs {
+		private int next;
+
+		/**
+		 * Returns the next input
+		 *
+		 * @return the next input
+		 */
+		String next() {
+			String input = INPUTS[this.next];
+			this.next = (this.next + 1) % INPUTS.length;
+			return input;
+		}
+	}
+
+	/**
+	 * The reference implementation
+	 */
+	@State(Scope.Benchmark)
+	public static class Reference {
+		private final NLPComponent nlpComponent = new NLPComponent();
+	}
+
+	/**
+	 * The gazetteer implementation
+	 */
+	@State(Scope.Benchmark)
+	public static class Gazetteers {
+		@Param({ "0", "10000" })
+		private int additionalLocations;
+
+		private GazetteerNLPComponent nlpComponent;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			JSONObject gazetteer = new JSONObject(TestGazetteers.loadResource("Gazetteer_de.json"));
+			JSONObject locations = gazetteer.getJSONObject("entities").getJSONObject("locations")
+					.getJSONObject("values");
+			for (int i = 0; i < this.additionalLocations; i++) {
+				locations.put("Ort" + i, new JSONObject().put("synonyms", new String[] { "Ortschaft " + i }));
+			}
+			this.nlpComponent = new GazetteerNLPComponent(new Gazetteer(gazetteer.toString()));
+		}
+	}
+
+	@Benchmark
+	public INLPAnswer reference(Reference reference, Inputs inputs) {
+		return reference.nlpComponent.understandInput(inputs.next(), new JSONObject());
+	}
+
+	@Benchmark
+	public INLPAnswer gazetteer(Gazetteers gazetteers, Inputs inputs) {
+		return gazetteers.nlpComponent.understandInput(inputs.next(), new JSONObject());
+	}
+}
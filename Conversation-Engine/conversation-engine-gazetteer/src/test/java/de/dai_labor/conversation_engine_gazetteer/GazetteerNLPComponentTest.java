@@ -0,0 +1,122 @@
+package de.dai_labor.conversation_engine_gazetteer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.dai_labor.conversation_engine_core.conversation_engine.ConversationEngine;
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.skills.GreetingSkill;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+class GazetteerNLPComponentTest {
+
+	private Locale defaultLanguage = new Locale("de", "DE");
+
+	@Test
+	@DisplayName("Intents and entities are found in a single pass")
+	void intentsAndEntities() {
+		GazetteerNLPComponent nlp = new GazetteerNLPComponent(TestGazetteers.GERMAN);
+		JSONObject context = new JSONObject();
+		INLPAnswer answer = nlp.understandInput("Hallo, wie ist das Wetter in Berlin und in MÜNCHEN?", context);
+		assertEquals(List.of("greeting", "weather"), answer.getIntents());
+		assertTrue(answer.hasAddedEntities());
+		assertEquals(this.defaultLanguage, answer.getInputLanguage());
+		JSONObject locations = context.getJSONArray("weatherLocations").getJSONObject(0);
+		assertEquals("Germany", locations.getJSONObject("Berlin").getString("country"));
+		assertTrue(locations.has("München"));
+		assertTrue(context.getJSONObject("locations").has("Berlin"));
+		// the values are added to the last object of the array
+		nlp.understandInput("Und die Temperatur in Hamburg?", context);
+		assertEquals(1, context.getJSONArray("weatherLocations").length());
+		assertTrue(context.getJSONArray("weatherLocations").getJSONObject(0).has("Hamburg"));
+	}
+
+	@Test
+	@DisplayName("Entities of an intent are only stored with the intent or if they were asked for")
+	void relevantEntities() {
+		GazetteerNLPComponent nlp = new GazetteerNLPComponent(TestGazetteers.GERMAN);
+		JSONObject context = new JSONObject();
+		INLPAnswer answer = nlp.understandInput("Paprika", context);
+		assertTrue(answer.getIntents().isEmpty());
+		assertFalse(answer.hasAddedEntities());
+		assertFalse(context.has("recipeSearchIngredients"));
+		answer = nlp.understandInput("Paprika und Kartoffel", "recipeSearchIngredients", context);
+		assertTrue(answer.hasAddedEntities());
+		JSONObject ingredients = context.getJSONArray("recipeSearchIngredients").getJSONObject(0);
+		assertTrue(ingredients.has("Paprika"));
+		assertTrue(ingredients.has("Kartoffeln"));
+		answer = nlp.understandInput("ja", "recipeSearchIngredients.Salami", context);
+		assertEquals(List.of("yes"), answer.getIntents());
+		assertFalse(answer.hasAddedEntities());
+	}
+
+	@Test
+	@DisplayName("The language with the most matched characters is used")
+	void multipleLanguages() {
+		GazetteerNLPComponent nlp = new GazetteerNLPComponent(TestGazetteers.GERMAN, TestGazetteers.ENGLISH);
+		JSONObject context = new JSONObject();
+		INLPAnswer answer = nlp.understandInput("What is the weather in Munich?", context);
+		assertEquals(List.of("weather"), answer.getIntents());
+		assertEquals(new Locale("en", "US"), answer.getInputLanguage());
+		assertTrue(context.getJSONArray("weatherLocations").getJSONObject(0).has("Munich"));
+		answer = nlp.understandInput("Wie ist das Wetter in Berlin?", new JSONObject());
+		assertEquals(this.defaultLanguage, answer.getInputLanguage());
+		answer = nlp.understandInput("???", new JSONObject());
+		assertTrue(answer.getIntents().isEmpty());
+		assertEquals(this.defaultLanguage, answer.getInputLanguage());
+	}
+
+	@Test
+	@DisplayName("A conversation with the GazetteerNLPComponent")
+	void conversation() {
+		ConversationEngine conversationEngine = new ConversationEngine(
+				new GazetteerNLPComponent(TestGazetteers.GERMAN), this.defaultLanguage);
+		conversationEngine.addSkill(new WeatherSkill(), TestGazetteers.loadResource("Weather.json"));
+		conversationEngine.addSkill(new GreetingSkill(), TestGazetteers.loadResource("Greeting.json"));
+		assertEquals("Von welchem Ort möchten Sie das Wetter wissen?",
+				conversationEngine.userInput("Wie ist das Wetter?").get(0));
+		assertTrue(conversationEngine.userInput("In Dortmund").get(0).startsWith("In Dortmund sind es"));
+		List<String> answers = conversationEngine.userInput("Guten Tag, wie ist das Wetter in Hamburg?");
+		assertTrue(answers.stream().anyMatch(answer -> answer.startsWith("In Hamburg sind es")));
+	}
+
+	@Test
+	@DisplayName("Load a gazetteer from a file")
+	void loadFromFile(@TempDir Path directory) throws IOException {
+		Path file = directory.resolve("gazetteer.json");
+		Files.writeString(file, TestGazetteers.loadResource("Gazetteer_en.json"), StandardCharsets.UTF_8);
+		Gazetteer gazetteer = Gazetteer.load(file);
+		assertEquals(new Locale("en", "US"), gazetteer.getLanguage());
+		assertTrue(gazetteer.getIntents().contains("weather"));
+		assertTrue(gazetteer.getEntities().contains("weatherLocations"));
+	}
+
+	@Test
+	@DisplayName("Invalid gazetteers")
+	void invalidGazetteers() {
+		assertThrows(IllegalArgumentException.class, () -> new Gazetteer(null));
+		assertThrows(IllegalArgumentException.class, () -> new Gazetteer(" "));
+		assertThrows(IllegalArgumentException.class, () -> new Gazetteer("{"));
+		assertThrows(IllegalArgumentException.class, () -> new Gazetteer("{\"intents\": {}}"));
+		assertThrows(IllegalArgumentException.class,
+				() -> new Gazetteer("{\"language\": \"de-DE\", \"intents\": {\"weather\": \"Wetter\"}}"));
+		assertThrows(IllegalArgumentException.class, () -> new Gazetteer(
+				"{\"language\": \"de-DE\", \"entities\": {\"city\": {\"values\": {}, \"structure\": \"list\"}}}"));
+		assertThrows(IllegalArgumentException.class, () -> new Gazetteer("{\"language\": \"123\"}"));
+		assertThrows(IllegalArgumentException.class, () -> new GazetteerNLPComponent());
+	}
+}
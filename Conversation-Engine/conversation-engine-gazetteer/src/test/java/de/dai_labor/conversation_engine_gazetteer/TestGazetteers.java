@@ -0,0 +1,36 @@
+package de.dai_labor.conversation_engine_gazetteer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the gazetteers and skills of the tests and benchmarks
+ * 
+ * @author Marcel Engelmann
+ *
+ */
+class TestGazetteers {
+
+	static final Gazetteer GERMAN = new Gazetteer(loadResource("Gazetteer_de.json"));
+	static final Gazetteer ENGLISH = new Gazetteer(loadResource("Gazetteer_en.json"));
+
+	private TestGazetteers() throws IllegalStateException {
+		throw new IllegalStateException("Static class");
+	}
+
+	/**
+	 * Loads a resource of the test resources or the core's test resources
+	 * 
+	 * @param fileName the name of the resource
+	 * @return the content of the resource
+	 */
+	static String loadResource(String fileName) {
+		try (InputStream resource = TestGazetteers.class.getClassLoader().getResourceAsStream(fileName)) {
+			return new String(resource.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package de.dai_labor.conversation_engine_virtual_threads;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import de.dai_labor.conversation_engine_core.conversation_engine.ConversationEngine;
+import de.dai_labor.conversation_engine_core.conversation_engine.SessionHost;
+
+/**
+ * A {@link SessionHost} that processes each turn on its own virtual
+ * thread.<br>
+ * <br>
+ * The turns of a session are still processed one after another, but a turn
+ * that is blocked by a synchronous
+ * {@link de.dai_labor.conversation_engine_core.interfaces.INLPComponent
+ * INLPComponent} or {@link de.dai_labor.conversation_engine_core.interfaces.ISkill
+ * skill} only blocks its own virtual thread and not a thread of a shared pool.
+ * If the running JDK does not support virtual threads, each turn runs on its
+ * own platform thread instead, see {@link VirtualThreads}
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class VirtualThreadSessionHost extends SessionHost implements AutoCloseable {
+
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a new VirtualThreadSessionHost object
+	 *
+	 * @param sessionFactory creates the {@link ConversationEngine} of a new
+	 *                       session with the given session id
+	 * @throws IllegalArgumentException if the session factory is null
+	 */
+	public VirtualThreadSessionHost(Function<String, ConversationEngine> sessionFactory)
+			throws IllegalArgumentException {
+		this(sessionFactory, VirtualThreads.newThreadPerTaskExecutor());
+	}
+
+	/**
+	 * Creates a new VirtualThreadSessionHost object
+	 *
+	 * @param sessionFactory creates the {@link ConversationEngine} of a new
+	 *                       session with the given session id
+	 * @param executor       the thread per task executor to run the turns on
+	 * @throws IllegalArgumentException if the session factory is null
+	 */
+	private VirtualThreadSessionHost(Function<String, ConversationEngine> sessionFactory, ExecutorService executor)
+			throws IllegalArgumentException {
+		super(sessionFactory, executor);
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns whether the turns are processed on virtual threads
+	 *
+	 * @return true if the turns are processed on virtual threads or false if they
+	 *         are processed on platform threads
+	 */
+	public boolean usesVirtualThreads() {
+		return VirtualThreads.isSupported();
+	}
+
+	/**
+	 * Stops accepting new turns. Turns that were already started are processed
+	 * until they are completed
+	 */
+	@Override
+	public void close() {
+		this.executor.shutdown();
+	}
+}
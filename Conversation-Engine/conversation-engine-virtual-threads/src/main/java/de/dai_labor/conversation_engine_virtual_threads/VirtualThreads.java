@@ -0,0 +1,100 @@
+package de.dai_labor.conversation_engine_virtual_threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for creating executors that run each task on its own virtual
+ * thread.<br>
+ * <br>
+ * The module is compiled for Java 14, so that virtual threads are looked up at
+ * runtime. If the running JDK does not support virtual threads, each task runs
+ * on its own platform thread instead
+ *
+ * @author Marcel Engelmann
+ *
+ */
+public class VirtualThreads {
+	private static final Logger debugLogger = LoggerFactory.getLogger("DeveloperLogger");
+	private static final String FACTORYMETHOD = "newVirtualThreadPerTaskExecutor";
+	private static final String THREADNAMEPREFIX = "ConversationEngine-Turn-";
+	private static final Method VIRTUALTHREADFACTORY = findVirtualThreadFactory();
+
+	/**
+	 * Static class, constructor is not allowed
+	 *
+	 * @throws IllegalStateException static class, constructor is not allowed
+	 */
+	private VirtualThreads() throws IllegalStateException {
+		throw new IllegalStateException("Static class");
+	}
+
+	/**
+	 * Returns whether the running JDK supports virtual threads
+	 *
+	 * @return true if the running JDK supports virtual threads
+	 */
+	public static boolean isSupported() {
+		return VIRTUALTHREADFACTORY != null;
+	}
+
+	/**
+	 * Returns a new executor that starts a new virtual thread for each task. If
+	 * the running JDK does not support virtual threads, the executor starts a new
+	 * platform daemon thread for each task instead
+	 *
+	 * @return a new thread per task executor
+	 */
+	public static ExecutorService newThreadPerTaskExecutor() {
+		if (VIRTUALTHREADFACTORY != null) {
+			try {
+				return (ExecutorService) VIRTUALTHREADFACTORY.invoke(null);
+			} catch (IllegalAccessException | InvocationTargetException ex) {
+				debugLogger.warn("Could not create a virtual thread executor, using platform threads instead", ex);
+			}
+		}
+		return newPlatformThreadPerTaskExecutor();
+	}
+
+	/**
+	 * Returns a new executor that starts a new platform daemon thread for each
+	 * task. Idle threads are reused
+	 *
+	 * @return a new platform thread per task executor
+	 */
+	public static ExecutorService newPlatformThreadPerTaskExecutor() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		return Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, THREADNAMEPREFIX + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Looks the factory method of the virtual thread executor up and checks
+	 * whether virtual threads can be started, e.g. they are not a disabled
+	 * preview feature
+	 *
+	 * @return the factory method or null if virtual threads are not supported
+	 */
+	private static Method findVirtualThreadFactory() {
+		try {
+			Method factory = Executors.class.getMethod(FACTORYMETHOD);
+			((ExecutorService) factory.invoke(null)).shutdown();
+			return factory;
+		} catch (NoSuchMethodException ex) {
+			debugLogger.info("The JDK {} does not support virtual threads, using platform threads instead",
+					Runtime.version());
+		} catch (IllegalAccessException | InvocationTargetException | RuntimeException ex) {
+			debugLogger.info("Virtual threads are not enabled, using platform threads instead", ex);
+		}
+		return null;
+	}
+}
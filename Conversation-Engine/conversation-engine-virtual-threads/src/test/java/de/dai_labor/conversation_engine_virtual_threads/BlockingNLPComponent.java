@@ -0,0 +1,42 @@
+package de.dai_labor.conversation_engine_virtual_threads;
+
+import org.json.JSONObject;
+
+import de.dai_labor.conversation_engine_core.interfaces.INLPAnswer;
+import de.dai_labor.conversation_engine_core.interfaces.NLPComponent;
+
+/**
+ * A {@link NLPComponent} that emulates a remote NLP service with a blocking
+ * client by sleeping for a fixed delay before answering
+ * 
+ * @author Marcel Engelmann
+ *
+ */
+public class BlockingNLPComponent extends NLPComponent {
+
+	private final long delayInMilliseconds;
+
+	public BlockingNLPComponent(long delayInMilliseconds) {
+		this.delayInMilliseconds = delayInMilliseconds;
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, String entityName, JSONObject contextObject) {
+		this.block();
+		return super.understandInput(input, entityName, contextObject);
+	}
+
+	@Override
+	public INLPAnswer understandInput(String input, JSONObject contextObject) {
+		this.block();
+		return super.understandInput(input, contextObject);
+	}
+
+	private void block() {
+		try {
+			Thread.sleep(this.delayInMilliseconds);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package de.dai_labor.conversation_engine_virtual_threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dai_labor.conversation_engine_core.conversation_engine.SessionHost;
+
+/**
+ * Compares a {@link SessionHost} on a fixed pool of platform threads with a
+ * {@link VirtualThreadSessionHost} for sessions whose NLP service blocks for
+ * a simulated latency. Each operation processes one turn of every session
+ *
+ * @author Marcel Engelmann
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionHostingBenchmark {
+
+	private static final int PLATFORMTHREADS = 200;
+
+	@Param({ "1000", "10000" })
+	private int numberOfSessions;
+
+	@Param({ "20" })
+	private long nlpLatencyInMilliseconds;
+
+	private ExecutorService platformThreads;
+	private SessionHost platformThreadHost;
+	private VirtualThreadSessionHost virtualThreadHost;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.platformThreads = Executors.newFixedThreadPool(PLATFORMTHREADS);
+		this.platformThreadHost = new SessionHost(id -> TestSessions.newWeatherSession(this.nlpLatencyInMilliseconds),
+				this.platformThreads);
+		this.virtualThreadHost = new VirtualThreadSessionHost(
+				id -> TestSessions.newWeatherSession(this.nlpLatencyInMilliseconds));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.platformThreads.shutdownNow();
+		this.virtualThreadHost.close();
+	}
+
+	@Benchmark
+	public void platformThreadPool() {
+		this.processOneTurnPerSession(this.platformThreadHost);
+	}
+
+	@Benchmark
+	public void threadPerTurn() {
+		this.processOneTurnPerSession(this.virtualThreadHost);
+	}
+
+	private void processOneTurnPerSession(SessionHost host) {
+		List<CompletableFuture<List<String>>> replies = new ArrayList<>(this.numberOfSessions);
+		for (int session = 0; session < this.numberOfSessions; session++) {
+			replies.add(host.submit("session" + session, "Wie ist das Wetter in Berlin?"));
+		}
+		CompletableFuture.allOf(replies.toArray(new CompletableFuture[0])).join();
+	}
+}
@@ -0,0 +1,54 @@
+package de.dai_labor.conversation_engine_virtual_threads;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import de.dai_labor.conversation_engine_core.conversation_engine.ConversationEngine;
+import de.dai_labor.conversation_engine_core.conversation_engine.SkillDefinition;
+import de.dai_labor.conversation_engine_core.skills.WeatherSkill;
+
+/**
+ * Creates the sessions of the tests and benchmarks
+ * 
+ * @author Marcel Engelmann
+ *
+ */
+class TestSessions {
+
+	private static final SkillDefinition WEATHERSKILL = SkillDefinition.fromJson(loadResource("Weather.json"));
+
+	private TestSessions() throws IllegalStateException {
+		throw new IllegalStateException("Static class");
+	}
+
+	/**
+	 * Creates a new session with the WeatherSkill and a
+	 * {@link BlockingNLPComponent}
+	 * 
+	 * @param delayInMilliseconds the simulated latency of the NLP service
+	 * @return the new session
+	 */
+	static ConversationEngine newWeatherSession(long delayInMilliseconds) {
+		ConversationEngine engine = new ConversationEngine(new BlockingNLPComponent(delayInMilliseconds), 0,
+				new Locale("de", "DE"));
+		engine.addSkill(new WeatherSkill(), WEATHERSKILL);
+		return engine;
+	}
+
+	/**
+	 * Loads a resource of the core's test resources
+	 * 
+	 * @param fileName the name of the resource
+	 * @return the content of the resource
+	 */
+	private static String loadResource(String fileName) {
+		try (InputStream resource = TestSessions.class.getClassLoader().getResourceAsStream(fileName)) {
+			return new String(resource.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package de.dai_labor.conversation_engine_virtual_threads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadSessionHostTest {
+
+	private static final int SESSIONS = 200;
+	private static final long NLPDELAY = 200;
+
+	@Test
+	@DisplayName("Virtual threads are used if the JDK supports them")
+	void virtualThreadsIfSupported() {
+		boolean supported = Runtime.version().feature() >= 21;
+		assertEquals(supported, VirtualThreads.isSupported());
+		try (VirtualThreadSessionHost host = new VirtualThreadSessionHost(id -> TestSessions.newWeatherSession(0))) {
+			assertEquals(supported, host.usesVirtualThreads());
+		}
+	}
+
+	@Test
+	@DisplayName("Each task runs on its own thread")
+	void threadPerTask() throws InterruptedException, ExecutionException, TimeoutException {
+		ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+		List<CompletableFuture<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < SESSIONS; i++) {
+			tasks.add(CompletableFuture.runAsync(() -> sleep(NLPDELAY), executor));
+		}
+		CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).get(NLPDELAY * SESSIONS / 4,
+				TimeUnit.MILLISECONDS);
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@DisplayName("Blocking turns of different sessions do not wait for each other")
+	void blockingTurnsRunConcurrently() throws InterruptedException, ExecutionException, TimeoutException {
+		try (VirtualThreadSessionHost host = new VirtualThreadSessionHost(
+				id -> TestSessions.newWeatherSession(NLPDELAY))) {
+			List<CompletableFuture<List<String>>> questions = new ArrayList<>();
+			List<CompletableFuture<List<String>>> answers = new ArrayList<>();
+			for (int session = 0; session < SESSIONS; session++) {
+				questions.add(host.submit("session" + session, "Wie ist das Wetter?"));
+				answers.add(host.submit("session" + session, "Berlin"));
+			}
+			// processed one after another, the turns would take 80 seconds
+			CompletableFuture.allOf(answers.toArray(new CompletableFuture[0])).get(NLPDELAY * SESSIONS / 4,
+					TimeUnit.MILLISECONDS);
+			for (int session = 0; session < SESSIONS; session++) {
+				assertEquals("Von welchem Ort möchten Sie das Wetter wissen?", questions.get(session).get().get(0));
+				assertTrue(answers.get(session).get().get(0).startsWith("In Berlin sind es"));
+			}
+			assertEquals(SESSIONS, host.getNumberOfSessions());
+		}
+	}
+
+	@Test
+	@DisplayName("Invalid session factory")
+	void invalidSessionFactory() {
+		assertThrows(IllegalArgumentException.class, () -> new VirtualThreadSessionHost(null));
+	}
+
+	@Test
+	@DisplayName("Private constructor of the static class")
+	void privateConstructor() throws NoSuchMethodException {
+		Constructor<VirtualThreads> constructor = VirtualThreads.class.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		InvocationTargetException ex = assertThrows(InvocationTargetException.class, constructor::newInstance);
+		assertEquals("Static class", ex.getCause().getMessage());
+	}
+
+	private static void sleep(long milliseconds) {
+		try {
+			Thread.sleep(milliseconds);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}